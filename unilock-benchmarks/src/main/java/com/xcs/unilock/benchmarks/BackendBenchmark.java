@@ -0,0 +1,85 @@
+package com.xcs.unilock.benchmarks;
+
+import com.xcs.unilock.UniLockDistributed;
+import com.xcs.unilock.UniLockResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各个后端获取并释放锁的吞吐量与延迟，分别在 1、8、64 个线程下运行。
+ *
+ * <p>{@code hot} 时所有线程竞争同一把锁，{@code uniform} 时在 {@code keyCount} 把锁中均匀随机选择。
+ * 后端的地址见 {@link Backends}，例如只测试 ZooKeeper：{@code java -jar benchmarks.jar BackendBenchmark -p backend=zookeeper}。</p>
+ *
+ * @author xcs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class BackendBenchmark {
+
+    @Param({"local", "jedis", "redisson", "zookeeper", "etcd", "mysql"})
+    public String backend;
+
+    @Param({"uniform", "hot"})
+    public String distribution;
+
+    @Param("1024")
+    public int keyCount;
+
+    /**
+     * 获取锁的超时时间（毫秒）。
+     */
+    @Param("1000")
+    public long waitTime;
+
+    private Backends.Backend handle;
+
+    private boolean hot;
+
+    @Setup
+    public void setup() throws Exception {
+        handle = Backends.start(backend);
+        hot = "hot".equals(distribution);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        handle.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads1() {
+        return lockUnlock(handle.getLock());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean threads8() {
+        return lockUnlock(handle.getLock());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean threads64() {
+        return lockUnlock(handle.getLock());
+    }
+
+    /**
+     * 获取一把锁后立即释放。
+     *
+     * @param lock 分布式锁实现
+     * @return 是否获取并释放成功
+     */
+    private <T> boolean lockUnlock(UniLockDistributed<T> lock) {
+        String lockName = hot ? "bench:hot" : "bench:" + ThreadLocalRandom.current().nextInt(keyCount);
+        UniLockResponse<T> response = lock.tryLock(lockName, 30000, waitTime);
+        return response != null && lock.unlock(response);
+    }
+}
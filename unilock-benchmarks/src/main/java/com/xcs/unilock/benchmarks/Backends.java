@@ -0,0 +1,129 @@
+package com.xcs.unilock.benchmarks;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.etcd.EtcdUniLockDistributed;
+import com.xcs.unilock.jedis.JedisUniLockDistributed;
+import com.xcs.unilock.local.LocalUniLockDistributed;
+import com.xcs.unilock.mysql.MySqlUniLockDistributed;
+import com.xcs.unilock.redisson.RedissonUniLockDistributed;
+import com.xcs.unilock.zookeeper.ZookeeperUniLockDistributed;
+import io.etcd.jetcd.Client;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * 创建基准测试使用的分布式锁实现。
+ *
+ * <p>local 为进程内的内存锁；ZooKeeper 未指定地址时在进程内启动 {@link TestingServer}；其余后端连接本地的服务，地址通过系统属性指定：</p>
+ * <ul>
+ *     <li>{@code unilock.bench.redis}：Redis 地址，默认 {@code localhost:6379}，jedis 与 redisson 共用</li>
+ *     <li>{@code unilock.bench.zookeeper}：ZooKeeper 地址，默认使用进程内的 {@link TestingServer}</li>
+ *     <li>{@code unilock.bench.etcd}：etcd 地址，默认 {@code http://localhost:2379}</li>
+ *     <li>{@code unilock.bench.mysql.url}、{@code unilock.bench.mysql.username}、{@code unilock.bench.mysql.password}：MySQL 连接信息</li>
+ * </ul>
+ *
+ * @author xcs
+ */
+final class Backends {
+
+    /**
+     * 连接池的最大连接数，不小于基准测试的最大线程数。
+     */
+    private static final int MAX_CONNECTIONS = 128;
+
+    private Backends() {
+    }
+
+    /**
+     * 创建指定名称的分布式锁实现。
+     *
+     * @param name 后端名称：local、jedis、redisson、zookeeper、etcd 或 mysql
+     * @return 分布式锁实现及其占用的资源
+     * @throws Exception 连接或启动后端失败
+     */
+    static Backend start(String name) throws Exception {
+        switch (name) {
+            case "local": {
+                return new Backend(new LocalUniLockDistributed(), () -> {
+                });
+            }
+            case "jedis": {
+                ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+                poolConfig.setMaxTotal(MAX_CONNECTIONS);
+                poolConfig.setMaxIdle(MAX_CONNECTIONS);
+                String[] address = System.getProperty("unilock.bench.redis", "localhost:6379").split(":");
+                JedisPooled jedis = new JedisPooled(poolConfig, address[0], Integer.parseInt(address[1]));
+                return new Backend(new JedisUniLockDistributed(jedis), jedis);
+            }
+            case "redisson": {
+                Config config = new Config();
+                config.useSingleServer()
+                        .setAddress("redis://" + System.getProperty("unilock.bench.redis", "localhost:6379"))
+                        .setConnectionPoolSize(MAX_CONNECTIONS);
+                RedissonClient redissonClient = Redisson.create(config);
+                return new Backend(new RedissonUniLockDistributed(redissonClient), redissonClient::shutdown);
+            }
+            case "zookeeper": {
+                String connectString = System.getProperty("unilock.bench.zookeeper");
+                TestingServer server = connectString == null ? new TestingServer(true) : null;
+                CuratorFramework curatorFramework = CuratorFrameworkFactory.newClient(server != null ? server.getConnectString() : connectString,
+                        new ExponentialBackoffRetry(1000, 3));
+                curatorFramework.start();
+                curatorFramework.blockUntilConnected();
+                return new Backend(new ZookeeperUniLockDistributed(curatorFramework), () -> {
+                    curatorFramework.close();
+                    if (server != null) {
+                        server.close();
+                    }
+                });
+            }
+            case "etcd": {
+                Client client = Client.builder().endpoints(System.getProperty("unilock.bench.etcd", "http://localhost:2379").split(",")).build();
+                return new Backend(new EtcdUniLockDistributed(client), client);
+            }
+            case "mysql": {
+                DruidDataSource dataSource = new DruidDataSource();
+                dataSource.setUrl(System.getProperty("unilock.bench.mysql.url", "jdbc:mysql://localhost:3306/unilock"));
+                dataSource.setUsername(System.getProperty("unilock.bench.mysql.username", "root"));
+                dataSource.setPassword(System.getProperty("unilock.bench.mysql.password", "root"));
+                dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
+                dataSource.setMaxActive(MAX_CONNECTIONS);
+                return new Backend(new MySqlUniLockDistributed(dataSource), dataSource::close);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + name);
+        }
+    }
+
+    /**
+     * 分布式锁实现及其占用的资源，关闭时释放资源。
+     */
+    static final class Backend implements AutoCloseable {
+
+        private final AbstractUniLockDistributed<?> lock;
+
+        private final AutoCloseable resources;
+
+        Backend(AbstractUniLockDistributed<?> lock, AutoCloseable resources) {
+            this.lock = lock;
+            this.resources = resources;
+        }
+
+        AbstractUniLockDistributed<?> getLock() {
+            return lock;
+        }
+
+        @Override
+        public void close() throws Exception {
+            resources.close();
+        }
+    }
+}
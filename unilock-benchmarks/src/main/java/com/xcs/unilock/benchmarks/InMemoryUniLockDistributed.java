@@ -0,0 +1,53 @@
+package com.xcs.unilock.benchmarks;
+
+import com.xcs.unilock.AbstractUniLockDistributed;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于 ConcurrentHashMap 的分布式锁实现，没有任何网络开销，用于测量 {@link AbstractUniLockDistributed} 和拦截器自身的开销。
+ *
+ * @author xcs
+ */
+public class InMemoryUniLockDistributed extends AbstractUniLockDistributed<String> {
+
+    /**
+     * 锁的名称与持有者标识的映射。
+     */
+    private final ConcurrentMap<String, String> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 是否启用锁续期。
+     */
+    private final boolean renewal;
+
+    public InMemoryUniLockDistributed(boolean renewal) {
+        this.renewal = renewal;
+    }
+
+    @Override
+    public boolean reentrant() {
+        return true;
+    }
+
+    @Override
+    public boolean renewal() {
+        return renewal;
+    }
+
+    @Override
+    public String doLock(String lockName, String lockValue, long leaseTime, long waitTime) {
+        return locks.putIfAbsent(lockName, lockValue) == null ? lockValue : null;
+    }
+
+    @Override
+    public void doUnlock(String lockName, String lockValue, String instance) {
+        locks.remove(lockName, lockValue);
+    }
+
+    @Override
+    public void doRenewal(String lockName, String lockValue, long leaseTime) {
+        // 内存中的锁不会过期，无需续期
+    }
+}
@@ -0,0 +1,72 @@
+package com.xcs.unilock.benchmarks;
+
+import com.xcs.unilock.UniLockResponse;
+import com.xcs.unilock.timer.HashedWheelTimer;
+import com.xcs.unilock.timer.Timeout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 锁续期调度的开销：获取锁时在时间轮中登记续期任务，释放锁时取消。
+ *
+ * @author xcs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenewalSchedulerBenchmark {
+
+    /**
+     * 为每个线程分配不同的锁名称。
+     */
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    /**
+     * 是否启用锁续期，关闭时作为对照。
+     */
+    @Param({"false", "true"})
+    public boolean renewal;
+
+    private HashedWheelTimer timer;
+
+    private InMemoryUniLockDistributed lock;
+
+    @Setup
+    public void setup() {
+        timer = new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512, 2);
+        lock = new InMemoryUniLockDistributed(renewal);
+        lock.setRenewalTimer(timer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        timer.stop();
+    }
+
+    /**
+     * 每个线程的锁名称。
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final String lockName = "bench:renewal:" + THREAD_IDS.incrementAndGet();
+    }
+
+    @Benchmark
+    public boolean tryLockUnlock(ThreadState state) {
+        UniLockResponse<String> response = lock.tryLock(state.lockName, 30000, 0);
+        return lock.unlock(response);
+    }
+
+    @Benchmark
+    public boolean newTimeoutCancel() {
+        Timeout timeout = timer.newTimeout(t -> {
+        }, 10, TimeUnit.SECONDS);
+        return timeout.cancel();
+    }
+}
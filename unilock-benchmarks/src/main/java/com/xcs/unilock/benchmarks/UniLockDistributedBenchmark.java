@@ -0,0 +1,81 @@
+package com.xcs.unilock.benchmarks;
+
+import com.xcs.unilock.UniLockResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link com.xcs.unilock.AbstractUniLockDistributed} 获取与释放锁的开销，后端为内存实现。
+ *
+ * <p>每个线程使用自己的锁名称，测量的是无竞争时框架自身的开销，包括持有者标识的生成、重入登记和本地锁。</p>
+ *
+ * @author xcs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UniLockDistributedBenchmark {
+
+    /**
+     * 为每个线程分配不同的锁名称。
+     */
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    /**
+     * 是否在远程锁之前启用本地锁。
+     */
+    @Param({"false", "true"})
+    public boolean localLockEnabled;
+
+    private InMemoryUniLockDistributed lock;
+
+    @Setup
+    public void setup() {
+        lock = new InMemoryUniLockDistributed(false);
+        lock.setLocalLockEnabled(localLockEnabled);
+    }
+
+    /**
+     * 每个线程的锁名称，以及用于测量重入的已持有的锁。
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private String lockName;
+
+        private String heldLockName;
+
+        private UniLockResponse<String> held;
+
+        @Setup
+        public void setup(UniLockDistributedBenchmark benchmark) {
+            int threadId = THREAD_IDS.incrementAndGet();
+            lockName = "bench:lock:" + threadId;
+            heldLockName = "bench:held:" + threadId;
+            // 由执行基准测试的线程持有，之后的获取均为重入
+            held = benchmark.lock.tryLock(heldLockName, 30000, 0);
+        }
+
+        @TearDown
+        public void tearDown(UniLockDistributedBenchmark benchmark) {
+            benchmark.lock.unlock(held);
+        }
+    }
+
+    @Benchmark
+    public boolean tryLockUnlock(ThreadState state) {
+        UniLockResponse<String> response = lock.tryLock(state.lockName, 30000, 0);
+        return lock.unlock(response);
+    }
+
+    @Benchmark
+    public boolean reentrantTryLockUnlock(ThreadState state) {
+        UniLockResponse<String> response = lock.tryLock(state.heldLockName, 30000, 0);
+        return lock.unlock(response);
+    }
+}
@@ -0,0 +1,92 @@
+package com.xcs.unilock.benchmarks;
+
+import com.xcs.unilock.annotation.UniLock;
+import com.xcs.unilock.aop.UniLockAdvisor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link com.xcs.unilock.aop.UniLockInterceptor} 拦截方法的开销，比较字面量锁名称、SpEL 锁名称与名称模板，后端为内存实现。
+ * SpEL 锁名称与名称模板由 unilock-processor 在编译期生成提取器。
+ *
+ * @author xcs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UniLockInterceptorBenchmark {
+
+    /**
+     * 为每个线程分配不同的参数，SpEL 锁名称之间不产生竞争。
+     */
+    private static final AtomicLong THREAD_IDS = new AtomicLong();
+
+    private OrderService proxy;
+
+    private OrderService target;
+
+    @Setup
+    public void setup() {
+        target = new OrderService();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new UniLockAdvisor(new InMemoryUniLockDistributed(false)));
+        proxy = (OrderService) proxyFactory.getProxy();
+    }
+
+    /**
+     * 每个线程的订单号。
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final long orderId = THREAD_IDS.incrementAndGet();
+    }
+
+    @Benchmark
+    public long baseline(ThreadState state) {
+        return target.literal(state.orderId);
+    }
+
+    @Benchmark
+    public long literalName(ThreadState state) {
+        return proxy.literal(state.orderId);
+    }
+
+    @Benchmark
+    public long spelName(ThreadState state) {
+        return proxy.spel(state.orderId);
+    }
+
+    @Benchmark
+    public long templateName(ThreadState state) {
+        return proxy.template(state.orderId);
+    }
+
+    /**
+     * 被拦截的服务。
+     */
+    public static class OrderService {
+
+        @UniLock(name = "bench:order", waitTime = 1000)
+        public long literal(long orderId) {
+            return orderId;
+        }
+
+        @UniLock(name = "'bench:order:' + #orderId", waitTime = 1000)
+        public long spel(long orderId) {
+            return orderId;
+        }
+
+        @UniLock(name = "bench:order:{#orderId}", waitTime = 1000)
+        public long template(long orderId) {
+            return orderId;
+        }
+    }
+}
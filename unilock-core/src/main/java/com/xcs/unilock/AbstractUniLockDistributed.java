@@ -1,13 +1,19 @@
 package com.xcs.unilock;
 
-import lombok.Data;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import com.xcs.unilock.timer.HashedWheelTimer;
+import com.xcs.unilock.timer.Timeout;
+import com.xcs.unilock.timer.TimerTask;
+import com.xcs.unilock.wait.ExponentialBackoffWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 抽象分布式锁类，提供了分布式锁的基本实现。
@@ -24,25 +30,74 @@ public abstract class AbstractUniLockDistributed<T> implements UniLockDistribute
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractUniLockDistributed.class);
 
     /**
-     * 线程本地变量，存储每个线程持有的锁及其持有计数。
-     *
-     * <p>每个线程的锁上下文以锁名称为键，持有计数的原子整数为值。</p>
+     * 可重入锁的持有登记表，记录每个持有者（见 {@link LockOwner}）持有的锁及其重入次数。
      */
-    private final ThreadLocal<Map<String, UniLockHolder<T>>> lockCountHolder = ThreadLocal.withInitial(ConcurrentHashMap::new);
+    private final LockHoldRegistry<T> lockHolds = new LockHoldRegistry<>();
 
     /**
-     * 定时调度线程池，用于定期延长锁的过期时间。
+     * 时间轮定时器，用于定期延长锁的过期时间。
      *
-     * <p>使用一个固定大小的线程池来执行锁续期任务。</p>
+     * <p>未显式设置时，使用所有分布式锁实例共享的默认时间轮。</p>
      */
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+    private volatile HashedWheelTimer renewalTimer;
 
     /**
-     * 存储锁名称与续期任务的映射。
+     * 存储锁的持有标识（锁的值 + 锁名称）与续期任务的映射。
      *
      * <p>用于在锁释放时取消相应的续期任务。</p>
      */
-    private final ConcurrentMap<String, ScheduledFuture<?>> lockRenewalTasks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RenewalTask> lockRenewalTasks = new ConcurrentHashMap<>();
+
+    /**
+     * 已经到期、等待合并续期的任务。
+     *
+     * <p>同一个 tick 内到期的续期任务会被合并，通过 {@link #doBatchRenewal(List)} 一次性续期。</p>
+     */
+    private final Queue<RenewalTask> dueRenewals = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 是否已经安排了一次合并续期。
+     */
+    private final AtomicBoolean renewalFlushScheduled = new AtomicBoolean();
+
+    /**
+     * 获取锁失败后的等待策略。
+     *
+     * <p>未显式设置时，使用具体实现提供的 {@link #defaultWaitStrategy()}。</p>
+     */
+    private volatile WaitStrategy waitStrategy;
+
+    /**
+     * 本地锁表，开启后同一 JVM 内同一把锁只有一个持有者会去竞争远程锁。
+     */
+    private final LocalKeyedLocks localLocks = new LocalKeyedLocks();
+
+    /**
+     * 是否在远程锁之前启用本地锁。
+     */
+    private volatile boolean localLockEnabled;
+
+    /**
+     * 持有者的剩余持有时间超过剩余等待时间时是否直接放弃获取锁。
+     */
+    private volatile boolean leaseAwareFailFast;
+
+    /**
+     * 执行阻塞式锁操作的线程池，用于没有原生异步能力的实现。
+     *
+     * <p>未显式设置时，使用所有分布式锁实例共享的默认线程池。</p>
+     */
+    private volatile Executor asyncExecutor;
+
+    /**
+     * 指标记录器，默认不记录任何指标。
+     */
+    private volatile UniLockMetrics metrics = UniLockMetrics.NOOP;
+
+    /**
+     * 指标中使用的分布式锁实现名称。
+     */
+    private final String backendName = UniLockMetrics.backendName(getClass());
 
     /**
      * 执行锁的获取操作。
@@ -68,114 +123,1092 @@ public abstract class AbstractUniLockDistributed<T> implements UniLockDistribute
      */
     public abstract void doUnlock(String lockName, String lockValue, T instance) throws Exception;
 
+    /**
+     * 取得本次获取锁对应的栅栏令牌。
+     *
+     * <p>获取锁成功后、创建锁的响应之前调用。同一把锁的每次获取得到的令牌应当单调递增，
+     * 后一个持有者的令牌总是大于前一个持有者的令牌。默认不提供令牌，返回 {@link UniLockResponse#NO_FENCING_TOKEN}。</p>
+     *
+     * @param lockName  锁的名称
+     * @param lockValue 锁的值
+     * @param mode      锁的模式
+     * @param instance  获取锁返回的锁实例
+     * @return 栅栏令牌
+     */
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, T instance) {
+        return UniLockResponse.NO_FENCING_TOKEN;
+    }
+
+    /**
+     * 指定模式的锁是否由后端自身记录重入次数。
+     *
+     * <p>返回 {@code true} 时不再在本地登记持有的锁：每次获取都交给后端执行，后端根据 {@link #newLockValue(LockMode)}
+     * 返回的持有者标识识别重入，每次释放减少一次重入次数。持有者标识属于 {@link LockOwner}，同步获取的锁只能由同一持有者释放，
+     * 见 {@link #ownedByCurrentOwner(String, LockMode)}。仅在 {@link #reentrant()} 返回 {@code true} 时有意义，默认返回 {@code false}。</p>
+     *
+     * @param mode 锁的模式
+     * @return 是否由后端记录重入次数
+     */
+    protected boolean serverReentrant(LockMode mode) {
+        return false;
+    }
+
+    /**
+     * 为一次锁的获取生成锁的值。
+     *
+     * <p>默认每次生成新的持有者标识；由后端记录重入次数的实现应返回同一持有者相同的标识。</p>
+     *
+     * @param mode 锁的模式
+     * @return 锁的值
+     */
+    protected String newLockValue(LockMode mode) {
+        return OwnerTokens.next();
+    }
+
+    /**
+     * 由后端记录重入次数时，判断锁的值是否属于当前持有者（见 {@link LockOwner#current()}）。
+     *
+     * <p>同一持有者的所有同步获取共用一个持有者标识，如果允许其他持有者释放，线程池中的线程在移交释放之后再次获取同一把锁，
+     * 会被当作重入而破坏互斥，因此释放之前要求锁的值属于当前持有者，否则抛出 {@link IllegalMonitorStateException}。
+     * 在其他线程中释放时，需要先绑定获取锁时的持有者。异步获取的锁使用独立的持有者标识，可以在任意线程中释放。默认返回 {@code true}。</p>
+     *
+     * @param lockValue 锁的值
+     * @param mode      锁的模式
+     * @return 锁的值属于当前持有者或者不与持有者绑定时返回 {@code true}
+     */
+    protected boolean ownedByCurrentOwner(String lockValue, LockMode mode) {
+        return true;
+    }
+
+    /**
+     * 订阅锁的释放通知。
+     *
+     * <p>第一次尝试因锁已被持有而失败后调用，订阅成功时立即重试一次，以免错过订阅之前发出的通知；
+     * 之后每次重试前阻塞在订阅上，锁被释放时提前结束等待。默认不支持释放通知，返回 null，按等待策略轮询。</p>
+     *
+     * @param lockName 锁的名称
+     * @param mode     锁的模式
+     * @return 释放通知的订阅，不支持时返回 null
+     */
+    protected UnlockSubscription subscribeUnlock(String lockName, LockMode mode) {
+        return null;
+    }
+
+    /**
+     * 以指定的模式执行锁的获取操作。
+     *
+     * <p>默认只支持 {@link LockMode#EXCLUSIVE}，即调用 {@link #doLock(String, String, long, long)}；支持读写锁的实现需要覆盖此方法。</p>
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param lockValue 锁的值
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  尝试获取锁的超时时间（毫秒）
+     * @return 获取成功时返回锁实例，否则返回 null
+     * @throws Exception 在获取锁过程中可能抛出的异常
+     */
+    public T doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        throw new UnsupportedOperationException("lock mode " + mode + " not supported");
+    }
+
+    /**
+     * 以指定的模式执行锁的获取操作，获取失败时填写锁的竞争信息。
+     *
+     * <p>默认调用 {@link #doLock(String, LockMode, String, long, long)}，不提供竞争信息；
+     * 能够在同一次网络往返中取得当前持有者剩余持有时间的实现可以覆盖此方法。</p>
+     *
+     * @param lockName   锁的名称
+     * @param mode       锁的模式
+     * @param lockValue  锁的值
+     * @param leaseTime  锁的过期时间（毫秒）
+     * @param waitTime   尝试获取锁的超时时间（毫秒）
+     * @param contention 获取失败时填写的竞争信息
+     * @return 获取成功时返回锁实例，否则返回 null
+     * @throws Exception 在获取锁过程中可能抛出的异常
+     */
+    public T doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime, LockContention contention) throws Exception {
+        return doLock(lockName, mode, lockValue, leaseTime, waitTime);
+    }
+
+    /**
+     * 以指定的模式执行锁的释放操作。
+     *
+     * <p>默认调用 {@link #doUnlock(String, String, Object)}，适用于锁实例本身能够区分模式的实现。</p>
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param lockValue 锁的值
+     * @param instance  锁实例
+     * @throws Exception 在释放锁过程中可能抛出的异常
+     */
+    public void doUnlock(String lockName, LockMode mode, String lockValue, T instance) throws Exception {
+        doUnlock(lockName, lockValue, instance);
+    }
+
+    /**
+     * 执行一组锁的获取操作，要么全部获取，要么一把都不获取。
+     *
+     * <p>默认按顺序逐个调用 {@link #doLock(String, String, long, long)}，任意一把锁获取失败时释放已获取的锁；
+     * 具体实现可以覆盖此方法，在一次网络往返中原子地完成全部获取。</p>
+     *
+     * @param lockNames 已排序的锁的名称
+     * @param lockValue 锁的值，所有锁共用
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  尝试获取锁的超时时间（毫秒）
+     * @return 与锁名称一一对应的锁实例，获取失败时返回 null
+     * @throws Exception 在获取锁过程中可能抛出的异常
+     */
+    public List<T> doLockAll(List<String> lockNames, String lockValue, long leaseTime, long waitTime) throws Exception {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        List<T> instances = new ArrayList<>(lockNames.size());
+        try {
+            for (String lockName : lockNames) {
+                long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+                T instance = doLock(lockName, lockValue, leaseTime, remainingMillis);
+                if (instance == null) {
+                    break;
+                }
+                instances.add(instance);
+            }
+        } finally {
+            // 未能全部获取，逆序释放已获取的锁
+            if (instances.size() < lockNames.size()) {
+                for (int i = instances.size() - 1; i >= 0; i--) {
+                    try {
+                        doUnlock(lockNames.get(i), lockValue, instances.get(i));
+                    } catch (Exception e) {
+                        LOGGER.error("Failed to unlock: {}", lockNames.get(i), e);
+                    }
+                }
+            }
+        }
+        return instances.size() == lockNames.size() ? instances : null;
+    }
+
+    /**
+     * 执行一组锁的释放操作。
+     *
+     * <p>默认逐个调用 {@link #doUnlock(String, String, Object)}；具体实现可以覆盖此方法，在一次网络往返中完成全部释放。</p>
+     *
+     * @param responses 锁的响应
+     * @throws Exception 在释放锁过程中可能抛出的异常，所有锁都会尝试释放，之后抛出第一个异常
+     */
+    public void doUnlockAll(List<UniLockResponse<T>> responses) throws Exception {
+        Exception failure = null;
+        for (int i = responses.size() - 1; i >= 0; i--) {
+            UniLockResponse<T> response = responses.get(i);
+            try {
+                doUnlock(response.getLockName(), response.getLockValue(), response.getInstance());
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 异步执行锁的获取操作。
+     *
+     * <p>默认在 {@link #getAsyncExecutor()} 中执行 {@link #doLock(String, String, long, long)}；具备原生异步能力的实现应覆盖此方法，
+     * 且获取到的锁不能与执行线程绑定。</p>
+     *
+     * @param lockName  锁的名称
+     * @param lockValue 锁的值
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  尝试获取锁的超时时间（毫秒）
+     * @return 获取成功时以锁实例完成，获取失败时以 {@code null} 完成
+     */
+    public CompletableFuture<T> doLockAsync(String lockName, String lockValue, long leaseTime, long waitTime) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return doLock(lockName, lockValue, leaseTime, waitTime);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, getAsyncExecutor());
+    }
+
+    /**
+     * 异步执行锁的释放操作。
+     *
+     * <p>默认在 {@link #getAsyncExecutor()} 中执行 {@link #doUnlock(String, String, Object)}；具备原生异步能力的实现应覆盖此方法。</p>
+     *
+     * @param lockName  锁的名称
+     * @param lockValue 锁的值
+     * @param instance  锁实例
+     * @return 释放完成时完成的 Future
+     */
+    public CompletableFuture<Void> doUnlockAsync(String lockName, String lockValue, T instance) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                doUnlock(lockName, lockValue, instance);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, getAsyncExecutor());
+    }
+
     @Override
     public UniLockResponse<T> tryLock(String lockName, long leaseTime, long waitTime) {
-        boolean customReentrant = reentrant();
+        return tryLock(lockName, leaseTime, waitTime, getWaitStrategy());
+    }
+
+    @Override
+    public UniLockResponse<T> tryLock(String lockName, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        return tryLock(lockName, LockMode.EXCLUSIVE, leaseTime, waitTime, waitStrategy);
+    }
+
+    @Override
+    public UniLockResponse<T> tryLock(String lockName, LockMode mode, long leaseTime, long waitTime) {
+        return tryLock(lockName, mode, leaseTime, waitTime, getWaitStrategy());
+    }
+
+    @Override
+    public UniLockResponse<T> tryLock(String lockName, LockMode mode, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        boolean customReentrant = clientReentrant(mode);
         // 自定义重入锁
         if (customReentrant) {
-            Map<String, UniLockHolder<T>> locks = lockCountHolder.get();
-            // 如果当前线程已经持有该锁，则直接返回成功响应
-            if (locks.containsKey(lockName)) {
-                UniLockHolder<T> holder = locks.get(lockName);
-                // 当前线程已经持有该锁，计数器加1
-                holder.getLockCount().incrementAndGet();
-                // 返回表示锁已经成功获取的响应对象
-                return holder.getResponse();
-            }
-        }
-        // 将超时时间转换为毫秒
-        long timeoutMillis = TimeUnit.MILLISECONDS.toMillis(waitTime);
-        // 记录开始尝试获取锁的时间
-        long startTime = System.currentTimeMillis();
+            // 如果当前持有者已经以相同模式持有该锁，则计数器加1并直接返回成功响应
+            UniLockResponse<T> held = lockHolds.reenter(lockName, mode);
+            if (held != null) {
+                metrics.recordReentrant(backendName);
+                return held;
+            }
+        }
+        // 计算获取锁的截止时间
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        // 先在本地排队，只有持有本地锁的持有者才去竞争远程锁；读写锁需要允许读锁并发，不使用本地锁
+        boolean localLocked = localLocked(mode);
+        if (localLocked && !tryLocalLock(lockName, deadlineNanos)) {
+            metrics.recordAcquire(backendName, UniLockMetrics.Outcome.TIMEOUT, System.nanoTime() - startNanos, 0);
+            return null;
+        }
+        UniLockResponse<T> response = null;
+        try {
+            response = doTryLock(lockName, mode, leaseTime, startNanos, deadlineNanos, waitStrategy);
+        } finally {
+            // 远程锁获取失败，释放本地锁
+            if (response == null && localLocked) {
+                localLocks.unlock(lockName);
+            }
+        }
+        if (response != null && customReentrant) {
+            // 登记当前持有者持有该锁
+            lockHolds.register(response);
+        }
+        return response;
+    }
+
+    /**
+     * 在截止时间之前循环获取远程锁。
+     *
+     * @param lockName      锁的名称
+     * @param mode          锁的模式
+     * @param leaseTime     锁的过期时间（毫秒）
+     * @param startNanos    开始获取锁的时间（纳秒）
+     * @param deadlineNanos 截止时间（纳秒）
+     * @param waitStrategy  等待策略
+     * @return 锁的响应，获取失败时返回 null
+     */
+    private UniLockResponse<T> doTryLock(String lockName, LockMode mode, long leaseTime, long startNanos, long deadlineNanos, WaitStrategy waitStrategy) {
         // 用于标识锁持有者
-        String lockValue = UUID.randomUUID().toString();
-        // 锁已经存在，等待一段时间后重试
-        do {
-            try {
-                // 执行锁的获取
-                T t = doLock(lockName, lockValue, leaseTime, waitTime);
-                if (t != null) {
-                    UniLockResponse<T> response = new UniLockResponse<>(lockName, lockValue, t);
-                    // 则将锁上下文存储到当前线程的本地变量中
-                    if (customReentrant) {
-                        lockCountHolder.get().put(lockName, new UniLockHolder<>(response));
+        String lockValue = newLockValue(mode);
+        // 已经失败的尝试次数
+        int attempt = 0;
+        // 最后一次尝试是否发生异常
+        boolean failed;
+        // 锁的释放通知，第一次尝试失败后订阅
+        UnlockSubscription subscription = null;
+        // 本次尝试之前已经收到的释放通知数量，刚刚订阅时为 -1，表示立即重试
+        long generation = 0;
+        // 获取失败时当前持有者的剩余持有时间
+        LockContention contention = new LockContention();
+        // 锁已经存在，由等待策略决定等待多久后重试
+        try {
+            do {
+                failed = false;
+                contention.reset();
+                if (subscription != null) {
+                    generation = subscription.generation();
+                }
+                try {
+                    // 执行锁的获取，后端自身的等待时间不超过剩余的截止时间
+                    long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+                    T t = doLock(lockName, mode, lockValue, leaseTime, remainingMillis, contention);
+                    if (t != null) {
+                        UniLockResponse<T> response = new UniLockResponse<>(lockName, lockValue, t, mode, fencingToken(lockName, lockValue, mode, t));
+                        // 如果支持锁续期，则启动一个定时任务来延长锁的过期时间
+                        if (renewal()) {
+                            scheduleExpirationRenewal(response, leaseTime);
+                        }
+                        metrics.recordAcquire(backendName, UniLockMetrics.Outcome.SUCCESS, System.nanoTime() - startNanos, attempt + 1);
+                        return response;
+                    }
+                    // 持有者在截止时间之前不会过期，放弃获取锁
+                    if (leaseAwareFailFast && contention.getRemainingLeaseNanos() > deadlineNanos - System.nanoTime()) {
+                        attempt++;
+                        break;
                     }
-                    // 如果支持锁续期，则启动一个定时任务来延长锁的过期时间
-                    if (renewal()) {
-                        scheduleExpirationRenewal(lockName, lockValue, leaseTime);
+                    if (subscription == null && attempt == 0 && deadlineNanos - System.nanoTime() > 0) {
+                        subscription = subscribeUnlock(lockName, mode);
+                        generation = -1;
                     }
-                    return response;
+                } catch (UnsupportedOperationException e) {
+                    // 不支持的锁模式，重试没有意义
+                    throw e;
+                } catch (Exception e) {
+                    failed = true;
+                    LOGGER.error("Failed to acquire lock: {}", lockName, e);
                 }
-                TimeUnit.MILLISECONDS.sleep(100);
-            } catch (Exception e) {
-                LOGGER.error("Failed to acquire lock: {}", lockName, e);
+            } while (subscription != null || contention.getRemainingLeaseNanos() != LockContention.UNKNOWN
+                    ? awaitRetry(lockName, waitStrategy, ++attempt, deadlineNanos, subscription, generation, contention.getRemainingLeaseNanos())
+                    : awaitRetry(lockName, waitStrategy, ++attempt, deadlineNanos));
+        } finally {
+            if (subscription != null) {
+                subscription.close();
             }
-        } while (System.currentTimeMillis() - startTime < timeoutMillis);
+        }
         // 获取锁失败
+        metrics.recordAcquire(backendName, failed ? UniLockMetrics.Outcome.ERROR : UniLockMetrics.Outcome.TIMEOUT, System.nanoTime() - startNanos, attempt);
         return null;
     }
 
     @Override
     public boolean unlock(UniLockResponse<T> response) {
-        if (reentrant()) {
-            // 获取当前线程持有的锁
-            Map<String, UniLockHolder<T>> locks = lockCountHolder.get();
-            // 当前线程没有持有该锁，抛出异常
-            if (!locks.containsKey(response.getLockName())) {
-                throw new IllegalMonitorStateException("Current thread does not hold the lock: " + response.getLockName());
-            }
-            // 减少持有锁的计数器
-            int holdCount = locks.get(response.getLockName()).getLockCount().decrementAndGet();
-            // 如果计数器变为 0，表示当前线程已经完全释放了锁
-            if (holdCount == 0) {
-                // 锁完全释放，从线程本地变量中移除
-                locks.remove(response.getLockName());
-            } else {
+        checkOwner(response);
+        if (clientReentrant(response.getMode())) {
+            // 减少持有锁的计数器，当前持有者没有持有该锁时抛出异常
+            // 计数器不为 0，表示当前持有者仍然持有该锁
+            if (lockHolds.release(response.getLockName(), response.getMode()) != 0) {
                 return true;
             }
         }
         // 执行锁的释放
         try {
             // 如果支持锁续期，则取消定时任务
-            if (renewal()) {
-                // 取消定时任务
-                ScheduledFuture<?> task = lockRenewalTasks.remove(response.getLockName());
-                if (task != null) {
-                    task.cancel(false);
+            cancelExpirationRenewal(response);
+            doUnlock(response.getLockName(), response.getMode(), response.getLockValue(), response.getInstance());
+            return true;
+        } catch (Exception e) {
+            metrics.recordUnlockFailure(backendName);
+            return false;
+        } finally {
+            if (localLocked(response.getMode())) {
+                localLocks.unlock(response.getLockName());
+            }
+        }
+    }
+
+    @Override
+    public List<UniLockResponse<T>> tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime) {
+        return tryLockAll(lockNames, leaseTime, waitTime, getWaitStrategy());
+    }
+
+    /**
+     * 使用指定的等待策略，尝试在指定的时间内获取一组锁，要么全部获取，要么一把都不获取。
+     *
+     * @param lockNames    锁的名称
+     * @param leaseTime    过期时间防止死锁 (ms)
+     * @param waitTime     尝试获取锁超时时间 (ms)
+     * @param waitStrategy 获取锁失败后的等待策略
+     * @return 按锁名称排序的锁的响应，获取失败时返回 null
+     */
+    @Override
+    public List<UniLockResponse<T>> tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        // 去重并排序，保证所有调用方以相同的顺序获取锁
+        List<String> sortedNames = new ArrayList<>(new TreeSet<>(lockNames));
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        List<UniLockResponse<T>> responses = new ArrayList<>(Collections.nCopies(sortedNames.size(), null));
+        // 当前持有者已经持有的锁直接重入，其余的锁需要获取
+        List<String> reentered = new ArrayList<>();
+        List<String> pendingNames = new ArrayList<>();
+        boolean customReentrant = clientReentrant(LockMode.EXCLUSIVE);
+        for (int i = 0; i < sortedNames.size(); i++) {
+            UniLockResponse<T> held = customReentrant ? lockHolds.reenter(sortedNames.get(i), LockMode.EXCLUSIVE) : null;
+            if (held != null) {
+                metrics.recordReentrant(backendName);
+                reentered.add(sortedNames.get(i));
+                responses.set(i, held);
+            } else {
+                pendingNames.add(sortedNames.get(i));
+            }
+        }
+        List<String> localLocked = new ArrayList<>();
+        List<UniLockResponse<T>> acquired = null;
+        try {
+            // 先在本地按顺序排队
+            if (localLocked(LockMode.EXCLUSIVE)) {
+                for (String lockName : pendingNames) {
+                    if (!tryLocalLock(lockName, deadlineNanos)) {
+                        metrics.recordAcquire(backendName, UniLockMetrics.Outcome.TIMEOUT, System.nanoTime() - startNanos, 0);
+                        return null;
+                    }
+                    localLocked.add(lockName);
+                }
+            }
+            acquired = pendingNames.isEmpty() ? Collections.emptyList() : doTryLockAll(pendingNames, leaseTime, startNanos, deadlineNanos, waitStrategy);
+            if (acquired == null) {
+                return null;
+            }
+        } finally {
+            // 获取失败，撤销重入计数并释放本地锁
+            if (acquired == null) {
+                for (String lockName : reentered) {
+                    lockHolds.release(lockName, LockMode.EXCLUSIVE);
+                }
+                for (String lockName : localLocked) {
+                    localLocks.unlock(lockName);
+                }
+            }
+        }
+        for (UniLockResponse<T> response : acquired) {
+            if (customReentrant) {
+                lockHolds.register(response);
+            }
+            responses.set(sortedNames.indexOf(response.getLockName()), response);
+        }
+        return responses;
+    }
+
+    /**
+     * 在截止时间之前循环获取一组远程锁。
+     *
+     * @param lockNames     已排序的锁的名称
+     * @param leaseTime     锁的过期时间（毫秒）
+     * @param startNanos    开始获取锁的时间（纳秒）
+     * @param deadlineNanos 截止时间（纳秒）
+     * @param waitStrategy  等待策略
+     * @return 锁的响应，获取失败时返回 null
+     */
+    private List<UniLockResponse<T>> doTryLockAll(List<String> lockNames, long leaseTime, long startNanos, long deadlineNanos, WaitStrategy waitStrategy) {
+        String lockValue = newLockValue(LockMode.EXCLUSIVE);
+        int attempt = 0;
+        boolean failed;
+        do {
+            failed = false;
+            try {
+                long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+                List<T> instances = doLockAll(lockNames, lockValue, leaseTime, remainingMillis);
+                if (instances != null) {
+                    List<UniLockResponse<T>> responses = new ArrayList<>(lockNames.size());
+                    for (int i = 0; i < lockNames.size(); i++) {
+                        UniLockResponse<T> response = new UniLockResponse<>(lockNames.get(i), lockValue, instances.get(i), LockMode.EXCLUSIVE,
+                                fencingToken(lockNames.get(i), lockValue, LockMode.EXCLUSIVE, instances.get(i)));
+                        if (renewal()) {
+                            scheduleExpirationRenewal(response, leaseTime);
+                        }
+                        responses.add(response);
+                    }
+                    metrics.recordAcquire(backendName, UniLockMetrics.Outcome.SUCCESS, System.nanoTime() - startNanos, attempt + 1);
+                    return responses;
+                }
+            } catch (Exception e) {
+                failed = true;
+                LOGGER.error("Failed to acquire locks: {}", lockNames, e);
+            }
+        } while (awaitRetry(lockNames.toString(), waitStrategy, ++attempt, deadlineNanos));
+        metrics.recordAcquire(backendName, failed ? UniLockMetrics.Outcome.ERROR : UniLockMetrics.Outcome.TIMEOUT, System.nanoTime() - startNanos, attempt);
+        return null;
+    }
+
+    @Override
+    public boolean unlockAll(List<UniLockResponse<T>> responses) {
+        for (UniLockResponse<T> response : responses) {
+            checkOwner(response);
+        }
+        List<UniLockResponse<T>> releasing = new ArrayList<>(responses.size());
+        for (UniLockResponse<T> response : responses) {
+            // 重入计数不为 0 的锁仍由当前持有者持有
+            if (!clientReentrant(response.getMode()) || lockHolds.release(response.getLockName(), response.getMode()) == 0) {
+                releasing.add(response);
+            }
+        }
+        if (releasing.isEmpty()) {
+            return true;
+        }
+        try {
+            for (UniLockResponse<T> response : releasing) {
+                cancelExpirationRenewal(response);
+            }
+            doUnlockAll(releasing);
+            return true;
+        } catch (Exception e) {
+            metrics.recordUnlockFailure(backendName);
+            return false;
+        } finally {
+            if (localLocked(LockMode.EXCLUSIVE)) {
+                for (UniLockResponse<T> response : releasing) {
+                    localLocks.unlock(response.getLockName());
                 }
             }
-            doUnlock(response.getLockName(), response.getLockValue(), response.getInstance());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>没有原生异步能力的实现在 {@link #getAsyncExecutor()} 中执行阻塞式的获取操作，默认返回 {@code true}。</p>
+     */
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<UniLockResponse<T>> tryLockAsync(String lockName, long leaseTime, long waitTime) {
+        return tryLockAsync(lockName, leaseTime, waitTime, getWaitStrategy());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>重试之间的等待通过定时调度完成，不会阻塞任何线程。</p>
+     */
+    @Override
+    public CompletableFuture<UniLockResponse<T>> tryLockAsync(String lockName, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        CompletableFuture<UniLockResponse<T>> result = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        attemptLockAsync(result, lockName, OwnerTokens.next(), leaseTime, startNanos, deadlineNanos, waitStrategy, 0);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unlockAsync(UniLockResponse<T> response) {
+        // 如果支持锁续期，则取消定时任务
+        cancelExpirationRenewal(response);
+        CompletableFuture<Void> future;
+        try {
+            future = doUnlockAsync(response.getLockName(), response.getLockValue(), response.getInstance());
+        } catch (Exception e) {
+            LOGGER.error("Failed to unlock: {}", response.getLockName(), e);
+            metrics.recordUnlockFailure(backendName);
+            return CompletableFuture.completedFuture(false);
+        }
+        return future.handle((ignored, e) -> {
+            if (e != null) {
+                LOGGER.error("Failed to unlock: {}", response.getLockName(), e);
+                metrics.recordUnlockFailure(backendName);
+                return false;
+            }
             return true;
+        });
+    }
+
+    /**
+     * 异步地进行一次获取锁的尝试，失败后按照等待策略调度下一次尝试。
+     *
+     * @param result        最终的结果
+     * @param lockName      锁的名称
+     * @param lockValue     锁的值
+     * @param leaseTime     锁的过期时间（毫秒）
+     * @param startNanos    开始获取锁的时间（纳秒）
+     * @param deadlineNanos 截止时间（纳秒）
+     * @param waitStrategy  等待策略
+     * @param attempt       已经失败的尝试次数
+     */
+    private void attemptLockAsync(CompletableFuture<UniLockResponse<T>> result, String lockName, String lockValue, long leaseTime,
+                                  long startNanos, long deadlineNanos, WaitStrategy waitStrategy, int attempt) {
+        // 调用方已经取消
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> future;
+        try {
+            long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+            future = doLockAsync(lockName, lockValue, leaseTime, remainingMillis);
         } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((instance, e) -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof UnsupportedOperationException) {
+                // 不支持异步获取，重试没有意义
+                metrics.recordAcquire(backendName, UniLockMetrics.Outcome.ERROR, System.nanoTime() - startNanos, attempt + 1);
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (e != null) {
+                LOGGER.error("Failed to acquire lock: {}", lockName, e);
+            } else if (instance != null) {
+                UniLockResponse<T> response = new UniLockResponse<>(lockName, lockValue, instance, LockMode.EXCLUSIVE,
+                        fencingToken(lockName, lockValue, LockMode.EXCLUSIVE, instance));
+                // 如果支持锁续期，则启动一个定时任务来延长锁的过期时间
+                if (renewal()) {
+                    scheduleExpirationRenewal(response, leaseTime);
+                }
+                metrics.recordAcquire(backendName, UniLockMetrics.Outcome.SUCCESS, System.nanoTime() - startNanos, attempt + 1);
+                // 调用方已经取消，释放刚刚获取的锁
+                if (!result.complete(response)) {
+                    unlockAsync(response);
+                }
+                return;
+            }
+            // 由等待策略决定是否以及多久之后重试
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            long waitNanos = remainingNanos > 0 ? waitStrategy.nextWaitNanos(attempt + 1, remainingNanos) : -1;
+            if (waitNanos < 0) {
+                metrics.recordAcquire(backendName, e != null ? UniLockMetrics.Outcome.ERROR : UniLockMetrics.Outcome.TIMEOUT,
+                        System.nanoTime() - startNanos, attempt + 1);
+                result.complete(null);
+            } else if (waitNanos == 0) {
+                getAsyncExecutor().execute(() -> attemptLockAsync(result, lockName, lockValue, leaseTime, startNanos, deadlineNanos, waitStrategy, attempt + 1));
+            } else {
+                scheduleAsync(() -> attemptLockAsync(result, lockName, lockValue, leaseTime, startNanos, deadlineNanos, waitStrategy, attempt + 1),
+                        Math.min(waitNanos, remainingNanos), TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * 设置执行阻塞式锁操作的线程池。
+     *
+     * @param asyncExecutor 线程池
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * 获取执行阻塞式锁操作的线程池。
+     *
+     * @return 线程池，未显式设置时返回共享的默认线程池
+     */
+    protected Executor getAsyncExecutor() {
+        Executor executor = this.asyncExecutor;
+        return executor != null ? executor : AsyncExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * 在指定延迟后执行任务，用于异步实现中的超时控制等场景。
+     *
+     * @param task  任务
+     * @param delay 延迟时间
+     * @param unit  时间单位
+     * @return 可用于取消任务的 Future
+     */
+    protected ScheduledFuture<?> scheduleAsync(Runnable task, long delay, TimeUnit unit) {
+        return AsyncSchedulerHolder.SCHEDULER.schedule(() -> getAsyncExecutor().execute(task), delay, unit);
+    }
+
+    /**
+     * 设置获取锁失败后的等待策略。
+     *
+     * @param waitStrategy 等待策略
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 获取当前使用的等待策略。
+     *
+     * @return 等待策略，未显式设置时返回 {@link #defaultWaitStrategy()}
+     */
+    public WaitStrategy getWaitStrategy() {
+        WaitStrategy strategy = this.waitStrategy;
+        if (strategy == null) {
+            strategy = defaultWaitStrategy();
+            this.waitStrategy = strategy;
+        }
+        return strategy;
+    }
+
+    /**
+     * 具体实现的默认等待策略。
+     *
+     * <p>默认使用带随机抖动的指数退避；如果实现的 {@code doLock} 自身已经在 {@code waitTime} 内阻塞等待，应覆盖此方法返回立即失败策略。</p>
+     *
+     * @return 默认的等待策略
+     */
+    protected WaitStrategy defaultWaitStrategy() {
+        return new ExponentialBackoffWaitStrategy();
+    }
+
+    /**
+     * 设置是否在远程锁之前启用本地锁。
+     *
+     * <p>开启后，同一 JVM 内竞争同一把锁的持有者先在本地排队，只有一个持有者会去竞争远程锁。
+     * 本地锁属于获取它的 {@link LockOwner}，在其他线程中释放时需要绑定同一持有者。由后端记录重入次数的锁（见 {@link #serverReentrant(LockMode)}）不使用本地锁。</p>
+     *
+     * @param localLockEnabled 是否启用本地锁
+     */
+    public void setLocalLockEnabled(boolean localLockEnabled) {
+        this.localLockEnabled = localLockEnabled;
+    }
+
+    /**
+     * 设置持有者的剩余持有时间超过剩余等待时间时是否直接放弃获取锁。
+     *
+     * <p>只对能够提供剩余持有时间的实现生效（见 {@link LockContention}）。持有者通常在过期之前主动释放锁，
+     * 开启续期时剩余持有时间还会被不断延长，因此只适合持有时间接近过期时间、宁可立即失败也不愿空等的场景，默认关闭。</p>
+     *
+     * @param leaseAwareFailFast 是否直接放弃获取锁
+     */
+    public void setLeaseAwareFailFast(boolean leaseAwareFailFast) {
+        this.leaseAwareFailFast = leaseAwareFailFast;
+    }
+
+    /**
+     * 是否在远程锁之前启用本地锁。
+     *
+     * @return 是否启用本地锁
+     */
+    public boolean isLocalLockEnabled() {
+        return localLockEnabled;
+    }
+
+    /**
+     * 设置指标记录器。
+     *
+     * @param metrics 指标记录器
+     */
+    public void setMetrics(UniLockMetrics metrics) {
+        this.metrics = metrics != null ? metrics : UniLockMetrics.NOOP;
+    }
+
+    /**
+     * 获取指标记录器。
+     *
+     * @return 指标记录器，未显式设置时返回 {@link UniLockMetrics#NOOP}
+     */
+    public UniLockMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取指标中使用的分布式锁实现名称。
+     *
+     * @return 分布式锁实现名称
+     */
+    public String getBackendName() {
+        return backendName;
+    }
+
+    /**
+     * 是否在本地登记持有的锁并记录重入次数。
+     *
+     * @param mode 锁的模式
+     * @return 支持重入且重入次数不由后端记录时返回 {@code true}
+     */
+    private boolean clientReentrant(LockMode mode) {
+        return reentrant() && !serverReentrant(mode);
+    }
+
+    /**
+     * 指定模式的锁是否在远程锁之前使用本地锁。
+     *
+     * <p>读写锁需要允许读锁并发，不使用本地锁；由后端记录重入次数的锁的重入与释放都交给后端判断，
+     * 本地锁的重入次数无法与后端保持一致，也不使用本地锁。</p>
+     *
+     * @param mode 锁的模式
+     * @return 是否使用本地锁
+     */
+    private boolean localLocked(LockMode mode) {
+        return localLockEnabled && mode == LockMode.EXCLUSIVE && !serverReentrant(mode);
+    }
+
+    /**
+     * 由后端记录重入次数时，检查锁是否由当前持有者持有。
+     *
+     * @param response 锁的响应
+     * @throws IllegalMonitorStateException 当前持有者没有持有该锁
+     */
+    private void checkOwner(UniLockResponse<T> response) {
+        if (serverReentrant(response.getMode()) && !ownedByCurrentOwner(response.getLockValue(), response.getMode())) {
+            throw new IllegalMonitorStateException("Current owner does not hold the lock: " + response.getLockName());
+        }
+    }
+
+    /**
+     * 在截止时间之前获取本地锁。
+     *
+     * @param lockName      锁的名称
+     * @param deadlineNanos 截止时间（纳秒）
+     * @return 如果成功获取本地锁，则返回 {@code true}；否则返回 {@code false}
+     */
+    private boolean tryLocalLock(String lockName, long deadlineNanos) {
+        try {
+            return localLocks.tryLock(lockName, deadlineNanos - System.nanoTime());
+        } catch (InterruptedException e) {
+            // 恢复中断标记，放弃获取锁
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for local lock: {}", lockName);
+            return false;
+        }
+    }
+
+    /**
+     * 按照等待策略等待下一次重试。
+     *
+     * @param lockName      锁的名称
+     * @param waitStrategy  等待策略
+     * @param attempt       已经失败的尝试次数
+     * @param deadlineNanos 截止时间（纳秒）
+     * @return 如果需要继续重试，则返回 {@code true}；否则返回 {@code false}
+     */
+    private boolean awaitRetry(String lockName, WaitStrategy waitStrategy, int attempt, long deadlineNanos) {
+        try {
+            return waitStrategy.await(attempt, deadlineNanos);
+        } catch (InterruptedException e) {
+            // 恢复中断标记，放弃获取锁
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for lock: {}", lockName);
+            return false;
+        }
+    }
+
+    /**
+     * 等待下一次重试，最长等待时间由等待策略决定，且不超过当前持有者的剩余持有时间；
+     * 存在释放通知的订阅时阻塞在订阅上，收到释放通知时提前结束等待。
+     *
+     * @param lockName            锁的名称
+     * @param waitStrategy        等待策略
+     * @param attempt             已经失败的尝试次数
+     * @param deadlineNanos       截止时间（纳秒）
+     * @param subscription        释放通知的订阅，没有时为 null
+     * @param generation          本次尝试之前已经收到的释放通知数量，为 -1 时立即重试
+     * @param remainingLeaseNanos 当前持有者的剩余持有时间（纳秒），未知时为 {@link LockContention#UNKNOWN}
+     * @return 如果需要继续重试，则返回 {@code true}；否则返回 {@code false}
+     */
+    private boolean awaitRetry(String lockName, WaitStrategy waitStrategy, int attempt, long deadlineNanos,
+                               UnlockSubscription subscription, long generation, long remainingLeaseNanos) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        long waitNanos = waitStrategy.nextWaitNanos(attempt, remainingNanos);
+        // 等待策略要求放弃重试
+        if (waitNanos < 0) {
+            return false;
+        }
+        waitNanos = Math.min(waitNanos, remainingNanos);
+        // 锁在等待策略给出的时间之前过期，过期时立即重试
+        if (remainingLeaseNanos != LockContention.UNKNOWN) {
+            waitNanos = Math.min(waitNanos, remainingLeaseNanos);
+        }
+        try {
+            if (subscription == null) {
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(this, waitNanos);
+                }
+            } else if (generation >= 0 && waitNanos > 0) {
+                subscription.await(generation, waitNanos);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            // 恢复中断标记，放弃获取锁
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for lock: {}", lockName);
             return false;
         }
     }
 
+    /**
+     * 设置用于锁续期的时间轮定时器。
+     *
+     * @param renewalTimer 时间轮定时器
+     */
+    public void setRenewalTimer(HashedWheelTimer renewalTimer) {
+        this.renewalTimer = renewalTimer;
+    }
+
+    /**
+     * 获取用于锁续期的时间轮定时器。
+     *
+     * @return 时间轮定时器，未显式设置时返回共享的默认时间轮
+     */
+    protected HashedWheelTimer getRenewalTimer() {
+        HashedWheelTimer timer = this.renewalTimer;
+        return timer != null ? timer : DefaultRenewalTimerHolder.TIMER;
+    }
+
     /**
      * 启动定时任务来定期延长锁的过期时间。
      *
      * <p>计算锁过期时间的三分之一，并以此为间隔启动定时任务。</p>
      *
-     * @param lockName  锁的名称
-     * @param lockValue 锁的值
+     * @param response  锁的响应
      * @param leaseTime 锁的过期时间（毫秒）
      */
-    private void scheduleExpirationRenewal(String lockName, String lockValue, long leaseTime) {
-        // 计算锁过期时间的2/3
-        long delay = leaseTime / 3;
+    private void scheduleExpirationRenewal(UniLockResponse<T> response, long leaseTime) {
+        // 计算锁过期时间的1/3
+        UniLockRenewal renewal = new UniLockRenewal(response.getLockName(), response.getLockValue(), leaseTime, response.getMode());
+        RenewalTask created = new RenewalTask(renewal, leaseTime / 3);
+        // 将定时任务存储到映射中，以便在锁释放时可以取消；由后端记录重入次数时，同一持有者重入同一把锁共用一个续期任务
+        RenewalTask task = lockRenewalTasks.compute(renewalKey(response), (key, existing) -> {
+            if (existing == null) {
+                return created;
+            }
+            existing.holds++;
+            return existing;
+        });
         // 启动定时任务
-        ScheduledFuture<?> scheduledFuture = scheduler.scheduleAtFixedRate(() -> doRenewal(lockName, lockValue, leaseTime), delay, delay, TimeUnit.MILLISECONDS);
-        // 将定时任务存储到映射中，以便在锁释放时可以取消
-        lockRenewalTasks.put(lockName, scheduledFuture);
+        if (task == created) {
+            task.schedule();
+        }
+    }
+
+    /**
+     * 合并续期所有已经到期的任务，并将它们重新加入时间轮。
+     */
+    private void flushRenewals() {
+        renewalFlushScheduled.set(false);
+        List<RenewalTask> tasks = new ArrayList<>();
+        List<UniLockRenewal> renewals = new ArrayList<>();
+        RenewalTask task;
+        while ((task = dueRenewals.poll()) != null) {
+            if (!task.cancelled) {
+                tasks.add(task);
+                renewals.add(task.renewal);
+            }
+        }
+        if (renewals.isEmpty()) {
+            return;
+        }
+        try {
+            doBatchRenewal(renewals);
+            metrics.recordRenewal(backendName, true, renewals.size());
+        } catch (Exception e) {
+            LOGGER.error("Failed to extend lock expiration time for {} locks", renewals.size(), e);
+            metrics.recordRenewal(backendName, false, renewals.size());
+        }
+        for (RenewalTask renewalTask : tasks) {
+            renewalTask.schedule();
+        }
+    }
+
+    /**
+     * 取消锁的续期任务（如果存在）。
+     *
+     * @param response 锁的响应
+     */
+    private void cancelExpirationRenewal(UniLockResponse<T> response) {
+        if (renewal()) {
+            // 最后一次持有释放时取消续期任务
+            lockRenewalTasks.computeIfPresent(renewalKey(response), (key, task) -> {
+                if (--task.holds > 0) {
+                    return task;
+                }
+                task.cancel();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 续期任务的键，读锁可以被多个持有者同时持有，因此以锁的值区分同名的锁；锁的值是定长的，拼接结果不会冲突。
+     *
+     * @param response 锁的响应
+     * @return 续期任务的键
+     */
+    private static String renewalKey(UniLockResponse<?> response) {
+        return response.getLockValue() + response.getLockName();
     }
 
-    @Data
-    private static class UniLockHolder<T> {
-        private AtomicInteger lockCount = new AtomicInteger(1);
-        private UniLockResponse<T> response;
+    /**
+     * 锁续期任务，到期后交给合并续期，续期完成后重新加入时间轮，直到被取消。
+     */
+    private final class RenewalTask implements TimerTask {
+        private final UniLockRenewal renewal;
+        private final long period;
+        private volatile Timeout timeout;
+        private volatile boolean cancelled;
+        /**
+         * 共用该任务的持有次数，只在 {@link ConcurrentMap#compute} 中修改
+         */
+        private int holds = 1;
 
-        public UniLockHolder(UniLockResponse<T> response) {
-            this.response = response;
+        private RenewalTask(UniLockRenewal renewal, long period) {
+            this.renewal = renewal;
+            this.period = period;
         }
+
+        @Override
+        public void run(Timeout timeout) {
+            if (cancelled) {
+                return;
+            }
+            dueRenewals.add(this);
+            // 在下一个 tick 中合并续期本 tick 内到期的所有任务
+            if (renewalFlushScheduled.compareAndSet(false, true)) {
+                getRenewalTimer().newTimeout(flush -> flushRenewals(), 0, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * 将任务加入时间轮，在一个续期周期后执行。
+         */
+        private void schedule() {
+            if (cancelled) {
+                return;
+            }
+            Timeout newTimeout = getRenewalTimer().newTimeout(this, period, TimeUnit.MILLISECONDS);
+            this.timeout = newTimeout;
+            // 加入时间轮的同时被取消，确保新加入的任务也被取消
+            if (cancelled) {
+                newTimeout.cancel();
+            }
+        }
+
+        /**
+         * 取消续期任务。
+         */
+        private void cancel() {
+            cancelled = true;
+            Timeout current = this.timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /**
+     * 延迟创建的共享默认时间轮，仅在没有显式设置时间轮时使用。
+     */
+    private static final class DefaultRenewalTimerHolder {
+        private static final HashedWheelTimer TIMER = new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512, 2);
+    }
+
+    /**
+     * 延迟创建的共享默认线程池，用于执行阻塞式锁操作。
+     */
+    private static final class AsyncExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(daemonThreadFactory("unilock-async-"));
+    }
+
+    /**
+     * 延迟创建的共享调度器，用于异步重试与超时控制，调度的任务会交给线程池执行。
+     */
+    private static final class AsyncSchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("unilock-async-scheduler-"));
+    }
+
+    /**
+     * 创建守护线程工厂。
+     *
+     * @param prefix 线程名称前缀
+     * @return 线程工厂
+     */
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
@@ -0,0 +1,151 @@
+package com.xcs.unilock;
+
+import com.xcs.unilock.wait.ExponentialBackoffWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 抽象分布式信号量类，提供了获取许可的重试逻辑。
+ *
+ * <p>具体的信号量实现（如基于 Redis、Zookeeper 等）需要继承此类并实现单次获取和归还许可的逻辑。</p>
+ *
+ * @author xcs
+ */
+public abstract class AbstractUniSemaphoreDistributed<T> implements UniSemaphoreDistributed<T> {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractUniSemaphoreDistributed.class);
+
+    /**
+     * 获取许可失败后的等待策略。
+     *
+     * <p>未显式设置时，使用具体实现提供的 {@link #defaultWaitStrategy()}。</p>
+     */
+    private volatile WaitStrategy waitStrategy;
+
+    /**
+     * 尝试获取许可。
+     *
+     * @param semaphoreName 信号量的名称
+     * @param permitValue   许可持有者的标识
+     * @param maxPermits    信号量的最大许可数
+     * @param permits       需要获取的许可数
+     * @param leaseTime     许可的最长持有时间（毫秒）
+     * @param waitTime      获取许可的等待时间（毫秒）
+     * @return 许可的实例，获取失败时返回 null
+     * @throws Exception 获取许可过程中出现的异常
+     */
+    public abstract T doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) throws Exception;
+
+    /**
+     * 归还许可。
+     *
+     * @param semaphoreName 信号量的名称
+     * @param permitValue   许可持有者的标识
+     * @param permits       许可数
+     * @param instance      许可的实例
+     * @throws Exception 归还许可过程中出现的异常
+     */
+    public abstract void doRelease(String semaphoreName, String permitValue, int permits, T instance) throws Exception;
+
+    @Override
+    public UniPermitResponse<T> tryAcquire(String semaphoreName, int maxPermits, int permits, long leaseTime, long waitTime) {
+        return tryAcquire(semaphoreName, maxPermits, permits, leaseTime, waitTime, getWaitStrategy());
+    }
+
+    @Override
+    public UniPermitResponse<T> tryAcquire(String semaphoreName, int maxPermits, int permits, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        if (permits <= 0 || permits > maxPermits) {
+            throw new IllegalArgumentException("permits must be between 1 and " + maxPermits + ": " + permits);
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        // 用于标识许可持有者
+        String permitValue = OwnerTokens.next();
+        // 已经失败的尝试次数
+        int attempt = 0;
+        do {
+            try {
+                // 执行许可的获取，后端自身的等待时间不超过剩余的截止时间
+                long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+                T t = doAcquire(semaphoreName, permitValue, maxPermits, permits, leaseTime, remainingMillis);
+                if (t != null) {
+                    return new UniPermitResponse<>(semaphoreName, permitValue, permits, t);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Failed to acquire semaphore: {}", semaphoreName, e);
+            }
+        } while (awaitRetry(semaphoreName, waitStrategy, ++attempt, deadlineNanos));
+        // 获取许可失败
+        return null;
+    }
+
+    @Override
+    public boolean release(UniPermitResponse<T> response) {
+        try {
+            doRelease(response.getSemaphoreName(), response.getPermitValue(), response.getPermits(), response.getInstance());
+            return true;
+        } catch (Exception e) {
+            LOGGER.error("Failed to release semaphore: {}", response.getSemaphoreName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 设置获取许可失败后的等待策略。
+     *
+     * @param waitStrategy 等待策略
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 获取当前使用的等待策略。
+     *
+     * @return 等待策略，未显式设置时返回 {@link #defaultWaitStrategy()}
+     */
+    public WaitStrategy getWaitStrategy() {
+        WaitStrategy strategy = this.waitStrategy;
+        if (strategy == null) {
+            strategy = defaultWaitStrategy();
+            this.waitStrategy = strategy;
+        }
+        return strategy;
+    }
+
+    /**
+     * 具体实现的默认等待策略。
+     *
+     * <p>默认使用带随机抖动的指数退避；如果实现的 {@code doAcquire} 自身已经在 {@code waitTime} 内阻塞等待，应覆盖此方法返回立即失败策略。</p>
+     *
+     * @return 默认的等待策略
+     */
+    protected WaitStrategy defaultWaitStrategy() {
+        return new ExponentialBackoffWaitStrategy();
+    }
+
+    /**
+     * 按照等待策略等待下一次重试。
+     *
+     * @param semaphoreName 信号量的名称
+     * @param waitStrategy  等待策略
+     * @param attempt       已经失败的尝试次数
+     * @param deadlineNanos 截止时间（纳秒）
+     * @return 如果需要继续重试，则返回 {@code true}；否则返回 {@code false}
+     */
+    private boolean awaitRetry(String semaphoreName, WaitStrategy waitStrategy, int attempt, long deadlineNanos) {
+        try {
+            return waitStrategy.await(attempt, deadlineNanos);
+        } catch (InterruptedException e) {
+            // 恢复中断标记，放弃获取许可
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for semaphore: {}", semaphoreName);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.xcs.unilock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按锁名称划分的本地锁表，位于远程分布式锁之前。
+ *
+ * <p>同一 JVM 内竞争同一把锁的持有者先在本地排队，只有持有本地锁的持有者才会去竞争远程锁，
+ * 从而使后端的请求量与节点数成正比，而不是与线程数成正比。</p>
+ *
+ * <p>本地锁属于获取它的 {@link LockOwner} 而不是线程，绑定同一持有者的其他线程可以重入或释放。
+ * 本地锁通过引用计数管理，没有持有者持有或等待时立即从表中移除，内存占用与正在使用的锁数量成正比。</p>
+ *
+ * @author xcs
+ */
+class LocalKeyedLocks {
+
+    /**
+     * 锁名称与本地锁的映射。
+     */
+    private final ConcurrentMap<String, LocalLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 在指定时间内获取本地锁，当前持有者已经持有时直接重入。
+     *
+     * @param lockName     锁的名称
+     * @param timeoutNanos 等待时间（纳秒）
+     * @return 如果成功获取本地锁，则返回 {@code true}；否则返回 {@code false}
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    boolean tryLock(String lockName, long timeoutNanos) throws InterruptedException {
+        LocalLock localLock = locks.compute(lockName, (key, value) -> {
+            LocalLock lock = value != null ? value : new LocalLock();
+            lock.references++;
+            return lock;
+        });
+        String owner = LockOwner.current().getToken();
+        boolean locked = false;
+        try {
+            if (owner.equals(localLock.holder)) {
+                localLock.holds++;
+                locked = true;
+            } else if (localLock.permit.tryAcquire(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS)) {
+                localLock.holder = owner;
+                localLock.holds = 1;
+                locked = true;
+            }
+            return locked;
+        } finally {
+            if (!locked) {
+                release(lockName);
+            }
+        }
+    }
+
+    /**
+     * 释放当前持有者持有的本地锁。
+     *
+     * @param lockName 锁的名称
+     */
+    void unlock(String lockName) {
+        LocalLock localLock = locks.get(lockName);
+        if (localLock != null && LockOwner.current().getToken().equals(localLock.holder)) {
+            if (--localLock.holds == 0) {
+                localLock.holder = null;
+                localLock.permit.release();
+            }
+            release(lockName);
+        }
+    }
+
+    /**
+     * 减少本地锁的引用计数，计数为 0 时从表中移除。
+     *
+     * @param lockName 锁的名称
+     */
+    private void release(String lockName) {
+        locks.computeIfPresent(lockName, (key, value) -> --value.references == 0 ? null : value);
+    }
+
+    /**
+     * 本地锁及其引用计数，引用计数只在 {@link ConcurrentMap#compute} 中修改，重入次数只由持有者修改。
+     */
+    private static class LocalLock {
+        private final Semaphore permit = new Semaphore(1);
+        private volatile String holder;
+        private int holds;
+        private int references;
+    }
+}
@@ -0,0 +1,54 @@
+package com.xcs.unilock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次获取锁失败时锁的竞争信息。
+ *
+ * <p>能够在获取锁的同一次网络往返中取得当前持有者剩余持有时间的实现，通过
+ * {@link AbstractUniLockDistributed#doLock(String, LockMode, String, long, long, LockContention)} 填写该信息，
+ * 重试的等待时间因此不会超过锁自然过期的时间；开启 {@link AbstractUniLockDistributed#setLeaseAwareFailFast(boolean)} 后，
+ * 剩余持有时间超过剩余等待时间时直接放弃获取锁。</p>
+ *
+ * <p>每次获取锁之前重置，只在获取锁的线程中读写。</p>
+ *
+ * @author xcs
+ */
+public final class LockContention {
+
+    /**
+     * 剩余持有时间未知
+     */
+    public static final long UNKNOWN = -1;
+
+    /**
+     * 当前持有者的剩余持有时间（纳秒）
+     */
+    private long remainingLeaseNanos = UNKNOWN;
+
+    /**
+     * 获取当前持有者的剩余持有时间。
+     *
+     * @return 剩余持有时间（纳秒），未知时返回 {@link #UNKNOWN}
+     */
+    public long getRemainingLeaseNanos() {
+        return remainingLeaseNanos;
+    }
+
+    /**
+     * 设置当前持有者的剩余持有时间，负数表示锁没有过期时间或者剩余持有时间未知。
+     *
+     * @param remainingLease 剩余持有时间
+     * @param unit           时间单位
+     */
+    public void setRemainingLease(long remainingLease, TimeUnit unit) {
+        this.remainingLeaseNanos = remainingLease < 0 ? UNKNOWN : unit.toNanos(remainingLease);
+    }
+
+    /**
+     * 重置为未知。
+     */
+    void reset() {
+        this.remainingLeaseNanos = UNKNOWN;
+    }
+}
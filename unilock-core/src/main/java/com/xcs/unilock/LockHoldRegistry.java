@@ -0,0 +1,122 @@
+package com.xcs.unilock;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 可重入锁的持有登记表，记录每个持有者（见 {@link LockOwner}）持有的锁及其重入次数。
+ *
+ * <p>所有持有者共用一张以 (持有者标识, 锁名称, 锁的模式) 为键的表，锁完全释放后立即移除，
+ * 内存占用与当前持有的锁数量成正比，而不是与使用过锁的线程数量成正比，在大量虚拟线程下同样适用。</p>
+ *
+ * <p>每条记录只会被其持有者读写，持有者同一时间只在一个线程中使用，因此重入次数使用普通的 {@code int} 即可。</p>
+ *
+ * @author xcs
+ */
+class LockHoldRegistry<T> {
+
+    /**
+     * 持有者与锁名称到持有记录的映射。
+     */
+    private final ConcurrentMap<HoldKey, Hold<T>> holds = new ConcurrentHashMap<>();
+
+    /**
+     * 如果当前持有者已经以指定的模式持有该锁，则增加重入次数。
+     *
+     * @param lockName 锁的名称
+     * @param mode     锁的模式
+     * @return 当前持有者持有该锁时返回锁的响应，否则返回 null
+     */
+    UniLockResponse<T> reenter(String lockName, LockMode mode) {
+        Hold<T> hold = holds.get(new HoldKey(currentOwner(), lockName, mode));
+        if (hold == null) {
+            return null;
+        }
+        hold.count++;
+        return hold.response;
+    }
+
+    /**
+     * 登记当前持有者首次获取的锁。
+     *
+     * @param response 锁的响应
+     */
+    void register(UniLockResponse<T> response) {
+        holds.put(new HoldKey(currentOwner(), response.getLockName(), response.getMode()), new Hold<>(response));
+    }
+
+    /**
+     * 减少当前持有者对该锁的重入次数，次数为 0 时移除持有记录。
+     *
+     * @param lockName 锁的名称
+     * @param mode     锁的模式
+     * @return 剩余的重入次数
+     * @throws IllegalMonitorStateException 当前持有者没有持有该锁
+     */
+    int release(String lockName, LockMode mode) {
+        HoldKey key = new HoldKey(currentOwner(), lockName, mode);
+        Hold<T> hold = holds.get(key);
+        if (hold == null) {
+            throw new IllegalMonitorStateException("Current owner does not hold the lock: " + lockName);
+        }
+        int count = --hold.count;
+        if (count == 0) {
+            holds.remove(key);
+        }
+        return count;
+    }
+
+    /**
+     * 获取当前持有者的标识。
+     *
+     * @return 当前持有者的标识
+     */
+    private static String currentOwner() {
+        return LockOwner.current().getToken();
+    }
+
+    /**
+     * 持有记录：锁的响应与重入次数。
+     */
+    private static final class Hold<T> {
+        private final UniLockResponse<T> response;
+        private int count = 1;
+
+        private Hold(UniLockResponse<T> response) {
+            this.response = response;
+        }
+    }
+
+    /**
+     * 持有记录的键：持有者标识、锁名称与锁的模式。
+     */
+    private static final class HoldKey {
+        private final String owner;
+        private final String lockName;
+        private final LockMode mode;
+
+        private HoldKey(String owner, String lockName, LockMode mode) {
+            this.owner = owner;
+            this.lockName = lockName;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HoldKey)) {
+                return false;
+            }
+            HoldKey that = (HoldKey) o;
+            return owner.equals(that.owner) && lockName.equals(that.lockName) && mode == that.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, lockName, mode);
+        }
+    }
+}
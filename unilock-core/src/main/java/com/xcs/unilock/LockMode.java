@@ -0,0 +1,27 @@
+package com.xcs.unilock;
+
+/**
+ * 锁的模式。
+ *
+ * <p>{@link #READ} 与 {@link #WRITE} 是同一把读写锁的两种模式：多个读锁可以同时持有，写锁与其他任何读锁或写锁互斥。
+ * {@link #EXCLUSIVE} 是普通的互斥锁，与读写锁使用不同的存储结构，同一个锁名称不应混用两类模式。</p>
+ *
+ * @author xcs
+ */
+public enum LockMode {
+
+    /**
+     * 互斥锁。
+     */
+    EXCLUSIVE,
+
+    /**
+     * 读锁（共享）。
+     */
+    READ,
+
+    /**
+     * 写锁（独占）。
+     */
+    WRITE
+}
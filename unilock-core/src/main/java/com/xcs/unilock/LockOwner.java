@@ -0,0 +1,187 @@
+package com.xcs.unilock;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 锁的持有者，同步获取的锁按持有者登记重入次数，并只能由同一持有者释放。
+ *
+ * <p>未绑定持有者时，每个线程是自己的隐式持有者，其标识由线程 ID 计算得到，不在线程上保存任何状态。
+ * 异步代码需要在其他线程中重入或释放锁时，先在获取锁的线程中通过 {@link #current()} 或 {@link #create()} 取得持有者，
+ * 再在后续执行的线程中通过 {@link #bind()} 绑定同一持有者：</p>
+ *
+ * <pre>{@code
+ * LockOwner owner = LockOwner.current();
+ * UniLockResponse<?> response = lock.tryLock("order");
+ * executor.execute(owner.wrap(() -> lock.unlock(response)));
+ * }</pre>
+ *
+ * <p>持有者与线程一样，同一时间只能在一个线程中使用，移交给其他线程时由线程池等提供先行发生关系。</p>
+ *
+ * @author xcs
+ */
+public final class LockOwner {
+
+    /**
+     * 当前线程绑定的持有者，只在 {@link #bind()} 的作用域内存在。
+     */
+    private static final ThreadLocal<LockOwner> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 进程内所有持有者标识共用的前缀。
+     */
+    private static final String PREFIX = OwnerTokens.next() + ":";
+
+    /**
+     * 显式创建的持有者的序号。
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * 持有者标识。
+     */
+    private final String token;
+
+    private LockOwner(String token) {
+        this.token = token;
+    }
+
+    /**
+     * 获取当前线程的持有者：已绑定持有者时返回绑定的持有者，否则返回当前线程的隐式持有者。
+     *
+     * @return 当前线程的持有者
+     */
+    public static LockOwner current() {
+        LockOwner owner = CURRENT.get();
+        return owner != null ? owner : new LockOwner(token('t', Thread.currentThread().getId()));
+    }
+
+    /**
+     * 创建一个与任何线程都无关的持有者。
+     *
+     * @return 新的持有者
+     */
+    public static LockOwner create() {
+        return new LockOwner(token('o', SEQUENCE.incrementAndGet()));
+    }
+
+    /**
+     * 判断字符串是否是本进程生成的持有者标识。
+     *
+     * @param value 字符串
+     * @return 是持有者标识时返回 {@code true}
+     */
+    public static boolean isToken(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    /**
+     * 获取持有者标识，同一进程内的持有者标识长度相同且互不相同。
+     *
+     * @return 持有者标识
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 在当前线程中绑定该持有者，直到返回的作用域关闭。
+     *
+     * @return 作用域，关闭时恢复之前绑定的持有者
+     */
+    public Scope bind() {
+        LockOwner previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * 包装任务，使其在执行期间绑定该持有者。
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task, "task");
+        return () -> {
+            try (Scope ignored = bind()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，使其在执行期间绑定该持有者。
+     *
+     * @param task 任务
+     * @param <V>  任务结果的类型
+     * @return 包装后的任务
+     */
+    public <V> Callable<V> wrap(Callable<V> task) {
+        Objects.requireNonNull(task, "task");
+        return () -> {
+            try (Scope ignored = bind()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * 生成定长的持有者标识。
+     *
+     * @param kind 持有者的种类，{@code t} 表示线程，{@code o} 表示显式创建
+     * @param id   线程 ID 或序号
+     * @return 持有者标识
+     */
+    private static String token(char kind, long id) {
+        String hex = Long.toHexString(id);
+        StringBuilder builder = new StringBuilder(PREFIX.length() + 17).append(PREFIX).append(kind);
+        for (int i = hex.length(); i < 16; i++) {
+            builder.append('0');
+        }
+        return builder.append(hex).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof LockOwner && token.equals(((LockOwner) o).token);
+    }
+
+    @Override
+    public int hashCode() {
+        return token.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return token;
+    }
+
+    /**
+     * 持有者的绑定作用域。
+     */
+    public static final class Scope implements AutoCloseable {
+
+        /**
+         * 绑定之前的持有者。
+         */
+        private final LockOwner previous;
+
+        private Scope(LockOwner previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * 恢复之前绑定的持有者。
+         */
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
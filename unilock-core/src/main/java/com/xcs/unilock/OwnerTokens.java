@@ -0,0 +1,140 @@
+package com.xcs.unilock;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 锁持有者标识生成器，用于生成 {@link UniLockResponse#getLockValue()}。
+ *
+ * <p>标识由 20 个 URL 安全的 ASCII 字符组成：前 12 个字符是进程启动时确定的节点前缀（40 位随机节点 ID + 32 位启动时间秒数），
+ * 后 8 个字符是进程内单调递增的 48 位序号。生成标识时不再访问 {@link SecureRandom}，
+ * 只需一次原子自增和一次定长字符数组拷贝，相比 {@code UUID.randomUUID().toString()} 更短也更便宜。</p>
+ *
+ * @author xcs
+ */
+public final class OwnerTokens {
+
+    /**
+     * 编码使用的字符表，每个字符表示 6 位。
+     */
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_".toCharArray();
+
+    /**
+     * 节点前缀的字符数。
+     */
+    private static final int PREFIX_LENGTH = 12;
+
+    /**
+     * 序号的字符数。
+     */
+    private static final int SEQUENCE_LENGTH = 8;
+
+    /**
+     * 标识的总字符数。
+     */
+    public static final int TOKEN_LENGTH = PREFIX_LENGTH + SEQUENCE_LENGTH;
+
+    /**
+     * 序号的掩码（48 位）。
+     */
+    private static final long SEQUENCE_MASK = (1L << (SEQUENCE_LENGTH * 6)) - 1;
+
+    /**
+     * 进程启动时确定的节点前缀。
+     */
+    private static final char[] PREFIX = createPrefix();
+
+    /**
+     * 进程内单调递增的序号。
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private OwnerTokens() {
+    }
+
+    /**
+     * 生成一个新的锁持有者标识。
+     *
+     * @return 锁持有者标识
+     */
+    public static String next() {
+        long sequence = SEQUENCE.incrementAndGet() & SEQUENCE_MASK;
+        char[] token = new char[TOKEN_LENGTH];
+        System.arraycopy(PREFIX, 0, token, 0, PREFIX_LENGTH);
+        encode(sequence, token, PREFIX_LENGTH, SEQUENCE_LENGTH);
+        return new String(token);
+    }
+
+    /**
+     * 解析锁持有者标识中的序号，同一进程内生成的标识序号互不相同。
+     *
+     * @param token 锁持有者标识
+     * @return 序号
+     * @throws IllegalArgumentException 标识不是由 {@link #next()} 生成
+     */
+    public static long sequence(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Not an owner token: " + token);
+        }
+        long sequence = 0;
+        for (int i = PREFIX_LENGTH; i < TOKEN_LENGTH; i++) {
+            sequence = (sequence << 6) | decode(token.charAt(i));
+        }
+        return sequence;
+    }
+
+    /**
+     * 创建节点前缀：40 位随机节点 ID + 32 位启动时间秒数。
+     *
+     * @return 节点前缀
+     */
+    private static char[] createPrefix() {
+        long nodeId = new SecureRandom().nextLong() & ((1L << 40) - 1);
+        long epochSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) & 0xFFFFFFFFL;
+        char[] prefix = new char[PREFIX_LENGTH];
+        encode(nodeId >>> 4, prefix, 0, 6);
+        encode(((nodeId & 0xF) << 32) | epochSeconds, prefix, 6, 6);
+        return prefix;
+    }
+
+    /**
+     * 将数值的低位按 6 位一组编码到字符数组中，高位在前。
+     *
+     * @param value  数值
+     * @param target 目标字符数组
+     * @param offset 起始位置
+     * @param length 字符数
+     */
+    private static void encode(long value, char[] target, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target[i] = ALPHABET[(int) (value & 0x3F)];
+            value >>>= 6;
+        }
+    }
+
+    /**
+     * 解码单个字符。
+     *
+     * @param c 字符
+     * @return 字符表示的 6 位数值
+     */
+    private static int decode(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        if (c == '-') {
+            return 62;
+        }
+        if (c == '_') {
+            return 63;
+        }
+        throw new IllegalArgumentException("Illegal owner token character: " + c);
+    }
+}
@@ -1,5 +1,14 @@
 package com.xcs.unilock;
 
+import com.xcs.unilock.wait.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * DistributedLock
  *
@@ -18,6 +27,78 @@ public interface UniLockDistributed<T> {
      */
     UniLockResponse<T> tryLock(String lockName, long leaseTime, long waitTime);
 
+    /**
+     * 使用指定的等待策略，尝试在指定的时间内获取锁。
+     *
+     * @param lockName     锁的名称
+     * @param leaseTime    过期时间防止死锁 (ms)
+     * @param waitTime     尝试获取锁超时时间 (ms)
+     * @param waitStrategy 获取锁失败后的等待策略
+     * @return 锁的响应
+     */
+    default UniLockResponse<T> tryLock(String lockName, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        return tryLock(lockName, leaseTime, waitTime);
+    }
+
+    /**
+     * 以指定的模式尝试在指定的时间内获取锁。
+     *
+     * <p>默认只支持 {@link LockMode#EXCLUSIVE}，支持读写锁的实现需要覆盖此方法。</p>
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param leaseTime 过期时间防止死锁 (ms)
+     * @param waitTime  尝试获取锁超时时间 (ms)
+     * @return 锁的响应
+     */
+    default UniLockResponse<T> tryLock(String lockName, LockMode mode, long leaseTime, long waitTime) {
+        if (mode == LockMode.EXCLUSIVE) {
+            return tryLock(lockName, leaseTime, waitTime);
+        }
+        throw new UnsupportedOperationException("lock mode " + mode + " not supported");
+    }
+
+    /**
+     * 以指定的模式和等待策略，尝试在指定的时间内获取锁。
+     *
+     * @param lockName     锁的名称
+     * @param mode         锁的模式
+     * @param leaseTime    过期时间防止死锁 (ms)
+     * @param waitTime     尝试获取锁超时时间 (ms)
+     * @param waitStrategy 获取锁失败后的等待策略
+     * @return 锁的响应
+     */
+    default UniLockResponse<T> tryLock(String lockName, LockMode mode, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        if (mode == LockMode.EXCLUSIVE) {
+            return tryLock(lockName, leaseTime, waitTime, waitStrategy);
+        }
+        return tryLock(lockName, mode, leaseTime, waitTime);
+    }
+
+    /**
+     * 尝试在指定的时间内获取读锁，多个读锁可以同时持有。
+     *
+     * @param lockName  锁的名称
+     * @param leaseTime 过期时间防止死锁 (ms)
+     * @param waitTime  尝试获取锁超时时间 (ms)
+     * @return 锁的响应
+     */
+    default UniLockResponse<T> tryReadLock(String lockName, long leaseTime, long waitTime) {
+        return tryLock(lockName, LockMode.READ, leaseTime, waitTime);
+    }
+
+    /**
+     * 尝试在指定的时间内获取写锁，写锁与同名的读锁和写锁互斥。
+     *
+     * @param lockName  锁的名称
+     * @param leaseTime 过期时间防止死锁 (ms)
+     * @param waitTime  尝试获取锁超时时间 (ms)
+     * @return 锁的响应
+     */
+    default UniLockResponse<T> tryWriteLock(String lockName, long leaseTime, long waitTime) {
+        return tryLock(lockName, LockMode.WRITE, leaseTime, waitTime);
+    }
+
     /**
      * 释放指定名称的锁。
      *
@@ -25,6 +106,113 @@ public interface UniLockDistributed<T> {
      */
     boolean unlock(UniLockResponse<T> response);
 
+    /**
+     * 尝试在指定的时间内获取一组锁，要么全部获取，要么一把都不获取。
+     *
+     * <p>锁的名称会去重并按字典序排序后再获取，所有锁共享同一个截止时间，以避免多个调用方交叉持有而产生死锁。
+     * 默认按顺序逐个获取，任意一把锁获取失败时释放已获取的锁；具体实现可以在一次网络往返中完成全部获取。</p>
+     *
+     * @param lockNames 锁的名称
+     * @param leaseTime 过期时间防止死锁 (ms)
+     * @param waitTime  尝试获取锁超时时间 (ms)
+     * @return 按锁名称排序的锁的响应，获取失败时返回 null
+     */
+    default List<UniLockResponse<T>> tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        List<UniLockResponse<T>> responses = new ArrayList<>(lockNames.size());
+        for (String lockName : new TreeSet<>(lockNames)) {
+            long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+            UniLockResponse<T> response = tryLock(lockName, leaseTime, remainingMillis);
+            if (response == null) {
+                unlockAll(responses);
+                return null;
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    /**
+     * 使用指定的等待策略，尝试在指定的时间内获取一组锁，要么全部获取，要么一把都不获取。
+     *
+     * @param lockNames    锁的名称
+     * @param leaseTime    过期时间防止死锁 (ms)
+     * @param waitTime     尝试获取锁超时时间 (ms)
+     * @param waitStrategy 获取锁失败后的等待策略
+     * @return 按锁名称排序的锁的响应，获取失败时返回 null
+     */
+    default List<UniLockResponse<T>> tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        return tryLockAll(lockNames, leaseTime, waitTime);
+    }
+
+    /**
+     * 释放通过 {@link #tryLockAll(Collection, long, long)} 获取的一组锁。
+     *
+     * @param responses 锁的响应
+     * @return 是否全部释放成功
+     */
+    default boolean unlockAll(List<UniLockResponse<T>> responses) {
+        boolean unlocked = true;
+        for (int i = responses.size() - 1; i >= 0; i--) {
+            unlocked &= unlock(responses.get(i));
+        }
+        return unlocked;
+    }
+
+    /**
+     * 异步地尝试在指定的时间内获取锁，调用线程不会被阻塞。
+     *
+     * <p>异步获取的锁不与任何线程绑定，可以在任意线程中通过 {@link #unlockAsync(UniLockResponse)} 释放，
+     * 因此也不参与基于线程的重入计数。如果在指定时间内无法获取到锁，返回的 Future 以 {@code null} 完成。</p>
+     *
+     * @param lockName  锁的名称
+     * @param leaseTime 过期时间防止死锁 (ms)
+     * @param waitTime  尝试获取锁超时时间 (ms)
+     * @return 锁的响应的 Future
+     */
+    default CompletableFuture<UniLockResponse<T>> tryLockAsync(String lockName, long leaseTime, long waitTime) {
+        CompletableFuture<UniLockResponse<T>> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("asynchronous lock not supported"));
+        return future;
+    }
+
+    /**
+     * 使用指定的等待策略，异步地尝试在指定的时间内获取锁。
+     *
+     * @param lockName     锁的名称
+     * @param leaseTime    过期时间防止死锁 (ms)
+     * @param waitTime     尝试获取锁超时时间 (ms)
+     * @param waitStrategy 获取锁失败后的等待策略
+     * @return 锁的响应的 Future
+     */
+    default CompletableFuture<UniLockResponse<T>> tryLockAsync(String lockName, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        return tryLockAsync(lockName, leaseTime, waitTime);
+    }
+
+    /**
+     * 异步地释放通过 {@link #tryLockAsync(String, long, long)} 获取的锁。
+     *
+     * @param response 锁的响应
+     * @return 是否释放成功的 Future
+     */
+    default CompletableFuture<Boolean> unlockAsync(UniLockResponse<T> response) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("asynchronous unlock not supported"));
+        return future;
+    }
+
+    /**
+     * 是否支持 {@link #tryLockAsync(String, long, long)}。
+     *
+     * <p>返回 {@code false} 时，返回 {@link java.util.concurrent.CompletionStage} 或 Reactor 类型的方法上的 @UniLock
+     * 在创建代理时即被拒绝，而不是每次调用都失败。默认返回 {@code false}。</p>
+     *
+     * @return 是否支持异步获取锁
+     */
+    default boolean asyncSupported() {
+        return false;
+    }
+
     /**
      * 自定义重入锁
      *
@@ -53,4 +241,34 @@ public interface UniLockDistributed<T> {
     default void doRenewal(String lockName, String lockValue, long leaseTime) {
         throw new UnsupportedOperationException("renew expiration expiration not supported");
     }
+
+    /**
+     * 读写锁续期
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param lockValue 锁的值
+     * @param leaseTime 过期时间防止死锁 (ms)
+     */
+    default void doRenewal(String lockName, LockMode mode, String lockValue, long leaseTime) {
+        throw new UnsupportedOperationException("renew expiration of " + mode + " lock not supported");
+    }
+
+    /**
+     * 批量锁续期
+     *
+     * <p>续期调度器会将同一个 tick 内到期的续期请求合并后一次性交给该方法，具体实现可以在一次网络往返中完成全部续期。
+     * 默认逐个调用 {@link #doRenewal(String, String, long)}。</p>
+     *
+     * @param renewals 待续期的锁
+     */
+    default void doBatchRenewal(List<UniLockRenewal> renewals) {
+        for (UniLockRenewal renewal : renewals) {
+            if (renewal.getMode() == LockMode.EXCLUSIVE) {
+                doRenewal(renewal.getLockName(), renewal.getLockValue(), renewal.getLeaseTime());
+            } else {
+                doRenewal(renewal.getLockName(), renewal.getMode(), renewal.getLockValue(), renewal.getLeaseTime());
+            }
+        }
+    }
 }
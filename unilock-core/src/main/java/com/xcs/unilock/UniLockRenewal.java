@@ -0,0 +1,23 @@
+package com.xcs.unilock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 一次待执行的锁续期请求，用于批量续期。
+ *
+ * @author xcs
+ */
+@Data
+@AllArgsConstructor
+public class UniLockRenewal {
+
+    private String lockName;
+    private String lockValue;
+    private long leaseTime;
+    private LockMode mode;
+
+    public UniLockRenewal(String lockName, String lockValue, long leaseTime) {
+        this(lockName, lockValue, leaseTime, LockMode.EXCLUSIVE);
+    }
+}
@@ -10,7 +10,28 @@ import lombok.Data;
 @AllArgsConstructor
 public class UniLockResponse<T> {
 
+    /**
+     * 后端不提供栅栏令牌时的取值。
+     */
+    public static final long NO_FENCING_TOKEN = -1;
+
     private String lockName;
     private String lockValue;
     private T instance;
+    private LockMode mode;
+
+    /**
+     * 栅栏令牌（fencing token），同一把锁的每次获取单调递增。
+     * <p>存储层可以拒绝令牌小于已见过的最大令牌的写入，从而避免因 GC 停顿等原因锁已过期的旧持有者继续写入。
+     * 后端不提供时为 {@link #NO_FENCING_TOKEN}。</p>
+     */
+    private long fencingToken;
+
+    public UniLockResponse(String lockName, String lockValue, T instance) {
+        this(lockName, lockValue, instance, LockMode.EXCLUSIVE);
+    }
+
+    public UniLockResponse(String lockName, String lockValue, T instance, LockMode mode) {
+        this(lockName, lockValue, instance, mode, NO_FENCING_TOKEN);
+    }
 }
@@ -0,0 +1,19 @@
+package com.xcs.unilock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 信号量许可的响应，释放许可时需要原样传回。
+ *
+ * @author xcs
+ */
+@Data
+@AllArgsConstructor
+public class UniPermitResponse<T> {
+
+    private String semaphoreName;
+    private String permitValue;
+    private int permits;
+    private T instance;
+}
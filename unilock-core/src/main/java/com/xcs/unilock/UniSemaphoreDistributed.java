@@ -0,0 +1,49 @@
+package com.xcs.unilock;
+
+import com.xcs.unilock.wait.WaitStrategy;
+
+/**
+ * 分布式计数信号量，同一个名称最多同时发放 maxPermits 个许可。
+ *
+ * <p>与 {@link UniLockDistributed} 的完全互斥不同，信号量用于限制并发数。许可不续期，也不可重入：
+ * leaseTime 是许可的最长持有时间，到期后许可自动归还，防止持有者崩溃后许可泄漏。</p>
+ *
+ * @author xcs
+ */
+public interface UniSemaphoreDistributed<T> {
+
+    /**
+     * 尝试在指定的时间内获取许可。
+     *
+     * @param semaphoreName 信号量的名称
+     * @param maxPermits    信号量的最大许可数
+     * @param permits       需要获取的许可数
+     * @param leaseTime     许可的最长持有时间 (ms)
+     * @param waitTime      尝试获取许可超时时间 (ms)
+     * @return 许可的响应，获取失败时返回 null
+     */
+    UniPermitResponse<T> tryAcquire(String semaphoreName, int maxPermits, int permits, long leaseTime, long waitTime);
+
+    /**
+     * 使用指定的等待策略，尝试在指定的时间内获取许可。
+     *
+     * @param semaphoreName 信号量的名称
+     * @param maxPermits    信号量的最大许可数
+     * @param permits       需要获取的许可数
+     * @param leaseTime     许可的最长持有时间 (ms)
+     * @param waitTime      尝试获取许可超时时间 (ms)
+     * @param waitStrategy  获取许可失败后的等待策略
+     * @return 许可的响应，获取失败时返回 null
+     */
+    default UniPermitResponse<T> tryAcquire(String semaphoreName, int maxPermits, int permits, long leaseTime, long waitTime, WaitStrategy waitStrategy) {
+        return tryAcquire(semaphoreName, maxPermits, permits, leaseTime, waitTime);
+    }
+
+    /**
+     * 归还许可。
+     *
+     * @param response 许可的响应
+     * @return 是否成功归还
+     */
+    boolean release(UniPermitResponse<T> response);
+}
@@ -0,0 +1,35 @@
+package com.xcs.unilock;
+
+/**
+ * 锁释放通知的订阅。
+ *
+ * <p>支持释放通知的分布式锁实现通过 {@link AbstractUniLockDistributed#subscribeUnlock(String, LockMode)} 返回订阅，
+ * 等待锁的线程在两次尝试之间阻塞在订阅上，锁被释放时提前结束等待并立即重试；
+ * 没有收到通知时最多等待等待策略给出的时间，因此丢失的通知只会退化为轮询。</p>
+ *
+ * @author xcs
+ */
+public interface UnlockSubscription extends AutoCloseable {
+
+    /**
+     * 获取已经收到的释放通知的数量，在每次尝试获取锁之前读取。
+     *
+     * @return 释放通知的数量
+     */
+    long generation();
+
+    /**
+     * 阻塞当前线程，直到收到新的释放通知或者超时。
+     *
+     * @param generation   尝试获取锁之前读取的 {@link #generation()}
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    void await(long generation, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 取消订阅。
+     */
+    @Override
+    void close();
+}
@@ -1,7 +1,9 @@
 package com.xcs.unilock.annotation;
 
+import com.xcs.unilock.LockMode;
 import com.xcs.unilock.callback.DefaultLockFailCallback;
 import com.xcs.unilock.callback.LockFailCallback;
+import com.xcs.unilock.wait.WaitStrategy;
 
 import java.lang.annotation.*;
 
@@ -27,13 +29,33 @@ public @interface UniLock {
     String condition() default "";
 
     /**
-     * 锁的名称，支持 Spring EL 表达式。
+     * 锁的名称，支持 Spring EL 表达式，以及形如 {@code order:{#order.id}} 的名称模板。
      * <p>用于标识不同的锁。如果未指定，将使用默认的锁名称。默认锁名称由包名、类名和方法名组合而成。</p>
+     * <p>引入 unilock-processor 注解处理器后，名称模板和简单的表达式在编译期生成提取器，运行时不再使用反射，
+     * 模板中引用了不存在的参数或属性时编译失败。</p>
      *
      * @return 锁的名称
      */
     String name() default "";
 
+    /**
+     * 使用的分布式锁实现，即该实现在 Spring 容器中的 Bean 名称，例如 {@code etcdDistributedLock}。
+     * <p>同时配置了多个分布式锁实现时使用。未指定时按 {@code spring.unilock.routing} 中的路由规则匹配锁名称，没有匹配的规则时使用默认实现。
+     * 同一个方法上的多把锁必须使用同一个实现。</p>
+     *
+     * @return 分布式锁实现的 Bean 名称
+     */
+    String backend() default "";
+
+    /**
+     * 锁的模式。
+     * <p>默认 {@link LockMode#EXCLUSIVE} 为互斥锁；{@link LockMode#READ} 与 {@link LockMode#WRITE} 为同一把读写锁的读锁和写锁，多个读锁可以同时持有。
+     * 读写锁目前只支持同步方法。</p>
+     *
+     * @return 锁的模式
+     */
+    LockMode mode() default LockMode.EXCLUSIVE;
+
     /**
      * 锁的过期时间（毫秒）。
      * <p>如果设置为 30000，表示锁将在 30 秒后过期。</p>
@@ -50,9 +72,19 @@ public @interface UniLock {
      */
     long waitTime() default 3000;
 
+    /**
+     * 获取锁失败后的等待策略类。
+     * <p>等待策略类必须实现 {@link WaitStrategy} 接口并提供无参构造函数。默认值 {@link WaitStrategy} 表示使用分布式锁实现配置的等待策略。
+     * 每个方法只创建一个实例，在所有调用之间共享，实现必须是线程安全的。同一个方法上的多个 @UniLock 注解一次性获取锁，不能指定不同的等待策略。</p>
+     *
+     * @return 等待策略类
+     */
+    Class<? extends WaitStrategy> waitStrategy() default WaitStrategy.class;
+
     /**
      * 获取锁失败时的回调策略类。
-     * <p>回调策略类必须实现 {@link LockFailCallback} 接口，用于定义在获取锁失败时的处理逻辑。</p>
+     * <p>回调策略类必须实现 {@link LockFailCallback} 接口，用于定义在获取锁失败时的处理逻辑。
+     * 每个方法只创建一个实例，在所有调用之间共享，实现必须是线程安全的。</p>
      *
      * @return 回调策略类
      */
@@ -0,0 +1,92 @@
+package com.xcs.unilock.annotation;
+
+import com.xcs.unilock.callback.DefaultLockFailCallback;
+import com.xcs.unilock.callback.LockFailCallback;
+import com.xcs.unilock.wait.WaitStrategy;
+
+import java.lang.annotation.*;
+
+/**
+ * UniSemaphore 注解用于标记需要限制并发数的方法。
+ * <p>同一个信号量名称最多允许 maxPermits 个许可同时被持有，获取到许可后才会执行方法，方法结束后归还许可。
+ * 与 {@link UniLock} 同时使用时，先获取许可再获取锁。目前只支持同步方法。</p>
+ *
+ * @author xcs
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface UniSemaphore {
+
+    /**
+     * 信号量的条件表达式，支持 Spring EL 表达式。
+     * <p>当条件满足时，才会尝试获取许可。</p>
+     *
+     * @return 条件表达式的字符串
+     */
+    String condition() default "";
+
+    /**
+     * 信号量的名称，支持 Spring EL 表达式，以及形如 {@code order:{#order.id}} 的名称模板。
+     * <p>如果未指定，将使用默认的名称。默认名称由包名、类名和方法名组合而成。</p>
+     *
+     * @return 信号量的名称
+     */
+    String name() default "";
+
+    /**
+     * 信号量的最大许可数，即允许同时执行的最大并发数。
+     * <p>同一个信号量名称的所有使用方应当使用相同的最大许可数。</p>
+     *
+     * @return 最大许可数
+     */
+    int maxPermits();
+
+    /**
+     * 使用的分布式信号量所基于的分布式锁实现，即该分布式锁实现在 Spring 容器中的 Bean 名称，例如 {@code jedisDistributedLock}。
+     * <p>与 {@link UniLock#backend()} 相同，未指定时按 {@code spring.unilock.routing} 中的路由规则匹配信号量名称，
+     * 没有匹配的规则时使用默认实现。选择的实现必须提供分布式信号量。</p>
+     *
+     * @return 分布式锁实现的 Bean 名称
+     */
+    String backend() default "";
+
+    /**
+     * 每次调用需要获取的许可数。
+     *
+     * @return 许可数
+     */
+    int permits() default 1;
+
+    /**
+     * 许可的最长持有时间（毫秒）。
+     * <p>许可不会续期，超过此时间后许可将自动归还。</p>
+     *
+     * @return 最长持有时间（毫秒）
+     */
+    long leaseTime() default 30000;
+
+    /**
+     * 获取许可的超时时间（毫秒）。
+     *
+     * @return 获取许可的超时时间（毫秒）
+     */
+    long waitTime() default 3000;
+
+    /**
+     * 获取许可失败后的等待策略类。
+     * <p>默认值 {@link WaitStrategy} 表示使用分布式信号量实现配置的等待策略。每个方法只创建一个实例，在所有调用之间共享。</p>
+     *
+     * @return 等待策略类
+     */
+    Class<? extends WaitStrategy> waitStrategy() default WaitStrategy.class;
+
+    /**
+     * 获取许可失败时的回调策略类。
+     * <p>每个方法只创建一个实例，在所有调用之间共享。</p>
+     *
+     * @return 回调策略类
+     */
+    Class<? extends LockFailCallback<?>> onFail() default DefaultLockFailCallback.class;
+}
@@ -0,0 +1,253 @@
+package com.xcs.unilock.aop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.*;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 锁名称与条件表达式的求值器。
+ *
+ * <p>解析器使用 {@link SpelCompilerMode#MIXED} 模式，表达式被多次求值后编译为字节码，
+ * 编译后的表达式不再适用时自动退回解释执行。解析后的表达式和参数名称由 {@link LockOperationMetadata} 按方法保存。</p>
+ *
+ * <p>求值时不再创建 {@link StandardEvaluationContext} 并逐个设置变量，
+ * 而是使用一个只持有参数数组的轻量上下文，按参数名称查找变量，其余的解析器、类型转换器等组件在所有调用之间共享。</p>
+ *
+ * <p>类路径中存在 unilock-processor 生成的 {@link LockExpressionExtractorProvider} 时，
+ * 对应方法上的表达式直接由生成的提取器读取方法参数，不再使用 Spring EL 求值。</p>
+ *
+ * @author xcs
+ */
+final class LockExpressionEvaluator {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockExpressionEvaluator.class);
+
+    /**
+     * 锁名称模板的解析上下文，模板中的 {@code {#order.id}} 为表达式，其余为字面量
+     */
+    private static final ParserContext TEMPLATE_CONTEXT = new TemplateParserContext("{", "}");
+
+    /**
+     * 表达式解析器，表达式被多次求值后编译为字节码
+     */
+    private final ExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+
+    /**
+     * 参数名称发现器，用于获取方法参数的名称
+     */
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 所有调用共享的求值上下文，提供属性访问器、方法解析器和类型转换器等组件
+     */
+    private final StandardEvaluationContext sharedContext = new StandardEvaluationContext();
+
+    /**
+     * 类与其编译期生成的表达式提取器
+     */
+    private final Map<Class<?>, LockExpressionExtractorProvider> extractorProviders;
+
+    LockExpressionEvaluator() {
+        this(ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * 创建求值器，并加载类加载器中所有生成的表达式提取器。
+     *
+     * @param classLoader 用于加载表达式提取器的类加载器
+     */
+    LockExpressionEvaluator(ClassLoader classLoader) {
+        Map<Class<?>, LockExpressionExtractorProvider> providers = new HashMap<>();
+        Iterator<LockExpressionExtractorProvider> iterator = ServiceLoader.load(LockExpressionExtractorProvider.class, classLoader).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                LockExpressionExtractorProvider provider = iterator.next();
+                providers.put(provider.getTargetClass(), provider);
+            } catch (ServiceConfigurationError | LinkageError e) {
+                // 过期的登记信息不影响其他类，对应的表达式退回 Spring EL 求值
+                LOGGER.warn("Failed to load lock expression extractors, falling back to Spring EL", e);
+            }
+        }
+        this.extractorProviders = providers;
+    }
+
+    /**
+     * 解析表达式。
+     *
+     * @param expression 表达式
+     * @return 已解析的表达式
+     */
+    Expression parseExpression(String expression) {
+        return parser.parseExpression(expression);
+    }
+
+    /**
+     * 解析锁名称模板，例如 {@code order:{#order.id}}。
+     *
+     * @param template 模板
+     * @return 已解析的模板表达式
+     */
+    Expression parseTemplate(String template) {
+        return parser.parseExpression(template, TEMPLATE_CONTEXT);
+    }
+
+    /**
+     * 查找编译期为方法上的表达式生成的提取器。
+     *
+     * @param method     表达式所在的方法
+     * @param expression 表达式
+     * @return 提取器，没有对应的提取器时返回 null
+     */
+    LockExpressionExtractor findExtractor(Method method, String expression) {
+        LockExpressionExtractorProvider provider = extractorProviders.get(method.getDeclaringClass());
+        if (provider == null) {
+            return null;
+        }
+        StringBuilder methodKey = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                methodKey.append(',');
+            }
+            methodKey.append(parameterTypes[i].getTypeName());
+        }
+        return provider.getExtractor(methodKey.append(')').toString(), expression);
+    }
+
+    /**
+     * 创建以方法参数作为变量的求值上下文。
+     *
+     * @param parameterIndexes 参数名称到参数下标的映射
+     * @param args             方法的参数
+     * @return 求值上下文
+     */
+    EvaluationContext createContext(Map<String, Integer> parameterIndexes, Object[] args) {
+        return new MethodArgumentsEvaluationContext(sharedContext, parameterIndexes, args);
+    }
+
+    /**
+     * 通过参数名称发现器获取方法的参数名称到参数下标的映射。
+     *
+     * @param method 方法
+     * @return 参数名称到参数下标的映射，无法获取参数名称时为空
+     */
+    Map<String, Integer> getParameterIndexes(Method method) {
+        String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
+        if (paramNames == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> indexes = new HashMap<>(paramNames.length * 2);
+        for (int i = 0; i < paramNames.length; i++) {
+            indexes.put(paramNames[i], i);
+        }
+        return indexes;
+    }
+
+    /**
+     * 以方法参数作为变量的轻量求值上下文，除变量外的所有组件都委托给共享的上下文。
+     */
+    private static final class MethodArgumentsEvaluationContext implements EvaluationContext {
+
+        private final StandardEvaluationContext delegate;
+
+        private final Map<String, Integer> parameterIndexes;
+
+        private final Object[] args;
+
+        /**
+         * 表达式中赋值的变量，只在需要时创建
+         */
+        private Map<String, Object> variables;
+
+        private MethodArgumentsEvaluationContext(StandardEvaluationContext delegate, Map<String, Integer> parameterIndexes, Object[] args) {
+            this.delegate = delegate;
+            this.parameterIndexes = parameterIndexes;
+            this.args = args;
+        }
+
+        @Override
+        public TypedValue getRootObject() {
+            return TypedValue.NULL;
+        }
+
+        @Override
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return delegate.getPropertyAccessors();
+        }
+
+        @Override
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return delegate.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return delegate.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return delegate.getBeanResolver();
+        }
+
+        @Override
+        public TypeLocator getTypeLocator() {
+            return delegate.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return delegate.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return delegate.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return delegate.getOperatorOverloader();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            if (variables == null) {
+                variables = new HashMap<>(4);
+            }
+            variables.put(name, value);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            if (variables != null && variables.containsKey(name)) {
+                return variables.get(name);
+            }
+            Integer index = parameterIndexes.get(name);
+            return index != null && index < args.length ? args[index] : null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.xcs.unilock.aop;
+
+/**
+ * 编译期生成的表达式提取器，直接从方法参数中读取锁名称或条件的值，不使用反射。
+ *
+ * <p>提取器由 unilock-processor 注解处理器根据 @UniLock 和 @UniSemaphore 注解中的名称与条件表达式生成，
+ * 通过 {@link LockExpressionExtractorProvider} 提供给拦截器。</p>
+ *
+ * @author xcs
+ */
+@FunctionalInterface
+public interface LockExpressionExtractor {
+
+    /**
+     * 从方法参数中提取表达式的值。
+     *
+     * @param args 方法的参数
+     * @return 名称表达式返回 {@link String}，条件表达式返回 {@link Boolean}
+     */
+    Object extract(Object[] args);
+}
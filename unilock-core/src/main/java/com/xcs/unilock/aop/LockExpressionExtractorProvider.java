@@ -0,0 +1,30 @@
+package com.xcs.unilock.aop;
+
+/**
+ * 一个类中所有方法上的表达式提取器，通过 {@link java.util.ServiceLoader} 加载。
+ *
+ * <p>实现类由 unilock-processor 注解处理器为每个使用了 @UniLock 或 @UniSemaphore 注解的类生成，
+ * 并登记在 {@code META-INF/services/com.xcs.unilock.aop.LockExpressionExtractorProvider} 中。
+ * 拦截器解析方法上的注解时优先使用生成的提取器，没有对应的提取器时退回 Spring EL 求值。</p>
+ *
+ * @author xcs
+ */
+public interface LockExpressionExtractorProvider {
+
+    /**
+     * 获取提取器所属的类。
+     *
+     * @return 声明注解方法的类
+     */
+    Class<?> getTargetClass();
+
+    /**
+     * 获取方法上的表达式对应的提取器。
+     *
+     * @param methodKey  方法签名，格式为方法名加上以逗号分隔的参数类型名称（{@link Class#getTypeName()}），
+     *                   例如 {@code placeOrder(com.example.Order,int)}
+     * @param expression 注解中的表达式
+     * @return 提取器，没有对应的提取器时返回 null
+     */
+    LockExpressionExtractor getExtractor(String methodKey, String expression);
+}
@@ -0,0 +1,399 @@
+package com.xcs.unilock.aop;
+
+import com.xcs.unilock.UniSemaphoreDistributed;
+import com.xcs.unilock.annotation.UniLock;
+import com.xcs.unilock.annotation.UniSemaphore;
+import com.xcs.unilock.callback.LockFailCallback;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 被拦截方法的锁操作元数据，每个方法只解析一次。
+ *
+ * <p>包含方法上合并后的 @UniLock 与 @UniSemaphore 注解、默认的锁名称、参数名称、已解析的表达式，
+ * 以及失败回调和等待策略的单例。拦截方法时只需根据元数据求值表达式并获取锁，不再查找注解或反射创建实例。</p>
+ *
+ * <p>编译期生成了提取器的表达式直接使用 {@link LockExpressionExtractor} 读取方法参数，其余表达式使用 Spring EL 求值。</p>
+ *
+ * @author xcs
+ */
+final class LockOperationMetadata {
+
+    /**
+     * 类路径中是否存在 Project Reactor
+     */
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono", LockOperationMetadata.class.getClassLoader());
+
+    /**
+     * 方法的调用方式。
+     */
+    enum InvocationKind {
+        /**
+         * 同步方法
+         */
+        SYNC,
+        /**
+         * 返回 {@link CompletionStage} 的方法
+         */
+        COMPLETION_STAGE,
+        /**
+         * 返回 Reactor 响应式类型的方法
+         */
+        REACTIVE
+    }
+
+    private final Method method;
+
+    private final InvocationKind invocationKind;
+
+    private final List<LockOperation> locks;
+
+    private final SemaphoreOperation semaphore;
+
+    /**
+     * 方法的参数名称到参数下标的映射
+     */
+    private final Map<String, Integer> parameterIndexes;
+
+    /**
+     * 是否有需要以 Spring EL 求值的表达式
+     */
+    private final boolean evaluationRequired;
+
+    /**
+     * 解析方法上的注解，创建锁操作元数据。
+     *
+     * @param method    被拦截的方法
+     * @param evaluator 表达式求值器
+     * @param router    分布式锁实现的路由
+     */
+    LockOperationMetadata(Method method, LockExpressionEvaluator evaluator, UniLockRouter router) {
+        this.method = method;
+        Class<?> returnType = method.getReturnType();
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            this.invocationKind = InvocationKind.COMPLETION_STAGE;
+        } else if (REACTOR_PRESENT && ReactiveLockSupport.isReactiveType(returnType)) {
+            this.invocationKind = InvocationKind.REACTIVE;
+        } else {
+            this.invocationKind = InvocationKind.SYNC;
+        }
+        String defaultName = method.getDeclaringClass().getPackage().getName() + "." + method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        List<LockOperation> lockOperations = new ArrayList<>();
+        for (UniLock uniLock : AnnotatedElementUtils.findMergedRepeatableAnnotations(method, UniLock.class)) {
+            lockOperations.add(new LockOperation(uniLock, method, defaultName, evaluator, router));
+        }
+        this.locks = Collections.unmodifiableList(lockOperations);
+        checkWaitStrategies(method, locks);
+        if (invocationKind != InvocationKind.SYNC) {
+            for (LockOperation lock : locks) {
+                lock.checkAsyncSupported(method);
+            }
+        }
+        UniSemaphore uniSemaphore = AnnotatedElementUtils.findMergedAnnotation(method, UniSemaphore.class);
+        this.semaphore = uniSemaphore != null ? new SemaphoreOperation(uniSemaphore, method, defaultName, evaluator, router) : null;
+        boolean required = semaphore != null && semaphore.isEvaluationRequired();
+        for (LockOperation lock : locks) {
+            required |= lock.isEvaluationRequired();
+        }
+        this.evaluationRequired = required;
+        this.parameterIndexes = required ? evaluator.getParameterIndexes(method) : Collections.emptyMap();
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 检查同一个方法上的多个 @UniLock 注解是否指定了不同的等待策略。
+     *
+     * <p>多把锁通过 {@link com.xcs.unilock.UniLockDistributed#tryLockAll} 一次性获取，只能使用一个等待策略；
+     * 未指定等待策略的注解不参与比较。</p>
+     *
+     * @param method 被注解的方法
+     * @param locks  方法上的锁操作
+     * @throws IllegalStateException 注解指定了不同的等待策略
+     */
+    private static void checkWaitStrategies(Method method, List<LockOperation> locks) {
+        Class<?> waitStrategy = null;
+        for (LockOperation lock : locks) {
+            Class<?> current = lock.getUniLock().waitStrategy();
+            if (current == WaitStrategy.class) {
+                continue;
+            }
+            if (waitStrategy != null && waitStrategy != current) {
+                throw new IllegalStateException("@UniLock annotations on the same method must not specify different wait strategies ("
+                        + waitStrategy.getName() + ", " + current.getName() + "): " + method);
+            }
+            waitStrategy = current;
+        }
+    }
+
+    InvocationKind getInvocationKind() {
+        return invocationKind;
+    }
+
+    List<LockOperation> getLocks() {
+        return locks;
+    }
+
+    /**
+     * 获取方法上的信号量操作。
+     *
+     * @return 信号量操作，方法上没有 @UniSemaphore 注解时返回 null
+     */
+    SemaphoreOperation getSemaphore() {
+        return semaphore;
+    }
+
+    /**
+     * 创建本次调用的求值上下文。
+     *
+     * @param evaluator 表达式求值器
+     * @param args      方法的参数
+     * @return 求值上下文，方法上没有需要以 Spring EL 求值的表达式时返回 null
+     */
+    EvaluationContext createContext(LockExpressionEvaluator evaluator, Object[] args) {
+        return evaluationRequired ? evaluator.createContext(parameterIndexes, args) : null;
+    }
+
+    /**
+     * 注解中的一个操作：条件表达式、名称（字面量或表达式）、失败回调和等待策略。
+     */
+    abstract static class AnnotatedOperation {
+
+        /**
+         * 条件表达式，没有配置条件或条件由提取器读取时为 null
+         */
+        private final Expression condition;
+
+        /**
+         * 编译期生成的条件提取器，没有生成时为 null
+         */
+        private final LockExpressionExtractor conditionExtractor;
+
+        /**
+         * 字面量名称，名称为表达式时为 null
+         */
+        private final String name;
+
+        /**
+         * 名称表达式或模板，名称为字面量或由提取器读取时为 null
+         */
+        private final Expression nameExpression;
+
+        /**
+         * 编译期生成的名称提取器，没有生成时为 null
+         */
+        private final LockExpressionExtractor nameExtractor;
+
+        /**
+         * 指标中使用的名称模板：注解中配置的名称，未配置时为默认名称
+         */
+        private final String nameTemplate;
+
+        /**
+         * 失败回调的单例
+         */
+        private final LockFailCallback<?> callback;
+
+        /**
+         * 等待策略的单例，使用分布式锁实现配置的等待策略时为 null
+         */
+        private final WaitStrategy waitStrategy;
+
+        AnnotatedOperation(String condition, String name, Class<? extends LockFailCallback<?>> onFail,
+                           Class<? extends WaitStrategy> waitStrategy, Method method, String defaultName, LockExpressionEvaluator evaluator) {
+            if (StringUtils.hasText(condition)) {
+                this.conditionExtractor = evaluator.findExtractor(method, condition);
+                this.condition = conditionExtractor == null ? evaluator.parseExpression(condition) : null;
+            } else {
+                this.conditionExtractor = null;
+                this.condition = null;
+            }
+            if (!StringUtils.hasText(name)) {
+                // 如果没有指定 name 属性，则使用默认的包名+类名+方法名作为名称
+                this.name = defaultName;
+                this.nameExpression = null;
+                this.nameExtractor = null;
+                this.nameTemplate = defaultName;
+            } else if (name.contains("#")) {
+                // 以 '#' 引用方法参数的名称为模板（如 order:{#order.id}）或 SpEL 表达式
+                this.name = null;
+                this.nameExtractor = evaluator.findExtractor(method, name);
+                if (nameExtractor != null) {
+                    this.nameExpression = null;
+                } else {
+                    this.nameExpression = name.contains("{#") ? evaluator.parseTemplate(name) : evaluator.parseExpression(name);
+                }
+                this.nameTemplate = name;
+            } else {
+                this.name = name;
+                this.nameExpression = null;
+                this.nameExtractor = null;
+                this.nameTemplate = name;
+            }
+            this.callback = BeanUtils.instantiateClass(onFail);
+            this.waitStrategy = waitStrategy == WaitStrategy.class ? null : BeanUtils.instantiateClass(waitStrategy);
+        }
+
+        /**
+         * 评估条件表达式，用于决定是否执行该操作。
+         *
+         * @param context 求值上下文
+         * @param args    方法的参数
+         * @return 没有配置条件或条件满足时返回 {@code true}
+         */
+        boolean matches(EvaluationContext context, Object[] args) {
+            if (conditionExtractor != null) {
+                return !Boolean.FALSE.equals(conditionExtractor.extract(args));
+            }
+            return condition == null || !Boolean.FALSE.equals(condition.getValue(context, Boolean.class));
+        }
+
+        /**
+         * 解析名称。
+         *
+         * @param context 求值上下文
+         * @param args    方法的参数
+         * @return 解析后的名称
+         */
+        String resolveName(EvaluationContext context, Object[] args) {
+            if (nameExtractor != null) {
+                return (String) nameExtractor.extract(args);
+            }
+            return nameExpression != null ? nameExpression.getValue(context, String.class) : name;
+        }
+
+        String getNameTemplate() {
+            return nameTemplate;
+        }
+
+        LockFailCallback<?> getCallback() {
+            return callback;
+        }
+
+        /**
+         * 获取注解中指定的等待策略。
+         *
+         * @return 等待策略，使用分布式锁实现配置的等待策略时返回 null
+         */
+        WaitStrategy getWaitStrategy() {
+            return waitStrategy;
+        }
+
+        /**
+         * 是否有需要以 Spring EL 求值的表达式。
+         *
+         * @return 是否需要求值
+         */
+        boolean isEvaluationRequired() {
+            return condition != null || nameExpression != null;
+        }
+    }
+
+    /**
+     * 一个 @UniLock 注解对应的锁操作。
+     */
+    static final class LockOperation extends AnnotatedOperation {
+
+        private final UniLock uniLock;
+
+        /**
+         * 注解指定的实现或者没有路由规则时默认实现对应的模板，需要按锁名称路由时为 null
+         */
+        private final UniLockTemplate template;
+
+        LockOperation(UniLock uniLock, Method method, String defaultName, LockExpressionEvaluator evaluator, UniLockRouter router) {
+            super(uniLock.condition(), uniLock.name(), uniLock.onFail(), uniLock.waitStrategy(), method, defaultName, evaluator);
+            this.uniLock = uniLock;
+            if (StringUtils.hasText(uniLock.backend())) {
+                this.template = router.getTemplate(uniLock.backend());
+            } else {
+                this.template = router.hasRoutes() ? null : router.getDefaultTemplate();
+            }
+        }
+
+        UniLock getUniLock() {
+            return uniLock;
+        }
+
+        /**
+         * 检查异步方法上的锁使用的实现是否支持异步获取锁，按锁名称路由的锁只能在调用时检查。
+         *
+         * @param method 被注解的异步方法
+         * @throws UnsupportedOperationException 使用的实现不支持异步获取锁
+         */
+        void checkAsyncSupported(Method method) {
+            if (template != null && !template.getUniLockDistributed().asyncSupported()) {
+                throw new UnsupportedOperationException("@UniLock on asynchronous method requires a UniLockDistributed that supports asynchronous locks, "
+                        + template.getUniLockDistributed().getClass().getName() + " does not: " + method);
+            }
+        }
+
+        /**
+         * 获取锁名称对应的模板。
+         *
+         * @param router   分布式锁实现的路由
+         * @param lockName 解析后的锁名称
+         * @return 使用的实现对应的模板
+         */
+        UniLockTemplate resolveTemplate(UniLockRouter router, String lockName) {
+            return template != null ? template : router.route(lockName);
+        }
+    }
+
+    /**
+     * @UniSemaphore 注解对应的信号量操作。
+     */
+    static final class SemaphoreOperation extends AnnotatedOperation {
+
+        private final UniSemaphore uniSemaphore;
+
+        /**
+         * 注解指定的实现或者没有路由规则时默认实现对应的分布式信号量，需要按信号量名称路由时为 null
+         */
+        private final UniSemaphoreDistributed<?> semaphore;
+
+        SemaphoreOperation(UniSemaphore uniSemaphore, Method method, String defaultName, LockExpressionEvaluator evaluator, UniLockRouter router) {
+            super(uniSemaphore.condition(), uniSemaphore.name(), uniSemaphore.onFail(), uniSemaphore.waitStrategy(), method, defaultName, evaluator);
+            this.uniSemaphore = uniSemaphore;
+            if (StringUtils.hasText(uniSemaphore.backend())) {
+                this.semaphore = router.getSemaphore(uniSemaphore.backend());
+            } else if (router.hasRoutes()) {
+                this.semaphore = null;
+            } else if (router.getDefaultSemaphore() != null) {
+                this.semaphore = router.getDefaultSemaphore();
+            } else {
+                throw new IllegalStateException("No UniSemaphoreDistributed configured for @UniSemaphore method: " + method
+                        + ", enable a backend that provides semaphores or set the backend attribute");
+            }
+        }
+
+        UniSemaphore getUniSemaphore() {
+            return uniSemaphore;
+        }
+
+        /**
+         * 获取信号量名称对应的分布式信号量。
+         *
+         * @param router        分布式锁实现的路由
+         * @param semaphoreName 解析后的信号量名称
+         * @return 使用的分布式信号量
+         */
+        UniSemaphoreDistributed<?> resolveSemaphore(UniLockRouter router, String semaphoreName) {
+            return semaphore != null ? semaphore : router.routeSemaphore(semaphoreName);
+        }
+    }
+}
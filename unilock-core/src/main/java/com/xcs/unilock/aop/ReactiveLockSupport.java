@@ -0,0 +1,113 @@
+package com.xcs.unilock.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.ProxyMethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 为返回 {@link Mono} 或 {@link Flux} 的方法提供分布式锁支持。
+ *
+ * <p>每次订阅时异步获取锁，在方法返回的 {@link Publisher} 完成、出错或被取消后异步释放锁，
+ * 整个过程不会阻塞订阅线程。只有类路径中存在 Project Reactor 时才会加载该类。</p>
+ *
+ * @author xcs
+ */
+final class ReactiveLockSupport {
+
+    private ReactiveLockSupport() {
+    }
+
+    /**
+     * 判断返回值类型是否为 Reactor 的响应式类型。
+     *
+     * @param returnType 方法的返回值类型
+     * @return 如果是 {@link Mono} 或 {@link Flux}，则返回 {@code true}
+     */
+    static boolean isReactiveType(Class<?> returnType) {
+        return Mono.class.isAssignableFrom(returnType) || Flux.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * 拦截返回 {@link Mono} 或 {@link Flux} 的方法。
+     *
+     * @param interceptor 拦截器
+     * @param locks       需要获取的锁
+     * @param invocation  方法调用
+     * @return 持有锁期间执行方法的 {@link Mono} 或 {@link Flux}
+     */
+    static Object invoke(UniLockInterceptor interceptor, List<UniLockInterceptor.PendingLock> locks, MethodInvocation invocation) {
+        Mono<UniLockInterceptor.AsyncLockResult> acquire = Mono.defer(() -> acquire(interceptor, locks));
+        if (Mono.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+            return Mono.usingWhen(acquire,
+                    result -> Mono.from(proceed(interceptor, invocation, result)),
+                    result -> release(interceptor, result),
+                    (result, error) -> release(interceptor, result),
+                    result -> release(interceptor, result));
+        }
+        return Flux.usingWhen(acquire,
+                result -> proceed(interceptor, invocation, result),
+                result -> release(interceptor, result),
+                (result, error) -> release(interceptor, result),
+                result -> release(interceptor, result));
+    }
+
+    /**
+     * 异步获取锁。在获取结果交给 usingWhen 之前取消订阅时，取消正在进行的获取并释放已获取的锁，
+     * 获取已经完成但结果尚未发出时同样释放，避免锁被遗留并一直续期。
+     *
+     * @param interceptor 拦截器
+     * @param locks       需要获取的锁
+     * @return 获取锁的结果的 {@link Mono}
+     */
+    private static Mono<UniLockInterceptor.AsyncLockResult> acquire(UniLockInterceptor interceptor, List<UniLockInterceptor.PendingLock> locks) {
+        CompletableFuture<UniLockInterceptor.AsyncLockResult> future = interceptor.acquireAsync(locks);
+        // 在取消信号传递到上游之后再取消获取，Future 因取消而异常完成时不会再向下游发出错误
+        return Mono.fromFuture(future).doFinally(signal -> {
+            if (signal == SignalType.CANCEL && !future.cancel(false)) {
+                future.thenAccept(interceptor::releaseAsync);
+            }
+        });
+    }
+
+    /**
+     * 获取锁成功时执行方法，获取失败时执行锁获取失败的回调。
+     *
+     * @param interceptor 拦截器
+     * @param invocation  方法调用
+     * @param result      获取锁的结果
+     * @return 方法或回调返回的 {@link Publisher}
+     */
+    private static Publisher<?> proceed(UniLockInterceptor interceptor, MethodInvocation invocation, UniLockInterceptor.AsyncLockResult result) {
+        Object value;
+        try {
+            if (result.getFailedLock() != null) {
+                value = interceptor.invokeCallback(result.getFailedLock(), invocation);
+            } else if (invocation instanceof ProxyMethodInvocation) {
+                // 每次订阅都使用独立的调用副本，保证重新订阅时拦截器链能够完整地再执行一次
+                value = ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+            } else {
+                value = invocation.proceed();
+            }
+        } catch (Throwable e) {
+            return Mono.error(e);
+        }
+        return value != null ? (Publisher<?>) value : Mono.empty();
+    }
+
+    /**
+     * 异步释放已获取的锁。
+     *
+     * @param interceptor 拦截器
+     * @param result      获取锁的结果
+     * @return 释放完成的 {@link Mono}
+     */
+    private static Mono<Void> release(UniLockInterceptor interceptor, UniLockInterceptor.AsyncLockResult result) {
+        return Mono.fromFuture(() -> interceptor.releaseAsync(result));
+    }
+}
@@ -1,15 +1,25 @@
 package com.xcs.unilock.aop;
 
 import com.xcs.unilock.UniLockDistributed;
+import com.xcs.unilock.UniSemaphoreDistributed;
+import com.xcs.unilock.annotation.UniLock;
 import com.xcs.unilock.annotation.UniLocks;
+import com.xcs.unilock.annotation.UniSemaphore;
+import com.xcs.unilock.metrics.UniLockMetrics;
 import org.aopalliance.aop.Advice;
+import org.springframework.aop.ClassFilter;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.support.AbstractPointcutAdvisor;
 import org.springframework.aop.support.ComposablePointcut;
 import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Map;
 
 /**
- * UniLockAdvisor 是一个切面类，用于拦截带有 @UniLock 和 @UniLocks 注解的方法。
+ * UniLockAdvisor 是一个切面类，用于拦截带有 @UniLock、@UniLocks 和 @UniSemaphore 注解的方法。
  * 它利用 AOP（面向切面编程）机制，在方法执行前后处理分布式锁的获取和释放。
  * 通过组合多个切入点，本类支持在同一个方法上同时使用多个锁，并确保这些锁在方法执行过程中正确获取和释放。
  *
@@ -19,7 +29,7 @@ import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 public class UniLockAdvisor extends AbstractPointcutAdvisor {
 
     /**
-     * 定义切入点，用于捕捉 @UniLock 和 @UniLocks 注解的方法
+     * 定义切入点，用于捕捉 @UniLock、@UniLocks 和 @UniSemaphore 注解的方法
      */
     private final Pointcut pointcut;
 
@@ -29,14 +39,71 @@ public class UniLockAdvisor extends AbstractPointcutAdvisor {
     private final UniLockInterceptor interceptor;
 
     public UniLockAdvisor(UniLockDistributed uniLockDistributed) {
+        this(uniLockDistributed, null);
+    }
+
+    public UniLockAdvisor(UniLockDistributed uniLockDistributed, UniSemaphoreDistributed uniSemaphoreDistributed) {
+        this(new UniLockRouter(uniLockDistributed, uniSemaphoreDistributed));
+    }
+
+    public UniLockAdvisor(UniLockRouter router) {
         // 创建针对 @UniLock 注解的切入点
-        Pointcut uniLockPointcut = new AnnotationMatchingPointcut(null, com.xcs.unilock.annotation.UniLock.class);
+        Pointcut uniLockPointcut = new AnnotationMatchingPointcut(null, UniLock.class);
         // 创建针对 @UniLocks 注解的切入点
         Pointcut uniLocksPointcut = new AnnotationMatchingPointcut(null, UniLocks.class);
-        // 组合两个切入点，支持同时匹配 @UniLock 和 @UniLocks 注解
-        this.pointcut = new ComposablePointcut(uniLockPointcut).union(uniLocksPointcut);
+        // 创建针对 @UniSemaphore 注解的切入点
+        Pointcut uniSemaphorePointcut = new AnnotationMatchingPointcut(null, UniSemaphore.class);
         // 初始化拦截器
-        this.interceptor = new UniLockInterceptor(uniLockDistributed);
+        this.interceptor = new UniLockInterceptor(router);
+        // 组合切入点，支持同时匹配 @UniLock、@UniLocks 和 @UniSemaphore 注解，并在创建代理时校验注解
+        this.pointcut = new ComposablePointcut(uniLockPointcut).union(uniLocksPointcut).union(uniSemaphorePointcut)
+                .intersection(new MetadataValidatingClassFilter(interceptor));
+    }
+
+    /**
+     * 设置指标记录器，用于记录被注解的方法等待锁和持有锁的时间。
+     *
+     * @param metrics 指标记录器
+     */
+    public void setMetrics(UniLockMetrics metrics) {
+        interceptor.setMetrics(metrics);
+    }
+
+    /**
+     * 在判断是否为类创建代理时解析类中所有被注解方法的锁操作元数据，注解引用了不存在的实现、
+     * 信号量没有可用的分布式信号量或者异步方法使用了不支持异步获取锁的实现时在容器启动阶段失败，而不是等到方法第一次被调用时。
+     */
+    private static final class MetadataValidatingClassFilter implements ClassFilter {
+
+        private final UniLockInterceptor interceptor;
+
+        /**
+         * 已经校验过的类，代理为每个方法构建拦截器链时也会调用本过滤器
+         */
+        private final Map<Class<?>, Boolean> validated = new ConcurrentReferenceHashMap<>();
+
+        private MetadataValidatingClassFilter(UniLockInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public boolean matches(Class<?> clazz) {
+            if (validated.containsKey(clazz)) {
+                return true;
+            }
+            ReflectionUtils.doWithMethods(clazz, method -> {
+                if (AnnotatedElementUtils.hasAnnotation(method, UniLock.class) || AnnotatedElementUtils.hasAnnotation(method, UniLocks.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, UniSemaphore.class)) {
+                    try {
+                        interceptor.getMetadata(method);
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("Invalid lock annotations on " + method + ": " + e.getMessage(), e);
+                    }
+                }
+            }, ReflectionUtils.USER_DECLARED_METHODS);
+            validated.put(clazz, Boolean.TRUE);
+            return true;
+        }
     }
 
     @Override
@@ -0,0 +1,80 @@
+package com.xcs.unilock.aop;
+
+import com.xcs.unilock.UniLockResponse;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 通过 {@link UniLockTemplate} 获取到的锁，配合 try-with-resources 使用，关闭时释放锁并记录持有锁的时间。
+ *
+ * <pre>{@code
+ * try (UniLockHandle handle = uniLockTemplate.lock("order:" + orderId, 30000, 3000)) {
+ *     orderRepository.save(order, handle.getFencingToken());
+ * }
+ * }</pre>
+ *
+ * <p>与 {@link com.xcs.unilock.UniLockDistributed#unlock} 一致，需要在获取锁的线程中关闭；重复关闭不会重复释放锁。</p>
+ *
+ * @author xcs
+ */
+public final class UniLockHandle implements AutoCloseable {
+
+    private final UniLockTemplate template;
+
+    private final List<UniLockResponse<?>> responses;
+
+    private final String metricName;
+
+    private final long acquiredNanos;
+
+    /**
+     * 是否通过 {@link com.xcs.unilock.UniLockDistributed#tryLockAll} 一次性获取，是则同样一次性释放
+     */
+    private final boolean batch;
+
+    private boolean closed;
+
+    UniLockHandle(UniLockTemplate template, List<UniLockResponse<?>> responses, String metricName, long acquiredNanos, boolean batch) {
+        this.template = template;
+        this.responses = Collections.unmodifiableList(responses);
+        this.metricName = metricName;
+        this.acquiredNanos = acquiredNanos;
+        this.batch = batch;
+    }
+
+    /**
+     * 获取所有锁的响应结果。
+     *
+     * @return 锁的响应结果，顺序与获取锁的顺序一致
+     */
+    public List<UniLockResponse<?>> getResponses() {
+        return responses;
+    }
+
+    /**
+     * 获取第一把锁的栅栏令牌，获取多把锁时可以通过 {@link #getResponses()} 获取每把锁的栅栏令牌。
+     *
+     * @return 栅栏令牌，后端不提供时为 {@link UniLockResponse#NO_FENCING_TOKEN}
+     */
+    public long getFencingToken() {
+        return responses.get(0).getFencingToken();
+    }
+
+    /**
+     * 释放所有锁，释放失败时只记录日志。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        template.recordHold(metricName, acquiredNanos);
+        if (batch) {
+            template.unlockAll(responses);
+        } else {
+            template.unlock(responses);
+        }
+    }
+}
@@ -1,29 +1,40 @@
 package com.xcs.unilock.aop;
 
 
+import com.xcs.unilock.LockMode;
 import com.xcs.unilock.UniLockDistributed;
 import com.xcs.unilock.UniLockResponse;
+import com.xcs.unilock.UniPermitResponse;
+import com.xcs.unilock.UniSemaphoreDistributed;
+import com.xcs.unilock.annotation.UniSemaphore;
 import com.xcs.unilock.callback.LockFailCallback;
+import com.xcs.unilock.aop.LockOperationMetadata.LockOperation;
+import com.xcs.unilock.aop.LockOperationMetadata.SemaphoreOperation;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import com.xcs.unilock.wait.WaitStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
-import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.core.ParameterNameDiscoverer;
-import org.springframework.core.annotation.AnnotatedElementUtils;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.util.StringUtils;
+import org.springframework.expression.EvaluationContext;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * UniLockInterceptor 拦截器用于在方法调用前后处理分布式锁的获取与释放。
  * 它基于 @UniLock 注解，结合 AOP 和 Spring EL 表达式，来实现灵活的锁机制。
+ * 方法上标注 @UniSemaphore 时，先获取信号量许可再获取锁，用于限制方法的并发数。
+ * 每个方法上的注解在第一次调用时解析为 {@link LockOperationMetadata} 并缓存，之后的调用只需求值表达式并获取锁。
  *
  * @author xcs
  */
@@ -36,124 +47,695 @@ public class UniLockInterceptor implements MethodInterceptor {
     private static final Logger LOGGER = LoggerFactory.getLogger(UniLockInterceptor.class);
 
     /**
-     * 分布式锁的实例，用于操作锁的获取与释放
+     * 分布式锁实现的路由，为每把锁选择使用的分布式锁实现
      */
-    private final UniLockDistributed uniLockDistributed;
+    private final UniLockRouter router;
 
     /**
-     * 表达式解析器，用于解析和评估 Spring EL 表达式
+     * 表达式求值器，用于解析和评估 Spring EL 表达式
      */
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final LockExpressionEvaluator evaluator = new LockExpressionEvaluator();
 
     /**
-     * 参数名称发现器，用于获取方法参数的名称
+     * 方法与其锁操作元数据的缓存
      */
-    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final ConcurrentMap<Method, LockOperationMetadata> metadataCache = new ConcurrentHashMap<>(64);
 
     public UniLockInterceptor(UniLockDistributed uniLockDistributed) {
-        this.uniLockDistributed = uniLockDistributed;
+        this(uniLockDistributed, null);
+    }
+
+    public UniLockInterceptor(UniLockDistributed uniLockDistributed, UniSemaphoreDistributed uniSemaphoreDistributed) {
+        this(new UniLockRouter(uniLockDistributed, uniSemaphoreDistributed));
+    }
+
+    public UniLockInterceptor(UniLockRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * 设置指标记录器。
+     *
+     * @param metrics 指标记录器
+     */
+    public void setMetrics(UniLockMetrics metrics) {
+        router.setMetrics(metrics);
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        // 获取被拦截的方法
-        Method method = invocation.getMethod();
-        // 锁的响应结果
-        List<UniLockResponse<?>> responses = new ArrayList<>();
-        try {
-            // 获取方法上的所有 @UniLock 注解
-            for (com.xcs.unilock.annotation.UniLock uniLock : AnnotatedElementUtils.findMergedRepeatableAnnotations(method, com.xcs.unilock.annotation.UniLock.class)) {
-                // 解析 condition 条件表达式
-                String condition = uniLock.condition();
-                // 如果条件表达式不为空且评估结果为 false，则跳过锁的获取，直接执行方法
-                if (StringUtils.hasText(condition) && Boolean.FALSE.equals(evaluateCondition(condition, method, invocation.getArguments()))) {
-                    return invocation.proceed();
+        LockOperationMetadata metadata = getMetadata(invocation.getMethod());
+        switch (metadata.getInvocationKind()) {
+            // 异步方法在返回时业务逻辑尚未执行，需要在异步结果完成后再释放锁
+            case COMPLETION_STAGE:
+                return invokeCompletionStage(metadata, invocation);
+            case REACTIVE:
+                return ReactiveLockSupport.invoke(this, resolveLocks(metadata, invocation), invocation);
+            default:
+                if (metadata.getSemaphore() != null) {
+                    return invokeWithPermits(metadata, invocation);
                 }
-                // 获取锁的名称，若未指定则自动生成
-                String lockName = getLockName(uniLock.name(), method, invocation.getArguments());
-                UniLockResponse<?> response = this.uniLockDistributed.tryLock(lockName, uniLock.leaseTime(), uniLock.waitTime());
-                // 如果获取锁失败
+                return invokeLocked(resolveLocks(metadata, invocation), invocation);
+        }
+    }
+
+    /**
+     * 获取方法的锁操作元数据，第一次调用时解析方法上的注解并缓存。
+     *
+     * @param method 被拦截的方法
+     * @return 锁操作元数据
+     */
+    LockOperationMetadata getMetadata(Method method) {
+        LockOperationMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, this::createMetadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * 解析方法上的注解，创建锁操作元数据。
+     *
+     * @param method 被拦截的方法
+     * @return 锁操作元数据
+     */
+    private LockOperationMetadata createMetadata(Method method) {
+        LockOperationMetadata metadata = new LockOperationMetadata(method, evaluator, router);
+        if (metadata.getSemaphore() != null && metadata.getInvocationKind() != LockOperationMetadata.InvocationKind.SYNC) {
+            throw new UnsupportedOperationException("@UniSemaphore is not supported on asynchronous methods: " + method);
+        }
+        return metadata;
+    }
+
+    /**
+     * 获取信号量许可后再按 @UniLock 注解获取锁并执行目标方法，方法结束后归还许可。
+     *
+     * @param metadata   锁操作元数据
+     * @param invocation 方法调用
+     * @return 方法结果
+     * @throws Throwable 方法或回调抛出的异常
+     */
+    private Object invokeWithPermits(LockOperationMetadata metadata, MethodInvocation invocation) throws Throwable {
+        SemaphoreOperation operation = metadata.getSemaphore();
+        Object[] args = invocation.getArguments();
+        EvaluationContext context = metadata.createContext(evaluator, args);
+        if (!operation.matches(context, args)) {
+            return invokeLocked(resolveLocks(metadata, context, args), invocation);
+        }
+        UniSemaphore uniSemaphore = operation.getUniSemaphore();
+        String semaphoreName = operation.resolveName(context, args);
+        UniSemaphoreDistributed uniSemaphoreDistributed = operation.resolveSemaphore(router, semaphoreName);
+        UniPermitResponse<?> response;
+        if (operation.getWaitStrategy() == null) {
+            response = uniSemaphoreDistributed.tryAcquire(semaphoreName, uniSemaphore.maxPermits(), uniSemaphore.permits(),
+                    uniSemaphore.leaseTime(), uniSemaphore.waitTime());
+        } else {
+            response = uniSemaphoreDistributed.tryAcquire(semaphoreName, uniSemaphore.maxPermits(), uniSemaphore.permits(),
+                    uniSemaphore.leaseTime(), uniSemaphore.waitTime(), operation.getWaitStrategy());
+        }
+        // 如果获取许可失败，执行获取失败的回调
+        if (response == null) {
+            return invokeCallback(operation.getCallback(), semaphoreName, invocation);
+        }
+        try {
+            return invokeLocked(resolveLocks(metadata, context, args), invocation);
+        } finally {
+            if (!uniSemaphoreDistributed.release(response)) {
+                LOGGER.warn("Failed to release semaphore: {}", response.getSemaphoreName());
+            }
+        }
+    }
+
+    /**
+     * 按 @UniLock 注解获取锁后执行目标方法，方法结束后释放锁。
+     *
+     * @param locks      需要获取的锁
+     * @param invocation 方法调用
+     * @return 方法结果
+     * @throws Throwable 方法或回调抛出的异常
+     */
+    private Object invokeLocked(List<PendingLock> locks, MethodInvocation invocation) throws Throwable {
+        if (locks.isEmpty()) {
+            return invocation.proceed();
+        }
+        if (locks.size() > 1) {
+            return invokeWithLocks(locks, invocation);
+        }
+        PendingLock lock = locks.get(0);
+        UniLockHandle handle = tryLock(lock, nameTemplate(locks));
+        // 如果获取锁失败，执行锁获取失败的回调
+        if (handle == null) {
+            return invokeCallback(lock, invocation);
+        }
+        try {
+            // 成功获取锁后，执行目标方法
+            return invocation.proceed();
+        } finally {
+            handle.close();
+        }
+    }
+
+    /**
+     * 通过 {@link UniLockDistributed#tryLockAll} 一次性获取多把锁后执行目标方法。
+     *
+     * <p>所有锁使用各注解中最长的过期时间与等待时间以及注解指定的等待策略，共享同一个截止时间；获取失败时执行第一个注解的失败回调。
+     * 包含读写锁时按锁名称的顺序逐个获取。</p>
+     *
+     * @param locks      需要获取的锁
+     * @param invocation 方法调用
+     * @return 方法结果
+     * @throws Throwable 方法或回调抛出的异常
+     */
+    private Object invokeWithLocks(List<PendingLock> locks, MethodInvocation invocation) throws Throwable {
+        for (PendingLock lock : locks) {
+            if (lock.getUniLock().mode() != LockMode.EXCLUSIVE) {
+                return invokeWithLocksInOrder(locks, invocation);
+            }
+        }
+        List<String> lockNames = new ArrayList<>(locks.size());
+        long leaseTime = 0;
+        long waitTime = 0;
+        WaitStrategy waitStrategy = null;
+        for (PendingLock lock : locks) {
+            lockNames.add(lock.getLockName());
+            leaseTime = Math.max(leaseTime, lock.getUniLock().leaseTime());
+            waitTime = Math.max(waitTime, lock.getUniLock().waitTime());
+            if (waitStrategy == null) {
+                waitStrategy = lock.getOperation().getWaitStrategy();
+            }
+        }
+        UniLockHandle handle = template(locks).tryLockAll(lockNames, leaseTime, waitTime, waitStrategy, nameTemplate(locks));
+        if (handle == null) {
+            return invokeCallback(locks.get(0), invocation);
+        }
+        try {
+            return invocation.proceed();
+        } finally {
+            handle.close();
+        }
+    }
+
+    /**
+     * 按锁名称的顺序逐个获取多把锁后执行目标方法，任意一把锁获取失败时释放已获取的锁并执行其失败回调。
+     *
+     * @param locks      需要获取的锁
+     * @param invocation 方法调用
+     * @return 方法结果
+     * @throws Throwable 方法或回调抛出的异常
+     */
+    private Object invokeWithLocksInOrder(List<PendingLock> locks, MethodInvocation invocation) throws Throwable {
+        List<PendingLock> sortedLocks = new ArrayList<>(locks);
+        sortedLocks.sort(Comparator.comparing(PendingLock::getLockName));
+        List<UniLockResponse<?>> responses = new ArrayList<>(sortedLocks.size());
+        UniLockTemplate template = template(locks);
+        String nameTemplate = nameTemplate(locks);
+        long startNanos = System.nanoTime();
+        try {
+            for (PendingLock lock : sortedLocks) {
+                UniLockResponse<?> response = tryLock(lock);
                 if (response == null) {
-                    // 通过反射创建实例
-                    LockFailCallback callback = BeanUtils.instantiateClass(uniLock.onFail());
-                    // 执行回调方法
-                    Object callbackResult = callback.onFail(lockName, invocation);
-                    // 检查回调的返回值类型是否与被拦截方法的返回值类型一致
-                    if (callbackResult != null && !method.getReturnType().isInstance(callbackResult)) {
-                        throw new IllegalStateException(String.format("Lock failure callback return type mismatch. Expected: %s, but got: %s from callback.",
-                                method.getReturnType().getName(), callbackResult.getClass().getName()));
-                    }
-                    return callbackResult;
+                    template.unlock(responses);
+                    responses.clear();
+                    template.recordWait(nameTemplate, UniLockMetrics.Outcome.TIMEOUT, startNanos);
+                    return invokeCallback(lock, invocation);
                 }
                 responses.add(response);
             }
-            // 成功获取锁后，执行目标方法
-            return invocation.proceed();
+            long acquiredNanos = template.recordWait(nameTemplate, UniLockMetrics.Outcome.SUCCESS, startNanos);
+            try {
+                return invocation.proceed();
+            } finally {
+                template.recordHold(nameTemplate, acquiredNanos);
+            }
         } finally {
-            // 逐一释放所有锁
-            for (UniLockResponse<?> response : responses) {
-                if (!uniLockDistributed.unlock(response)) {
-                    LOGGER.warn("Failed to unlock: {}", response.getLockName());
+            template.unlock(responses);
+        }
+    }
+
+    /**
+     * 拦截返回 {@link CompletionStage} 的方法：异步获取锁，在方法返回的 {@link CompletionStage} 完成后异步释放锁。
+     *
+     * @param metadata   锁操作元数据
+     * @param invocation 方法调用
+     * @return 方法结果的 {@link CompletableFuture}
+     */
+    private Object invokeCompletionStage(LockOperationMetadata metadata, MethodInvocation invocation) {
+        List<PendingLock> locks = resolveLocks(metadata, invocation);
+        CompletableFuture<AsyncLockResult> acquire = acquireAsync(locks);
+        CompletableFuture<Object> future = acquire.thenCompose(result -> {
+            if (result.getFailedLock() != null) {
+                return onFailAsync(result.getFailedLock(), invocation);
+            }
+            CompletionStage<?> stage;
+            try {
+                stage = (CompletionStage<?>) invocation.proceed();
+            } catch (Throwable e) {
+                return releaseAsync(result).thenCompose(ignored -> failedFuture(e));
+            }
+            if (stage == null) {
+                return releaseAsync(result).thenApply(ignored -> null);
+            }
+            CompletableFuture<Object> completion = new CompletableFuture<>();
+            // 先释放锁，再传递方法的结果，保证后续的调用能立即获取到锁
+            stage.whenComplete((value, error) -> releaseAsync(result).whenComplete((ignored, releaseError) -> {
+                if (error != null) {
+                    completion.completeExceptionally(error);
+                } else {
+                    completion.complete(value);
                 }
+            }));
+            return completion;
+        });
+        // 调用方取消时停止获取锁；已经获取到锁时方法照常执行，锁在方法返回的 CompletionStage 完成后释放
+        future.whenComplete((ignored, error) -> {
+            if (future.isCancelled()) {
+                acquire.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 按方法上的所有 @UniLock 注解解析需要获取的锁。
+     *
+     * @param metadata   锁操作元数据
+     * @param invocation 方法调用
+     * @return 需要获取的锁
+     */
+    private List<PendingLock> resolveLocks(LockOperationMetadata metadata, MethodInvocation invocation) {
+        if (metadata.getLocks().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Object[] args = invocation.getArguments();
+        return resolveLocks(metadata, metadata.createContext(evaluator, args), args);
+    }
+
+    /**
+     * 按方法上的所有 @UniLock 注解解析需要获取的锁。
+     * 与同步调用一致，遇到条件表达式评估结果为 false 的注解时，不再获取该注解及其后的锁。
+     *
+     * @param metadata 锁操作元数据
+     * @param context  本次调用的求值上下文
+     * @param args     方法的参数
+     * @return 需要获取的锁
+     */
+    private List<PendingLock> resolveLocks(LockOperationMetadata metadata, EvaluationContext context, Object[] args) {
+        List<LockOperation> operations = metadata.getLocks();
+        if (operations.size() == 1) {
+            LockOperation operation = operations.get(0);
+            return operation.matches(context, args) ? Collections.singletonList(pendingLock(operation, operation.resolveName(context, args))) : Collections.emptyList();
+        }
+        List<PendingLock> locks = new ArrayList<>(operations.size());
+        for (LockOperation operation : operations) {
+            if (!operation.matches(context, args)) {
+                break;
             }
+            locks.add(pendingLock(operation, operation.resolveName(context, args)));
         }
+        return locks;
     }
 
     /**
-     * 评估给定的条件表达式，用于决定是否尝试获取锁。
+     * 创建待获取的锁，并为其选择使用的分布式锁实现。
      *
-     * @param condition 条件表达式（支持 Spring EL）
-     * @param method    当前被调用的方法
-     * @param args      方法的参数
-     * @return 条件表达式的评估结果，true 表示满足条件
+     * @param operation 锁操作
+     * @param lockName  解析后的锁名称
+     * @return 待获取的锁
      */
-    private Boolean evaluateCondition(String condition, Method method, Object[] args) {
-        // 创建评估上下文
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        // 获取方法参数的名称
-        String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
-        // 将参数名和参数值添加到评估上下文中
-        if (paramNames != null) {
-            for (int i = 0; i < args.length; i++) {
-                context.setVariable(paramNames[i], args[i]);
+    private PendingLock pendingLock(LockOperation operation, String lockName) {
+        return new PendingLock(operation, lockName, operation.resolveTemplate(router, lockName));
+    }
+
+    /**
+     * 获取多把锁共同使用的分布式锁实现对应的模板。
+     *
+     * @param locks 需要获取的锁
+     * @return 模板
+     * @throws IllegalStateException 多把锁使用了不同的分布式锁实现
+     */
+    private static UniLockTemplate template(List<PendingLock> locks) {
+        UniLockTemplate template = locks.get(0).getTemplate();
+        for (int i = 1; i < locks.size(); i++) {
+            if (locks.get(i).getTemplate() != template) {
+                throw new IllegalStateException("All locks of one method must use the same UniLockDistributed backend: "
+                        + locks.get(0).getLockName() + ", " + locks.get(i).getLockName());
             }
         }
-        // 解析并评估条件表达式
-        return parser.parseExpression(condition).getValue(context, Boolean.class);
+        return template;
     }
 
     /**
-     * 解析锁的名称，支持 SpEL 表达式。
+     * 按锁名称的顺序异步获取所有锁，任意一把锁获取失败或出现异常时，异步释放已获取的锁。
+     *
+     * <p>调用方取消返回的 Future 时，取消正在进行的获取，并释放已获取的锁；取消之后才获取到的锁由
+     * {@link com.xcs.unilock.UniLockDistributed#tryLockAsync} 自行释放，不会被遗留并一直续期。</p>
      *
-     * @param lockNameExpression 注解中指定的锁名称（可能是 SpEL 表达式）
-     * @param method             当前被调用的方法
-     * @param args               方法的参数
-     * @return 解析后的锁名称
+     * @param locks 需要获取的锁
+     * @return 获取结果的 Future
      */
-    private String getLockName(String lockNameExpression, Method method, Object[] args) {
-        if (StringUtils.hasText(lockNameExpression)) {
-            // 判断是否是 SpEL 表达式（以 '#' 开头）
-            if (lockNameExpression.contains("#")) {
-                // 创建 SpEL 上下文
-                StandardEvaluationContext context = new StandardEvaluationContext();
-                String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
-                if (paramNames != null) {
-                    for (int i = 0; i < args.length; i++) {
-                        context.setVariable(paramNames[i], args[i]);
-                    }
+    CompletableFuture<AsyncLockResult> acquireAsync(List<PendingLock> locks) {
+        AsyncLockResult result = new AsyncLockResult();
+        if (locks.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        UniLockTemplate template;
+        try {
+            template = template(locks);
+        } catch (IllegalStateException e) {
+            return failedFuture(e);
+        }
+        String nameTemplate = nameTemplate(locks);
+        long startNanos = System.nanoTime();
+        result.setTemplate(template);
+        result.setNameTemplate(nameTemplate);
+        // 按锁名称排序后依次获取，避免多个调用方交叉持有而产生死锁
+        List<PendingLock> sortedLocks = new ArrayList<>(locks);
+        sortedLocks.sort(Comparator.comparing(PendingLock::getLockName));
+        CompletableFuture<AsyncLockResult> future = new CompletableFuture<>();
+        future.whenComplete((ignored, error) -> {
+            if (future.isCancelled()) {
+                releaseAsync(template, result.cancel());
+            }
+        });
+        acquireNext(future, result, sortedLocks, 0, startNanos);
+        return future;
+    }
+
+    /**
+     * 异步获取第 index 把锁，成功后继续获取下一把，全部获取成功或者获取失败时完成 future。
+     *
+     * @param future      获取结果的 Future
+     * @param result      获取锁的结果
+     * @param sortedLocks 按名称排序后需要获取的锁
+     * @param index       本次获取的锁的下标
+     * @param startNanos  开始获取锁的时间
+     */
+    private void acquireNext(CompletableFuture<AsyncLockResult> future, AsyncLockResult result, List<PendingLock> sortedLocks,
+                             int index, long startNanos) {
+        UniLockTemplate template = result.getTemplate();
+        String nameTemplate = result.getNameTemplate();
+        if (index == sortedLocks.size()) {
+            result.setAcquiredNanos(template.recordWait(nameTemplate, UniLockMetrics.Outcome.SUCCESS, startNanos));
+            future.complete(result);
+            return;
+        }
+        PendingLock lock = sortedLocks.get(index);
+        CompletableFuture<UniLockResponse<?>> attempt = tryLockAsync(lock);
+        if (!result.track(attempt)) {
+            // 调用方已经取消，获取已经完成时由下面的回调释放
+            attempt.cancel(false);
+        }
+        attempt.whenComplete((response, error) -> {
+            if (!result.untrack(response)) {
+                // 调用方已经取消，取消之前完成的获取在这里释放
+                if (response != null) {
+                    releaseAsync(template, Collections.singletonList(response));
                 }
-                // 使用 SpEL 解析锁的名称
-                return parser.parseExpression(lockNameExpression).getValue(context, String.class);
-            } else {
-                // 如果 lockNameExpression 不是 SpEL 表达式，直接返回作为锁名
-                return lockNameExpression;
+                return;
             }
-        } else {
-            // 如果没有指定 name 属性，则使用默认的包名+类名+方法名作为锁名
-            String packageName = method.getDeclaringClass().getPackage().getName();
-            String className = method.getDeclaringClass().getSimpleName();
-            String methodName = method.getName();
-            return packageName + "." + className + "." + methodName;
+            if (error == null && response != null) {
+                acquireNext(future, result, sortedLocks, index + 1, startNanos);
+                return;
+            }
+            if (error == null) {
+                result.setFailedLock(lock);
+            }
+            template.recordWait(nameTemplate, error != null ? UniLockMetrics.Outcome.ERROR : UniLockMetrics.Outcome.TIMEOUT, startNanos);
+            // 获取失败时先释放已获取的锁，再执行失败回调
+            releaseAsync(template, result.takeResponses()).whenComplete((ignored, releaseError) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * 异步释放获取成功的所有锁，并记录方法持有锁的时间。同一个结果只释放一次。
+     *
+     * @param result 获取锁的结果
+     * @return 所有锁释放完成的 Future
+     */
+    CompletableFuture<Void> releaseAsync(AsyncLockResult result) {
+        List<UniLockResponse<?>> responses = result.takeResponses();
+        if (responses.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (result.getFailedLock() == null) {
+            result.getTemplate().recordHold(result.getNameTemplate(), result.getAcquiredNanos());
+        }
+        return releaseAsync(result.getTemplate(), responses);
+    }
+
+    /**
+     * 异步释放所有锁，释放失败时只记录日志。
+     *
+     * @param template  获取锁时使用的模板
+     * @param responses 锁的响应结果
+     * @return 所有锁释放完成的 Future
+     */
+    private CompletableFuture<Void> releaseAsync(UniLockTemplate template, List<UniLockResponse<?>> responses) {
+        if (responses.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture[responses.size()];
+        for (int i = 0; i < futures.length; i++) {
+            UniLockResponse<?> response = responses.get(i);
+            futures[i] = template.getUniLockDistributed().unlockAsync(response).handle((unlocked, error) -> {
+                if (error != null || !Boolean.TRUE.equals(unlocked)) {
+                    LOGGER.warn("Failed to unlock: {}", response.getLockName(), error);
+                }
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * 执行锁获取失败的回调，回调返回 {@link CompletionStage} 时以其结果作为方法结果。
+     *
+     * @param lock       获取失败的锁
+     * @param invocation 方法调用
+     * @return 回调结果的 Future
+     */
+    private CompletableFuture<Object> onFailAsync(PendingLock lock, MethodInvocation invocation) {
+        Object callbackResult;
+        try {
+            callbackResult = invokeCallback(lock, invocation);
+        } catch (Throwable e) {
+            return failedFuture(e);
+        }
+        if (callbackResult == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return ((CompletionStage<Object>) callbackResult).toCompletableFuture();
+    }
+
+    /**
+     * 执行锁获取失败的回调，并检查回调的返回值类型是否与被拦截方法的返回值类型一致。
+     *
+     * @param lock       获取失败的锁
+     * @param invocation 方法调用
+     * @return 回调结果
+     * @throws Throwable 回调抛出的异常
+     */
+    Object invokeCallback(PendingLock lock, MethodInvocation invocation) throws Throwable {
+        return invokeCallback(lock.getOperation().getCallback(), lock.getLockName(), invocation);
+    }
+
+    /**
+     * 执行获取失败的回调，并检查回调的返回值类型是否与被拦截方法的返回值类型一致。
+     *
+     * @param callback   回调策略
+     * @param name       获取失败的锁或信号量的名称
+     * @param invocation 方法调用
+     * @return 回调结果
+     * @throws Throwable 回调抛出的异常
+     */
+    private Object invokeCallback(LockFailCallback callback, String name, MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        // 执行回调方法
+        Object callbackResult = callback.onFail(name, invocation);
+        // 检查回调的返回值类型是否与被拦截方法的返回值类型一致
+        if (callbackResult != null && !method.getReturnType().isInstance(callbackResult)) {
+            throw new IllegalStateException(String.format("Lock failure callback return type mismatch. Expected: %s, but got: %s from callback.",
+                    method.getReturnType().getName(), callbackResult.getClass().getName()));
+        }
+        return callbackResult;
+    }
+
+    /**
+     * 按照注解配置异步获取锁。
+     *
+     * @param lock 需要获取的锁
+     * @return 锁的响应的 Future，获取失败时以 null 完成
+     */
+    private CompletableFuture<UniLockResponse<?>> tryLockAsync(PendingLock lock) {
+        com.xcs.unilock.annotation.UniLock uniLock = lock.getUniLock();
+        if (uniLock.mode() != LockMode.EXCLUSIVE) {
+            return failedFuture(new UnsupportedOperationException("Lock mode " + uniLock.mode() + " is not supported on asynchronous methods: " + lock.getLockName()));
+        }
+        UniLockDistributed uniLockDistributed = lock.getTemplate().getUniLockDistributed();
+        WaitStrategy waitStrategy = lock.getOperation().getWaitStrategy();
+        if (waitStrategy == null) {
+            return uniLockDistributed.tryLockAsync(lock.getLockName(), uniLock.leaseTime(), uniLock.waitTime());
+        }
+        return uniLockDistributed.tryLockAsync(lock.getLockName(), uniLock.leaseTime(), uniLock.waitTime(), waitStrategy);
+    }
+
+    /**
+     * 创建以指定异常完成的 Future。
+     *
+     * @param error 异常
+     * @return Future
+     */
+    private static <R> CompletableFuture<R> failedFuture(Throwable error) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * 按照注解配置通过 {@link UniLockTemplate} 获取锁并记录等待锁的时间。
+     *
+     * @param lock         需要获取的锁
+     * @param nameTemplate 指标中使用的锁名称模板
+     * @return 获取到的锁，获取失败时返回 null
+     */
+    private UniLockHandle tryLock(PendingLock lock, String nameTemplate) {
+        com.xcs.unilock.annotation.UniLock uniLock = lock.getUniLock();
+        return lock.getTemplate().tryLock(lock.getLockName(), uniLock.mode(), uniLock.leaseTime(), uniLock.waitTime(),
+                lock.getOperation().getWaitStrategy(), nameTemplate);
+    }
+
+    /**
+     * 按照注解配置获取锁，如果注解指定了等待策略，则使用该策略代替分布式锁实现配置的等待策略。
+     *
+     * @param lock 需要获取的锁
+     * @return 锁的响应，获取失败时返回 null
+     */
+    private UniLockResponse<?> tryLock(PendingLock lock) {
+        com.xcs.unilock.annotation.UniLock uniLock = lock.getUniLock();
+        UniLockDistributed uniLockDistributed = lock.getTemplate().getUniLockDistributed();
+        WaitStrategy waitStrategy = lock.getOperation().getWaitStrategy();
+        if (waitStrategy == null) {
+            return uniLockDistributed.tryLock(lock.getLockName(), uniLock.mode(), uniLock.leaseTime(), uniLock.waitTime());
+        }
+        return uniLockDistributed.tryLock(lock.getLockName(), uniLock.mode(), uniLock.leaseTime(), uniLock.waitTime(), waitStrategy);
+    }
+
+    /**
+     * 得到指标中使用的锁名称模板：注解中配置的锁名称，未配置时为默认的锁名称，多把锁之间以逗号分隔。
+     *
+     * @param locks 需要获取的锁
+     * @return 锁名称模板
+     */
+    private static String nameTemplate(List<PendingLock> locks) {
+        if (locks.size() == 1) {
+            return locks.get(0).getOperation().getNameTemplate();
+        }
+        StringBuilder builder = new StringBuilder();
+        for (PendingLock lock : locks) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(lock.getOperation().getNameTemplate());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 待获取的锁：锁操作、解析后的锁名称与使用的分布式锁实现对应的模板。
+     */
+    @Data
+    @AllArgsConstructor
+    static class PendingLock {
+        private final LockOperation operation;
+        private final String lockName;
+        private final UniLockTemplate template;
+
+        com.xcs.unilock.annotation.UniLock getUniLock() {
+            return operation.getUniLock();
+        }
+    }
+
+    /**
+     * 异步获取锁的结果：已获取的锁，以及获取失败的锁（全部成功时为 null）。
+     */
+    @Data
+    static class AsyncLockResult {
+        private final List<UniLockResponse<?>> responses = new ArrayList<>();
+        private PendingLock failedLock;
+        private UniLockTemplate template;
+        private String nameTemplate;
+        private long acquiredNanos;
+        /**
+         * 正在进行的获取，由 this 保护
+         */
+        private CompletableFuture<UniLockResponse<?>> inFlight;
+        /**
+         * 调用方是否已经取消，由 this 保护
+         */
+        private boolean cancelled;
+
+        /**
+         * 记录正在进行的获取。
+         *
+         * @param attempt 获取锁的 Future
+         * @return 调用方已经取消时返回 false
+         */
+        synchronized boolean track(CompletableFuture<UniLockResponse<?>> attempt) {
+            if (cancelled) {
+                return false;
+            }
+            inFlight = attempt;
+            return true;
+        }
+
+        /**
+         * 获取完成后清除正在进行的获取，并保存获取成功的锁。
+         *
+         * @param response 锁的响应，获取失败时为 null
+         * @return 调用方已经取消时返回 false，此时不保存锁的响应
+         */
+        synchronized boolean untrack(UniLockResponse<?> response) {
+            inFlight = null;
+            if (cancelled) {
+                return false;
+            }
+            if (response != null) {
+                responses.add(response);
+            }
+            return true;
+        }
+
+        /**
+         * 取消正在进行的获取，并取出已获取的锁。
+         *
+         * @return 需要释放的锁
+         */
+        synchronized List<UniLockResponse<?>> cancel() {
+            cancelled = true;
+            if (inFlight != null) {
+                inFlight.cancel(false);
+            }
+            return takeResponses();
+        }
+
+        /**
+         * 取出已获取的锁，之后再次取出时返回空列表，保证每把锁只释放一次。
+         *
+         * @return 已获取的锁
+         */
+        synchronized List<UniLockResponse<?>> takeResponses() {
+            if (responses.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<UniLockResponse<?>> taken = new ArrayList<>(responses);
+            responses.clear();
+            return taken;
         }
     }
 }
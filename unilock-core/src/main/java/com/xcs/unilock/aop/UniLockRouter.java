@@ -0,0 +1,272 @@
+package com.xcs.unilock.aop;
+
+import com.xcs.unilock.UniLockDistributed;
+import com.xcs.unilock.UniSemaphoreDistributed;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UniLockRouter 在同时配置了多个分布式锁实现时，为每把锁选择使用的实现。
+ *
+ * <p>选择的顺序为：@UniLock 注解的 {@code backend} 属性指定的实现；第一个与锁名称匹配的路由规则指定的实现；默认的实现。
+ * 路由规则的模式支持 {@code *} 通配符，例如 {@code order:*} 匹配所有以 {@code order:} 开头的锁名称。</p>
+ *
+ * <p>每个实现对应一个 {@link UniLockTemplate}，指标中的实现名称因此与实际使用的实现一致。</p>
+ *
+ * <p>@UniSemaphore 注解的信号量按相同的顺序选择实现：实现名称同样是分布式锁实现的名称，
+ * 使用的是基于该分布式锁实现的分布式信号量，选择的实现没有对应的分布式信号量时抛出异常。</p>
+ *
+ * @author xcs
+ */
+public class UniLockRouter {
+
+    /**
+     * 实现名称（Spring 容器中的 Bean 名称）到对应模板的映射
+     */
+    private final Map<String, UniLockTemplate> templates;
+
+    /**
+     * 没有匹配的路由规则时使用的模板
+     */
+    private final UniLockTemplate defaultTemplate;
+
+    /**
+     * 按配置顺序排列的路由规则
+     */
+    private final List<Route> routes;
+
+    /**
+     * 实现名称到基于该实现的分布式信号量的映射
+     */
+    private final Map<String, UniSemaphoreDistributed<?>> semaphores;
+
+    /**
+     * 默认实现对应的分布式信号量，没有时为 null
+     */
+    private final UniSemaphoreDistributed<?> defaultSemaphore;
+
+    /**
+     * 只有一个分布式锁实现时使用，所有锁都使用该实现。
+     *
+     * @param uniLockDistributed 分布式锁的实现
+     */
+    public UniLockRouter(UniLockDistributed<?> uniLockDistributed) {
+        this(uniLockDistributed, null);
+    }
+
+    /**
+     * 只有一个分布式锁实现时使用，所有锁与信号量都使用该实现。
+     *
+     * @param uniLockDistributed      分布式锁的实现
+     * @param uniSemaphoreDistributed 分布式信号量的实现，可以为 null
+     */
+    public UniLockRouter(UniLockDistributed<?> uniLockDistributed, UniSemaphoreDistributed<?> uniSemaphoreDistributed) {
+        this.defaultTemplate = new UniLockTemplate(uniLockDistributed);
+        this.templates = Collections.emptyMap();
+        this.routes = Collections.emptyList();
+        this.semaphores = Collections.emptyMap();
+        this.defaultSemaphore = uniSemaphoreDistributed;
+    }
+
+    /**
+     * 同时配置了多个分布式锁实现时使用。
+     *
+     * @param backends       实现名称到分布式锁实现的映射
+     * @param defaultBackend 默认的实现名称
+     * @param rules          按顺序匹配的路由规则，模式相同的规则同样保留，以先配置的为准
+     * @throws IllegalArgumentException 默认实现或路由规则引用了不存在的实现
+     */
+    public UniLockRouter(Map<String, ? extends UniLockDistributed<?>> backends, String defaultBackend, List<Rule> rules) {
+        this(backends, defaultBackend, rules, Collections.emptyMap());
+    }
+
+    /**
+     * 同时配置了多个分布式锁实现与分布式信号量时使用。
+     *
+     * @param backends       实现名称到分布式锁实现的映射
+     * @param defaultBackend 默认的实现名称
+     * @param rules          按顺序匹配的路由规则，模式相同的规则同样保留，以先配置的为准
+     * @param semaphores     实现名称到基于该实现的分布式信号量的映射，只能包含 {@code backends} 中的实现
+     * @throws IllegalArgumentException 默认实现、路由规则或者分布式信号量引用了不存在的实现
+     */
+    public UniLockRouter(Map<String, ? extends UniLockDistributed<?>> backends, String defaultBackend, List<Rule> rules,
+                         Map<String, ? extends UniSemaphoreDistributed<?>> semaphores) {
+        Map<String, UniLockTemplate> templates = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends UniLockDistributed<?>> entry : backends.entrySet()) {
+            templates.put(entry.getKey(), new UniLockTemplate(entry.getValue()));
+        }
+        this.templates = Collections.unmodifiableMap(templates);
+        this.defaultTemplate = getTemplate(defaultBackend);
+        List<Route> resolvedRoutes = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            resolvedRoutes.add(new Route(rule.getPattern(), rule.getBackend(), getTemplate(rule.getBackend())));
+        }
+        this.routes = Collections.unmodifiableList(resolvedRoutes);
+        for (String backend : semaphores.keySet()) {
+            getTemplate(backend);
+        }
+        this.semaphores = Collections.unmodifiableMap(new LinkedHashMap<>(semaphores));
+        this.defaultSemaphore = this.semaphores.get(defaultBackend);
+    }
+
+    /**
+     * 设置所有实现共用的指标记录器。
+     *
+     * @param metrics 指标记录器
+     */
+    public void setMetrics(UniLockMetrics metrics) {
+        defaultTemplate.setMetrics(metrics);
+        for (UniLockTemplate template : templates.values()) {
+            template.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * 获取默认实现对应的模板。
+     *
+     * @return 默认实现对应的模板
+     */
+    public UniLockTemplate getDefaultTemplate() {
+        return defaultTemplate;
+    }
+
+    /**
+     * 获取指定实现对应的模板。
+     *
+     * @param backend 实现名称
+     * @return 指定实现对应的模板
+     * @throws IllegalArgumentException 不存在指定的实现
+     */
+    public UniLockTemplate getTemplate(String backend) {
+        UniLockTemplate template = templates.get(backend);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown UniLockDistributed backend: " + backend + ", available backends: " + templates.keySet());
+        }
+        return template;
+    }
+
+    /**
+     * 按路由规则选择锁名称对应的模板。
+     *
+     * @param lockName 锁的名称
+     * @return 第一个匹配的路由规则对应的模板，没有匹配的规则时为默认实现对应的模板
+     */
+    public UniLockTemplate route(String lockName) {
+        for (Route route : routes) {
+            if (PatternMatchUtils.simpleMatch(route.pattern, lockName)) {
+                return route.template;
+            }
+        }
+        return defaultTemplate;
+    }
+
+    /**
+     * 获取默认实现对应的分布式信号量。
+     *
+     * @return 默认实现对应的分布式信号量，没有时返回 null
+     */
+    public UniSemaphoreDistributed<?> getDefaultSemaphore() {
+        return defaultSemaphore;
+    }
+
+    /**
+     * 获取基于指定实现的分布式信号量。
+     *
+     * @param backend 实现名称
+     * @return 基于指定实现的分布式信号量
+     * @throws IllegalArgumentException 不存在指定的实现或者该实现没有对应的分布式信号量
+     */
+    public UniSemaphoreDistributed<?> getSemaphore(String backend) {
+        UniSemaphoreDistributed<?> semaphore = semaphores.get(backend);
+        if (semaphore == null) {
+            getTemplate(backend);
+            throw new IllegalArgumentException("No UniSemaphoreDistributed for backend: " + backend + ", backends with semaphores: " + semaphores.keySet());
+        }
+        return semaphore;
+    }
+
+    /**
+     * 按路由规则选择信号量名称对应的分布式信号量。
+     *
+     * @param semaphoreName 信号量的名称
+     * @return 第一个匹配的路由规则对应的分布式信号量，没有匹配的规则时为默认实现对应的分布式信号量
+     * @throws IllegalStateException 选择的实现没有对应的分布式信号量
+     */
+    public UniSemaphoreDistributed<?> routeSemaphore(String semaphoreName) {
+        for (Route route : routes) {
+            if (PatternMatchUtils.simpleMatch(route.pattern, semaphoreName)) {
+                UniSemaphoreDistributed<?> semaphore = semaphores.get(route.backend);
+                if (semaphore == null) {
+                    throw new IllegalStateException("No UniSemaphoreDistributed for backend: " + route.backend + ", routed by pattern: " + route.pattern);
+                }
+                return semaphore;
+            }
+        }
+        if (defaultSemaphore == null) {
+            throw new IllegalStateException("No UniSemaphoreDistributed configured for the default backend, semaphore: " + semaphoreName);
+        }
+        return defaultSemaphore;
+    }
+
+    /**
+     * 是否配置了路由规则，没有时所有未指定实现的锁都使用默认实现，无需在每次调用时匹配锁名称。
+     *
+     * @return 是否配置了路由规则
+     */
+    boolean hasRoutes() {
+        return !routes.isEmpty();
+    }
+
+    /**
+     * 路由规则：锁名称模式与匹配的锁使用的实现名称。
+     */
+    public static final class Rule {
+
+        private final String pattern;
+
+        private final String backend;
+
+        /**
+         * 构造函数，指定锁名称模式与实现名称。
+         *
+         * @param pattern 锁名称模式，支持 {@code *} 通配符
+         * @param backend 匹配的锁使用的实现名称
+         */
+        public Rule(String pattern, String backend) {
+            this.pattern = pattern;
+            this.backend = backend;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public String getBackend() {
+            return backend;
+        }
+    }
+
+    /**
+     * 锁名称模式与对应的实现名称及模板。
+     */
+    private static final class Route {
+
+        private final String pattern;
+
+        private final String backend;
+
+        private final UniLockTemplate template;
+
+        private Route(String pattern, String backend, UniLockTemplate template) {
+            this.pattern = pattern;
+            this.backend = backend;
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.xcs.unilock.aop;
+
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.UniLockDistributed;
+import com.xcs.unilock.UniLockResponse;
+import com.xcs.unilock.exception.LockFailedException;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * UniLockTemplate 以编程方式使用分布式锁，不经过 AOP 代理，适用于锁名称在方法内部才能确定、
+ * 只需锁住方法中的一段代码，或者在同一个类中调用而无法被代理拦截的场景。
+ *
+ * <pre>{@code
+ * Order order = uniLockTemplate.execute("order:" + orderId, 30000, 3000, () -> orderService.pay(orderId));
+ * }</pre>
+ *
+ * <p>与 {@link UniLockInterceptor} 共用同一个 {@link UniLockDistributed}，因此同一线程中先后通过注解和模板获取同一把锁时可以重入；
+ * 等待锁和持有锁的时间同样记录到 {@link UniLockMetrics} 中。获取锁失败时抛出 {@link LockFailedException}，
+ * 需要自行处理失败时使用 {@link #tryLock(String, LockMode, long, long, WaitStrategy, String)}。</p>
+ *
+ * @author xcs
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class UniLockTemplate {
+
+    /**
+     * 未指定指标名称时使用的名称。锁名称通常包含业务参数，直接作为指标的标签会产生大量的时间序列
+     */
+    public static final String DEFAULT_METRIC_NAME = "template";
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UniLockTemplate.class);
+
+    /**
+     * 分布式锁的实例，用于操作锁的获取与释放
+     */
+    private final UniLockDistributed uniLockDistributed;
+
+    /**
+     * 指标中使用的分布式锁实现名称
+     */
+    private final String backendName;
+
+    /**
+     * 指标记录器，用于记录等待锁和持有锁的时间，默认不记录任何指标
+     */
+    private volatile UniLockMetrics metrics = UniLockMetrics.NOOP;
+
+    public UniLockTemplate(UniLockDistributed uniLockDistributed) {
+        this.uniLockDistributed = uniLockDistributed;
+        this.backendName = UniLockMetrics.backendName(uniLockDistributed.getClass());
+    }
+
+    /**
+     * 设置指标记录器。
+     *
+     * @param metrics 指标记录器
+     */
+    public void setMetrics(UniLockMetrics metrics) {
+        this.metrics = metrics != null ? metrics : UniLockMetrics.NOOP;
+    }
+
+    /**
+     * 获取独占锁后执行操作，操作结束后释放锁。
+     *
+     * @param lockName  锁的名称
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取锁的最大等待时间（毫秒）
+     * @param action    持有锁时执行的操作
+     * @return 操作的结果
+     * @throws LockFailedException 在等待时间内未获取到锁
+     */
+    public <T> T execute(String lockName, long leaseTime, long waitTime, Supplier<T> action) {
+        return execute(lockName, LockMode.EXCLUSIVE, leaseTime, waitTime, action);
+    }
+
+    /**
+     * 以指定模式获取锁后执行操作，操作结束后释放锁。
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取锁的最大等待时间（毫秒）
+     * @param action    持有锁时执行的操作
+     * @return 操作的结果
+     * @throws LockFailedException 在等待时间内未获取到锁
+     */
+    public <T> T execute(String lockName, LockMode mode, long leaseTime, long waitTime, Supplier<T> action) {
+        UniLockHandle handle = lock(lockName, mode, leaseTime, waitTime);
+        try {
+            return action.get();
+        } finally {
+            handle.close();
+        }
+    }
+
+    /**
+     * 通过 {@link UniLockDistributed#tryLockAll} 一次性获取多把独占锁后执行操作，操作结束后释放所有锁。
+     *
+     * @param lockNames 锁的名称
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取所有锁的最大等待时间（毫秒）
+     * @param action    持有锁时执行的操作
+     * @return 操作的结果
+     * @throws LockFailedException 在等待时间内未获取到所有锁
+     */
+    public <T> T executeAll(Collection<String> lockNames, long leaseTime, long waitTime, Supplier<T> action) {
+        UniLockHandle handle = lockAll(lockNames, leaseTime, waitTime);
+        try {
+            return action.get();
+        } finally {
+            handle.close();
+        }
+    }
+
+    /**
+     * 获取独占锁，返回的 {@link UniLockHandle} 关闭时释放锁。
+     *
+     * @param lockName  锁的名称
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取锁的最大等待时间（毫秒）
+     * @return 获取到的锁
+     * @throws LockFailedException 在等待时间内未获取到锁
+     */
+    public UniLockHandle lock(String lockName, long leaseTime, long waitTime) {
+        return lock(lockName, LockMode.EXCLUSIVE, leaseTime, waitTime);
+    }
+
+    /**
+     * 以指定模式获取锁，返回的 {@link UniLockHandle} 关闭时释放锁。
+     *
+     * @param lockName  锁的名称
+     * @param mode      锁的模式
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取锁的最大等待时间（毫秒）
+     * @return 获取到的锁
+     * @throws LockFailedException 在等待时间内未获取到锁
+     */
+    public UniLockHandle lock(String lockName, LockMode mode, long leaseTime, long waitTime) {
+        UniLockHandle handle = tryLock(lockName, mode, leaseTime, waitTime, null, DEFAULT_METRIC_NAME);
+        if (handle == null) {
+            throw new LockFailedException(lockName);
+        }
+        return handle;
+    }
+
+    /**
+     * 一次性获取多把独占锁，返回的 {@link UniLockHandle} 关闭时释放所有锁。
+     *
+     * @param lockNames 锁的名称
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  获取所有锁的最大等待时间（毫秒）
+     * @return 获取到的锁
+     * @throws LockFailedException 在等待时间内未获取到所有锁
+     */
+    public UniLockHandle lockAll(Collection<String> lockNames, long leaseTime, long waitTime) {
+        UniLockHandle handle = tryLockAll(lockNames, leaseTime, waitTime, DEFAULT_METRIC_NAME);
+        if (handle == null) {
+            throw new LockFailedException(String.valueOf(lockNames));
+        }
+        return handle;
+    }
+
+    /**
+     * 尝试获取锁，获取失败时返回 null。
+     *
+     * @param lockName     锁的名称
+     * @param mode         锁的模式
+     * @param leaseTime    锁的过期时间（毫秒）
+     * @param waitTime     获取锁的最大等待时间（毫秒）
+     * @param waitStrategy 等待策略，为 null 时使用分布式锁实现配置的等待策略
+     * @param metricName   指标中使用的名称，应当是取值有限的名称，例如 {@code order:{#orderId}}，而不是具体的锁名称
+     * @return 获取到的锁，获取失败时返回 null
+     */
+    public UniLockHandle tryLock(String lockName, LockMode mode, long leaseTime, long waitTime, WaitStrategy waitStrategy, String metricName) {
+        long startNanos = System.nanoTime();
+        UniLockResponse<?> response;
+        if (waitStrategy == null) {
+            response = uniLockDistributed.tryLock(lockName, mode, leaseTime, waitTime);
+        } else {
+            response = uniLockDistributed.tryLock(lockName, mode, leaseTime, waitTime, waitStrategy);
+        }
+        if (response == null) {
+            recordWait(metricName, UniLockMetrics.Outcome.TIMEOUT, startNanos);
+            return null;
+        }
+        long acquiredNanos = recordWait(metricName, UniLockMetrics.Outcome.SUCCESS, startNanos);
+        return new UniLockHandle(this, Collections.singletonList(response), metricName, acquiredNanos, false);
+    }
+
+    /**
+     * 尝试通过 {@link UniLockDistributed#tryLockAll} 一次性获取多把独占锁，获取失败时返回 null。
+     *
+     * @param lockNames  锁的名称
+     * @param leaseTime  锁的过期时间（毫秒）
+     * @param waitTime   获取所有锁的最大等待时间（毫秒）
+     * @param metricName 指标中使用的名称，应当是取值有限的名称，而不是具体的锁名称
+     * @return 获取到的锁，获取失败时返回 null
+     */
+    public UniLockHandle tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime, String metricName) {
+        return tryLockAll(lockNames, leaseTime, waitTime, null, metricName);
+    }
+
+    /**
+     * 使用指定的等待策略，尝试通过 {@link UniLockDistributed#tryLockAll} 一次性获取多把独占锁，获取失败时返回 null。
+     *
+     * @param lockNames    锁的名称
+     * @param leaseTime    锁的过期时间（毫秒）
+     * @param waitTime     获取所有锁的最大等待时间（毫秒）
+     * @param waitStrategy 等待策略，为 null 时使用分布式锁实现配置的等待策略
+     * @param metricName   指标中使用的名称，应当是取值有限的名称，而不是具体的锁名称
+     * @return 获取到的锁，获取失败时返回 null
+     */
+    public UniLockHandle tryLockAll(Collection<String> lockNames, long leaseTime, long waitTime, WaitStrategy waitStrategy, String metricName) {
+        long startNanos = System.nanoTime();
+        List<UniLockResponse<?>> responses;
+        if (waitStrategy == null) {
+            responses = uniLockDistributed.tryLockAll(lockNames, leaseTime, waitTime);
+        } else {
+            responses = uniLockDistributed.tryLockAll(lockNames, leaseTime, waitTime, waitStrategy);
+        }
+        if (responses == null) {
+            recordWait(metricName, UniLockMetrics.Outcome.TIMEOUT, startNanos);
+            return null;
+        }
+        long acquiredNanos = recordWait(metricName, UniLockMetrics.Outcome.SUCCESS, startNanos);
+        return new UniLockHandle(this, responses, metricName, acquiredNanos, true);
+    }
+
+    UniLockDistributed getUniLockDistributed() {
+        return uniLockDistributed;
+    }
+
+    /**
+     * 逆序释放所有锁，释放失败时只记录日志。
+     *
+     * @param responses 锁的响应结果
+     */
+    void unlock(List<UniLockResponse<?>> responses) {
+        for (int i = responses.size() - 1; i >= 0; i--) {
+            if (!uniLockDistributed.unlock(responses.get(i))) {
+                LOGGER.warn("Failed to unlock: {}", responses.get(i).getLockName());
+            }
+        }
+    }
+
+    /**
+     * 通过 {@link UniLockDistributed#unlockAll} 一次性释放所有锁，释放失败时只记录日志。
+     *
+     * @param responses 锁的响应结果
+     */
+    void unlockAll(List<UniLockResponse<?>> responses) {
+        if (!uniLockDistributed.unlockAll(responses)) {
+            List<String> lockNames = new ArrayList<>(responses.size());
+            for (UniLockResponse<?> response : responses) {
+                lockNames.add(response.getLockName());
+            }
+            LOGGER.warn("Failed to unlock: {}", lockNames);
+        }
+    }
+
+    /**
+     * 记录等待锁的时间。
+     *
+     * @param metricName 指标中使用的名称
+     * @param outcome    获取锁的结果
+     * @param startNanos 开始获取锁的时间（纳秒）
+     * @return 当前时间（纳秒）
+     */
+    long recordWait(String metricName, UniLockMetrics.Outcome outcome, long startNanos) {
+        long now = System.nanoTime();
+        metrics.recordWait(backendName, metricName, outcome, now - startNanos);
+        return now;
+    }
+
+    /**
+     * 记录持有锁的时间。
+     *
+     * @param metricName    指标中使用的名称
+     * @param acquiredNanos 获取到锁的时间（纳秒）
+     */
+    void recordHold(String metricName, long acquiredNanos) {
+        metrics.recordHold(backendName, metricName, System.nanoTime() - acquiredNanos);
+    }
+}
@@ -8,6 +8,15 @@ package com.xcs.unilock.exception;
  */
 public class LockFailedException extends RuntimeException {
 
+    /**
+     * 构造函数，接受锁名称作为异常消息，用于不经过方法拦截的编程方式加锁。
+     *
+     * @param lockName 锁的名称。
+     */
+    public LockFailedException(String lockName) {
+        super("Failed to acquire lock. Lock name: " + lockName);
+    }
+
     /**
      * 构造函数，接受锁名称和方法信息作为异常消息。
      *
@@ -0,0 +1,147 @@
+package com.xcs.unilock.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Micrometer 的指标记录器。
+ *
+ * <p>记录以下指标：</p>
+ * <ul>
+ *     <li>{@code unilock.acquire}：获取分布式锁的耗时，标签 {@code backend}、{@code outcome}</li>
+ *     <li>{@code unilock.acquire.attempts}：每次获取尝试远程锁的次数，标签 {@code backend}</li>
+ *     <li>{@code unilock.reentrant}：重入次数，标签 {@code backend}</li>
+ *     <li>{@code unilock.renewal}：续期的锁数量，标签 {@code backend}、{@code outcome}</li>
+ *     <li>{@code unilock.unlock.failures}：释放锁失败的次数，标签 {@code backend}</li>
+ *     <li>{@code unilock.wait}：被注解的方法等待锁的时间，标签 {@code backend}、{@code name}、{@code outcome}</li>
+ *     <li>{@code unilock.hold}：被注解的方法持有锁的时间，标签 {@code backend}、{@code name}</li>
+ * </ul>
+ *
+ * @author xcs
+ */
+public class MicrometerUniLockMetrics implements UniLockMetrics {
+
+    private static final String TAG_BACKEND = "backend";
+
+    private static final String TAG_OUTCOME = "outcome";
+
+    private static final String TAG_NAME = "name";
+
+    /**
+     * 指标注册表。
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * 已注册的指标，按指标的标签缓存，避免每次记录都重新构建并查找指标
+     */
+    private final Map<MeterKey, Timer> acquireTimers = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, DistributionSummary> attemptSummaries = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Counter> reentrantCounters = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Counter> renewalCounters = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Counter> unlockFailureCounters = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Timer> waitTimers = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    public MicrometerUniLockMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void recordAcquire(String backend, Outcome outcome, long durationNanos, int attempts) {
+        acquireTimers.computeIfAbsent(new MeterKey(backend, null, tagValue(outcome)), key -> Timer.builder("unilock.acquire")
+                .description("Time spent acquiring distributed locks, including retries")
+                .tag(TAG_BACKEND, key.getBackend())
+                .tag(TAG_OUTCOME, key.getOutcome())
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        attemptSummaries.computeIfAbsent(new MeterKey(backend, null, null), key -> DistributionSummary.builder("unilock.acquire.attempts")
+                .description("Remote lock attempts per acquisition")
+                .tag(TAG_BACKEND, key.getBackend())
+                .register(registry))
+                .record(attempts);
+    }
+
+    @Override
+    public void recordReentrant(String backend) {
+        reentrantCounters.computeIfAbsent(new MeterKey(backend, null, null), key -> Counter.builder("unilock.reentrant")
+                .description("Acquisitions served by a lock already held by the current thread")
+                .tag(TAG_BACKEND, key.getBackend())
+                .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void recordRenewal(String backend, boolean success, int count) {
+        renewalCounters.computeIfAbsent(new MeterKey(backend, null, success ? "success" : "failure"), key -> Counter.builder("unilock.renewal")
+                .description("Locks whose expiration was extended by the watchdog")
+                .tag(TAG_BACKEND, key.getBackend())
+                .tag(TAG_OUTCOME, key.getOutcome())
+                .register(registry))
+                .increment(count);
+    }
+
+    @Override
+    public void recordUnlockFailure(String backend) {
+        unlockFailureCounters.computeIfAbsent(new MeterKey(backend, null, null), key -> Counter.builder("unilock.unlock.failures")
+                .description("Failed attempts to release a distributed lock")
+                .tag(TAG_BACKEND, key.getBackend())
+                .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void recordWait(String backend, String lockName, Outcome outcome, long durationNanos) {
+        waitTimers.computeIfAbsent(new MeterKey(backend, lockName, tagValue(outcome)), key -> Timer.builder("unilock.wait")
+                .description("Time an annotated method waited for its locks")
+                .tag(TAG_BACKEND, key.getBackend())
+                .tag(TAG_NAME, key.getName())
+                .tag(TAG_OUTCOME, key.getOutcome())
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordHold(String backend, String lockName, long durationNanos) {
+        holdTimers.computeIfAbsent(new MeterKey(backend, lockName, null), key -> Timer.builder("unilock.hold")
+                .description("Time an annotated method held its locks")
+                .tag(TAG_BACKEND, key.getBackend())
+                .tag(TAG_NAME, key.getName())
+                .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 将获取锁的结果转换为标签值。
+     *
+     * @param outcome 获取锁的结果
+     * @return 标签值
+     */
+    private static String tagValue(Outcome outcome) {
+        return outcome.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 指标缓存的键：分布式锁实现名称、锁名称模板与结果，指标没有对应的标签时为 null。
+     */
+    @Data
+    private static final class MeterKey {
+        private final String backend;
+        private final String name;
+        private final String outcome;
+    }
+}
@@ -0,0 +1,116 @@
+package com.xcs.unilock.metrics;
+
+import java.util.Locale;
+
+/**
+ * 分布式锁的指标记录器。
+ *
+ * <p>由 {@link com.xcs.unilock.AbstractUniLockDistributed} 和注解拦截器在锁的获取、持有、续期和释放时调用。
+ * 所有方法默认不做任何事情，未配置指标系统时使用 {@link #NOOP}，不会产生额外的开销。</p>
+ *
+ * <p>{@code backend} 为分布式锁实现的名称（如 {@code redisson}、{@code jedis}），{@code lockName} 为注解上配置的锁名称模板，
+ * 而不是解析后的锁名称，以免指标的标签数量随业务数据无限增长。</p>
+ *
+ * @author xcs
+ */
+public interface UniLockMetrics {
+
+    /**
+     * 不记录任何指标的实现。
+     */
+    UniLockMetrics NOOP = new UniLockMetrics() {
+    };
+
+    /**
+     * 获取锁的结果。
+     */
+    enum Outcome {
+        /**
+         * 获取成功。
+         */
+        SUCCESS,
+        /**
+         * 在等待时间内未能获取。
+         */
+        TIMEOUT,
+        /**
+         * 最后一次尝试发生异常。
+         */
+        ERROR
+    }
+
+    /**
+     * 记录一次分布式锁的获取，包括所有的重试。
+     *
+     * @param backend       分布式锁实现的名称
+     * @param outcome       获取锁的结果
+     * @param durationNanos 获取锁的耗时（纳秒）
+     * @param attempts      尝试获取远程锁的次数
+     */
+    default void recordAcquire(String backend, Outcome outcome, long durationNanos, int attempts) {
+    }
+
+    /**
+     * 记录一次重入，即当前线程已经持有该锁，无需访问远程锁。
+     *
+     * @param backend 分布式锁实现的名称
+     */
+    default void recordReentrant(String backend) {
+    }
+
+    /**
+     * 记录一次合并续期的结果。
+     *
+     * @param backend 分布式锁实现的名称
+     * @param success 是否续期成功
+     * @param count   本次合并续期的锁数量
+     */
+    default void recordRenewal(String backend, boolean success, int count) {
+    }
+
+    /**
+     * 记录一次锁的释放失败。
+     *
+     * @param backend 分布式锁实现的名称
+     */
+    default void recordUnlockFailure(String backend) {
+    }
+
+    /**
+     * 记录被注解的方法等待锁的时间。
+     *
+     * @param backend       分布式锁实现的名称
+     * @param lockName      锁名称模板
+     * @param outcome       获取锁的结果
+     * @param durationNanos 等待时间（纳秒）
+     */
+    default void recordWait(String backend, String lockName, Outcome outcome, long durationNanos) {
+    }
+
+    /**
+     * 记录被注解的方法持有锁的时间。
+     *
+     * @param backend       分布式锁实现的名称
+     * @param lockName      锁名称模板
+     * @param durationNanos 持有时间（纳秒）
+     */
+    default void recordHold(String backend, String lockName, long durationNanos) {
+    }
+
+    /**
+     * 根据分布式锁实现的类型得到指标中使用的名称。
+     *
+     * <p>去掉类名末尾的 {@code UniLockDistributed} 并转为小写，例如 {@code RedissonUniLockDistributed} 得到 {@code redisson}。</p>
+     *
+     * @param type 分布式锁实现的类型
+     * @return 分布式锁实现的名称
+     */
+    static String backendName(Class<?> type) {
+        String name = type.getSimpleName();
+        String suffix = "UniLockDistributed";
+        if (name.endsWith(suffix) && name.length() > suffix.length()) {
+            name = name.substring(0, name.length() - suffix.length());
+        }
+        return name.isEmpty() ? "unknown" : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,501 @@
+package com.xcs.unilock.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HashedWheelTimer 是基于哈希时间轮的定时器，适用于大量短周期、频繁取消的定时任务（如锁续期）。
+ *
+ * <p>添加和取消任务的时间复杂度均为 O(1)：新任务先放入无锁队列，由工作线程在每个 tick 中转移到对应的槽位；
+ * 取消的任务同样由工作线程在下一个 tick 中从槽位移除。任务的触发精度为一个 tick。</p>
+ *
+ * <p>到期的任务可以直接在工作线程中执行，也可以交给独立的任务线程池执行，以避免耗时任务拖慢时间轮。</p>
+ *
+ * @author xcs
+ */
+public class HashedWheelTimer {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    /**
+     * 定时器的状态：初始化、已启动、已停止。
+     */
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_SHUTDOWN = 2;
+
+    /**
+     * 每个 tick 最多从待添加队列中转移的任务数量，防止工作线程长时间无法推进时间轮。
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    /**
+     * 定时器的当前状态。
+     */
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    /**
+     * 每个 tick 的时长（纳秒）。
+     */
+    private final long tickDuration;
+
+    /**
+     * 时间轮的槽位。
+     */
+    private final Bucket[] wheel;
+
+    /**
+     * 槽位数量减一，用于通过位运算计算槽位下标。
+     */
+    private final int mask;
+
+    /**
+     * 待添加到时间轮的任务。
+     */
+    private final Queue<HashedWheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已取消、待从时间轮移除的任务。
+     */
+    private final Queue<HashedWheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 推进时间轮的工作线程。
+     */
+    private final Thread workerThread;
+
+    /**
+     * 执行到期任务的线程池，为 null 时直接在工作线程中执行。
+     */
+    private final ExecutorService taskExecutor;
+
+    /**
+     * 等待工作线程初始化启动时间。
+     */
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+
+    /**
+     * 时间轮的启动时间（纳秒），所有任务的截止时间都相对于该时间计算。
+     */
+    private volatile long startTime;
+
+    /**
+     * 时间轮已经推进的 tick 数，仅由工作线程访问。
+     */
+    private long tick;
+
+    /**
+     * 构造函数，使用默认的 tick 时长（100 毫秒）和槽位数量（512），并在工作线程中执行任务。
+     */
+    public HashedWheelTimer() {
+        this(100, TimeUnit.MILLISECONDS, 512, 0);
+    }
+
+    /**
+     * 构造函数，初始化时间轮。
+     *
+     * @param tickDuration  每个 tick 的时长
+     * @param unit          时间单位
+     * @param ticksPerWheel 时间轮的槽位数量，会向上取整为 2 的幂
+     * @param taskThreads   执行到期任务的线程数，为 0 时直接在工作线程中执行任务
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, int taskThreads) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^30]: " + ticksPerWheel);
+        }
+        if (taskThreads < 0) {
+            throw new IllegalArgumentException("taskThreads must not be negative: " + taskThreads);
+        }
+        this.tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        this.wheel = createWheel(ticksPerWheel);
+        this.mask = wheel.length - 1;
+        this.workerThread = newThread(new Worker(), "unilock-timer");
+        this.taskExecutor = taskThreads > 0 ? Executors.newFixedThreadPool(taskThreads, new TaskThreadFactory()) : null;
+    }
+
+    /**
+     * 添加一个定时任务，时间复杂度为 O(1)。
+     *
+     * @param task  定时任务
+     * @param delay 延迟时间
+     * @param unit  时间单位
+     * @return 定时句柄，可用于取消任务
+     */
+    public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        HashedWheelTimeout timeout = new HashedWheelTimeout(this, task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 停止定时器，尚未到期的任务将不再执行。
+     */
+    public void stop() {
+        if (Thread.currentThread() == workerThread) {
+            throw new IllegalStateException("HashedWheelTimer.stop() cannot be called from a timer task");
+        }
+        if (!state.compareAndSet(STATE_STARTED, STATE_SHUTDOWN)) {
+            state.set(STATE_SHUTDOWN);
+        } else {
+            boolean interrupted = false;
+            while (workerThread.isAlive()) {
+                workerThread.interrupt();
+                try {
+                    workerThread.join(100);
+                } catch (InterruptedException ignored) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (taskExecutor != null) {
+            taskExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 启动工作线程（如果尚未启动），并等待启动时间初始化完成。
+     */
+    private void start() {
+        switch (state.get()) {
+            case STATE_INIT:
+                if (state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+                    workerThread.start();
+                }
+                break;
+            case STATE_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("cannot be started once stopped");
+        }
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException ignored) {
+                // 启动时间很快就会初始化完成，这里忽略中断继续等待
+            }
+        }
+    }
+
+    /**
+     * 执行到期的任务。
+     *
+     * @param timeout 到期的定时句柄
+     */
+    private void execute(HashedWheelTimeout timeout) {
+        if (taskExecutor == null) {
+            timeout.run();
+            return;
+        }
+        try {
+            taskExecutor.execute(timeout::run);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Timer task rejected, the timer may have been stopped");
+        }
+    }
+
+    /**
+     * 创建时间轮，槽位数量向上取整为 2 的幂。
+     *
+     * @param ticksPerWheel 期望的槽位数量
+     * @return 时间轮的槽位数组
+     */
+    private static Bucket[] createWheel(int ticksPerWheel) {
+        int normalized = 1;
+        while (normalized < ticksPerWheel) {
+            normalized <<= 1;
+        }
+        Bucket[] wheel = new Bucket[normalized];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        return wheel;
+    }
+
+    /**
+     * 创建守护线程。
+     *
+     * @param runnable 线程执行的任务
+     * @param name     线程名称
+     * @return 守护线程
+     */
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 推进时间轮的工作线程逻辑。
+     */
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            // 初始化启动时间，0 被用作未初始化的标识
+            long now = System.nanoTime();
+            startTime = now == 0 ? 1 : now;
+            startTimeInitialized.countDown();
+            do {
+                long deadline = waitForNextTick();
+                if (deadline > 0) {
+                    processCancelledTimeouts();
+                    transferTimeoutsToBuckets();
+                    wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                    tick++;
+                }
+            } while (state.get() == STATE_STARTED);
+        }
+
+        /**
+         * 将待添加队列中的任务转移到对应的槽位。
+         */
+        private void transferTimeoutsToBuckets() {
+            for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+                HashedWheelTimeout timeout = pendingTimeouts.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                long calculated = timeout.deadline / tickDuration;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                // 已经过期的任务放入当前槽位，在本次 tick 中执行
+                long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+
+        /**
+         * 从槽位中移除已经取消的任务。
+         */
+        private void processCancelledTimeouts() {
+            for (; ; ) {
+                HashedWheelTimeout timeout = cancelledTimeouts.poll();
+                if (timeout == null) {
+                    break;
+                }
+                timeout.remove();
+            }
+        }
+
+        /**
+         * 等待下一个 tick 到来。
+         *
+         * @return 当前相对于启动时间的纳秒数，定时器停止时返回负数
+         */
+        private long waitForNextTick() {
+            long deadline = tickDuration * (tick + 1);
+            for (; ; ) {
+                long currentTime = System.nanoTime() - startTime;
+                long sleepTimeMs = (deadline - currentTime + 999999) / 1000000;
+                if (sleepTimeMs <= 0) {
+                    return currentTime == Long.MIN_VALUE ? -Long.MAX_VALUE : currentTime;
+                }
+                try {
+                    Thread.sleep(sleepTimeMs);
+                } catch (InterruptedException ignored) {
+                    if (state.get() == STATE_SHUTDOWN) {
+                        return Long.MIN_VALUE;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 时间轮中的一个槽位，由双向链表保存任务，仅由工作线程访问。
+     */
+    private static final class Bucket {
+
+        private HashedWheelTimeout head;
+        private HashedWheelTimeout tail;
+
+        /**
+         * 将任务添加到槽位末尾。
+         *
+         * @param timeout 定时句柄
+         */
+        private void add(HashedWheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 执行槽位中已经到期的任务，其余任务的剩余轮数减一。
+         *
+         * @param deadline 当前相对于启动时间的纳秒数
+         */
+        private void expireTimeouts(long deadline) {
+            HashedWheelTimeout timeout = head;
+            while (timeout != null) {
+                HashedWheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    next = remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    }
+                } else if (timeout.isCancelled()) {
+                    next = remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        /**
+         * 从槽位中移除任务。
+         *
+         * @param timeout 定时句柄
+         * @return 被移除任务的下一个任务
+         */
+        private HashedWheelTimeout remove(HashedWheelTimeout timeout) {
+            HashedWheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    tail = null;
+                    head = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+    }
+
+    /**
+     * 时间轮中的定时句柄。
+     */
+    private static final class HashedWheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final TimerTask task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        /**
+         * 剩余的轮数，仅由工作线程访问。
+         */
+        private long remainingRounds;
+
+        /**
+         * 所在槽位及链表指针，仅由工作线程访问。
+         */
+        private Bucket bucket;
+        private HashedWheelTimeout next;
+        private HashedWheelTimeout prev;
+
+        private HashedWheelTimeout(HashedWheelTimer timer, TimerTask task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            // 由工作线程在下一个 tick 中从槽位移除
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /**
+         * 从所在槽位中移除，仅由工作线程调用。
+         */
+        private void remove() {
+            if (bucket != null) {
+                bucket.remove(this);
+            }
+        }
+
+        /**
+         * 标记任务到期并执行。
+         */
+        private void expire() {
+            if (state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                timer.execute(this);
+            }
+        }
+
+        /**
+         * 执行任务，捕获并记录任务抛出的异常。
+         */
+        private void run() {
+            try {
+                task.run(this);
+            } catch (Throwable t) {
+                LOGGER.warn("An exception was thrown by {}", task.getClass().getSimpleName(), t);
+            }
+        }
+    }
+
+    /**
+     * 执行到期任务的线程工厂。
+     */
+    private static final class TaskThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return HashedWheelTimer.newThread(runnable, "unilock-timer-task-" + threadNumber.getAndIncrement());
+        }
+    }
+}
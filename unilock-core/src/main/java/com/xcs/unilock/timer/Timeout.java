@@ -0,0 +1,37 @@
+package com.xcs.unilock.timer;
+
+/**
+ * Timeout 是 {@link HashedWheelTimer} 返回的定时句柄，用于查询状态或取消任务。
+ *
+ * @author xcs
+ */
+public interface Timeout {
+
+    /**
+     * 获取与该句柄关联的任务。
+     *
+     * @return 定时任务
+     */
+    TimerTask task();
+
+    /**
+     * 任务是否已经到期并被执行。
+     *
+     * @return 是否已到期
+     */
+    boolean isExpired();
+
+    /**
+     * 任务是否已经被取消。
+     *
+     * @return 是否已取消
+     */
+    boolean isCancelled();
+
+    /**
+     * 取消任务，时间复杂度为 O(1)。
+     *
+     * @return 如果任务在到期之前被成功取消，则返回 {@code true}；否则返回 {@code false}
+     */
+    boolean cancel();
+}
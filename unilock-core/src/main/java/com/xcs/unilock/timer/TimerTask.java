@@ -0,0 +1,18 @@
+package com.xcs.unilock.timer;
+
+/**
+ * TimerTask 接口定义了由 {@link HashedWheelTimer} 在到期后执行的任务。
+ *
+ * @author xcs
+ */
+@FunctionalInterface
+public interface TimerTask {
+
+    /**
+     * 任务到期后执行。
+     *
+     * @param timeout 与该任务关联的定时句柄
+     * @throws Exception 执行过程中可能抛出的异常
+     */
+    void run(Timeout timeout) throws Exception;
+}
@@ -0,0 +1,66 @@
+package com.xcs.unilock.wait;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExponentialBackoffWaitStrategy 是带随机抖动的指数退避等待策略。
+ * <p>第 n 次失败后的退避时间为 {@code min(maxWait, baseWait * 2^(n-1))}，实际等待时间在退避时间的一半到全部之间随机取值，
+ * 以避免大量等待者在同一时刻集中重试。</p>
+ *
+ * @author xcs
+ */
+public class ExponentialBackoffWaitStrategy implements WaitStrategy {
+
+    /**
+     * 默认的初始退避时间（毫秒）。
+     */
+    private static final long DEFAULT_BASE_WAIT_MILLIS = 5;
+
+    /**
+     * 默认的最大退避时间（毫秒）。
+     */
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 100;
+
+    /**
+     * 初始退避时间（纳秒）。
+     */
+    private final long baseWaitNanos;
+
+    /**
+     * 最大退避时间（纳秒）。
+     */
+    private final long maxWaitNanos;
+
+    public ExponentialBackoffWaitStrategy() {
+        this(DEFAULT_BASE_WAIT_MILLIS, DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 构造函数，指定初始退避时间与最大退避时间。
+     *
+     * @param baseWait 初始退避时间
+     * @param maxWait  最大退避时间
+     * @param unit     时间单位
+     */
+    public ExponentialBackoffWaitStrategy(long baseWait, long maxWait, TimeUnit unit) {
+        if (baseWait <= 0 || maxWait < baseWait) {
+            throw new IllegalArgumentException("baseWait must be positive and not greater than maxWait");
+        }
+        this.baseWaitNanos = unit.toNanos(baseWait);
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    @Override
+    public long nextWaitNanos(int attempt, long remainingNanos) {
+        // 防止移位溢出，超过 30 次之后直接使用最大退避时间
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long backoffNanos = Math.min(maxWaitNanos, baseWaitNanos << shift);
+        if (backoffNanos <= 0) {
+            backoffNanos = maxWaitNanos;
+        }
+        // 在退避时间的一半到全部之间随机抖动
+        long half = backoffNanos >>> 1;
+        return half + ThreadLocalRandom.current().nextLong(backoffNanos - half + 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.xcs.unilock.wait;
+
+/**
+ * ImmediateFailWaitStrategy 是立即失败的等待策略。
+ * <p>第一次获取锁失败后不再重试，适用于后端自身已经在 {@code waitTime} 内阻塞等待的实现（如 Redisson、ZooKeeper、Etcd），
+ * 或者希望获取不到锁时立即返回的场景。</p>
+ *
+ * @author xcs
+ */
+public class ImmediateFailWaitStrategy implements WaitStrategy {
+
+    /**
+     * 共享实例，该策略无状态。
+     */
+    public static final ImmediateFailWaitStrategy INSTANCE = new ImmediateFailWaitStrategy();
+
+    @Override
+    public long nextWaitNanos(int attempt, long remainingNanos) {
+        return -1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.xcs.unilock.wait;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpinThenParkWaitStrategy 是先自旋再挂起的等待策略。
+ * <p>前若干次失败后仅让出 CPU 并立即重试，适用于锁持有时间极短、后端响应极快的场景（如本地锁或同机房 Redis）；
+ * 自旋次数用尽后，按固定的挂起时间等待重试。</p>
+ *
+ * @author xcs
+ */
+public class SpinThenParkWaitStrategy implements WaitStrategy {
+
+    /**
+     * 默认的自旋次数。
+     */
+    private static final int DEFAULT_SPIN_TRIES = 10;
+
+    /**
+     * 默认的挂起时间（毫秒）。
+     */
+    private static final long DEFAULT_PARK_MILLIS = 10;
+
+    /**
+     * 自旋次数。
+     */
+    private final int spinTries;
+
+    /**
+     * 自旋结束后每次挂起的时间（纳秒）。
+     */
+    private final long parkNanos;
+
+    public SpinThenParkWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES, DEFAULT_PARK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 构造函数，指定自旋次数与挂起时间。
+     *
+     * @param spinTries 自旋次数
+     * @param park      自旋结束后每次挂起的时间
+     * @param unit      时间单位
+     */
+    public SpinThenParkWaitStrategy(int spinTries, long park, TimeUnit unit) {
+        if (spinTries < 0 || park <= 0) {
+            throw new IllegalArgumentException("spinTries must not be negative and park must be positive");
+        }
+        this.spinTries = spinTries;
+        this.parkNanos = unit.toNanos(park);
+    }
+
+    @Override
+    public long nextWaitNanos(int attempt, long remainingNanos) {
+        return attempt <= spinTries ? 0 : parkNanos;
+    }
+
+    @Override
+    public boolean await(int attempt, long deadlineNanos) throws InterruptedException {
+        if (attempt <= spinTries) {
+            // 自旋阶段，未到截止时间则让出 CPU 后立即重试
+            if (deadlineNanos - System.nanoTime() <= 0) {
+                return false;
+            }
+            Thread.yield();
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return true;
+        }
+        return WaitStrategy.super.await(attempt, deadlineNanos);
+    }
+}
@@ -0,0 +1,53 @@
+package com.xcs.unilock.wait;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WaitStrategy 接口定义了获取锁失败后的等待策略。
+ * <p>每次获取锁失败后，由等待策略决定下一次重试前需要等待多久，或者直接放弃重试。
+ * 等待时间始终不会超过剩余的截止时间，从而保证获取锁的总耗时严格受 {@code waitTime} 约束。</p>
+ *
+ * @author xcs
+ */
+public interface WaitStrategy {
+
+    /**
+     * 计算下一次重试前需要等待的时间。
+     *
+     * @param attempt        已经失败的尝试次数（从 1 开始）
+     * @param remainingNanos 距离截止时间的剩余时间（纳秒），始终大于 0
+     * @return 下一次重试前的等待时间（纳秒），返回 0 表示立即重试，返回负数表示放弃重试
+     */
+    long nextWaitNanos(int attempt, long remainingNanos);
+
+    /**
+     * 阻塞当前线程，直到可以进行下一次重试。
+     *
+     * <p>默认实现根据 {@link #nextWaitNanos(int, long)} 的结果挂起当前线程，挂起时间不会超过剩余的截止时间。</p>
+     *
+     * @param attempt       已经失败的尝试次数（从 1 开始）
+     * @param deadlineNanos 截止时间（基于 {@link System#nanoTime()}）
+     * @return 如果需要继续重试，则返回 {@code true}；否则返回 {@code false}
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    default boolean await(int attempt, long deadlineNanos) throws InterruptedException {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        // 已经到达截止时间，放弃重试
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        long waitNanos = nextWaitNanos(attempt, remainingNanos);
+        // 等待策略要求放弃重试
+        if (waitNanos < 0) {
+            return false;
+        }
+        // 挂起当前线程，等待时间不超过剩余的截止时间
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(this, Math.min(waitNanos, remainingNanos));
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.xcs.unilock.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 时间轮定时器的取消、多轮截止时间与停止。
+ *
+ * @author xcs
+ */
+class HashedWheelTimerTest {
+
+    /**
+     * 每个 tick 10 毫秒、8 个槽位，转一圈 80 毫秒。
+     */
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, 0);
+
+    @AfterEach
+    void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws InterruptedException {
+        AtomicBoolean ran = new AtomicBoolean();
+        Timeout timeout = timer.newTimeout(t -> ran.set(true), 50, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(timeout.cancel());
+        Assertions.assertFalse(timeout.cancel());
+        Assertions.assertTrue(timeout.isCancelled());
+
+        CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(t -> later.countDown(), 150, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(later.await(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(ran.get());
+        Assertions.assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    void expiredTimeoutCannotBeCancelled() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        Timeout timeout = timer.newTimeout(t -> ran.countDown(), 0, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(timeout.isExpired());
+        Assertions.assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void deadlinesBeyondOneRoundAreNotFiredEarly() throws InterruptedException {
+        // 250 毫秒与 170 毫秒落在同一个槽位，分别需要等待 3 圈与 2 圈
+        long[] delays = {170, 250, 30};
+        AtomicLong[] elapsed = new AtomicLong[delays.length];
+        CountDownLatch done = new CountDownLatch(delays.length);
+        long start = System.nanoTime();
+        for (int i = 0; i < delays.length; i++) {
+            AtomicLong slot = elapsed[i] = new AtomicLong();
+            timer.newTimeout(t -> {
+                slot.set(System.nanoTime() - start);
+                done.countDown();
+            }, delays[i], TimeUnit.MILLISECONDS);
+        }
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < delays.length; i++) {
+            Assertions.assertTrue(elapsed[i].get() >= TimeUnit.MILLISECONDS.toNanos(delays[i]),
+                    "timeout of " + delays[i] + "ms fired after " + TimeUnit.NANOSECONDS.toMillis(elapsed[i].get()) + "ms");
+        }
+    }
+
+    @Test
+    void stopFromOutsideWorkerTerminatesWorker() throws InterruptedException {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        AtomicReference<Throwable> stopInTask = new AtomicReference<>();
+        CountDownLatch ran = new CountDownLatch(1);
+        timer.newTimeout(t -> {
+            worker.set(Thread.currentThread());
+            try {
+                timer.stop();
+            } catch (Throwable e) {
+                stopInTask.set(e);
+            }
+            ran.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(stopInTask.get() instanceof IllegalStateException);
+
+        AtomicBoolean pendingRan = new AtomicBoolean();
+        timer.newTimeout(t -> pendingRan.set(true), 10, TimeUnit.SECONDS);
+        Thread stopper = new Thread(timer::stop);
+        stopper.start();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assertions.assertFalse(stopper.isAlive());
+        Assertions.assertFalse(worker.get().isAlive());
+        Assertions.assertFalse(pendingRan.get());
+    }
+
+    @Test
+    void newTimeoutIsRejectedAfterStop() {
+        timer.newTimeout(t -> {
+        }, 1, TimeUnit.SECONDS);
+        timer.stop();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> timer.newTimeout(t -> {
+        }, 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void newTimeoutIsRejectedWhenStoppedBeforeStart() {
+        timer.stop();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> timer.newTimeout(t -> {
+        }, 1, TimeUnit.SECONDS));
+    }
+}
@@ -1,10 +1,13 @@
 package com.xcs.unilock.etcd;
 
+import com.xcs.unilock.UniLockResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * EtcdHolder 是锁的持有者对象，包含锁的路径和租约ID。
+ * EtcdHolder 是锁的持有者对象，包含锁的路径、租约ID和栅栏令牌。
  */
 @Data
 @AllArgsConstructor
@@ -18,4 +21,22 @@ public class EtcdHolder {
      * Etcd 中锁的租约ID。
      */
     private long leaseId;
+
+    /**
+     * 共用该租约的锁的数量，最后一把锁释放时才撤销租约。
+     */
+    private AtomicInteger leaseReferences;
+
+    /**
+     * 栅栏令牌，即锁键的创建版本。
+     */
+    private long fencingToken;
+
+    public EtcdHolder(String key, long leaseId) {
+        this(key, leaseId, UniLockResponse.NO_FENCING_TOKEN);
+    }
+
+    public EtcdHolder(String key, long leaseId, long fencingToken) {
+        this(key, leaseId, new AtomicInteger(1), fencingToken);
+    }
 }
@@ -1,24 +1,96 @@
 package com.xcs.unilock.etcd;
 
 import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.UniLockResponse;
+import com.xcs.unilock.wait.ExponentialBackoffWaitStrategy;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.KeyValue;
 import io.etcd.jetcd.Lease;
 import io.etcd.jetcd.Lock;
-import io.etcd.jetcd.lock.LockResponse;
+import io.etcd.jetcd.kv.GetResponse;
+import io.etcd.jetcd.kv.TxnResponse;
+import io.etcd.jetcd.lease.LeaseKeepAliveResponse;
+import io.etcd.jetcd.op.Cmp;
+import io.etcd.jetcd.op.CmpTarget;
+import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.GetOption;
+import io.etcd.jetcd.options.PutOption;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * EtcdDistributedLock 是基于 Etcd 实现的分布式锁适配器。
  * 利用 Etcd 的租约机制和键值操作，实现了锁的获取、释放以及状态管理。
  * 该实现支持重入锁，即允许同一线程多次获取同一把锁。
+ * jetcd 的客户端本身是异步的，因此同步接口也是基于异步实现完成的。
+ * 读写锁基于键前缀与创建版本排序实现。
+ * 锁按锁键的创建版本排队，因此以锁键的创建版本作为栅栏令牌，后一个持有者的令牌总是更大。
  *
  * @author xcs
  */
 public class EtcdUniLockDistributed extends AbstractUniLockDistributed<EtcdHolder> {
 
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EtcdUniLockDistributed.class);
+
+    /**
+     * 租约自动续约的观察者，仅记录续约失败的情况。
+     */
+    private static final StreamObserver<LeaseKeepAliveResponse> KEEP_ALIVE_OBSERVER = new StreamObserver<LeaseKeepAliveResponse>() {
+        @Override
+        public void onNext(LeaseKeepAliveResponse response) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.warn("Failed to keep etcd lease alive", t);
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    };
+
+    /**
+     * 锁未能立即获取时，重新检查持有情况的等待策略。
+     */
+    private static final WaitStrategy POLL_WAIT_STRATEGY = new ExponentialBackoffWaitStrategy();
+
+    /**
+     * 读写锁的键前缀后缀，读写锁的排队键位于 {@code 锁名称#rw/read/} 与 {@code 锁名称#rw/write/} 下，与互斥锁的 {@code 锁名称/} 分开。
+     */
+    private static final String READ_WRITE_SUFFIX = "#rw/";
+
+    /**
+     * 查询锁的持有者：前缀下创建版本最早的键。
+     */
+    private static final GetOption OWNER_OPTION = GetOption.builder().isPrefix(true).withKeysOnly(true)
+            .withSortField(GetOption.SortTarget.CREATE).withSortOrder(GetOption.SortOrder.ASCEND).withLimit(1).build();
+
+    /**
+     * Etcd 键值客户端，用于在一个事务中获取一组锁。
+     */
+    private final KV kvClient;
+
     /**
      * Etcd 锁客户端，用于执行分布式锁的相关操作。
      */
@@ -29,44 +101,271 @@ public class EtcdUniLockDistributed extends AbstractUniLockDistributed<EtcdHolde
      */
     private final Lease leaseClient;
 
+    /**
+     * Etcd 客户端。
+     */
+    private final Client client;
+
     public EtcdUniLockDistributed(Client client) {
+        this.client = client;
+        this.kvClient = client.getKVClient();
         this.lockClient = client.getLockClient();
         this.leaseClient = client.getLeaseClient();
     }
 
+    /**
+     * 获取 Etcd 客户端，用于与其他组件共享连接。
+     *
+     * @return Client
+     */
+    public Client getClient() {
+        return client;
+    }
+
     @Override
     public boolean reentrant() {
         return true;
     }
 
+    /**
+     * 获取锁时已经在 waitTime 内阻塞等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
     @Override
     public EtcdHolder doLock(String lockName, String lockValue, long leaseTime, long waitTime) throws Exception {
-        ByteSequence lockKey = ByteSequence.from(lockName.getBytes());
+        return await(doLockAsync(lockName, lockValue, leaseTime, waitTime));
+    }
+
+    @Override
+    public CompletableFuture<EtcdHolder> doLockAsync(String lockName, String lockValue, long leaseTime, long waitTime) {
+        ByteSequence lockKey = bytes(lockName);
         // 将传入的时间转换为秒，并设置租约的存活时间（TTL）
-        long leaseTtl = TimeUnit.MILLISECONDS.toSeconds(leaseTime);
+        long leaseTtl = leaseTtl(leaseTime);
         // 创建租约并获取租约ID
-        long leaseId = leaseClient.grant(leaseTtl).get().getID();
-        // 设置租约自动续约
-        leaseClient.keepAlive(leaseId, null);
-        // 尝试获取锁，并将锁绑定到租约上
-        LockResponse lockResponse = lockClient.lock(lockKey, leaseId).get(waitTime, TimeUnit.MILLISECONDS);
-        // 如果成功获取锁
-        if (lockResponse != null) {
-            String key = lockResponse.getKey().toString(StandardCharsets.UTF_8);
-            return new EtcdHolder(key, leaseId);
+        return leaseClient.grant(leaseTtl).thenCompose(grant -> {
+            long leaseId = grant.getID();
+            // 设置租约自动续约
+            leaseClient.keepAlive(leaseId, KEEP_ALIVE_OBSERVER);
+            CompletableFuture<EtcdHolder> result = new CompletableFuture<>();
+            // 超时仍未获取到锁，撤销租约，排队中的锁键随租约一起删除
+            ScheduledFuture<?> timeout = scheduleAsync(() -> {
+                if (result.complete(null)) {
+                    leaseClient.revoke(leaseId);
+                }
+            }, waitTime, TimeUnit.MILLISECONDS);
+            // 尝试获取锁，并将锁绑定到租约上，获取成功后查询锁键的创建版本作为栅栏令牌
+            lockClient.lock(lockKey, leaseId).thenCompose(lockResponse -> kvClient.get(lockResponse.getKey()).thenApply(getResponse -> {
+                List<KeyValue> kvs = getResponse.getKvs();
+                long fencingToken = kvs.isEmpty() ? UniLockResponse.NO_FENCING_TOKEN : kvs.get(0).getCreateRevision();
+                return new EtcdHolder(lockResponse.getKey().toString(StandardCharsets.UTF_8), leaseId, fencingToken);
+            })).whenComplete((holder, e) -> {
+                timeout.cancel(false);
+                if (e != null) {
+                    leaseClient.revoke(leaseId);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                // 已经超时，释放刚刚获取的锁
+                if (!result.complete(holder)) {
+                    doUnlockAsync(lockName, lockValue, holder);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * 获取读锁或写锁。
+     *
+     * <p>与 etcd 的读写锁方案相同，按创建版本排队：读锁只需等待创建版本更早的写锁释放，写锁需要等待创建版本更早的任何锁释放。
+     * 排队键绑定到租约上，超时后撤销租约，排队键随租约一起删除。</p>
+     */
+    @Override
+    public EtcdHolder doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        long leaseTtl = leaseTtl(leaseTime);
+        long leaseId = await(leaseClient.grant(leaseTtl)).getID();
+        leaseClient.keepAlive(leaseId, KEEP_ALIVE_OBSERVER);
+        boolean locked = false;
+        try {
+            String prefix = lockName + READ_WRITE_SUFFIX;
+            String key = prefix + (mode == LockMode.READ ? "read/" : "write/") + Long.toHexString(leaseId);
+            TxnResponse response = await(kvClient.txn()
+                    .If(new Cmp(bytes(key), Cmp.Op.EQUAL, CmpTarget.createRevision(0)))
+                    .Then(Op.put(bytes(key), ByteSequence.EMPTY, PutOption.builder().withLeaseId(leaseId).build()))
+                    .commit());
+            if (!response.isSucceeded()) {
+                return null;
+            }
+            long revision = response.getPutResponses().get(0).getHeader().getRevision();
+            // 读锁只与写锁冲突，写锁与任何锁冲突
+            ByteSequence blockingPrefix = bytes(mode == LockMode.READ ? prefix + "write/" : prefix);
+            int attempt = 0;
+            while (!(locked = isFirst(await(kvClient.get(blockingPrefix, OWNER_OPTION)), revision))) {
+                if (!POLL_WAIT_STRATEGY.await(++attempt, deadlineNanos)) {
+                    return null;
+                }
+            }
+            return new EtcdHolder(key, leaseId, revision);
+        } finally {
+            if (!locked) {
+                leaseClient.revoke(leaseId);
+            }
+        }
+    }
+
+    /**
+     * 判断是否没有创建版本更早的冲突键。
+     *
+     * @param response 冲突前缀下创建版本最早的键
+     * @param revision 自己的排队键的创建版本
+     * @return 如果没有更早的冲突键，则返回 {@code true}
+     */
+    private static boolean isFirst(GetResponse response, long revision) {
+        List<KeyValue> kvs = response.getKvs();
+        return kvs.isEmpty() || kvs.get(0).getCreateRevision() >= revision;
+    }
+
+    /**
+     * 在一个事务中获取一组锁。
+     *
+     * <p>与 etcd 锁服务相同，每把锁在 {@code 锁名称/租约ID} 下创建排队键，创建版本最早的键的持有者即为锁的持有者。
+     * 所有排队键在同一个事务中创建并共用一个租约，因此在每把锁上的排队顺序一致，不会交叉等待而死锁；
+     * 同一个事务同时查询每把锁的持有者，没有竞争时一次网络往返即可获取全部锁。
+     * 有竞争时在截止时间之前按指数退避重新查询，超时后撤销租约，排队键随租约一起删除。</p>
+     */
+    @Override
+    public List<EtcdHolder> doLockAll(List<String> lockNames, String lockValue, long leaseTime, long waitTime) throws Exception {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        long leaseTtl = leaseTtl(leaseTime);
+        long leaseId = await(leaseClient.grant(leaseTtl)).getID();
+        leaseClient.keepAlive(leaseId, KEEP_ALIVE_OBSERVER);
+        boolean locked = false;
+        try {
+            List<String> keys = new ArrayList<>(lockNames.size());
+            Cmp[] compares = new Cmp[lockNames.size()];
+            Op[] puts = new Op[lockNames.size()];
+            Op[] owners = new Op[lockNames.size()];
+            PutOption putOption = PutOption.builder().withLeaseId(leaseId).build();
+            for (int i = 0; i < lockNames.size(); i++) {
+                String key = lockNames.get(i) + "/" + Long.toHexString(leaseId);
+                keys.add(key);
+                compares[i] = new Cmp(bytes(key), Cmp.Op.EQUAL, CmpTarget.createRevision(0));
+                puts[i] = Op.put(bytes(key), ByteSequence.EMPTY, putOption);
+                owners[i] = Op.get(bytes(lockNames.get(i) + "/"), OWNER_OPTION);
+            }
+            Op[] operations = Arrays.copyOf(puts, puts.length + owners.length);
+            System.arraycopy(owners, 0, operations, puts.length, owners.length);
+            TxnResponse response = await(kvClient.txn().If(compares).Then(operations).commit());
+            List<GetResponse> getResponses = response.isSucceeded() ? response.getGetResponses() : Collections.emptyList();
+            int attempt = 0;
+            while (!(locked = ownsAll(keys, getResponses))) {
+                if (!response.isSucceeded() || !POLL_WAIT_STRATEGY.await(++attempt, deadlineNanos)) {
+                    return null;
+                }
+                getResponses = await(kvClient.txn().Then(owners).commit()).getGetResponses();
+            }
+            // 所有排队键在同一个事务中创建，创建版本即事务的版本
+            long revision = response.getHeader().getRevision();
+            AtomicInteger leaseReferences = new AtomicInteger(keys.size());
+            List<EtcdHolder> holders = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                holders.add(new EtcdHolder(key, leaseId, leaseReferences, revision));
+            }
+            return holders;
+        } finally {
+            if (!locked) {
+                leaseClient.revoke(leaseId);
+            }
+        }
+    }
+
+    /**
+     * 判断每把锁的持有者是否都是自己的排队键。
+     *
+     * @param keys         自己的排队键
+     * @param getResponses 每把锁持有者的查询结果
+     * @return 如果全部持有，则返回 {@code true}
+     */
+    private static boolean ownsAll(List<String> keys, List<GetResponse> getResponses) {
+        if (getResponses.size() != keys.size()) {
+            return false;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            List<KeyValue> kvs = getResponses.get(i).getKvs();
+            if (kvs.isEmpty() || !keys.get(i).equals(kvs.get(0).getKey().toString(StandardCharsets.UTF_8))) {
+                return false;
+            }
         }
-        // 如果锁未能获取，返回失败的响应对象
-        return null;
+        return true;
+    }
+
+    @Override
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, EtcdHolder etcdHolder) {
+        return etcdHolder.getFencingToken();
     }
 
     @Override
     public void doUnlock(String lockName, String lockValue, EtcdHolder etcdHolder) throws Exception {
-        // 如果锁对象存在
-        if (etcdHolder != null) {
-            // 释放锁
-            lockClient.unlock(ByteSequence.from(etcdHolder.getKey().getBytes())).get();
-            // 撤销租约以停止自动续约
-            leaseClient.revoke(etcdHolder.getLeaseId()).get();
+        await(doUnlockAsync(lockName, lockValue, etcdHolder));
+    }
+
+    @Override
+    public CompletableFuture<Void> doUnlockAsync(String lockName, String lockValue, EtcdHolder etcdHolder) {
+        // 如果锁对象不存在
+        if (etcdHolder == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // 释放锁，共用该租约的锁全部释放后撤销租约以停止自动续约
+        return lockClient.unlock(bytes(etcdHolder.getKey())).thenCompose(response -> {
+            if (etcdHolder.getLeaseReferences().decrementAndGet() > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return leaseClient.revoke(etcdHolder.getLeaseId()).thenApply(revoke -> null);
+        });
+    }
+
+    /**
+     * 将字符串转换为 etcd 的字节序列。
+     *
+     * @param value 字符串
+     * @return 字节序列
+     */
+    static ByteSequence bytes(String value) {
+        return ByteSequence.from(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 将锁的过期时间换算为 etcd 租约的 TTL。租约以秒为单位，不足一秒的部分向上取整，避免租约比锁的过期时间更早到期。
+     *
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @return 租约的 TTL（秒），至少为 1
+     */
+    static long leaseTtl(long leaseTime) {
+        return Math.max(1, (leaseTime + 999) / 1000);
+    }
+
+    /**
+     * 等待异步操作完成，并还原异步操作抛出的异常。
+     *
+     * @param future 异步操作
+     * @param <R>    结果类型
+     * @return 异步操作的结果
+     * @throws Exception 异步操作抛出的异常
+     */
+    static <R> R await(CompletableFuture<R> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
         }
     }
 }
@@ -0,0 +1,118 @@
+package com.xcs.unilock.etcd;
+
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import com.xcs.unilock.wait.ExponentialBackoffWaitStrategy;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.Client;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Lease;
+import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.GetOption;
+import io.etcd.jetcd.options.PutOption;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EtcdUniSemaphoreDistributed 是基于 Etcd 实现的分布式信号量。
+ *
+ * <p>每个许可是 {@code 信号量名称#semaphore/租约ID/序号} 下的一个键，同一次获取的所有键在一个事务中创建并共用一个租约。
+ * 按创建版本排队，自己的键全部位于前 maxPermits 个键之内即获取成功。租约不自动续约，
+ * 其存活时间即许可的最长持有时间（从开始排队时计算），归还许可时撤销租约，键随租约一起删除。</p>
+ *
+ * @author xcs
+ */
+public class EtcdUniSemaphoreDistributed extends AbstractUniSemaphoreDistributed<Long> {
+
+    /**
+     * 许可键前缀的后缀，与同名的锁区分开。
+     */
+    private static final String SEMAPHORE_SUFFIX = "#semaphore/";
+
+    /**
+     * 许可未能立即获取时，重新检查排队情况的等待策略。
+     */
+    private static final WaitStrategy POLL_WAIT_STRATEGY = new ExponentialBackoffWaitStrategy();
+
+    /**
+     * Etcd 键值客户端，用于创建和查询许可键。
+     */
+    private final KV kvClient;
+
+    /**
+     * Etcd 中的租约客户端，用于管理许可的存活时间。
+     */
+    private final Lease leaseClient;
+
+    public EtcdUniSemaphoreDistributed(Client client) {
+        this.kvClient = client.getKVClient();
+        this.leaseClient = client.getLeaseClient();
+    }
+
+    /**
+     * 获取许可时已经在 waitTime 内轮询等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
+    @Override
+    public Long doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) throws Exception {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+        long leaseTtl = EtcdUniLockDistributed.leaseTtl(leaseTime);
+        long leaseId = EtcdUniLockDistributed.await(leaseClient.grant(leaseTtl)).getID();
+        boolean acquired = false;
+        try {
+            String prefix = semaphoreName + SEMAPHORE_SUFFIX;
+            String ownPrefix = prefix + Long.toHexString(leaseId) + "/";
+            PutOption putOption = PutOption.builder().withLeaseId(leaseId).build();
+            Op[] puts = new Op[permits];
+            for (int i = 0; i < permits; i++) {
+                puts[i] = Op.put(EtcdUniLockDistributed.bytes(ownPrefix + i), ByteSequence.EMPTY, putOption);
+            }
+            EtcdUniLockDistributed.await(kvClient.txn().Then(puts).commit());
+            // 创建版本最早的 maxPermits 个键即为持有许可的键
+            GetOption holderOption = GetOption.builder().isPrefix(true).withKeysOnly(true)
+                    .withSortField(GetOption.SortTarget.CREATE).withSortOrder(GetOption.SortOrder.ASCEND).withLimit(maxPermits).build();
+            int attempt = 0;
+            while (!(acquired = countOwn(EtcdUniLockDistributed.await(kvClient.get(EtcdUniLockDistributed.bytes(prefix), holderOption)).getKvs(), ownPrefix) == permits)) {
+                if (!POLL_WAIT_STRATEGY.await(++attempt, deadlineNanos)) {
+                    return null;
+                }
+            }
+            return leaseId;
+        } finally {
+            if (!acquired) {
+                leaseClient.revoke(leaseId);
+            }
+        }
+    }
+
+    /**
+     * 统计持有许可的键中属于自己的数量。
+     *
+     * @param kvs       持有许可的键
+     * @param ownPrefix 自己的许可键前缀
+     * @return 自己持有的许可数
+     */
+    private static int countOwn(List<KeyValue> kvs, String ownPrefix) {
+        int count = 0;
+        for (KeyValue kv : kvs) {
+            if (kv.getKey().toString(StandardCharsets.UTF_8).startsWith(ownPrefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void doRelease(String semaphoreName, String permitValue, int permits, Long leaseId) throws Exception {
+        // 撤销租约，许可键随租约一起删除
+        EtcdUniLockDistributed.await(leaseClient.revoke(leaseId));
+    }
+}
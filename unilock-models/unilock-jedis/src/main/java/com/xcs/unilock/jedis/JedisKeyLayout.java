@@ -0,0 +1,143 @@
+package com.xcs.unilock.jedis;
+
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JedisKeyLayout 决定锁名称对应的 Redis key。
+ *
+ * <p>key 由前缀与锁名称组成。锁名称本身带有 hash tag（如 {@code order:{42}:pay}）时原样使用；
+ * 否则在配置了 hash tag 模式时，以模式中第一个捕获组匹配的部分作为 hash tag，例如模式 {@code ^tenant:([^:]+):}
+ * 将 {@code tenant:42:order:7} 映射为 {@code tenant:{42}:order:7}，同一租户的锁因此位于同一个集群槽位，
+ * 一组锁的获取、续期与释放可以在一个脚本中原子地完成。</p>
+ *
+ * <p>默认的布局没有前缀也不提取 hash tag，key 与锁名称相同。信号量的 key 在前缀之后加上 {@code semaphore:}，与同名的锁区分开。</p>
+ *
+ * <p>互斥锁的栅栏令牌计数器必须与锁位于同一个槽位，其 key 尽量由锁名称而不是映射后的 key 得出：锁名称本身带有 hash tag 时为
+ * {@code 锁名称:fencing}，按模式提取 hash tag 时为 {@code 加上 hash tag 的锁名称:fencing}，两者都不受前缀影响；
+ * 没有 hash tag 时只能以整个 key 作为 hash tag，为 {@code {前缀锁名称}:fencing}。因此修改 hash tag 模式会使匹配的锁的令牌从 1 重新开始，
+ * 修改前缀会使没有 hash tag 的锁的令牌从 1 重新开始。</p>
+ *
+ * @author xcs
+ */
+public final class JedisKeyLayout {
+
+    /**
+     * 默认的布局，key 与锁名称相同
+     */
+    public static final JedisKeyLayout DEFAULT = new JedisKeyLayout(null, null);
+
+    /**
+     * 信号量 key 中位于前缀之后的部分，与同名的锁区分开
+     */
+    private static final String SEMAPHORE_SEGMENT = "semaphore:";
+
+    /**
+     * key 的前缀
+     */
+    private final String prefix;
+
+    /**
+     * 从锁名称中提取 hash tag 的模式，为 null 时不提取
+     */
+    private final Pattern hashTagPattern;
+
+    /**
+     * 构造函数，指定前缀与 hash tag 模式。
+     *
+     * @param prefix         key 的前缀，为 null 时没有前缀；前缀中不应包含 hash tag，否则所有的锁都位于同一个槽位
+     * @param hashTagPattern 从锁名称中提取 hash tag 的正则表达式，必须包含一个捕获组，为 null 时不提取
+     * @throws IllegalArgumentException 正则表达式没有捕获组
+     */
+    public JedisKeyLayout(String prefix, String hashTagPattern) {
+        this.prefix = prefix != null ? prefix : "";
+        this.hashTagPattern = hashTagPattern != null && !hashTagPattern.isEmpty() ? Pattern.compile(hashTagPattern) : null;
+        if (this.hashTagPattern != null && this.hashTagPattern.matcher("").groupCount() < 1) {
+            throw new IllegalArgumentException("hashTagPattern must contain a capturing group: " + hashTagPattern);
+        }
+    }
+
+    /**
+     * 获取锁名称对应的 key。
+     *
+     * @param lockName 锁的名称
+     * @return Redis key
+     */
+    public String key(String lockName) {
+        if (hashTagPattern == null || hasHashTag(lockName)) {
+            return prefix.isEmpty() ? lockName : prefix + lockName;
+        }
+        String tagged = tagged(lockName);
+        return prefix + (tagged != null ? tagged : lockName);
+    }
+
+    /**
+     * 获取信号量名称对应的 key，由前缀、{@code semaphore:} 与信号量名称组成，与同名的锁区分开；
+     * hash tag 与锁一样从信号量名称中提取。
+     *
+     * @param semaphoreName 信号量的名称
+     * @return Redis key
+     */
+    public String semaphoreKey(String semaphoreName) {
+        String tagged = hasHashTag(semaphoreName) ? null : tagged(semaphoreName);
+        return prefix + SEMAPHORE_SEGMENT + (tagged != null ? tagged : semaphoreName);
+    }
+
+    /**
+     * 获取锁名称对应的栅栏令牌计数器的 key，与 {@link #key(String)} 位于同一个集群槽位。
+     *
+     * @param lockName 锁的名称
+     * @return 栅栏令牌计数器的 key
+     */
+    public String fencingKey(String lockName) {
+        if (hasHashTag(lockName)) {
+            return lockName + ":fencing";
+        }
+        String tagged = tagged(lockName);
+        if (tagged != null) {
+            return tagged + ":fencing";
+        }
+        return "{" + key(lockName) + "}:fencing";
+    }
+
+    /**
+     * 按 hash tag 模式为锁名称加上 hash tag。
+     *
+     * @param lockName 不带 hash tag 的锁名称
+     * @return 加上 hash tag 的锁名称，没有配置模式或者模式不匹配时返回 null
+     */
+    private String tagged(String lockName) {
+        if (hashTagPattern == null) {
+            return null;
+        }
+        Matcher matcher = hashTagPattern.matcher(lockName);
+        if (!matcher.find() || matcher.start(1) < 0 || matcher.end(1) == matcher.start(1)) {
+            return null;
+        }
+        return lockName.substring(0, matcher.start(1)) + "{" + matcher.group(1) + "}" + lockName.substring(matcher.end(1));
+    }
+
+    /**
+     * 判断 key 是否带有非空的 hash tag，集群模式下只根据 hash tag 计算槽位。
+     *
+     * @param key Redis key
+     * @return 是否带有 hash tag
+     */
+    static boolean hasHashTag(String key) {
+        int start = key.indexOf('{');
+        int end = start < 0 ? -1 : key.indexOf('}', start + 1);
+        return end > start + 1;
+    }
+
+    /**
+     * 计算 key 所在的集群槽位。
+     *
+     * @param key Redis key
+     * @return 槽位
+     */
+    static int slot(String key) {
+        return JedisClusterCRC16.getSlot(key);
+    }
+}
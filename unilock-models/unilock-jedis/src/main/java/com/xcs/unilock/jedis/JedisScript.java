@@ -0,0 +1,59 @@
+package com.xcs.unilock.jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * JedisScript 表示一个 Lua 脚本及其 SHA1 摘要，摘要与 Redis {@code SCRIPT LOAD} 返回的值一致，
+ * 用于通过 {@code EVALSHA} 执行脚本。
+ *
+ * @author xcs
+ */
+public final class JedisScript {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 脚本的源码
+     */
+    private final String source;
+
+    /**
+     * 脚本源码的 SHA1 摘要（小写十六进制）
+     */
+    private final String sha1;
+
+    public JedisScript(String source) {
+        this.source = source;
+        this.sha1 = sha1(source);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+    private static String sha1(String source) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported", e);
+        }
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return sha1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.xcs.unilock.jedis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JedisScriptRegistry 管理 UniLock 使用的 Lua 脚本，通过 {@code EVALSHA} 执行脚本，每次调用只发送脚本的 SHA1 摘要。
+ *
+ * <p>注册脚本时在每个 Redis 节点（集群模式下为每个分片的所有节点）上执行 {@code SCRIPT LOAD} 预加载；
+ * 节点重启、主从切换或执行了 {@code SCRIPT FLUSH} 导致脚本缺失时，收到 {@code NOSCRIPT} 错误后改用 {@code EVAL} 发送源码执行，
+ * Redis 同时缓存该脚本，之后的调用重新使用 {@code EVALSHA}。</p>
+ *
+ * <p>同一个客户端上的分布式锁与信号量共用一个注册表。</p>
+ *
+ * @author xcs
+ */
+public class JedisScriptRegistry {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JedisScriptRegistry.class);
+
+    /**
+     * UnifiedJedis
+     */
+    private final UnifiedJedis jedis;
+
+    /**
+     * 已注册的脚本
+     */
+    private final Set<JedisScript> scripts = ConcurrentHashMap.newKeySet();
+
+    public JedisScriptRegistry(UnifiedJedis jedis) {
+        this.jedis = jedis;
+    }
+
+    public UnifiedJedis getJedis() {
+        return jedis;
+    }
+
+    /**
+     * 注册脚本并在所有节点上预加载，预加载失败时只记录日志，执行时再按需加载。
+     *
+     * @param scripts 脚本
+     */
+    public void register(JedisScript... scripts) {
+        List<JedisScript> added = new ArrayList<>(scripts.length);
+        for (JedisScript script : scripts) {
+            if (this.scripts.add(script)) {
+                added.add(script);
+            }
+        }
+        load(added);
+    }
+
+    /**
+     * 在所有节点上重新加载已注册的脚本，例如在集群扩容后调用。
+     */
+    public void reload() {
+        load(new ArrayList<>(scripts));
+    }
+
+    /**
+     * 执行脚本，节点上没有缓存该脚本时以源码执行。
+     *
+     * @param script 脚本
+     * @param keys   KEYS
+     * @param args   ARGV
+     * @return 脚本的返回值
+     */
+    public Object eval(JedisScript script, List<String> keys, List<String> args) {
+        try {
+            return jedis.evalsha(script.getSha1(), keys, args);
+        } catch (JedisNoScriptException e) {
+            return jedis.eval(script.getSource(), keys, args);
+        }
+    }
+
+    /**
+     * 在所有节点上加载脚本，集群模式下由 Jedis 将 {@code SCRIPT LOAD} 广播到每个节点。
+     *
+     * @param scripts 脚本
+     */
+    private void load(List<JedisScript> scripts) {
+        try {
+            for (JedisScript script : scripts) {
+                jedis.scriptLoad(script.getSource());
+            }
+        } catch (JedisException e) {
+            LOGGER.warn("Failed to preload lua scripts, they will be loaded on first use: {}", e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package com.xcs.unilock.jedis;
 
 import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockContention;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.LockOwner;
+import com.xcs.unilock.UniLockRenewal;
+import com.xcs.unilock.UniLockResponse;
+import com.xcs.unilock.UnlockSubscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.UnifiedJedis;
-import redis.clients.jedis.params.SetParams;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * JedisDistributedLock 是基于原生 Redis 实现的分布式锁适配器。
  * 利用 Redis 的 SETNX 命令和 Lua 脚本来实现锁的获取、释放和状态查询功能。
+ * 获取互斥锁的脚本同时对与锁位于同一槽位的计数器执行 INCR，得到单调递增的栅栏令牌。
+ * 计数器默认不会过期，每个用过的锁名称在 Redis 中永久保留一个计数器；锁名称包含业务参数时应通过
+ * {@link #setFencingTokenTtl(long)} 设置计数器的过期时间。
+ * 读写锁以 Hash 存储每个持有者及其过期时间，持有者异常退出时在过期后被清理。
+ * 开启可重入格式后，互斥锁同样以 Hash 存储，字段为持有者，值为重入次数。
+ * 锁名称按 {@link JedisKeyLayout} 映射为 key；集群模式下一组锁的获取、续期与释放按槽位分组，每个槽位执行一个脚本，各槽位并行执行。
  *
  * @author xcs
  */
@@ -37,14 +54,197 @@ public class JedisUniLockDistributed extends AbstractUniLockDistributed<String>
     private static final String RELEASE_SUCCESS = "1";
 
     /**
-     * 使用 Lua 脚本确保只有持有锁的线程才能解锁
+     * 使用 Lua 脚本获取锁并递增栅栏令牌计数器，KEYS 为锁与计数器，ARGV 为锁的值、过期时间与可选的计数器过期时间，返回栅栏令牌；
+     * 获取失败时返回只包含当前持有者剩余持有时间（PTTL，毫秒）的数组
      */
-    private static final String UNLOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final JedisScript LOCK_SCRIPT = new JedisScript("if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then "
+            + "local token = redis.call('incr', KEYS[2]) "
+            + "if ARGV[3] then redis.call('pexpire', KEYS[2], ARGV[3]) end "
+            + "return token "
+            + "end "
+            + "return {redis.call('pttl', KEYS[1])}");
 
     /**
-     * 使用 Lua 脚本确保只有持有锁的线程才能续期
+     * 使用 Lua 脚本确保只有持有锁的持有者才能解锁，传入 ARGV[2] 时在释放后向该频道发布释放通知
      */
-    private static final String RENEWAL_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end";
+    private static final JedisScript UNLOCK_SCRIPT = new JedisScript("if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end "
+            + "redis.call('del', KEYS[1]) "
+            + "if ARGV[2] then redis.call('publish', ARGV[2], 1) end "
+            + "return 1");
+
+    /**
+     * 使用 Lua 脚本确保只有持有锁的持有者才能续期
+     */
+    private static final JedisScript RENEWAL_SCRIPT = new JedisScript("if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end");
+
+    /**
+     * 使用 Lua 脚本批量续期，ARGV 依次为每把锁的值与过期时间，返回每把锁的续期结果（1 成功，0 失败）
+     */
+    private static final JedisScript BATCH_RENEWAL_SCRIPT = new JedisScript("local result = {} "
+            + "for i, key in ipairs(KEYS) do "
+            + "if redis.call('get', key) == ARGV[2 * i - 1] then result[i] = redis.call('pexpire', key, ARGV[2 * i]) else result[i] = 0 end "
+            + "end "
+            + "return result");
+
+    /**
+     * 使用 Lua 脚本原子地获取一组锁：任意一把锁已经存在时不获取任何锁，KEYS 的前一半为锁、后一半为对应的栅栏令牌计数器，
+     * ARGV 为锁的值、过期时间与可选的计数器过期时间，返回每把锁的栅栏令牌，获取失败时返回 0
+     */
+    private static final JedisScript LOCK_ALL_SCRIPT = new JedisScript("local n = #KEYS / 2 "
+            + "for i = 1, n do "
+            + "if redis.call('exists', KEYS[i]) == 1 then return 0 end "
+            + "end "
+            + "local tokens = {} "
+            + "for i = 1, n do "
+            + "redis.call('set', KEYS[i], ARGV[1], 'PX', ARGV[2]) "
+            + "tokens[i] = redis.call('incr', KEYS[n + i]) "
+            + "if ARGV[3] then redis.call('pexpire', KEYS[n + i], ARGV[3]) end "
+            + "end "
+            + "return tokens");
+
+    /**
+     * 使用 Lua 脚本释放一组锁，ARGV 依次为每把锁的值，只删除值匹配的锁，返回释放的锁数量；
+     * ARGV 在每把锁的值之后还有一个参数时，以其作为频道前缀为每把释放的锁发布释放通知
+     */
+    private static final JedisScript UNLOCK_ALL_SCRIPT = new JedisScript("local count = 0 "
+            + "local prefix = ARGV[#KEYS + 1] "
+            + "for i, key in ipairs(KEYS) do "
+            + "if redis.call('get', key) == ARGV[i] then "
+            + "count = count + redis.call('del', key) "
+            + "if prefix then redis.call('publish', prefix .. key, 1) end "
+            + "end "
+            + "end "
+            + "return count");
+
+    /**
+     * 可重入格式的互斥锁以 Hash 存储持有者及其重入次数，以下脚本的 KEYS、ARGV 与返回值与对应的非重入格式脚本一致。
+     *
+     * <p>获取锁：锁不存在时成为持有者并递增栅栏令牌计数器；已经是持有者时增加重入次数，返回计数器的当前值，即首次获取时得到的栅栏令牌。
+     * 两种情况都会刷新计数器的过期时间。</p>
+     */
+    private static final JedisScript HASH_LOCK_SCRIPT = new JedisScript("if redis.call('exists', KEYS[1]) == 0 then "
+            + "redis.call('hset', KEYS[1], ARGV[1], 1) "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "local token = redis.call('incr', KEYS[2]) "
+            + "if ARGV[3] then redis.call('pexpire', KEYS[2], ARGV[3]) end "
+            + "return token "
+            + "end "
+            + "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
+            + "redis.call('hincrby', KEYS[1], ARGV[1], 1) "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "if ARGV[3] then redis.call('pexpire', KEYS[2], ARGV[3]) end "
+            + "return tonumber(redis.call('get', KEYS[2]) or '0') "
+            + "end "
+            + "return {redis.call('pttl', KEYS[1])}");
+
+    /**
+     * 可重入格式的释放锁：减少一次重入次数，减到 0 时删除锁并发布释放通知
+     */
+    private static final JedisScript HASH_UNLOCK_SCRIPT = new JedisScript("if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end "
+            + "if redis.call('hincrby', KEYS[1], ARGV[1], -1) > 0 then return 1 end "
+            + "redis.call('del', KEYS[1]) "
+            + "if ARGV[2] then redis.call('publish', ARGV[2], 1) end "
+            + "return 1");
+
+    /**
+     * 可重入格式的续期
+     */
+    private static final JedisScript HASH_RENEWAL_SCRIPT = new JedisScript("if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end");
+
+    /**
+     * 可重入格式的批量续期
+     */
+    private static final JedisScript HASH_BATCH_RENEWAL_SCRIPT = new JedisScript("local result = {} "
+            + "for i, key in ipairs(KEYS) do "
+            + "if redis.call('hexists', key, ARGV[2 * i - 1]) == 1 then result[i] = redis.call('pexpire', key, ARGV[2 * i]) else result[i] = 0 end "
+            + "end "
+            + "return result");
+
+    /**
+     * 可重入格式的获取一组锁：每把锁都不存在或者已经由该持有者持有时才全部获取
+     */
+    private static final JedisScript HASH_LOCK_ALL_SCRIPT = new JedisScript("local n = #KEYS / 2 "
+            + "for i = 1, n do "
+            + "if redis.call('exists', KEYS[i]) == 1 and redis.call('hexists', KEYS[i], ARGV[1]) == 0 then return 0 end "
+            + "end "
+            + "local tokens = {} "
+            + "for i = 1, n do "
+            + "if redis.call('hincrby', KEYS[i], ARGV[1], 1) == 1 then tokens[i] = redis.call('incr', KEYS[n + i]) "
+            + "else tokens[i] = tonumber(redis.call('get', KEYS[n + i]) or '0') end "
+            + "redis.call('pexpire', KEYS[i], ARGV[2]) "
+            + "if ARGV[3] then redis.call('pexpire', KEYS[n + i], ARGV[3]) end "
+            + "end "
+            + "return tokens");
+
+    /**
+     * 可重入格式的释放一组锁
+     */
+    private static final JedisScript HASH_UNLOCK_ALL_SCRIPT = new JedisScript("local count = 0 "
+            + "local prefix = ARGV[#KEYS + 1] "
+            + "for i, key in ipairs(KEYS) do "
+            + "if redis.call('hexists', key, ARGV[i]) == 1 then "
+            + "count = count + 1 "
+            + "if redis.call('hincrby', key, ARGV[i], -1) <= 0 then "
+            + "redis.call('del', key) "
+            + "if prefix then redis.call('publish', prefix .. key, 1) end "
+            + "end "
+            + "end "
+            + "end "
+            + "return count");
+
+    /**
+     * 读写锁脚本的公共部分：取得 Redis 服务器的当前时间（毫秒），并定义清理过期持有者的函数。
+     * 读写锁以 Hash 存储，mode 字段为当前模式（read/write），其余字段为持有者的锁的值及其过期时间戳，清理后返回字段数量。
+     */
+    private static final String READ_WRITE_PRELUDE = "local t = redis.call('time') "
+            + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+            + "local deadline = string.format('%d', now + tonumber(ARGV[2])) "
+            + "local function prune(key) "
+            + "local entries = redis.call('hgetall', key) "
+            + "for i = 1, #entries, 2 do "
+            + "if entries[i] ~= 'mode' and tonumber(entries[i + 1]) < now then redis.call('hdel', key, entries[i]) end "
+            + "end "
+            + "return redis.call('hlen', key) "
+            + "end ";
+
+    /**
+     * 使用 Lua 脚本获取读锁：没有未过期的写锁持有者时加入读锁持有者，ARGV 为锁的值与过期时间
+     */
+    private static final JedisScript READ_LOCK_SCRIPT = new JedisScript(READ_WRITE_PRELUDE
+            + "if prune(KEYS[1]) > 1 and redis.call('hget', KEYS[1], 'mode') == 'write' then return 0 end "
+            + "redis.call('hset', KEYS[1], 'mode', 'read', ARGV[1], deadline) "
+            + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then redis.call('pexpire', KEYS[1], ARGV[2]) end "
+            + "return 1");
+
+    /**
+     * 使用 Lua 脚本获取写锁：没有任何未过期的持有者时成为唯一的持有者，ARGV 为锁的值与过期时间
+     */
+    private static final JedisScript WRITE_LOCK_SCRIPT = new JedisScript(READ_WRITE_PRELUDE
+            + "if prune(KEYS[1]) > 1 then return 0 end "
+            + "redis.call('hset', KEYS[1], 'mode', 'write', ARGV[1], deadline) "
+            + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "return 1");
+
+    /**
+     * 使用 Lua 脚本释放读锁或写锁，最后一个持有者释放时删除整个 Hash
+     */
+    private static final JedisScript READ_WRITE_UNLOCK_SCRIPT = new JedisScript("if redis.call('hdel', KEYS[1], ARGV[1]) == 0 then return 0 end "
+            + "if redis.call('hlen', KEYS[1]) <= 1 then redis.call('del', KEYS[1]) end "
+            + "return 1");
+
+    /**
+     * 使用 Lua 脚本续期读锁或写锁，ARGV 为锁的值与过期时间
+     */
+    private static final JedisScript READ_WRITE_RENEWAL_SCRIPT = new JedisScript(READ_WRITE_PRELUDE
+            + "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end "
+            + "redis.call('hset', KEYS[1], ARGV[1], deadline) "
+            + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then redis.call('pexpire', KEYS[1], ARGV[2]) end "
+            + "return 1");
+
+    /**
+     * 每次批量续期脚本最多包含的锁数量
+     */
+    private static final int BATCH_RENEWAL_SIZE = 500;
 
     /**
      * UnifiedJedis
@@ -52,13 +252,144 @@ public class JedisUniLockDistributed extends AbstractUniLockDistributed<String>
     private final UnifiedJedis jedis;
 
     /**
-     * 线程本地变量，存储每个线程的 InterProcessMutex 锁对象。
-     * 通过线程本地变量，确保每个线程持有自己的锁实例。
+     * Lua 脚本注册表，通过 EVALSHA 执行脚本
+     */
+    private final JedisScriptRegistry scripts;
+
+    /**
+     * 锁的释放通知，集群模式下为 null
+     */
+    private final JedisUnlockNotifier notifier;
+
+    /**
+     * 是否在释放互斥锁时发布释放通知并唤醒等待该锁的线程
      */
-    private final ThreadLocal<Map<String, String>> jedisThreadLocalLocks = ThreadLocal.withInitial(ConcurrentHashMap::new);
+    private volatile boolean unlockNotificationEnabled = true;
+
+    /**
+     * 互斥锁是否使用可重入格式，由 Redis 记录每个持有者的重入次数
+     */
+    private volatile boolean serverReentrant;
+
+    /**
+     * 锁名称到 Redis key 的映射
+     */
+    private volatile JedisKeyLayout keyLayout = JedisKeyLayout.DEFAULT;
+
+    /**
+     * 栅栏令牌计数器的过期时间（毫秒），不大于 0 时计数器不会过期
+     */
+    private volatile long fencingTokenTtl;
 
     public JedisUniLockDistributed(UnifiedJedis jedis) {
-        this.jedis = jedis;
+        this(new JedisScriptRegistry(jedis));
+    }
+
+    public JedisUniLockDistributed(JedisScriptRegistry scripts) {
+        this.jedis = scripts.getJedis();
+        this.scripts = scripts;
+        // 集群模式下的发布订阅需要为每个分片维护订阅连接并处理槽位迁移，等待锁的线程按等待策略轮询
+        this.notifier = jedis instanceof JedisCluster ? null : new JedisUnlockNotifier(jedis);
+        scripts.register(LOCK_SCRIPT, UNLOCK_SCRIPT, RENEWAL_SCRIPT, BATCH_RENEWAL_SCRIPT, LOCK_ALL_SCRIPT, UNLOCK_ALL_SCRIPT,
+                READ_LOCK_SCRIPT, WRITE_LOCK_SCRIPT, READ_WRITE_UNLOCK_SCRIPT, READ_WRITE_RENEWAL_SCRIPT,
+                HASH_LOCK_SCRIPT, HASH_UNLOCK_SCRIPT, HASH_RENEWAL_SCRIPT, HASH_BATCH_RENEWAL_SCRIPT, HASH_LOCK_ALL_SCRIPT, HASH_UNLOCK_ALL_SCRIPT);
+    }
+
+    /**
+     * 获取访问 Redis 的客户端，用于与其他组件共享连接。
+     *
+     * @return UnifiedJedis
+     */
+    public UnifiedJedis getJedis() {
+        return jedis;
+    }
+
+    /**
+     * 获取 Lua 脚本注册表，用于与其他组件共享已加载的脚本。
+     *
+     * @return JedisScriptRegistry
+     */
+    public JedisScriptRegistry getScriptRegistry() {
+        return scripts;
+    }
+
+    /**
+     * 获取锁名称到 Redis key 的映射，用于与其他组件共享同一布局。
+     *
+     * @return key 的布局
+     */
+    public JedisKeyLayout getKeyLayout() {
+        return keyLayout;
+    }
+
+    /**
+     * 设置是否在释放互斥锁时发布释放通知并唤醒等待该锁的线程，关闭后等待锁的线程按等待策略轮询。
+     * 集群模式下始终按等待策略轮询。
+     *
+     * @param unlockNotificationEnabled 是否启用释放通知
+     */
+    public void setUnlockNotificationEnabled(boolean unlockNotificationEnabled) {
+        this.unlockNotificationEnabled = unlockNotificationEnabled;
+    }
+
+    /**
+     * 设置互斥锁是否使用可重入格式。
+     *
+     * <p>可重入格式以 Hash 存储持有者（{@link LockOwner} 的标识）及其重入次数，重入与释放都在 Redis 中完成，
+     * 不再在本地登记持有的锁，并可通过 {@link #getHoldCounts(String)} 查询。同步获取的锁只能由同一持有者重入和释放，
+     * 在其他线程中需要先绑定该持有者，否则抛出 {@link IllegalMonitorStateException}；{@link #tryLockAsync} 获取的锁使用独立的持有者标识，
+     * 不参与重入，可以在任意线程中释放。两种格式的 key 类型不同，同一把锁的所有客户端必须使用相同的格式，默认关闭。</p>
+     *
+     * @param serverReentrant 是否使用可重入格式
+     */
+    public void setServerReentrant(boolean serverReentrant) {
+        this.serverReentrant = serverReentrant;
+    }
+
+    /**
+     * 设置锁名称到 Redis key 的映射，修改后已经持有的锁无法正常释放，应在获取任何锁之前设置。
+     *
+     * @param keyLayout key 的布局
+     */
+    public void setKeyLayout(JedisKeyLayout keyLayout) {
+        this.keyLayout = keyLayout;
+    }
+
+    /**
+     * 设置栅栏令牌计数器的过期时间，默认为 0，计数器不会过期。
+     *
+     * <p>计数器默认永久保留，锁名称包含订单号等业务参数时计数器的数量会持续增长。设置后每次获取互斥锁都会将计数器的过期时间
+     * 重置为该值与锁的过期时间中较大的一个，长时间未被获取的锁的计数器随之过期，再次获取时令牌从 1 重新开始。
+     * 因此该值必须大于锁的最长持有时间（包括续期延长的时间）加上下游校验栅栏令牌所需的时间，
+     * 否则下游可能在计数器过期后看到比已经接受过的令牌更小的令牌。</p>
+     *
+     * @param fencingTokenTtl 计数器的过期时间（毫秒），不大于 0 时计数器不会过期
+     */
+    public void setFencingTokenTtl(long fencingTokenTtl) {
+        this.fencingTokenTtl = fencingTokenTtl;
+    }
+
+    /**
+     * 查询可重入格式的互斥锁的持有者及其重入次数。
+     *
+     * @param lockName 锁的名称
+     * @return 持有者标识到重入次数的映射，锁不存在时为空
+     */
+    public Map<String, Integer> getHoldCounts(String lockName) {
+        Map<String, Integer> holdCounts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : jedis.hgetAll(keyLayout.key(lockName)).entrySet()) {
+            holdCounts.put(entry.getKey(), Integer.valueOf(entry.getValue()));
+        }
+        return holdCounts;
+    }
+
+    /**
+     * 关闭释放通知的订阅连接。
+     */
+    public void shutdown() {
+        if (notifier != null) {
+            notifier.close();
+        }
     }
 
     @Override
@@ -71,36 +402,378 @@ public class JedisUniLockDistributed extends AbstractUniLockDistributed<String>
         return true;
     }
 
+    @Override
+    protected boolean serverReentrant(LockMode mode) {
+        return serverReentrant && mode == LockMode.EXCLUSIVE;
+    }
+
+    /**
+     * 可重入格式下，同一持有者获取互斥锁时使用相同的持有者标识，即 {@link LockOwner#getToken()}。
+     */
+    @Override
+    protected String newLockValue(LockMode mode) {
+        return serverReentrant(mode) ? LockOwner.current().getToken() : super.newLockValue(mode);
+    }
+
+    /**
+     * 可重入格式下，持有者标识只属于对应的 {@link LockOwner}；异步获取的锁的值不是持有者标识，不与持有者绑定。
+     */
+    @Override
+    protected boolean ownedByCurrentOwner(String lockValue, LockMode mode) {
+        return !LockOwner.isToken(lockValue) || lockValue.equals(LockOwner.current().getToken());
+    }
+
     @Override
     public String doLock(String lockName, String lockValue, long leaseTime, long waitTime) {
-        // 设置NX和过期时间
-        SetParams setParams = new SetParams().nx().px(TimeUnit.MILLISECONDS.toMillis(leaseTime));
-        // 尝试获取锁 SET myLock myValue NX PX 5000
-        String result = jedis.set(lockName, lockValue, setParams);
-        // 如果成功获取锁，则将锁信息存储到线程本地变量中
-        if (LOCK_SUCCESS.equals(result)) {
-            jedisThreadLocalLocks.get().put(lockName, lockValue);
-            return LOCK_SUCCESS;
-        }
-        // 未获取到锁
-        return null;
+        return lock(lockName, lockValue, leaseTime, null);
+    }
+
+    @Override
+    public String doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime, LockContention contention) {
+        if (mode == LockMode.EXCLUSIVE) {
+            return lock(lockName, lockValue, leaseTime, contention);
+        }
+        return doLock(lockName, mode, lockValue, leaseTime, waitTime);
+    }
+
+    @Override
+    public String doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        JedisScript script = mode == LockMode.READ ? READ_LOCK_SCRIPT : WRITE_LOCK_SCRIPT;
+        Object result = scripts.eval(script, Collections.singletonList(keyLayout.key(lockName)), Arrays.asList(lockValue, String.valueOf(leaseTime)));
+        return RELEASE_SUCCESS.equals(result.toString()) ? LOCK_SUCCESS : null;
     }
 
     @Override
     public void doUnlock(String lockName, String lockValue, String instance) {
+        String key = keyLayout.key(lockName);
         // 执行 Lua 脚本解锁
-        Object result = jedis.eval(UNLOCK_SCRIPT, Collections.singletonList(lockName), Collections.singletonList(lockValue));
+        List<String> args = notificationEnabled()
+                ? Arrays.asList(lockValue, JedisUnlockNotifier.CHANNEL_PREFIX + key)
+                : Collections.singletonList(lockValue);
+        Object result = scripts.eval(serverReentrant ? HASH_UNLOCK_SCRIPT : UNLOCK_SCRIPT, Collections.singletonList(key), args);
         // 解锁成功
         if (!RELEASE_SUCCESS.equals(result.toString())) {
             LOGGER.warn("Unlock failed or lock was not held by this client lock: {}", lockName);
         }
     }
 
+    @Override
+    public List<String> doLockAll(List<String> lockNames, String lockValue, long leaseTime, long waitTime) throws Exception {
+        JedisKeyLayout layout = keyLayout;
+        List<String> keys = keys(layout, lockNames);
+        // 集群模式下每个槽位的锁在一个脚本中原子地获取，各槽位并行执行
+        List<List<Integer>> groups = groupBySlot(keys);
+        List<Object> results = runPerSlot(groups, group -> {
+            List<String> groupKeys = new ArrayList<>(group.size() * 2);
+            for (int i : group) {
+                groupKeys.add(keys.get(i));
+            }
+            for (int i : group) {
+                groupKeys.add(layout.fencingKey(lockNames.get(i)));
+            }
+            return scripts.eval(serverReentrant ? HASH_LOCK_ALL_SCRIPT : LOCK_ALL_SCRIPT, groupKeys, lockArgs(lockValue, leaseTime));
+        });
+        String[] tokens = new String[keys.size()];
+        List<Integer> acquired = new ArrayList<>(keys.size());
+        RuntimeException failure = null;
+        for (int g = 0; g < groups.size(); g++) {
+            Object result = results.get(g);
+            if (result instanceof RuntimeException) {
+                // 结果未知的槽位不撤销，已经获取的锁在过期后释放
+                if (failure == null) {
+                    failure = (RuntimeException) result;
+                }
+            } else if (result instanceof List) {
+                List<?> groupTokens = (List<?>) result;
+                for (int i = 0; i < groupTokens.size(); i++) {
+                    tokens[groups.get(g).get(i)] = groupTokens.get(i).toString();
+                }
+                acquired.addAll(groups.get(g));
+            }
+        }
+        if (failure == null && acquired.size() == keys.size()) {
+            return Arrays.asList(tokens);
+        }
+        // 部分槽位获取失败，释放已经获取的槽位
+        if (!acquired.isEmpty()) {
+            List<String> acquiredKeys = new ArrayList<>(acquired.size());
+            for (int i : acquired) {
+                acquiredKeys.add(keys.get(i));
+            }
+            try {
+                unlockKeys(acquiredKeys, Collections.nCopies(acquiredKeys.size(), lockValue));
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to unlock: {}", acquiredKeys, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    /**
+     * 获取互斥锁。
+     *
+     * @param lockName   锁的名称
+     * @param lockValue  锁的值
+     * @param leaseTime  锁的过期时间（毫秒）
+     * @param contention 获取失败时填写当前持有者的剩余持有时间，为 null 时忽略
+     * @return 获取成功时返回栅栏令牌，否则返回 null
+     */
+    private String lock(String lockName, String lockValue, long leaseTime, LockContention contention) {
+        JedisKeyLayout layout = keyLayout;
+        String key = layout.key(lockName);
+        // 尝试获取锁 SET myLock myValue NX PX 5000，成功时递增栅栏令牌计数器
+        Object result = scripts.eval(serverReentrant ? HASH_LOCK_SCRIPT : LOCK_SCRIPT, Arrays.asList(key, layout.fencingKey(lockName)), lockArgs(lockValue, leaseTime));
+        // 未获取到锁，返回值为当前持有者的剩余持有时间
+        if (result instanceof List) {
+            if (contention != null) {
+                contention.setRemainingLease(Long.parseLong(((List<?>) result).get(0).toString()), TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }
+        // 成功获取锁，以栅栏令牌作为锁实例
+        return result.toString();
+    }
+
+    /**
+     * 互斥锁的锁实例即为获取锁时得到的栅栏令牌。
+     */
+    @Override
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, String instance) {
+        return mode == LockMode.EXCLUSIVE ? Long.parseLong(instance) : super.fencingToken(lockName, lockValue, mode, instance);
+    }
+
+    @Override
+    public void doUnlockAll(List<UniLockResponse<String>> responses) throws Exception {
+        List<String> keys = new ArrayList<>(responses.size());
+        List<String> values = new ArrayList<>(responses.size());
+        for (UniLockResponse<String> response : responses) {
+            keys.add(keyLayout.key(response.getLockName()));
+            values.add(response.getLockValue());
+        }
+        if (unlockKeys(keys, values) < responses.size()) {
+            LOGGER.warn("Unlock failed or lock was not held by this client for some of locks: {}", keys);
+        }
+    }
+
+    /**
+     * 释放一组互斥锁，集群模式下每个槽位的锁在一个脚本中释放，各槽位并行执行。
+     *
+     * @param keys   锁的 key
+     * @param values 与 key 一一对应的锁的值
+     * @return 释放的锁数量
+     * @throws RuntimeException 任意槽位释放失败时抛出第一个异常，所有槽位都会尝试释放
+     */
+    private long unlockKeys(List<String> keys, List<String> values) {
+        List<List<Integer>> groups = groupBySlot(keys);
+        List<Object> results = runPerSlot(groups, group -> {
+            List<String> groupKeys = new ArrayList<>(group.size());
+            List<String> groupValues = new ArrayList<>(group.size() + 1);
+            for (int i : group) {
+                groupKeys.add(keys.get(i));
+                groupValues.add(values.get(i));
+            }
+            if (notificationEnabled()) {
+                groupValues.add(JedisUnlockNotifier.CHANNEL_PREFIX);
+            }
+            return scripts.eval(serverReentrant ? HASH_UNLOCK_ALL_SCRIPT : UNLOCK_ALL_SCRIPT, groupKeys, groupValues);
+        });
+        long count = 0;
+        for (Object result : results) {
+            if (result instanceof RuntimeException) {
+                throw (RuntimeException) result;
+            }
+            count += Long.parseLong(result.toString());
+        }
+        return count;
+    }
+
+    /**
+     * 互斥锁被其他线程持有时订阅其释放通知，读写锁按等待策略轮询。
+     */
+    @Override
+    protected UnlockSubscription subscribeUnlock(String lockName, LockMode mode) {
+        if (mode != LockMode.EXCLUSIVE || !notificationEnabled()) {
+            return null;
+        }
+        return notifier.subscribe(keyLayout.key(lockName));
+    }
+
+    @Override
+    public void doUnlock(String lockName, LockMode mode, String lockValue, String instance) {
+        if (mode == LockMode.EXCLUSIVE) {
+            doUnlock(lockName, lockValue, instance);
+            return;
+        }
+        Object result = scripts.eval(READ_WRITE_UNLOCK_SCRIPT, Collections.singletonList(keyLayout.key(lockName)), Collections.singletonList(lockValue));
+        if (!RELEASE_SUCCESS.equals(result.toString())) {
+            LOGGER.warn("Unlock failed or lock was not held by this client lock: {}", lockName);
+        }
+    }
+
     @Override
     public void doRenewal(String lockName, String lockValue, long leaseTime) {
-        Object result = jedis.eval(RENEWAL_SCRIPT, Collections.singletonList(lockName), Arrays.asList(lockValue, String.valueOf(leaseTime)));
+        Object result = scripts.eval(serverReentrant ? HASH_RENEWAL_SCRIPT : RENEWAL_SCRIPT, Collections.singletonList(keyLayout.key(lockName)), Arrays.asList(lockValue, String.valueOf(leaseTime)));
+        if (!RELEASE_SUCCESS.equals(result.toString())) {
+            LOGGER.warn("Failed to extend lock expiration time for lock: {}. The lock might have been released or expired.", lockName);
+        }
+    }
+
+    @Override
+    public void doRenewal(String lockName, LockMode mode, String lockValue, long leaseTime) {
+        Object result = scripts.eval(READ_WRITE_RENEWAL_SCRIPT, Collections.singletonList(keyLayout.key(lockName)), Arrays.asList(lockValue, String.valueOf(leaseTime)));
         if (!RELEASE_SUCCESS.equals(result.toString())) {
             LOGGER.warn("Failed to extend lock expiration time for lock: {}. The lock might have been released or expired.", lockName);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void doBatchRenewal(List<UniLockRenewal> renewals) {
+        // 读写锁逐个续期，互斥锁合并到批量续期脚本中
+        List<UniLockRenewal> exclusiveRenewals = new ArrayList<>(renewals.size());
+        for (UniLockRenewal renewal : renewals) {
+            if (renewal.getMode() == LockMode.EXCLUSIVE) {
+                exclusiveRenewals.add(renewal);
+            } else {
+                doRenewal(renewal.getLockName(), renewal.getMode(), renewal.getLockValue(), renewal.getLeaseTime());
+            }
+        }
+        List<String> keys = new ArrayList<>(exclusiveRenewals.size());
+        for (UniLockRenewal renewal : exclusiveRenewals) {
+            keys.add(keyLayout.key(renewal.getLockName()));
+        }
+        // 集群模式下按槽位分组，每组再按批量大小拆分，各批次并行执行
+        List<List<Integer>> batches = new ArrayList<>();
+        for (List<Integer> group : groupBySlot(keys)) {
+            for (int from = 0; from < group.size(); from += BATCH_RENEWAL_SIZE) {
+                batches.add(group.subList(from, Math.min(from + BATCH_RENEWAL_SIZE, group.size())));
+            }
+        }
+        List<Object> results = runPerSlot(batches, batch -> {
+            List<String> batchKeys = new ArrayList<>(batch.size());
+            List<String> args = new ArrayList<>(batch.size() * 2);
+            for (int i : batch) {
+                batchKeys.add(keys.get(i));
+                args.add(exclusiveRenewals.get(i).getLockValue());
+                args.add(String.valueOf(exclusiveRenewals.get(i).getLeaseTime()));
+            }
+            return scripts.eval(serverReentrant ? HASH_BATCH_RENEWAL_SCRIPT : BATCH_RENEWAL_SCRIPT, batchKeys, args);
+        });
+        RuntimeException failure = null;
+        for (int b = 0; b < batches.size(); b++) {
+            Object result = results.get(b);
+            if (result instanceof RuntimeException) {
+                if (failure == null) {
+                    failure = (RuntimeException) result;
+                }
+                continue;
+            }
+            List<?> batchResults = (List<?>) result;
+            for (int i = 0; i < batchResults.size(); i++) {
+                if (!RELEASE_SUCCESS.equals(String.valueOf(batchResults.get(i)))) {
+                    LOGGER.warn("Failed to extend lock expiration time for lock: {}. The lock might have been released or expired.",
+                            exclusiveRenewals.get(batches.get(b).get(i)).getLockName());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 获取一组锁名称对应的 key。
+     *
+     * @param layout    key 的布局
+     * @param lockNames 锁的名称
+     * @return 与锁名称一一对应的 key
+     */
+    private static List<String> keys(JedisKeyLayout layout, List<String> lockNames) {
+        List<String> keys = new ArrayList<>(lockNames.size());
+        for (String lockName : lockNames) {
+            keys.add(layout.key(lockName));
+        }
+        return keys;
+    }
+
+    /**
+     * 按集群槽位对 key 分组，非集群模式下所有 key 为一组。
+     *
+     * @param keys Redis key
+     * @return 每组 key 在列表中的下标，按第一次出现的顺序排列
+     */
+    private List<List<Integer>> groupBySlot(List<String> keys) {
+        if (!(jedis instanceof JedisCluster)) {
+            List<Integer> all = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                all.add(i);
+            }
+            return Collections.singletonList(all);
+        }
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(JedisKeyLayout.slot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * 对每一组执行脚本，多于一组时在 {@link #getAsyncExecutor()} 中并行执行并等待全部完成。
+     *
+     * @param groups 每组 key 的下标
+     * @param task   执行一组脚本的任务
+     * @return 与组一一对应的执行结果，执行失败的组对应抛出的 {@link RuntimeException}
+     */
+    private List<Object> runPerSlot(List<List<Integer>> groups, Function<List<Integer>, Object> task) {
+        List<Object> results = new ArrayList<>(groups.size());
+        if (groups.size() == 1) {
+            try {
+                results.add(task.apply(groups.get(0)));
+            } catch (RuntimeException e) {
+                results.add(e);
+            }
+            return results;
+        }
+        List<CompletableFuture<Object>> futures = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(group), getAsyncExecutor()));
+        }
+        for (CompletableFuture<Object> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                results.add(e.getCause() instanceof RuntimeException ? e.getCause() : e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 是否发布并订阅释放通知。
+     *
+     * @return 非集群模式且启用了释放通知时返回 {@code true}
+     */
+    private boolean notificationEnabled() {
+        return notifier != null && unlockNotificationEnabled;
+    }
+
+    /**
+     * 获取互斥锁的脚本参数：锁的值、过期时间，设置了计数器的过期时间时再加上计数器的过期时间。
+     *
+     * @param lockValue 锁的值
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @return 脚本参数
+     */
+    private List<String> lockArgs(String lockValue, long leaseTime) {
+        long ttl = fencingTokenTtl;
+        if (ttl <= 0) {
+            return Arrays.asList(lockValue, String.valueOf(leaseTime));
+        }
+        return Arrays.asList(lockValue, String.valueOf(leaseTime), String.valueOf(Math.max(ttl, leaseTime)));
+    }
+}
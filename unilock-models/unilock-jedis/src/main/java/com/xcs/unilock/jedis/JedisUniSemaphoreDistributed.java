@@ -0,0 +1,95 @@
+package com.xcs.unilock.jedis;
+
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.UnifiedJedis;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * JedisUniSemaphoreDistributed 是基于原生 Redis 实现的分布式信号量。
+ * 每个信号量是一个 Sorted Set，成员为许可的标识，分数为许可的过期时间戳；
+ * 获取许可时先清理过期的许可，剩余许可足够时才加入，持有者异常退出时许可在过期后被清理。
+ * 信号量名称按 {@link JedisKeyLayout#semaphoreKey(String)} 映射为 key。
+ *
+ * @author xcs
+ */
+public class JedisUniSemaphoreDistributed extends AbstractUniSemaphoreDistributed<String> {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JedisUniSemaphoreDistributed.class);
+
+    /**
+     * 许可成功获取的标识
+     */
+    private static final String ACQUIRE_SUCCESS = "OK";
+
+    /**
+     * 使用 Lua 脚本获取许可：清理过期的许可后，剩余许可足够时加入 permits 个成员，
+     * ARGV 为许可持有者的标识、最大许可数、许可数与最长持有时间
+     */
+    private static final JedisScript ACQUIRE_SCRIPT = new JedisScript("local t = redis.call('time') "
+            + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+            + "redis.call('zremrangebyscore', KEYS[1], '-inf', now) "
+            + "local permits = tonumber(ARGV[3]) "
+            + "if redis.call('zcard', KEYS[1]) + permits > tonumber(ARGV[2]) then return 0 end "
+            + "local deadline = now + tonumber(ARGV[4]) "
+            + "for i = 1, permits do redis.call('zadd', KEYS[1], deadline, ARGV[1] .. ':' .. i) end "
+            + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[4]) then redis.call('pexpire', KEYS[1], ARGV[4]) end "
+            + "return 1");
+
+    /**
+     * 使用 Lua 脚本归还许可，ARGV 为许可持有者的标识与许可数，返回归还的许可数量
+     */
+    private static final JedisScript RELEASE_SCRIPT = new JedisScript("local count = 0 "
+            + "for i = 1, tonumber(ARGV[2]) do count = count + redis.call('zrem', KEYS[1], ARGV[1] .. ':' .. i) end "
+            + "return count");
+
+    /**
+     * Lua 脚本注册表，通过 EVALSHA 执行脚本
+     */
+    private final JedisScriptRegistry scripts;
+
+    /**
+     * 信号量名称到 Redis key 的映射
+     */
+    private volatile JedisKeyLayout keyLayout = JedisKeyLayout.DEFAULT;
+
+    public JedisUniSemaphoreDistributed(UnifiedJedis jedis) {
+        this(new JedisScriptRegistry(jedis));
+    }
+
+    public JedisUniSemaphoreDistributed(JedisScriptRegistry scripts) {
+        this.scripts = scripts;
+        scripts.register(ACQUIRE_SCRIPT, RELEASE_SCRIPT);
+    }
+
+    /**
+     * 设置信号量名称到 Redis key 的映射，通常与分布式锁使用同一布局；修改后已经持有的许可无法正常归还，应在获取任何许可之前设置。
+     *
+     * @param keyLayout key 的布局
+     */
+    public void setKeyLayout(JedisKeyLayout keyLayout) {
+        this.keyLayout = keyLayout;
+    }
+
+    @Override
+    public String doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) {
+        Object result = scripts.eval(ACQUIRE_SCRIPT, Collections.singletonList(keyLayout.semaphoreKey(semaphoreName)),
+                Arrays.asList(permitValue, String.valueOf(maxPermits), String.valueOf(permits), String.valueOf(leaseTime)));
+        return "1".equals(result.toString()) ? ACQUIRE_SUCCESS : null;
+    }
+
+    @Override
+    public void doRelease(String semaphoreName, String permitValue, int permits, String instance) {
+        Object result = scripts.eval(RELEASE_SCRIPT, Collections.singletonList(keyLayout.semaphoreKey(semaphoreName)),
+                Arrays.asList(permitValue, String.valueOf(permits)));
+        if (Long.parseLong(result.toString()) < permits) {
+            LOGGER.warn("Release failed or permits were expired for semaphore: {}", semaphoreName);
+        }
+    }
+}
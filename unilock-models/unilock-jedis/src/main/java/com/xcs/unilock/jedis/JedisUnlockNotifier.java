@@ -0,0 +1,310 @@
+package com.xcs.unilock.jedis;
+
+import com.xcs.unilock.UnlockSubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.UnifiedJedis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JedisUnlockNotifier 通过 Redis 的发布订阅在锁释放时唤醒等待该锁的线程。
+ *
+ * <p>释放锁的脚本向 {@code unilock:unlock:锁名称} 频道发布消息；所有等待锁的线程共用一个订阅连接，
+ * 由一个后台线程接收消息，只订阅当前有线程在等待的锁对应的频道，没有线程等待时取消订阅。
+ * 订阅连接断开后自动重连并重新订阅，断开期间等待的线程按等待策略轮询。</p>
+ *
+ * @author xcs
+ */
+final class JedisUnlockNotifier {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JedisUnlockNotifier.class);
+
+    /**
+     * 锁释放通知频道的前缀
+     */
+    static final String CHANNEL_PREFIX = "unilock:unlock:";
+
+    /**
+     * 订阅连接始终订阅的频道，保证没有线程等待时连接也不会因为没有订阅任何频道而结束
+     */
+    private static final String IDLE_CHANNEL = "unilock:unlock-notifier";
+
+    /**
+     * 订阅连接断开后重连的间隔（毫秒）
+     */
+    private static final long RECONNECT_INTERVAL = 1000;
+
+    /**
+     * 订阅时等待 Redis 确认订阅的最长时间（毫秒），超时后仍然返回订阅，等待锁的线程在确认之前按等待策略轮询
+     */
+    private static final long SUBSCRIBE_TIMEOUT = 100;
+
+    /**
+     * UnifiedJedis
+     */
+    private final UnifiedJedis jedis;
+
+    /**
+     * 频道名称到当前订阅该频道的等待者的映射
+     */
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 保护 {@link #pubSub}、{@link #thread} 和每个频道的订阅计数
+     */
+    private final Object monitor = new Object();
+
+    /**
+     * 当前的订阅连接，连接断开时为 null
+     */
+    private JedisPubSub pubSub;
+
+    /**
+     * 接收消息的后台线程，第一次订阅时启动
+     */
+    private Thread thread;
+
+    private volatile boolean closed;
+
+    JedisUnlockNotifier(UnifiedJedis jedis) {
+        this.jedis = jedis;
+    }
+
+    /**
+     * 订阅锁的释放通知。
+     *
+     * <p>返回之前等待 Redis 确认该频道的订阅（最多 {@link #SUBSCRIBE_TIMEOUT} 毫秒），
+     * 调用方随后立即重试获取锁时，重试之后发生的释放一定会被通知到。</p>
+     *
+     * @param lockName 锁的名称
+     * @return 释放通知的订阅，已经关闭时返回 null
+     */
+    UnlockSubscription subscribe(String lockName) {
+        String name = CHANNEL_PREFIX + lockName;
+        Channel channel;
+        synchronized (monitor) {
+            if (closed) {
+                return null;
+            }
+            channel = channels.get(name);
+            if (channel == null) {
+                channel = new Channel();
+                channels.put(name, channel);
+                if (pubSub != null && pubSub.isSubscribed()) {
+                    try {
+                        pubSub.subscribe(name);
+                    } catch (RuntimeException e) {
+                        // 连接已经断开，重连后重新订阅
+                        LOGGER.debug("Failed to subscribe unlock channel: {}", name, e);
+                    }
+                }
+            }
+            channel.subscribers++;
+            if (thread == null) {
+                thread = new Thread(this::run, "unilock-jedis-unlock-notifier");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+        try {
+            channel.awaitSubscribed(TimeUnit.MILLISECONDS.toNanos(SUBSCRIBE_TIMEOUT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Subscription(name, channel);
+    }
+
+    /**
+     * 停止接收释放通知，之后等待锁的线程按等待策略轮询。
+     */
+    void close() {
+        synchronized (monitor) {
+            closed = true;
+            if (pubSub != null && pubSub.isSubscribed()) {
+                pubSub.unsubscribe();
+            }
+        }
+    }
+
+    private void release(String name, Channel channel) {
+        synchronized (monitor) {
+            if (--channel.subscribers > 0) {
+                return;
+            }
+            channels.remove(name);
+            if (pubSub != null && pubSub.isSubscribed()) {
+                try {
+                    pubSub.unsubscribe(name);
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Failed to unsubscribe unlock channel: {}", name, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 后台线程：阻塞在订阅连接上接收消息，连接断开后重连。
+     */
+    private void run() {
+        while (!closed) {
+            JedisPubSub current = new UnlockPubSub();
+            synchronized (monitor) {
+                if (closed) {
+                    return;
+                }
+                pubSub = current;
+            }
+            try {
+                jedis.subscribe(current, IDLE_CHANNEL);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unlock notification subscriber disconnected, waiting threads fall back to polling: {}", e.getMessage());
+            } finally {
+                synchronized (monitor) {
+                    pubSub = null;
+                    for (Channel channel : channels.values()) {
+                        channel.setSubscribed(false);
+                    }
+                }
+            }
+            if (!closed) {
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 订阅连接上的消息处理。
+     */
+    private final class UnlockPubSub extends JedisPubSub {
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            if (!IDLE_CHANNEL.equals(channel)) {
+                Channel subscribed = channels.get(channel);
+                if (subscribed != null) {
+                    subscribed.setSubscribed(true);
+                }
+                return;
+            }
+            // 连接建立后订阅当前有线程等待的所有频道
+            synchronized (monitor) {
+                if (!channels.isEmpty()) {
+                    subscribe(channels.keySet().toArray(new String[0]));
+                }
+            }
+        }
+
+        @Override
+        public void onUnsubscribe(String channel, int subscribedChannels) {
+            Channel unsubscribed = channels.get(channel);
+            if (unsubscribed != null) {
+                unsubscribed.setSubscribed(false);
+            }
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            Channel waiting = channels.get(channel);
+            if (waiting != null) {
+                waiting.signal();
+            }
+        }
+    }
+
+    /**
+     * 一个频道上的释放通知计数。
+     */
+    private static final class Channel {
+
+        /**
+         * 订阅该频道的等待者数量，由 {@link #monitor} 保护
+         */
+        private int subscribers;
+
+        private long generation;
+
+        /**
+         * Redis 是否已经确认该频道的订阅
+         */
+        private boolean subscribed;
+
+        synchronized void setSubscribed(boolean subscribed) {
+            this.subscribed = subscribed;
+            notifyAll();
+        }
+
+        synchronized void awaitSubscribed(long timeoutNanos) throws InterruptedException {
+            long deadlineNanos = System.nanoTime() + timeoutNanos;
+            long remainingNanos = timeoutNanos;
+            while (!subscribed && remainingNanos > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                remainingNanos = deadlineNanos - System.nanoTime();
+            }
+        }
+
+        synchronized void signal() {
+            generation++;
+            notifyAll();
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void await(long seen, long timeoutNanos) throws InterruptedException {
+            long deadlineNanos = System.nanoTime() + timeoutNanos;
+            long remainingNanos = timeoutNanos;
+            while (generation == seen && remainingNanos > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                remainingNanos = deadlineNanos - System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 一个等待者对频道的订阅。
+     */
+    private final class Subscription implements UnlockSubscription {
+
+        private final String name;
+
+        private final Channel channel;
+
+        private boolean closed;
+
+        private Subscription(String name, Channel channel) {
+            this.name = name;
+            this.channel = channel;
+        }
+
+        @Override
+        public long generation() {
+            return channel.generation();
+        }
+
+        @Override
+        public void await(long generation, long timeoutNanos) throws InterruptedException {
+            channel.await(generation, timeoutNanos);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(name, channel);
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.xcs.unilock.local;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段的、带租约的内存锁表。
+ *
+ * <p>锁名称按哈希值分配到固定数量的段中，每个段由一把 {@link ReentrantLock} 保护，不同段上的操作互不阻塞。
+ * 每个段使用开放寻址（线性探测）的并行数组保存锁名称、持有者标识和过期时间，获取和释放锁时不会为每把锁创建额外的对象，
+ * 删除时通过后移操作填补空位，不留下墓碑。</p>
+ *
+ * <p>过期时间基于 {@link System#nanoTime()}。已经过期的锁在下一次获取时直接被覆盖，
+ * 不再被获取的过期锁由 {@link #purgeExpired(long)} 定期清理。</p>
+ *
+ * @author xcs
+ */
+final class LocalLockTable {
+
+    /**
+     * 每个段的初始容量，必须是 2 的幂。
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * 所有的段。
+     */
+    private final Segment[] segments;
+
+    /**
+     * 段下标的掩码。
+     */
+    private final int segmentMask;
+
+    /**
+     * 创建锁表。
+     *
+     * @param segments 段的数量，会向上取整为 2 的幂
+     */
+    LocalLockTable(int segments) {
+        if (segments <= 0) {
+            throw new IllegalArgumentException("segments must be greater than 0: " + segments);
+        }
+        int count = Integer.highestOneBit(segments - 1) << 1;
+        count = Math.max(count, 1);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentMask = count - 1;
+    }
+
+    /**
+     * 尝试获取锁，锁不存在或已经过期时获取成功。
+     *
+     * @param lockName    锁的名称
+     * @param lockValue   锁的持有者标识
+     * @param leaseNanos  租约时长（纳秒）
+     * @param nowNanos    当前时间（纳秒）
+     * @return 如果成功获取锁，则返回 {@code true}；否则返回 {@code false}
+     */
+    boolean tryAcquire(String lockName, String lockValue, long leaseNanos, long nowNanos) {
+        int hash = hash(lockName);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            int index = segment.find(lockName, hash);
+            if (index >= 0) {
+                // 锁已经存在且尚未过期
+                if (segment.expireAt[index] - nowNanos > 0) {
+                    return false;
+                }
+                // 锁已经过期，直接由新的持有者覆盖
+                segment.owners[index] = lockValue;
+                segment.expireAt[index] = nowNanos + leaseNanos;
+                return true;
+            }
+            segment.insert(lockName, hash, lockValue, nowNanos + leaseNanos);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 释放锁，只有锁的持有者才能释放。
+     *
+     * @param lockName  锁的名称
+     * @param lockValue 锁的持有者标识
+     * @return 如果锁由该持有者持有并被释放，则返回 {@code true}；否则返回 {@code false}
+     */
+    boolean release(String lockName, String lockValue) {
+        int hash = hash(lockName);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            int index = segment.find(lockName, hash);
+            if (index < 0 || !lockValue.equals(segment.owners[index])) {
+                return false;
+            }
+            segment.delete(index);
+            segment.shrinkIfSparse();
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 延长锁的租约，只有锁的持有者才能续期，已经过期的锁不能续期。
+     *
+     * @param lockName   锁的名称
+     * @param lockValue  锁的持有者标识
+     * @param leaseNanos 租约时长（纳秒）
+     * @param nowNanos   当前时间（纳秒）
+     * @return 如果续期成功，则返回 {@code true}；否则返回 {@code false}
+     */
+    boolean renew(String lockName, String lockValue, long leaseNanos, long nowNanos) {
+        int hash = hash(lockName);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            int index = segment.find(lockName, hash);
+            if (index < 0 || !lockValue.equals(segment.owners[index]) || segment.expireAt[index] - nowNanos <= 0) {
+                return false;
+            }
+            segment.expireAt[index] = nowNanos + leaseNanos;
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 清理所有已经过期的锁。
+     *
+     * @param nowNanos 当前时间（纳秒）
+     * @return 清理的锁的数量
+     */
+    int purgeExpired(long nowNanos) {
+        int purged = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                purged += segment.purgeExpired(nowNanos);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * 获取当前锁表中的锁的数量，包括已经过期但尚未清理的锁。
+     *
+     * @return 锁的数量
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 获取所有段的槽位总数，随锁的数量扩容与缩容。
+     *
+     * @return 槽位总数
+     */
+    int capacity() {
+        int capacity = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                capacity += segment.names.length;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * 根据哈希值选择段，使用哈希值的高位，段内的探测使用低位。
+     *
+     * @param hash 锁名称的哈希值
+     * @return 段
+     */
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    /**
+     * 打散锁名称的哈希值。
+     *
+     * @param lockName 锁的名称
+     * @return 哈希值
+     */
+    static int hash(String lockName) {
+        int h = lockName.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 锁表的一个段：使用线性探测的开放寻址哈希表。
+     */
+    private static final class Segment {
+
+        /**
+         * 保护该段的锁。
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 锁的名称，null 表示空位。
+         */
+        private String[] names = new String[INITIAL_CAPACITY];
+
+        /**
+         * 锁名称的哈希值，避免扩容和删除时重新计算。
+         */
+        private int[] hashes = new int[INITIAL_CAPACITY];
+
+        /**
+         * 锁的持有者标识。
+         */
+        private String[] owners = new String[INITIAL_CAPACITY];
+
+        /**
+         * 锁的过期时间（纳秒）。
+         */
+        private long[] expireAt = new long[INITIAL_CAPACITY];
+
+        /**
+         * 已经使用的槽位数量。
+         */
+        private int size;
+
+        /**
+         * 查找锁所在的槽位。
+         *
+         * @param lockName 锁的名称
+         * @param hash     锁名称的哈希值
+         * @return 槽位下标，不存在时返回 -1
+         */
+        private int find(String lockName, int hash) {
+            int mask = names.length - 1;
+            for (int i = hash & mask; names[i] != null; i = (i + 1) & mask) {
+                if (hashes[i] == hash && names[i].equals(lockName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 插入一把锁，调用方需确认锁不存在。装载因子超过 1/2 时扩容。
+         *
+         * @param lockName  锁的名称
+         * @param hash      锁名称的哈希值
+         * @param lockValue 锁的持有者标识
+         * @param expire    过期时间（纳秒）
+         */
+        private void insert(String lockName, int hash, String lockValue, long expire) {
+            if ((size + 1) << 1 > names.length) {
+                resize(names.length << 1);
+            }
+            int mask = names.length - 1;
+            int i = hash & mask;
+            while (names[i] != null) {
+                i = (i + 1) & mask;
+            }
+            names[i] = lockName;
+            hashes[i] = hash;
+            owners[i] = lockValue;
+            expireAt[i] = expire;
+            size++;
+        }
+
+        /**
+         * 删除指定槽位的锁，并将其后同一探测链上的锁前移，保证查找不会提前遇到空位。
+         *
+         * @param index 槽位下标
+         */
+        private void delete(int index) {
+            int mask = names.length - 1;
+            int hole = index;
+            for (int i = (hole + 1) & mask; names[i] != null; i = (i + 1) & mask) {
+                int home = hashes[i] & mask;
+                // 槽位 i 的理想位置不在 (hole, i] 区间内时，可以移动到空位
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    names[hole] = names[i];
+                    hashes[hole] = hashes[i];
+                    owners[hole] = owners[i];
+                    expireAt[hole] = expireAt[i];
+                    hole = i;
+                }
+            }
+            names[hole] = null;
+            owners[hole] = null;
+            size--;
+        }
+
+        /**
+         * 大量的锁被释放后缩容，避免峰值过后长期占用内存。
+         */
+        private void shrinkIfSparse() {
+            int capacity = names.length;
+            while (capacity > INITIAL_CAPACITY && size << 3 < capacity) {
+                capacity >>>= 1;
+            }
+            if (capacity != names.length) {
+                resize(capacity);
+            }
+        }
+
+        /**
+         * 清理该段中已经过期的锁。
+         *
+         * @param nowNanos 当前时间（纳秒）
+         * @return 清理的锁的数量
+         */
+        private int purgeExpired(long nowNanos) {
+            int purged = 0;
+            for (int i = 0; i < names.length; ) {
+                // 删除会把后面的锁前移到当前槽位，因此删除后需要再次检查当前槽位
+                if (names[i] != null && expireAt[i] - nowNanos <= 0) {
+                    delete(i);
+                    purged++;
+                } else {
+                    i++;
+                }
+            }
+            shrinkIfSparse();
+            return purged;
+        }
+
+        /**
+         * 调整容量并重新放置所有的锁。
+         *
+         * @param capacity 新的容量，必须是 2 的幂
+         */
+        private void resize(int capacity) {
+            String[] oldNames = names;
+            int[] oldHashes = hashes;
+            String[] oldOwners = owners;
+            long[] oldExpireAt = expireAt;
+            names = new String[capacity];
+            hashes = new int[capacity];
+            owners = new String[capacity];
+            expireAt = new long[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldNames.length; j++) {
+                if (oldNames[j] != null) {
+                    int i = oldHashes[j] & mask;
+                    while (names[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    names[i] = oldNames[j];
+                    hashes[i] = oldHashes[j];
+                    owners[i] = oldOwners[j];
+                    expireAt[i] = oldExpireAt[j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.xcs.unilock.local;
+
+import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.timer.Timeout;
+import com.xcs.unilock.wait.SpinThenParkWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LocalUniLockDistributed 是一个基于内存的分布式锁适配器，适用于单实例部署和单元测试。
+ * 锁保存在当前 JVM 的分段锁表中，获取和释放锁只是一次加锁的内存操作，没有任何网络往返。
+ * 锁同样带有租约，持有者未释放的锁在过期后可以被其他持有者获取；过期的锁由时间轮定期清理。
+ * 锁实例为本次获取的栅栏令牌，由进程内的计数器生成，单调递增。
+ * 目前只支持互斥锁。
+ *
+ * @author xcs
+ */
+public class LocalUniLockDistributed extends AbstractUniLockDistributed<Long> {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalUniLockDistributed.class);
+
+    /**
+     * 默认的段数量。
+     */
+    public static final int DEFAULT_SEGMENTS = 64;
+
+    /**
+     * 默认的过期锁清理间隔（毫秒）。
+     */
+    public static final long DEFAULT_PURGE_INTERVAL = 1000;
+
+    /**
+     * 分段锁表。
+     */
+    private final LocalLockTable lockTable;
+
+    /**
+     * 过期锁的清理间隔（毫秒）。
+     */
+    private final long purgeInterval;
+
+    /**
+     * 栅栏令牌计数器。
+     */
+    private final AtomicLong fencingTokens = new AtomicLong();
+
+    /**
+     * 是否已经启动过期锁的定期清理。
+     */
+    private final AtomicBoolean purgeScheduled = new AtomicBoolean();
+
+    public LocalUniLockDistributed() {
+        this(DEFAULT_SEGMENTS, DEFAULT_PURGE_INTERVAL);
+    }
+
+    /**
+     * 构造函数，初始化 LocalUniLockDistributed 实例。
+     *
+     * @param segments      段的数量，会向上取整为 2 的幂
+     * @param purgeInterval 过期锁的清理间隔（毫秒）
+     */
+    public LocalUniLockDistributed(int segments, long purgeInterval) {
+        if (purgeInterval <= 0) {
+            throw new IllegalArgumentException("purgeInterval must be greater than 0: " + purgeInterval);
+        }
+        this.lockTable = new LocalLockTable(segments);
+        this.purgeInterval = purgeInterval;
+    }
+
+    @Override
+    public boolean reentrant() {
+        return true;
+    }
+
+    @Override
+    public boolean renewal() {
+        return true;
+    }
+
+    /**
+     * 锁在内存中，获取锁只需要很短的时间，失败后先自旋再挂起。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return new SpinThenParkWaitStrategy();
+    }
+
+    @Override
+    public Long doLock(String lockName, String lockValue, long leaseTime, long waitTime) {
+        // 获取锁不会阻塞，等待由父类按照等待策略完成
+        if (!lockTable.tryAcquire(lockName, lockValue, TimeUnit.MILLISECONDS.toNanos(leaseTime), System.nanoTime())) {
+            return null;
+        }
+        schedulePurge();
+        return fencingTokens.incrementAndGet();
+    }
+
+    @Override
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, Long instance) {
+        return instance;
+    }
+
+    @Override
+    public void doUnlock(String lockName, String lockValue, Long instance) {
+        if (!lockTable.release(lockName, lockValue)) {
+            throw new IllegalStateException("Lock is not held by the current owner or has expired: " + lockName);
+        }
+    }
+
+    @Override
+    public void doRenewal(String lockName, String lockValue, long leaseTime) {
+        if (!lockTable.renew(lockName, lockValue, TimeUnit.MILLISECONDS.toNanos(leaseTime), System.nanoTime())) {
+            LOGGER.warn("Failed to extend lock expiration time, lock has been released or expired: {}", lockName);
+        }
+    }
+
+    /**
+     * 获取锁只是一次内存操作，直接在调用线程中执行，不占用异步线程池。
+     */
+    @Override
+    public CompletableFuture<Long> doLockAsync(String lockName, String lockValue, long leaseTime, long waitTime) {
+        return CompletableFuture.completedFuture(doLock(lockName, lockValue, leaseTime, waitTime));
+    }
+
+    /**
+     * 释放锁只是一次内存操作，直接在调用线程中执行，不占用异步线程池。
+     */
+    @Override
+    public CompletableFuture<Void> doUnlockAsync(String lockName, String lockValue, Long instance) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            doUnlock(lockName, lockValue, instance);
+            future.complete(null);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 获取锁后启动过期锁的定期清理（如果尚未启动），清理任务复用锁续期的时间轮。
+     */
+    private void schedulePurge() {
+        if (!purgeScheduled.get() && purgeScheduled.compareAndSet(false, true)) {
+            getRenewalTimer().newTimeout(this::purgeExpired, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 清理已经过期的锁，然后安排下一次清理；锁表为空时停止清理，直到下一次获取锁。
+     *
+     * @param timeout 定时句柄
+     */
+    private void purgeExpired(Timeout timeout) {
+        try {
+            int purged = lockTable.purgeExpired(System.nanoTime());
+            if (purged > 0) {
+                LOGGER.debug("Purged {} expired locks", purged);
+            }
+        } finally {
+            boolean reschedule = true;
+            if (lockTable.size() == 0) {
+                purgeScheduled.set(false);
+                // 停止清理后再次检查，期间获取到的锁如果没有启动清理，则由当前任务继续清理
+                reschedule = lockTable.size() != 0 && purgeScheduled.compareAndSet(false, true);
+            }
+            if (reschedule) {
+                getRenewalTimer().newTimeout(this::purgeExpired, purgeInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.xcs.unilock.local;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 内存锁表的探测链、租约过期与清理缩容。
+ *
+ * @author xcs
+ */
+class LocalLockTableTest {
+
+    /**
+     * 段的初始容量，与 {@link LocalLockTable} 保持一致。
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final long LEASE = 10;
+
+    @Test
+    void deleteAtTableEndShiftsWrappedProbeChain() {
+        LocalLockTable table = new LocalLockTable(1);
+        List<String> tail = namesWithHome(INITIAL_CAPACITY - 1, 3);
+        List<String> head = namesWithHome(0, 1);
+        // 依次占用槽位 15、0、1、2，探测链从表尾绕回表头
+        String first = tail.get(0);
+        String second = tail.get(1);
+        String third = head.get(0);
+        String fourth = tail.get(2);
+        for (String name : new String[]{first, second, third, fourth}) {
+            Assertions.assertTrue(table.tryAcquire(name, "a", LEASE, 0));
+        }
+
+        Assertions.assertTrue(table.release(first, "a"));
+        assertHeld(table, second, third, fourth);
+
+        Assertions.assertTrue(table.release(third, "a"));
+        assertHeld(table, second, fourth);
+        Assertions.assertEquals(2, table.size());
+        Assertions.assertEquals(INITIAL_CAPACITY, table.capacity());
+    }
+
+    @Test
+    void probeChainsStayIntactUnderRandomOperations() {
+        LocalLockTable table = new LocalLockTable(1);
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 20000; round++) {
+            String name = "lock-" + random.nextInt(64);
+            if (random.nextBoolean()) {
+                boolean acquired = table.tryAcquire(name, "a", Long.MAX_VALUE / 2, 0);
+                Assertions.assertEquals(!expected.containsKey(name), acquired, name);
+                expected.put(name, "a");
+            } else {
+                Assertions.assertEquals(expected.remove(name) != null, table.release(name, "a"), name);
+            }
+            Assertions.assertEquals(expected.size(), table.size());
+        }
+        for (String name : expected.keySet()) {
+            Assertions.assertFalse(table.tryAcquire(name, "b", LEASE, 0), name);
+        }
+    }
+
+    @Test
+    void expiredLockIsTakenOverByNewOwner() {
+        LocalLockTable table = new LocalLockTable(4);
+        Assertions.assertTrue(table.tryAcquire("order", "a", LEASE, 0));
+        Assertions.assertFalse(table.tryAcquire("order", "b", LEASE, LEASE - 1));
+
+        Assertions.assertTrue(table.tryAcquire("order", "b", LEASE, LEASE));
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertFalse(table.release("order", "a"));
+        Assertions.assertTrue(table.release("order", "b"));
+        Assertions.assertEquals(0, table.size());
+    }
+
+    @Test
+    void expiryComparisonSurvivesNanoTimeOverflow() {
+        LocalLockTable table = new LocalLockTable(1);
+        long now = Long.MAX_VALUE - 5;
+        Assertions.assertTrue(table.tryAcquire("order", "a", LEASE, now));
+        Assertions.assertFalse(table.tryAcquire("order", "b", LEASE, now + 5));
+        Assertions.assertTrue(table.tryAcquire("order", "b", LEASE, now + LEASE));
+    }
+
+    @Test
+    void renewExtendsLeaseOnlyBeforeExpiry() {
+        LocalLockTable table = new LocalLockTable(1);
+        Assertions.assertTrue(table.tryAcquire("order", "a", LEASE, 0));
+        Assertions.assertFalse(table.renew("order", "b", LEASE, 5));
+        Assertions.assertTrue(table.renew("order", "a", LEASE, 5));
+        Assertions.assertFalse(table.tryAcquire("order", "b", LEASE, LEASE));
+
+        Assertions.assertFalse(table.renew("order", "a", LEASE, 5 + LEASE));
+        Assertions.assertFalse(table.renew("missing", "a", LEASE, 0));
+        Assertions.assertTrue(table.tryAcquire("order", "b", LEASE, 5 + LEASE));
+        Assertions.assertFalse(table.renew("order", "a", LEASE, 5 + LEASE));
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredLocksAndShrinks() {
+        LocalLockTable table = new LocalLockTable(1);
+        int count = 200;
+        for (int i = 0; i < count; i++) {
+            Assertions.assertTrue(table.tryAcquire("lock-" + i, "a", i % 10 == 0 ? LEASE * 2 : LEASE, 0));
+        }
+        int peak = table.capacity();
+        Assertions.assertTrue(peak >= count * 2);
+
+        Assertions.assertEquals(0, table.purgeExpired(LEASE - 1));
+        Assertions.assertEquals(count - count / 10, table.purgeExpired(LEASE));
+        Assertions.assertEquals(count / 10, table.size());
+        Assertions.assertTrue(table.capacity() < peak);
+        for (int i = 0; i < count; i += 10) {
+            Assertions.assertFalse(table.tryAcquire("lock-" + i, "b", LEASE, LEASE), "lock-" + i);
+        }
+
+        Assertions.assertEquals(count / 10, table.purgeExpired(LEASE * 2));
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertEquals(INITIAL_CAPACITY, table.capacity());
+    }
+
+    @Test
+    void releaseShrinksAfterPeak() {
+        LocalLockTable table = new LocalLockTable(1);
+        for (int i = 0; i < 100; i++) {
+            table.tryAcquire("lock-" + i, "a", LEASE, 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(table.release("lock-" + i, "a"));
+        }
+        Assertions.assertEquals(INITIAL_CAPACITY, table.capacity());
+    }
+
+    /**
+     * 断言锁仍然可以被找到：其他持有者无法获取，持有者可以续期。
+     */
+    private static void assertHeld(LocalLockTable table, String... names) {
+        for (String name : names) {
+            Assertions.assertFalse(table.tryAcquire(name, "b", LEASE, 0), name);
+            Assertions.assertTrue(table.renew(name, "a", LEASE, 0), name);
+        }
+    }
+
+    /**
+     * 生成在初始容量的段中理想位置为 {@code home} 的锁名称。
+     */
+    private static List<String> namesWithHome(int home, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; names.size() < count; i++) {
+            String name = "lock-" + i;
+            if ((LocalLockTable.hash(name) & (INITIAL_CAPACITY - 1)) == home) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -2,19 +2,31 @@ package com.xcs.unilock.mysql;
 
 import com.alibaba.druid.pool.DruidDataSource;
 import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.UniLockRenewal;
+import com.xcs.unilock.UniLockResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.sql.*;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * MySqlDistributedLock 是基于 MySQL 实现的分布式锁适配器。
  * 利用 MySQL 数据库的行级锁来实现锁的获取、释放和状态查询功能。
  * 通过设置锁的过期时间来防止死锁问题，使锁在特定时间后自动失效。
+ * 读写锁存储在单独的表中，每个持有者一行。
+ * 互斥锁的栅栏令牌存储在 distributed_lock_tokens 表中，每次获取锁时在同一个事务中递增。
+ * 令牌记录默认永久保留，每个用过的锁名称对应一行；锁名称包含业务参数时应通过
+ * {@link #setFencingTokenRetention(long)} 定期清理长时间未被获取的锁的令牌记录。
  *
  * @author xcs
  */
@@ -32,9 +44,59 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
     private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS distributed_locks (lock_name VARCHAR(255) NOT NULL,locked_by VARCHAR(255) NOT NULL,lock_time TIMESTAMP NOT NULL,expire_time TIMESTAMP NOT NULL,PRIMARY KEY (lock_name),INDEX idx_expire_time (expire_time)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;";
 
     /**
-     * SQL 查询语句，用于在数据库中检查指定锁是否存在，并获取其过期时间。
+     * SQL 语句：创建读写锁的表结构，每个持有者一行，读锁可以有多行，写锁只能有一行。
      */
-    private static final String TRY_SELECT_SQL = "SELECT lock_name, expire_time FROM distributed_locks WHERE lock_name = ? FOR UPDATE";
+    private static final String CREATE_READ_WRITE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS distributed_rw_locks (lock_name VARCHAR(255) NOT NULL,locked_by VARCHAR(255) NOT NULL,lock_mode VARCHAR(16) NOT NULL,lock_time TIMESTAMP NOT NULL,expire_time TIMESTAMP NOT NULL,PRIMARY KEY (lock_name, locked_by),INDEX idx_expire_time (expire_time)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;";
+
+    /**
+     * SQL 语句：创建栅栏令牌的表结构，每把互斥锁一行。
+     */
+    private static final String CREATE_FENCING_TOKEN_TABLE_SQL = "CREATE TABLE IF NOT EXISTS distributed_lock_tokens (lock_name VARCHAR(255) NOT NULL,fencing_token BIGINT NOT NULL,update_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,PRIMARY KEY (lock_name),INDEX idx_update_time (update_time)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;";
+
+    /**
+     * SQL 语句：为没有 update_time 列的栅栏令牌表补充该列，用于清理长时间未被获取的锁的令牌记录。
+     */
+    private static final String ADD_FENCING_TOKEN_UPDATE_TIME_SQL = "ALTER TABLE distributed_lock_tokens ADD COLUMN update_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,ADD INDEX idx_update_time (update_time)";
+
+    /**
+     * SQL 删除语句，用于清理在指定时间之前最后一次递增、且当前没有被持有的锁的栅栏令牌。
+     */
+    private static final String PURGE_FENCING_TOKEN_SQL = "DELETE FROM distributed_lock_tokens WHERE update_time < ? AND NOT EXISTS (SELECT 1 FROM distributed_locks WHERE distributed_locks.lock_name = distributed_lock_tokens.lock_name)";
+
+    /**
+     * SQL 语句：递增锁的栅栏令牌，并通过 LAST_INSERT_ID 记录递增后的值。
+     */
+    private static final String INCREMENT_FENCING_TOKEN_SQL = "INSERT INTO distributed_lock_tokens (lock_name, fencing_token) VALUES (?, LAST_INSERT_ID(1)) ON DUPLICATE KEY UPDATE fencing_token = LAST_INSERT_ID(fencing_token + 1)";
+
+    /**
+     * SQL 查询语句，用于取得当前连接上一次递增后的栅栏令牌。
+     */
+    private static final String SELECT_FENCING_TOKEN_SQL = "SELECT LAST_INSERT_ID()";
+
+    /**
+     * SQL 删除语句，用于删除读写锁中已经过期的持有者。
+     */
+    private static final String DELETE_EXPIRED_READ_WRITE_LOCK_SQL = "DELETE FROM distributed_rw_locks WHERE lock_name = ? AND expire_time < ?";
+
+    /**
+     * SQL 查询语句，用于锁定并查询读写锁当前的持有者模式。
+     */
+    private static final String SELECT_READ_WRITE_LOCK_SQL = "SELECT lock_mode FROM distributed_rw_locks WHERE lock_name = ? FOR UPDATE";
+
+    /**
+     * SQL 插入语句，用于加入读写锁的持有者。
+     */
+    private static final String INSERT_READ_WRITE_LOCK_SQL = "INSERT INTO distributed_rw_locks (lock_name, locked_by, lock_mode, lock_time, expire_time) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * SQL 删除语句，用于释放读写锁。
+     */
+    private static final String UN_LOCK_READ_WRITE_SQL = "DELETE FROM distributed_rw_locks WHERE lock_name = ? AND locked_by = ?";
+
+    /**
+     * SQL 更新语句，用于延长读写锁的过期时间。
+     */
+    private static final String UPDATE_READ_WRITE_EXPIRE_TIME_SQL = "UPDATE distributed_rw_locks SET expire_time = ? WHERE lock_name = ? AND locked_by = ?";
 
     /**
      * SQL 插入语句，用于在数据库中插入新锁记录。
@@ -47,6 +109,21 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
      */
     private static final String DELETE_EXPIRED_LOCK_SQL = "DELETE FROM distributed_locks WHERE lock_name = ? AND expire_time < ?";
 
+    /**
+     * SQL 删除语句前缀，用于删除一组锁中已经过期的锁记录，后面拼接 lock_name 的 IN 条件。
+     */
+    private static final String BATCH_DELETE_EXPIRED_LOCK_SQL = "DELETE FROM distributed_locks WHERE expire_time < ? AND lock_name IN ";
+
+    /**
+     * SQL 插入语句前缀，用于一次插入一组锁记录，后面拼接每把锁的 VALUES。
+     */
+    private static final String BATCH_INSERT_SQL = "INSERT INTO distributed_locks (lock_name, locked_by, lock_time, expire_time) VALUES ";
+
+    /**
+     * SQL 删除语句前缀，用于一次释放一组锁，后面拼接 (lock_name, locked_by) 的 IN 条件。
+     */
+    private static final String BATCH_UN_LOCK_DELETE_SQL = "DELETE FROM distributed_locks WHERE (lock_name, locked_by) IN ";
+
     /**
      * SQL 删除语句，用于释放锁，即从数据库中删除锁记录。
      */
@@ -57,15 +134,30 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
      */
     private static final String UPDATE_EXPIRE_TIME_SQL = "UPDATE distributed_locks SET expire_time = ? WHERE lock_name = ? AND locked_by = ?";
 
+    /**
+     * SQL 更新语句前缀，用于批量延长多个锁的过期时间，后面拼接 (lock_name, locked_by) 的 IN 条件。
+     */
+    private static final String BATCH_UPDATE_EXPIRE_TIME_SQL = "UPDATE distributed_locks SET expire_time = ? WHERE (lock_name, locked_by) IN ";
+
+    /**
+     * 每条批量续期 SQL 最多包含的锁数量。
+     */
+    private static final int BATCH_RENEWAL_SIZE = 500;
+
     /**
      * 数据库连接对象，用于执行 SQL 操作。
      */
     private final DruidDataSource dataSource;
 
     /**
-     * 当前节点的标识符，用于区分不同节点持有的锁。
+     * 栅栏令牌记录的保留时间（毫秒），不大于 0 时不清理
+     */
+    private volatile long fencingTokenRetention;
+
+    /**
+     * 是否已经安排了清理栅栏令牌记录的定时任务
      */
-    private final String nodeId;
+    private final AtomicBoolean fencingTokenPurgeScheduled = new AtomicBoolean();
 
     /**
      * 构造函数，初始化 MySqlLockAdapter 实例。
@@ -74,10 +166,45 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
      */
     public MySqlUniLockDistributed(DruidDataSource dataSource) {
         this.dataSource = dataSource;
-        this.nodeId = getNodeId();
         createTableIfNotExists();
     }
 
+    /**
+     * 获取数据源，用于与其他组件共享连接池。
+     *
+     * @return 数据源
+     */
+    public DruidDataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 设置栅栏令牌记录的保留时间，默认为 0，不清理。
+     *
+     * <p>设置后第一次获取互斥锁时开始按该时间间隔定期清理令牌记录：最后一次递增早于保留时间、且当前没有被持有的锁的记录会被删除，
+     * 再次获取这些锁时令牌从 1 重新开始。因此该值必须大于锁的最长持有时间（包括续期延长的时间）加上下游校验栅栏令牌所需的时间。</p>
+     *
+     * @param fencingTokenRetention 令牌记录的保留时间（毫秒），不大于 0 时不清理
+     */
+    public void setFencingTokenRetention(long fencingTokenRetention) {
+        this.fencingTokenRetention = fencingTokenRetention;
+    }
+
+    /**
+     * 删除最后一次递增早于保留时间、且当前没有被持有的锁的栅栏令牌记录。
+     *
+     * @param retention 令牌记录的保留时间（毫秒）
+     * @return 删除的记录数量
+     * @throws SQLException 数据库访问异常
+     */
+    public int purgeFencingTokens(long retention) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(PURGE_FENCING_TOKEN_SQL)) {
+            stmt.setTimestamp(1, Timestamp.from(Instant.now().minusMillis(retention)));
+            return stmt.executeUpdate();
+        }
+    }
+
     @Override
     public boolean reentrant() {
         return true;
@@ -88,56 +215,259 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
         return true;
     }
 
+    /**
+     * 在一个事务中删除过期的锁记录、插入锁记录并递增栅栏令牌。
+     *
+     * <p>锁已经被持有时插入锁记录会主键冲突，本次获取失败。下一个持有者只有在本事务提交之后才能插入锁记录，因此栅栏令牌单调递增。
+     * 锁记录的持有者为本次获取的锁的值，释放与续期只作用于同一次获取的锁记录。</p>
+     */
     @Override
     public String doLock(String lockName, String lockValue, long leaseTime, long waitTime) throws Exception {
         try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement stmt = connection.prepareStatement(TRY_SELECT_SQL);
-            stmt.setString(1, lockName);
-            // 查询锁的当前状态
-            try (ResultSet rs = stmt.executeQuery()) {
-                boolean canMysqlLock = true;
-                // 如果锁存在，检查是否过期
-                if (rs.next()) {
-                    Timestamp expireTime = rs.getTimestamp("expire_time");
-                    // 如果锁已过期，尝试删除并获取锁
-                    if (expireTime != null && expireTime.toInstant().isBefore(Instant.now())) {
-                        // 删除过期的锁记录
-                        deleteExpiredLock(connection, lockName);
-                    } else {
-                        // 如果锁存在且未过期，则不能获取锁
-                        canMysqlLock = false;
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // 删除过期的锁记录
+                deleteExpiredLock(connection, lockName);
+                // 插入锁记录，锁已经被持有时插入失败
+                if (!insertLock(connection, lockName, lockValue, leaseTime)) {
+                    connection.rollback();
+                    return null;
+                }
+                long fencingToken = incrementFencingToken(connection, lockName);
+                connection.commit();
+                scheduleFencingTokenPurge();
+                // 以栅栏令牌作为锁实例
+                return String.valueOf(fencingToken);
+            } catch (SQLTransactionRollbackException e) {
+                // 与并发的获取操作发生死锁，本次获取失败
+                connection.rollback();
+                return null;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中获取读锁或写锁。
+     *
+     * <p>先删除过期的持有者，再通过 {@code SELECT ... FOR UPDATE} 锁定并检查当前的持有者：读锁只与写锁冲突，写锁与任何持有者冲突。
+     * 读写锁的持有者以锁的值区分，同一节点上的多个读锁可以同时持有。并发获取导致的死锁回滚视为本次获取失败，由等待策略决定是否重试。</p>
+     */
+    @Override
+    public String doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Timestamp now = Timestamp.from(Instant.now());
+                try (PreparedStatement deleteStmt = connection.prepareStatement(DELETE_EXPIRED_READ_WRITE_LOCK_SQL)) {
+                    deleteStmt.setString(1, lockName);
+                    deleteStmt.setTimestamp(2, now);
+                    deleteStmt.executeUpdate();
+                }
+                boolean conflict = false;
+                try (PreparedStatement selectStmt = connection.prepareStatement(SELECT_READ_WRITE_LOCK_SQL)) {
+                    selectStmt.setString(1, lockName);
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        while (!conflict && rs.next()) {
+                            conflict = mode == LockMode.WRITE || LockMode.WRITE.name().equals(rs.getString("lock_mode"));
+                        }
                     }
                 }
-                // 如果可以获取锁，则插入一条记录
-                return String.valueOf(canMysqlLock && insertLock(connection, lockName, leaseTime));
+                if (conflict) {
+                    connection.rollback();
+                    return null;
+                }
+                try (PreparedStatement insertStmt = connection.prepareStatement(INSERT_READ_WRITE_LOCK_SQL)) {
+                    insertStmt.setString(1, lockName);
+                    insertStmt.setString(2, lockValue);
+                    insertStmt.setString(3, mode.name());
+                    insertStmt.setTimestamp(4, now);
+                    insertStmt.setTimestamp(5, Timestamp.from(now.toInstant().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(leaseTime))));
+                    insertStmt.executeUpdate();
+                }
+                connection.commit();
+                return String.valueOf(true);
+            } catch (SQLTransactionRollbackException e) {
+                // 与并发的获取操作发生死锁，本次获取失败
+                connection.rollback();
+                return null;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
         }
     }
 
+    @Override
+    public void doUnlock(String lockName, LockMode mode, String lockValue, String instance) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            doUnlock(lockName, lockValue, instance);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(UN_LOCK_READ_WRITE_SQL)) {
+            stmt.setString(1, lockName);
+            stmt.setString(2, lockValue);
+            stmt.executeUpdate();
+        }
+    }
+
     @Override
     public void doUnlock(String lockName, String lockValue, String instance) throws Exception {
-        // 从数据库中删除锁记录
-        try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement stmt = connection.prepareStatement(UN_LOCK_DELETE_SQL);
+        // 从数据库中删除本次获取的锁记录
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(UN_LOCK_DELETE_SQL)) {
             stmt.setString(1, lockName);
-            stmt.setString(2, nodeId);
+            stmt.setString(2, lockValue);
             stmt.executeUpdate();
         }
     }
 
     @Override
-    public void doRenewal(String lockName, String lockValue, long leaseTime) {
+    public List<String> doLockAll(List<String> lockNames, String lockValue, long leaseTime, long waitTime) throws Exception {
+        String inClause = "(" + String.join(",", Collections.nCopies(lockNames.size(), "?")) + ")";
         try (Connection connection = dataSource.getConnection()) {
-            PreparedStatement stmt = connection.prepareStatement(UPDATE_EXPIRE_TIME_SQL);
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Timestamp now = Timestamp.from(Instant.now());
+                // 删除这组锁中已经过期的锁记录
+                try (PreparedStatement deleteStmt = connection.prepareStatement(BATCH_DELETE_EXPIRED_LOCK_SQL + inClause)) {
+                    deleteStmt.setTimestamp(1, now);
+                    for (int i = 0; i < lockNames.size(); i++) {
+                        deleteStmt.setString(i + 2, lockNames.get(i));
+                    }
+                    deleteStmt.executeUpdate();
+                }
+                // 一条多行 INSERT 插入全部锁记录，任意一把锁已经存在时主键冲突，整个事务回滚
+                String values = String.join(",", Collections.nCopies(lockNames.size(), "(?, ?, ?, ?)"));
+                try (PreparedStatement insertStmt = connection.prepareStatement(BATCH_INSERT_SQL + values)) {
+                    Timestamp expireTime = Timestamp.from(now.toInstant().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(leaseTime)));
+                    for (int i = 0; i < lockNames.size(); i++) {
+                        insertStmt.setString(i * 4 + 1, lockNames.get(i));
+                        insertStmt.setString(i * 4 + 2, lockValue);
+                        insertStmt.setTimestamp(i * 4 + 3, now);
+                        insertStmt.setTimestamp(i * 4 + 4, expireTime);
+                    }
+                    insertStmt.executeUpdate();
+                }
+                List<String> fencingTokens = new ArrayList<>(lockNames.size());
+                for (String lockName : lockNames) {
+                    fencingTokens.add(String.valueOf(incrementFencingToken(connection, lockName)));
+                }
+                connection.commit();
+                scheduleFencingTokenPurge();
+                return fencingTokens;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // 有锁已经被持有
+                connection.rollback();
+                return null;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 互斥锁的锁实例即为获取锁时得到的栅栏令牌。
+     */
+    @Override
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, String instance) {
+        return mode == LockMode.EXCLUSIVE ? Long.parseLong(instance) : super.fencingToken(lockName, lockValue, mode, instance);
+    }
+
+    @Override
+    public void doUnlockAll(List<UniLockResponse<String>> responses) throws Exception {
+        String inClause = "(" + String.join(",", Collections.nCopies(responses.size(), "(?, ?)")) + ")";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(BATCH_UN_LOCK_DELETE_SQL + inClause)) {
+            for (int i = 0; i < responses.size(); i++) {
+                stmt.setString(i * 2 + 1, responses.get(i).getLockName());
+                stmt.setString(i * 2 + 2, responses.get(i).getLockValue());
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void doRenewal(String lockName, String lockValue, long leaseTime) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(UPDATE_EXPIRE_TIME_SQL)) {
             stmt.setTimestamp(1, Timestamp.from(Instant.now().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(leaseTime))));
             stmt.setString(2, lockName);
-            stmt.setString(3, nodeId);
+            stmt.setString(3, lockValue);
             stmt.executeUpdate();
         } catch (SQLException e) {
             LOGGER.error("Failed to extend lock expiration time for lock: {}", lockName, e);
         }
     }
 
+    @Override
+    public void doRenewal(String lockName, LockMode mode, String lockValue, long leaseTime) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(UPDATE_READ_WRITE_EXPIRE_TIME_SQL)) {
+            stmt.setTimestamp(1, Timestamp.from(Instant.now().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(leaseTime))));
+            stmt.setString(2, lockName);
+            stmt.setString(3, lockValue);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            LOGGER.error("Failed to extend lock expiration time for lock: {}", lockName, e);
+        }
+    }
+
+    @Override
+    public void doBatchRenewal(List<UniLockRenewal> renewals) {
+        // 读写锁逐个续期
+        for (UniLockRenewal renewal : renewals) {
+            if (renewal.getMode() != LockMode.EXCLUSIVE) {
+                doRenewal(renewal.getLockName(), renewal.getMode(), renewal.getLockValue(), renewal.getLeaseTime());
+            }
+        }
+        // 互斥锁按过期时间分组，同一组内的锁使用一条多行 UPDATE 续期
+        Map<Long, List<UniLockRenewal>> groups = renewals.stream().filter(renewal -> renewal.getMode() == LockMode.EXCLUSIVE).collect(Collectors.groupingBy(UniLockRenewal::getLeaseTime,
+                LinkedHashMap::new, Collectors.toList()));
+        if (groups.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            for (Map.Entry<Long, List<UniLockRenewal>> group : groups.entrySet()) {
+                Timestamp expireTime = Timestamp.from(Instant.now().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(group.getKey())));
+                List<UniLockRenewal> locks = group.getValue();
+                for (int from = 0; from < locks.size(); from += BATCH_RENEWAL_SIZE) {
+                    List<UniLockRenewal> batch = locks.subList(from, Math.min(from + BATCH_RENEWAL_SIZE, locks.size()));
+                    String sql = BATCH_UPDATE_EXPIRE_TIME_SQL + "(" + String.join(",", Collections.nCopies(batch.size(), "(?, ?)")) + ")";
+                    try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                        stmt.setTimestamp(1, expireTime);
+                        for (int i = 0; i < batch.size(); i++) {
+                            stmt.setString(i * 2 + 2, batch.get(i).getLockName());
+                            stmt.setString(i * 2 + 3, batch.get(i).getLockValue());
+                        }
+                        int updated = stmt.executeUpdate();
+                        if (updated < batch.size()) {
+                            LOGGER.warn("Extended expiration time for {} of {} locks. The others might have been released or expired.", updated, batch.size());
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Failed to extend lock expiration time for {} locks", renewals.size(), e);
+        }
+    }
+
     /**
      * 在数据库中创建表结构（如果不存在）。
      */
@@ -145,31 +475,88 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
         try (Connection connection = dataSource.getConnection()) {
             Statement stmt = connection.createStatement();
             stmt.execute(CREATE_TABLE_SQL);
+            stmt.execute(CREATE_READ_WRITE_TABLE_SQL);
+            stmt.execute(CREATE_FENCING_TOKEN_TABLE_SQL);
+            // 之前创建的栅栏令牌表没有 update_time 列
+            try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, "distributed_lock_tokens", "update_time")) {
+                if (!rs.next()) {
+                    stmt.execute(ADD_FENCING_TOKEN_UPDATE_TIME_SQL);
+                }
+            }
         } catch (SQLException e) {
             LOGGER.error("Failed to create table structure for distributed locks", e);
         }
     }
 
+    /**
+     * 设置了栅栏令牌记录的保留时间时，安排定期清理令牌记录的任务，只安排一次。
+     */
+    private void scheduleFencingTokenPurge() {
+        long retention = fencingTokenRetention;
+        if (retention > 0 && fencingTokenPurgeScheduled.compareAndSet(false, true)) {
+            scheduleAsync(() -> purgeFencingTokensPeriodically(retention), retention, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 清理一次栅栏令牌记录，完成后安排下一次清理。
+     *
+     * @param retention 令牌记录的保留时间（毫秒）
+     */
+    private void purgeFencingTokensPeriodically(long retention) {
+        try {
+            int purged = purgeFencingTokens(retention);
+            if (purged > 0) {
+                LOGGER.debug("Purged {} fencing tokens older than {} ms", purged, retention);
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Failed to purge fencing tokens", e);
+        } finally {
+            scheduleAsync(() -> purgeFencingTokensPeriodically(retention), retention, TimeUnit.MILLISECONDS);
+        }
+    }
+
     /**
      * 插入锁记录的具体实现。
      *
      * @param connection 数据库连接对象
      * @param lockName   锁的名称
+     * @param lockValue  锁的值，作为锁记录的持有者
      * @param leaseTime  锁的过期时间
-     * @return boolean 返回是否插入成功
+     * @return boolean 返回是否插入成功，锁已经被持有时返回 false
+     * @throws SQLException 除主键冲突以外的数据库访问异常，包括与并发的获取操作发生死锁
      */
-    private boolean insertLock(Connection connection, String lockName, long leaseTime) {
+    private boolean insertLock(Connection connection, String lockName, String lockValue, long leaseTime) throws SQLException {
         try (PreparedStatement insertStmt = connection.prepareStatement(TRY_INSERT_SQL)) {
             insertStmt.setString(1, lockName);
-            insertStmt.setString(2, nodeId);
+            insertStmt.setString(2, lockValue);
             insertStmt.setTimestamp(3, Timestamp.from(Instant.now()));
             insertStmt.setTimestamp(4, Timestamp.from(Instant.now().plusSeconds(TimeUnit.MILLISECONDS.toSeconds(leaseTime))));
             // 如果插入成功，说明获取锁成功
             return insertStmt.executeUpdate() > 0;
-        } catch (Exception e) {
-            // ignore
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // 主键冲突，锁已经被持有
+            return false;
+        }
+    }
+
+    /**
+     * 递增锁的栅栏令牌，需要与插入锁记录在同一个事务中执行。
+     *
+     * @param connection 数据库连接对象
+     * @param lockName   锁的名称
+     * @return 递增后的栅栏令牌
+     * @throws SQLException 数据库访问异常
+     */
+    private long incrementFencingToken(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INCREMENT_FENCING_TOKEN_SQL)) {
+            stmt.setString(1, lockName);
+            stmt.executeUpdate();
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_FENCING_TOKEN_SQL)) {
+            return rs.next() ? rs.getLong(1) : UniLockResponse.NO_FENCING_TOKEN;
         }
-        return false;
     }
 
     /**
@@ -188,17 +575,4 @@ public class MySqlUniLockDistributed extends AbstractUniLockDistributed<String>
             // ignore
         }
     }
-
-    /**
-     * 获取当前节点的ID。
-     *
-     * @return 当前节点的ID
-     */
-    private String getNodeId() {
-        try {
-            return InetAddress.getLocalHost().getHostAddress();
-        } catch (UnknownHostException ignored) {
-            return "Unknown";
-        }
-    }
 }
@@ -0,0 +1,139 @@
+package com.xcs.unilock.mysql;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.Collections;
+
+/**
+ * MySqlUniSemaphoreDistributed 是基于 MySQL 实现的分布式信号量。
+ * 每个许可是 distributed_semaphores 表中的一行，获取许可时在一个事务中锁定该信号量的全部许可行，
+ * 清理过期的许可后，剩余许可足够时一次插入 permits 行；许可在过期后自动失效。
+ *
+ * @author xcs
+ */
+@SuppressWarnings({"SqlNoDataSourceInspection", "SqlResolve", "RedundantSuppression"})
+public class MySqlUniSemaphoreDistributed extends AbstractUniSemaphoreDistributed<String> {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MySqlUniSemaphoreDistributed.class);
+
+    /**
+     * 创建信号量许可表的 SQL 语句
+     */
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS distributed_semaphores (semaphore_name VARCHAR(255) NOT NULL,permit_owner VARCHAR(255) NOT NULL,permit_index INT NOT NULL,expire_time TIMESTAMP(3) NOT NULL,PRIMARY KEY (semaphore_name, permit_owner, permit_index),INDEX idx_expire_time (expire_time)) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;";
+
+    /**
+     * 删除信号量中过期许可的 SQL 语句
+     */
+    private static final String DELETE_EXPIRED_PERMIT_SQL = "DELETE FROM distributed_semaphores WHERE semaphore_name = ? AND expire_time < ?";
+
+    /**
+     * 锁定并统计信号量中已发放许可的 SQL 语句
+     */
+    private static final String COUNT_PERMIT_SQL = "SELECT COUNT(*) FROM distributed_semaphores WHERE semaphore_name = ? FOR UPDATE";
+
+    /**
+     * 批量插入许可的 SQL 语句前缀
+     */
+    private static final String BATCH_INSERT_PERMIT_SQL = "INSERT INTO distributed_semaphores (semaphore_name, permit_owner, permit_index, expire_time) VALUES ";
+
+    /**
+     * 归还许可的 SQL 语句
+     */
+    private static final String RELEASE_PERMIT_SQL = "DELETE FROM distributed_semaphores WHERE semaphore_name = ? AND permit_owner = ?";
+
+    /**
+     * 数据源
+     */
+    private final DruidDataSource dataSource;
+
+    /**
+     * 构造函数，初始化数据源并创建许可表。
+     *
+     * @param dataSource 数据源
+     */
+    public MySqlUniSemaphoreDistributed(DruidDataSource dataSource) {
+        this.dataSource = dataSource;
+        createTableIfNotExists();
+    }
+
+    @Override
+    public String doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Timestamp now = Timestamp.from(Instant.now());
+                try (PreparedStatement deleteStmt = connection.prepareStatement(DELETE_EXPIRED_PERMIT_SQL)) {
+                    deleteStmt.setString(1, semaphoreName);
+                    deleteStmt.setTimestamp(2, now);
+                    deleteStmt.executeUpdate();
+                }
+                int issued;
+                try (PreparedStatement countStmt = connection.prepareStatement(COUNT_PERMIT_SQL)) {
+                    countStmt.setString(1, semaphoreName);
+                    try (ResultSet rs = countStmt.executeQuery()) {
+                        issued = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+                if (issued + permits > maxPermits) {
+                    connection.rollback();
+                    return null;
+                }
+                String values = String.join(",", Collections.nCopies(permits, "(?, ?, ?, ?)"));
+                try (PreparedStatement insertStmt = connection.prepareStatement(BATCH_INSERT_PERMIT_SQL + values)) {
+                    Timestamp expireTime = Timestamp.from(now.toInstant().plusMillis(leaseTime));
+                    for (int i = 0; i < permits; i++) {
+                        insertStmt.setString(i * 4 + 1, semaphoreName);
+                        insertStmt.setString(i * 4 + 2, permitValue);
+                        insertStmt.setInt(i * 4 + 3, i);
+                        insertStmt.setTimestamp(i * 4 + 4, expireTime);
+                    }
+                    insertStmt.executeUpdate();
+                }
+                connection.commit();
+                return String.valueOf(true);
+            } catch (SQLTransactionRollbackException e) {
+                // 与并发的获取操作发生死锁，本次获取失败
+                connection.rollback();
+                return null;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    @Override
+    public void doRelease(String semaphoreName, String permitValue, int permits, String instance) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(RELEASE_PERMIT_SQL)) {
+            stmt.setString(1, semaphoreName);
+            stmt.setString(2, permitValue);
+            if (stmt.executeUpdate() < permits) {
+                LOGGER.warn("Release failed or permits were expired for semaphore: {}", semaphoreName);
+            }
+        }
+    }
+
+    /**
+     * 在数据库中创建表结构（如果不存在）。
+     */
+    private void createTableIfNotExists() {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+        } catch (SQLException e) {
+            LOGGER.error("Failed to create table structure for distributed semaphores", e);
+        }
+    }
+}
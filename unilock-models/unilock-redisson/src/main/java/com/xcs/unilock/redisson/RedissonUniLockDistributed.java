@@ -1,18 +1,34 @@
 package com.xcs.unilock.redisson;
 
 import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.OwnerTokens;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.redisson.RedissonMultiLock;
+import org.redisson.api.RFencedLock;
 import org.redisson.api.RLock;
+import org.redisson.api.RReadWriteLock;
 import org.redisson.api.RedissonClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * RedissonDistributedLock 是一个基于 Redisson 实现的分布式锁适配器。
  * 它利用 Redisson 提供的 RLock 来实现分布式锁的功能。
+ * 异步获取的锁使用由锁的值推导出的虚拟线程 ID 作为持有者，因此不与任何线程绑定。
+ * 读锁和写锁通过 RReadWriteLock 实现。
+ * 互斥锁使用 RFencedLock，每次获取锁时 Redisson 会递增锁的令牌计数器，获取成功后读取的令牌即为本次获取的栅栏令牌。
  *
  * @author xcs
  */
@@ -28,6 +44,11 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
      */
     private final RedissonClient redissonClient;
 
+    /**
+     * 获取互斥锁时得到的栅栏令牌（锁的值 + 锁名称 -> 令牌），在创建锁的响应时取出。
+     */
+    private final ConcurrentMap<String, Long> fencingTokens = new ConcurrentHashMap<>();
+
     /**
      * 构造函数，初始化 RedissonLockAdapter。
      *
@@ -37,10 +58,53 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
         this.redissonClient = redissonClient;
     }
 
+    /**
+     * 获取 Redisson 客户端实例，用于与其他组件共享连接。
+     *
+     * @return RedissonClient
+     */
+    public RedissonClient getRedissonClient() {
+        return redissonClient;
+    }
+
+    /**
+     * 获取锁时已经在 waitTime 内阻塞等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
     @Override
     public RLock doLock(String lockName, String lockValue, long leaseTime, long waitTime) throws Exception {
-        // 获取 RLock 对象
-        RLock rLock = redissonClient.getLock(lockName);
+        RFencedLock fencedLock = redissonClient.getFencedLock(lockName);
+        RLock rLock = tryLock(fencedLock, leaseTime, waitTime);
+        if (rLock != null) {
+            putFencingToken(fencedLock, lockName, lockValue);
+        }
+        return rLock;
+    }
+
+    @Override
+    public RLock doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        // 读锁和写锁来自同一个 RReadWriteLock
+        RReadWriteLock readWriteLock = redissonClient.getReadWriteLock(lockName);
+        return tryLock(mode == LockMode.READ ? readWriteLock.readLock() : readWriteLock.writeLock(), leaseTime, waitTime);
+    }
+
+    /**
+     * 在当前线程中尝试获取锁。
+     *
+     * @param rLock     RLock 对象
+     * @param leaseTime 锁的过期时间（毫秒）
+     * @param waitTime  尝试获取锁的超时时间（毫秒）
+     * @return 获取成功时返回 RLock 对象，否则返回 null
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    private RLock tryLock(RLock rLock, long leaseTime, long waitTime) throws InterruptedException {
         // 尝试获取锁，并设置锁的持有时间和超时时间
         boolean locked = rLock.tryLock(waitTime, leaseTime, TimeUnit.MILLISECONDS);
         // 如果获取锁成功
@@ -48,7 +112,7 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
             // 设置了过期时间，则调用 scheduleExpirationRenewal 方法
             if (leaseTime > 0) {
                 overrideParentInternalLockLeaseTime(rLock, TimeUnit.MILLISECONDS.toMillis(leaseTime));
-                invokeScheduleExpirationRenewal(rLock);
+                invokeScheduleExpirationRenewal(rLock, Thread.currentThread().getId());
             }
             return rLock;
         }
@@ -56,6 +120,61 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
         return null;
     }
 
+    @Override
+    public List<RLock> doLockAll(List<String> lockNames, String lockValue, long leaseTime, long waitTime) throws Exception {
+        List<RFencedLock> rLocks = new ArrayList<>(lockNames.size());
+        for (String lockName : lockNames) {
+            rLocks.add(redissonClient.getFencedLock(lockName));
+        }
+        // 通过 RedissonMultiLock 一次性获取全部锁，获取失败时由其释放已获取的锁
+        RedissonMultiLock multiLock = new RedissonMultiLock(rLocks.toArray(new RLock[0]));
+        if (!multiLock.tryLock(waitTime, leaseTime, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        // 设置了过期时间，则为每把锁调用 scheduleExpirationRenewal 方法
+        if (leaseTime > 0) {
+            for (RLock rLock : rLocks) {
+                overrideParentInternalLockLeaseTime(rLock, TimeUnit.MILLISECONDS.toMillis(leaseTime));
+                invokeScheduleExpirationRenewal(rLock, Thread.currentThread().getId());
+            }
+        }
+        for (int i = 0; i < rLocks.size(); i++) {
+            putFencingToken(rLocks.get(i), lockNames.get(i), lockValue);
+        }
+        return new ArrayList<>(rLocks);
+    }
+
+    @Override
+    public CompletableFuture<RLock> doLockAsync(String lockName, String lockValue, long leaseTime, long waitTime) {
+        // 获取 RFencedLock 对象
+        RFencedLock rLock = redissonClient.getFencedLock(lockName);
+        long ownerId = asyncOwnerId(lockValue);
+        // 以虚拟线程 ID 作为持有者异步获取锁
+        return rLock.tryLockAsync(waitTime, leaseTime, TimeUnit.MILLISECONDS, ownerId).toCompletableFuture().thenCompose(locked -> {
+            if (!locked) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // 设置了过期时间，则调用 scheduleExpirationRenewal 方法
+            if (leaseTime > 0) {
+                overrideParentInternalLockLeaseTime(rLock, TimeUnit.MILLISECONDS.toMillis(leaseTime));
+                invokeScheduleExpirationRenewal(rLock, ownerId);
+            }
+            // 持有锁期间令牌不会被其他获取者递增，读取令牌失败时仍然持有锁，只是不提供令牌
+            return rLock.getTokenAsync().toCompletableFuture().handle((token, e) -> {
+                if (token != null) {
+                    fencingTokens.put(lockValue + lockName, token);
+                }
+                return rLock;
+            });
+        });
+    }
+
+    @Override
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, RLock rLock) {
+        Long token = fencingTokens.remove(lockValue + lockName);
+        return token != null ? token : super.fencingToken(lockName, lockValue, mode, rLock);
+    }
+
     @Override
     public void doUnlock(String lockName, String lockValue, RLock rLock) {
         // 仅当当前线程持有锁时，释放锁
@@ -64,6 +183,39 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
         }
     }
 
+    @Override
+    public CompletableFuture<Void> doUnlockAsync(String lockName, String lockValue, RLock rLock) {
+        return rLock.unlockAsync(asyncOwnerId(lockValue)).toCompletableFuture();
+    }
+
+    /**
+     * 读取刚刚获取的锁的栅栏令牌，持有锁期间令牌不会被其他获取者递增。
+     * 读取令牌失败时仍然持有锁，只是不提供令牌。
+     *
+     * @param fencedLock RFencedLock 对象
+     * @param lockName   锁的名称
+     * @param lockValue  锁的值
+     */
+    private void putFencingToken(RFencedLock fencedLock, String lockName, String lockValue) {
+        try {
+            fencingTokens.put(lockValue + lockName, fencedLock.getToken());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to read fencing token for lock: {}", lockName, e);
+        }
+    }
+
+    /**
+     * 由锁的值推导出异步持有者的虚拟线程 ID。
+     *
+     * <p>同一进程内锁的值的序号互不相同，取负数以避免与真实的线程 ID 冲突。</p>
+     *
+     * @param lockValue 锁的值
+     * @return 虚拟线程 ID
+     */
+    private static long asyncOwnerId(String lockValue) {
+        return -1 - OwnerTokens.sequence(lockValue);
+    }
+
     /**
      * 修改父类 RedissonBaseLock 的 internalLockLeaseTime 值。
      *
@@ -72,10 +224,11 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
      */
     public void overrideParentInternalLockLeaseTime(RLock lock, long newInternalLockLeaseTime) {
         try {
-            // 获取 RedissonBaseLock 的父类，即 RedissonLock 的父类
-            Class<?> superclass = lock.getClass().getSuperclass();
-            // 获取父类的 internalLockLeaseTime 字段
-            Field internalLockLeaseTimeField = superclass.getDeclaredField("internalLockLeaseTime");
+            // 在类层次中查找 RedissonBaseLock 的 internalLockLeaseTime 字段，读写锁比 RedissonLock 多一层继承
+            Field internalLockLeaseTimeField = ReflectionUtils.findField(lock.getClass(), "internalLockLeaseTime");
+            if (internalLockLeaseTimeField == null) {
+                throw new NoSuchFieldException("internalLockLeaseTime");
+            }
             // 设置访问权限
             internalLockLeaseTimeField.setAccessible(true);
             // 修改 internalLockLeaseTime 字段的值
@@ -88,16 +241,18 @@ public class RedissonUniLockDistributed extends AbstractUniLockDistributed<RLock
     /**
      * 使用反射调用 RedissonBaseLock 的 scheduleExpirationRenewal 方法。
      *
-     * @param lock RLock 对象
+     * @param lock     RLock 对象
+     * @param threadId 锁持有者的线程 ID
      */
-    private void invokeScheduleExpirationRenewal(RLock lock) {
+    private void invokeScheduleExpirationRenewal(RLock lock, long threadId) {
         try {
-            // 获取 RedissonBaseLock 的 scheduleExpirationRenewal 方法
-            Method scheduleRenewalMethod = lock.getClass().getSuperclass().getDeclaredMethod("scheduleExpirationRenewal", long.class);
+            // 在类层次中查找 RedissonBaseLock 的 scheduleExpirationRenewal 方法
+            Method scheduleRenewalMethod = ReflectionUtils.findMethod(lock.getClass(), "scheduleExpirationRenewal", long.class);
+            if (scheduleRenewalMethod == null) {
+                throw new NoSuchMethodException("scheduleExpirationRenewal");
+            }
             // 设置可以访问 protected 方法
             scheduleRenewalMethod.setAccessible(true);
-            // 获取当前线程的 ID
-            long threadId = Thread.currentThread().getId();
             // 通过反射调用方法
             scheduleRenewalMethod.invoke(lock, threadId);
         } catch (Exception e) {
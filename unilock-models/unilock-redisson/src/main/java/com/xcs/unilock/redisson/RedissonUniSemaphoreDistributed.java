@@ -0,0 +1,56 @@
+package com.xcs.unilock.redisson;
+
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedissonUniSemaphoreDistributed 是一个基于 Redisson 实现的分布式信号量。
+ * 它利用 Redisson 提供的 RPermitExpirableSemaphore 发放带有过期时间的许可，许可不与任何线程绑定。
+ * 信号量的最大许可数在第一次使用时设置，之后不会再修改。
+ *
+ * @author xcs
+ */
+public class RedissonUniSemaphoreDistributed extends AbstractUniSemaphoreDistributed<List<String>> {
+
+    /**
+     * 信号量名称的前缀，与同名的锁区分开
+     */
+    private static final String SEMAPHORE_KEY_PREFIX = "semaphore:";
+
+    /**
+     * Redisson 客户端实例，用于与 Redis 进行交互。
+     */
+    private final RedissonClient redissonClient;
+
+    public RedissonUniSemaphoreDistributed(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * 获取许可时已经在 waitTime 内阻塞等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
+    @Override
+    public List<String> doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) throws Exception {
+        RPermitExpirableSemaphore semaphore = redissonClient.getPermitExpirableSemaphore(SEMAPHORE_KEY_PREFIX + semaphoreName);
+        // 只有信号量尚未设置许可数时才会生效
+        semaphore.trySetPermits(maxPermits);
+        List<String> permitIds = semaphore.tryAcquire(permits, waitTime, leaseTime, TimeUnit.MILLISECONDS);
+        return permitIds == null || permitIds.isEmpty() ? null : permitIds;
+    }
+
+    @Override
+    public void doRelease(String semaphoreName, String permitValue, int permits, List<String> permitIds) {
+        redissonClient.getPermitExpirableSemaphore(SEMAPHORE_KEY_PREFIX + semaphoreName).release(permitIds);
+    }
+}
@@ -1,69 +1,289 @@
 package com.xcs.unilock.zookeeper;
 
 import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.LockMode;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.atomic.AtomicValue;
+import org.apache.curator.framework.recipes.atomic.DistributedAtomicLong;
 import org.apache.curator.framework.recipes.locks.InterProcessMutex;
+import org.apache.curator.framework.recipes.locks.InterProcessReadWriteLock;
+import org.apache.curator.framework.recipes.locks.InterProcessSemaphoreV2;
+import org.apache.curator.framework.recipes.locks.Lease;
+import org.apache.curator.retry.RetryNTimes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * ZookeeperDistributedLock 是一个基于 Apache Curator 的分布式锁适配器。
  * 它使用 ZooKeeper 的临时节点来实现分布式环境下的锁机制，确保在多个客户端之间实现资源的互斥访问。
- * 该适配器通过 InterProcessMutex 实现锁的获取和释放，并使用 ThreadLocal
- * 机制为每个线程管理自己的锁实例，确保线程安全和锁的有效管理。
+ * 互斥锁默认通过 InterProcessMutex 实现，锁节点直接位于锁路径下，与获取它的线程绑定，只能同步使用；
+ * 开启 {@link #setLeaseLayoutEnabled(boolean)} 后改为只有一个租约的 InterProcessSemaphoreV2，租约节点位于锁路径下的
+ * {@code leases} 节点中，不与获取它的线程绑定，因此异步获取的锁可以在任意线程中释放。两种节点布局互不感知，
+ * 同一把锁的所有客户端必须使用相同的布局。重入由父类基于线程的重入计数实现。
+ * 读锁和写锁通过 InterProcessReadWriteLock 实现，它们与获取锁的线程绑定，只能同步使用。
+ * 互斥锁的栅栏令牌来自 {@code /fencing} 下每把锁一个的持久计数器节点，计数器节点不会被自动删除，
+ * 不再使用的锁需要自行清理对应的计数器节点，清理后该锁的令牌会从头开始。
  *
  * @author xcs
  */
-public class ZookeeperUniLockDistributed extends AbstractUniLockDistributed<InterProcessMutex> {
+public class ZookeeperUniLockDistributed extends AbstractUniLockDistributed<Lease> {
+
+    /**
+     * 日志记录器，用于捕获和记录错误信息。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZookeeperUniLockDistributed.class);
 
     /**
      * 锁的根路径，用于在 ZooKeeper 中存储锁节点。
      */
     private static final String LOCK_ROOT_PATH = "/locks";
 
+    /**
+     * 读写锁的根路径，与互斥锁分开存储。
+     */
+    private static final String READ_WRITE_LOCK_ROOT_PATH = "/rwlocks";
+
+    /**
+     * 栅栏令牌计数器的根路径。计数器是持久节点，不会像租约节点的父节点（容器节点）那样在为空时被删除，
+     * 令牌因此不会因为序号重新从 0 开始而回退。
+     */
+    private static final String FENCING_ROOT_PATH = "/fencing";
+
+    /**
+     * 递增计数器时乐观重试的次数，只有持有锁的客户端会递增计数器，冲突只来自已经失去锁的持有者。
+     */
+    private static final int FENCING_RETRIES = 3;
+
+    /**
+     * 每把锁的最大租约数，只有一个租约的信号量即为互斥锁。
+     */
+    private static final int MAX_LEASES = 1;
+
+    /**
+     * 顺序节点名称末尾序号的长度。
+     */
+    private static final int SEQUENCE_LENGTH = 10;
+
     /**
      * CuratorFramework 客户端，用于与 ZooKeeper 交互。
      */
     private final CuratorFramework curatorFramework;
 
     /**
-     * 线程本地变量，存储每个线程的 InterProcessMutex 锁对象。
-     * 通过线程本地变量，确保每个线程持有自己的锁实例。
+     * 互斥锁是否使用信号量租约的节点布局
      */
-    private final ThreadLocal<Map<String, InterProcessMutex>> zkThreadLocalLocks = ThreadLocal.withInitial(ConcurrentHashMap::new);
+    private volatile boolean leaseLayoutEnabled;
 
     public ZookeeperUniLockDistributed(CuratorFramework curatorFramework) {
         this.curatorFramework = curatorFramework;
     }
 
+    /**
+     * 获取 CuratorFramework 客户端，用于与其他组件共享连接。
+     *
+     * @return CuratorFramework
+     */
+    public CuratorFramework getCuratorFramework() {
+        return curatorFramework;
+    }
+
+    /**
+     * 设置互斥锁是否使用信号量租约的节点布局。
+     *
+     * <p>InterProcessMutex 的锁节点直接位于锁路径下，信号量的租约节点位于锁路径下的 {@code leases} 节点中，
+     * 两种布局的客户端互相看不到对方持有的锁。滚动升级期间新旧节点会同时持有同一把锁，
+     * 因此只有在所有客户端都支持新布局之后才能统一开启。只有新布局支持 {@link #tryLockAsync}（见 {@link #asyncSupported()}），默认关闭。</p>
+     *
+     * @param leaseLayoutEnabled 是否使用信号量租约的节点布局
+     */
+    public void setLeaseLayoutEnabled(boolean leaseLayoutEnabled) {
+        this.leaseLayoutEnabled = leaseLayoutEnabled;
+    }
+
+    @Override
+    public boolean reentrant() {
+        return true;
+    }
+
+    /**
+     * 只有信号量租约的节点布局支持异步获取锁，见 {@link #setLeaseLayoutEnabled(boolean)}。
+     */
+    @Override
+    public boolean asyncSupported() {
+        return leaseLayoutEnabled;
+    }
+
+    /**
+     * 获取锁时已经在 waitTime 内阻塞等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
     @Override
-    public InterProcessMutex doLock(String lockName, String lockValue, long leaseTime, long waitTime) throws Exception {
+    public Lease doLock(String lockName, String lockValue, long leaseTime, long waitTime) throws Exception {
         // 创建锁路径
         String lockPath = LOCK_ROOT_PATH + "/" + lockName;
-        // 获取当前线程的锁集合
-        Map<String, InterProcessMutex> locks = zkThreadLocalLocks.get();
-        // 获取锁对象，如果不存在则创建新锁对象并存入集合
-        InterProcessMutex mutex = locks.computeIfAbsent(lockName, k -> new InterProcessMutex(curatorFramework, lockPath));
-        // 尝试在指定时间内获取锁
-        if (mutex.acquire(waitTime, TimeUnit.MILLISECONDS)) {
-            // 将锁对象存储到线程本地变量中
-            locks.put(lockName, mutex);
-            return mutex;
-        }
-        return null;
+        Lease lease;
+        if (leaseLayoutEnabled) {
+            InterProcessSemaphoreV2 semaphore = new InterProcessSemaphoreV2(curatorFramework, lockPath, MAX_LEASES);
+            // 尝试在指定时间内获取租约，获取失败时返回 null
+            lease = semaphore.acquire(waitTime, TimeUnit.MILLISECONDS);
+        } else {
+            InterProcessMutex mutex = new InterProcessMutex(curatorFramework, lockPath);
+            // 尝试在指定时间内获取锁，获取失败时返回 null
+            lease = mutex.acquire(waitTime, TimeUnit.MILLISECONDS) ? new MutexLease(mutex) : null;
+        }
+        return lease != null ? new FencedLease(lease, nextFencingToken(lockName, lease)) : null;
+    }
+
+    /**
+     * InterProcessMutex 与获取它的线程绑定，只有信号量租约的节点布局支持异步获取。
+     */
+    @Override
+    public CompletableFuture<Lease> doLockAsync(String lockName, String lockValue, long leaseTime, long waitTime) {
+        if (!leaseLayoutEnabled) {
+            CompletableFuture<Lease> future = new CompletableFuture<>();
+            future.completeExceptionally(new UnsupportedOperationException(
+                    "Asynchronous ZooKeeper locks require the lease layout, see setLeaseLayoutEnabled: " + lockName));
+            return future;
+        }
+        return super.doLockAsync(lockName, lockValue, leaseTime, waitTime);
+    }
+
+    @Override
+    public Lease doLock(String lockName, LockMode mode, String lockValue, long leaseTime, long waitTime) throws Exception {
+        if (mode == LockMode.EXCLUSIVE) {
+            return doLock(lockName, lockValue, leaseTime, waitTime);
+        }
+        InterProcessReadWriteLock readWriteLock = new InterProcessReadWriteLock(curatorFramework, READ_WRITE_LOCK_ROOT_PATH + "/" + lockName);
+        InterProcessMutex mutex = mode == LockMode.READ ? readWriteLock.readLock() : readWriteLock.writeLock();
+        // 尝试在指定时间内获取读锁或写锁，获取失败时返回 null
+        return mutex.acquire(waitTime, TimeUnit.MILLISECONDS) ? new MutexLease(mutex) : null;
     }
 
     @Override
-    public void doUnlock(String lockName, String lockValue, InterProcessMutex mutex) throws Exception {
-        if (mutex != null) {
-            // 释放锁
-            mutex.release();
-            // 如果当前进程不再持有该锁，则从线程本地变量中移除该锁
-            if (!mutex.isAcquiredInThisProcess()) {
-                zkThreadLocalLocks.get().remove(lockName);
+    protected long fencingToken(String lockName, String lockValue, LockMode mode, Lease lease) {
+        // 读写锁没有栅栏令牌
+        if (!(lease instanceof FencedLease)) {
+            return super.fencingToken(lockName, lockValue, mode, lease);
+        }
+        return ((FencedLease) lease).fencingToken;
+    }
+
+    /**
+     * 递增锁的栅栏令牌计数器。持有锁期间只有当前持有者递增计数器；计数器不存在时以租约节点的序号初始化，
+     * 保证令牌大于此前以租约节点序号作为令牌时发放的令牌。递增失败时仍然持有锁，只是不提供令牌。
+     *
+     * @param lockName 锁的名称
+     * @param lease    刚刚获取的租约
+     * @return 栅栏令牌，递增失败时返回 {@link com.xcs.unilock.UniLockResponse#NO_FENCING_TOKEN}
+     */
+    private long nextFencingToken(String lockName, Lease lease) {
+        DistributedAtomicLong counter = new DistributedAtomicLong(curatorFramework, FENCING_ROOT_PATH + "/" + lockName,
+                new RetryNTimes(FENCING_RETRIES, 0));
+        try {
+            counter.initialize(sequence(lease.getNodeName()));
+            AtomicValue<Long> value = counter.increment();
+            if (value.succeeded()) {
+                return value.postValue();
             }
+            LOGGER.warn("Failed to increment fencing token for lock: {}", lockName);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to increment fencing token for lock: {}", lockName, e);
+        }
+        return super.fencingToken(lockName, null, LockMode.EXCLUSIVE, lease);
+    }
+
+    /**
+     * 解析顺序节点名称末尾的序号。
+     *
+     * @param nodeName 节点名称
+     * @return 序号，无法解析时返回 0
+     */
+    private static long sequence(String nodeName) {
+        if (nodeName == null || nodeName.length() < SEQUENCE_LENGTH) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(nodeName.substring(nodeName.length() - SEQUENCE_LENGTH));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void doUnlock(String lockName, String lockValue, Lease lease) throws Exception {
+        if (lease != null) {
+            // 归还租约，释放锁
+            lease.close();
+        }
+    }
+
+    /**
+     * 带有栅栏令牌的互斥锁租约，归还租约即释放锁。
+     */
+    private static final class FencedLease implements Lease {
+        private final Lease lease;
+        private final long fencingToken;
+
+        private FencedLease(Lease lease, long fencingToken) {
+            this.lease = lease;
+            this.fencingToken = fencingToken;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lease.close();
+        }
+
+        @Override
+        public byte[] getData() throws Exception {
+            return lease.getData();
+        }
+
+        @Override
+        public String getNodeName() {
+            return lease.getNodeName();
+        }
+    }
+
+    /**
+     * 将 InterProcessMutex 适配为租约，归还租约即释放锁。
+     */
+    private static final class MutexLease implements Lease {
+        private final InterProcessMutex mutex;
+
+        private MutexLease(InterProcessMutex mutex) {
+            this.mutex = mutex;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                mutex.release();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public byte[] getData() {
+            return null;
+        }
+
+        @Override
+        public String getNodeName() {
+            return null;
         }
     }
 }
@@ -0,0 +1,58 @@
+package com.xcs.unilock.zookeeper;
+
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import com.xcs.unilock.wait.ImmediateFailWaitStrategy;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.locks.InterProcessSemaphoreV2;
+import org.apache.curator.framework.recipes.locks.Lease;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZookeeperUniSemaphoreDistributed 是一个基于 Apache Curator 的分布式信号量。
+ * 它通过 InterProcessSemaphoreV2 发放租约，每个租约是一个临时节点，持有者的会话失效后租约自动归还，
+ * 因此 leaseTime 不起作用。
+ *
+ * @author xcs
+ */
+public class ZookeeperUniSemaphoreDistributed extends AbstractUniSemaphoreDistributed<Collection<Lease>> {
+
+    /**
+     * 信号量的根路径，用于在 ZooKeeper 中存储租约节点。
+     */
+    private static final String SEMAPHORE_ROOT_PATH = "/semaphores";
+
+    /**
+     * CuratorFramework 客户端，用于与 ZooKeeper 交互。
+     */
+    private final CuratorFramework curatorFramework;
+
+    public ZookeeperUniSemaphoreDistributed(CuratorFramework curatorFramework) {
+        this.curatorFramework = curatorFramework;
+    }
+
+    /**
+     * 获取许可时已经在 waitTime 内阻塞等待，失败后无需再次重试。
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return ImmediateFailWaitStrategy.INSTANCE;
+    }
+
+    @Override
+    public Collection<Lease> doAcquire(String semaphoreName, String permitValue, int maxPermits, int permits, long leaseTime, long waitTime) throws Exception {
+        InterProcessSemaphoreV2 semaphore = new InterProcessSemaphoreV2(curatorFramework, SEMAPHORE_ROOT_PATH + "/" + semaphoreName, maxPermits);
+        // 尝试在指定时间内获取全部租约，获取失败时返回 null
+        return semaphore.acquire(permits, waitTime, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void doRelease(String semaphoreName, String permitValue, int permits, Collection<Lease> leases) throws Exception {
+        for (Lease lease : leases) {
+            // 归还租约
+            lease.close();
+        }
+    }
+}
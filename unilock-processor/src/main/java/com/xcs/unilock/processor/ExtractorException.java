@@ -0,0 +1,48 @@
+package com.xcs.unilock.processor;
+
+/**
+ * 无法为表达式生成提取器时抛出的异常，由 {@link Kind} 决定报告为编译错误还是警告。
+ *
+ * @author xcs
+ */
+final class ExtractorException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 无法生成提取器的原因。
+     */
+    enum Kind {
+        /**
+         * 表达式超出支持的写法，运行时退回 Spring EL 求值
+         */
+        UNSUPPORTED,
+        /**
+         * 名称模板的格式错误，运行时同样无法解析
+         */
+        MALFORMED,
+        /**
+         * 表达式引用了方法中不存在的参数
+         */
+        UNKNOWN_VARIABLE,
+        /**
+         * 参数的类型中没有表达式引用的属性
+         */
+        UNRESOLVED_PROPERTY,
+        /**
+         * 表达式引用的类型或属性无法从生成的类中访问，运行时退回 Spring EL 求值
+         */
+        INACCESSIBLE
+    }
+
+    private final Kind kind;
+
+    ExtractorException(Kind kind, String message) {
+        super(message);
+        this.kind = kind;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+}
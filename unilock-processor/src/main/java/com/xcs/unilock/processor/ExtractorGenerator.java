@@ -0,0 +1,601 @@
+package com.xcs.unilock.processor;
+
+import com.xcs.unilock.processor.LockExpressionParser.Condition;
+import com.xcs.unilock.processor.LockExpressionParser.Part;
+import com.xcs.unilock.processor.LockExpressionParser.Path;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为一个类中所有方法上的锁表达式生成 {@code LockExpressionExtractorProvider} 的源代码。
+ *
+ * <p>每个表达式生成一个静态方法，按参数下标读取方法参数，再依次调用属性的 getter 方法（或读取公共字段），
+ * 属性的解析规则与 Spring EL 的 {@code ReflectivePropertyAccessor} 一致：先查找 {@code getXxx()}，
+ * 再查找返回 boolean 的 {@code isXxx()}，最后查找公共字段。路径中间的值为 null 时抛出 {@link IllegalArgumentException}。</p>
+ *
+ * <p>转换为字符串的规则与 Spring EL 一致：枚举使用 {@code name()}，包装类型使用 {@code toString()}，
+ * 其余类型（集合、数组等）使用 Spring EL 同样使用的 {@code DefaultConversionService}；
+ * 拼接时 null 值拼接为 {@code "null"}，模板中的 null 值拼接为空字符串，单独的属性路径为 null 时锁名称为 null。</p>
+ *
+ * @author xcs
+ */
+final class ExtractorGenerator {
+
+    /**
+     * 生成的类名的后缀
+     */
+    static final String CLASS_SUFFIX = "_UniLockExtractors";
+
+    private static final String EXTRACTOR = "com.xcs.unilock.aop.LockExpressionExtractor";
+
+    private static final String PROVIDER = "com.xcs.unilock.aop.LockExpressionExtractorProvider";
+
+    private static final String CONVERSION_SERVICE = "org.springframework.core.convert.support.DefaultConversionService";
+
+    /**
+     * 直接使用 {@code toString()} 转换为字符串的类型，与 {@code DefaultConversionService} 的结果一致
+     */
+    private static final Set<String> TO_STRING_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double"));
+
+    private final Types types;
+
+    private final Elements elements;
+
+    private final TypeElement targetType;
+
+    private final String packageName;
+
+    private final String simpleName;
+
+    /**
+     * 方法签名、表达式与生成的静态方法名称的映射
+     */
+    private final Map<String, Map<String, String>> extractors = new LinkedHashMap<>();
+
+    /**
+     * 生成的静态方法
+     */
+    private final StringBuilder methods = new StringBuilder();
+
+    ExtractorGenerator(ProcessingEnvironment processingEnv, TypeElement targetType) {
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.targetType = targetType;
+        this.packageName = elements.getPackageOf(targetType).getQualifiedName().toString();
+        StringBuilder name = new StringBuilder(targetType.getSimpleName());
+        for (Element enclosing = targetType.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, enclosing.getSimpleName());
+        }
+        this.simpleName = name.append(CLASS_SUFFIX).toString();
+    }
+
+    /**
+     * 获取生成的类的全限定名称。
+     *
+     * @return 全限定名称
+     */
+    String getQualifiedName() {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * 是否生成了任何提取器。
+     *
+     * @return 没有生成提取器时返回 {@code true}
+     */
+    boolean isEmpty() {
+        return extractors.isEmpty();
+    }
+
+    /**
+     * 判断生成的类能否访问目标类。
+     *
+     * @return 目标类及其外部类都不是私有的时返回 {@code true}
+     */
+    boolean isTargetAccessible() {
+        return isAccessible(targetType.asType());
+    }
+
+    /**
+     * 为锁名称生成提取器，名称可以是模板或 Spring EL 表达式。
+     *
+     * @param method     注解所在的方法
+     * @param expression 锁名称
+     * @throws ExtractorException 无法生成提取器
+     */
+    void addName(ExecutableElement method, String expression) throws ExtractorException {
+        if (isRegistered(method, expression)) {
+            return;
+        }
+        boolean template = LockExpressionParser.isTemplate(expression);
+        List<Part> parts = template ? LockExpressionParser.parseTemplate(expression) : LockExpressionParser.parseConcatenation(expression);
+        Body body = new Body(method, expression);
+        String result;
+        if (parts.size() == 1) {
+            // 单独的字面量或属性路径，属性路径为 null 时锁名称为 null
+            Part part = parts.get(0);
+            result = part.getLiteral() != null ? javaString(part.getLiteral()) : body.toText(body.resolve(part.getPath()), "null");
+        } else {
+            if (!template && !isStringTerm(body, parts.get(0)) && !isStringTerm(body, parts.get(1))) {
+                // 前两项都不是字符串时 Spring EL 按数值相加
+                throw new ExtractorException(ExtractorException.Kind.UNSUPPORTED, "Unsupported lock expression: " + expression);
+            }
+            StringBuilder concatenation = new StringBuilder();
+            for (Part part : parts) {
+                if (concatenation.length() > 0) {
+                    concatenation.append(" + ");
+                }
+                if (part.getLiteral() != null) {
+                    concatenation.append(javaString(part.getLiteral()));
+                } else {
+                    concatenation.append(body.toText(body.resolve(part.getPath()), template ? "\"\"" : "\"null\""));
+                }
+            }
+            result = concatenation.toString();
+        }
+        body.statement("return " + result + ";");
+        register(method, expression, body);
+    }
+
+    /**
+     * 为条件表达式生成提取器。
+     *
+     * @param method     注解所在的方法
+     * @param expression 条件表达式
+     * @throws ExtractorException 无法生成提取器
+     */
+    void addCondition(ExecutableElement method, String expression) throws ExtractorException {
+        if (isRegistered(method, expression)) {
+            return;
+        }
+        Condition condition = LockExpressionParser.parseCondition(expression);
+        Body body = new Body(method, expression);
+        Value value = body.resolve(condition.getPath());
+        boolean primitiveBoolean = value.type.getKind() == TypeKind.BOOLEAN;
+        boolean booleanType = primitiveBoolean || isType(value.type, "java.lang.Boolean");
+        switch (condition.getOperator()) {
+            case TRUE:
+                if (!booleanType) {
+                    throw new ExtractorException(ExtractorException.Kind.UNSUPPORTED, "Condition is not a boolean property: " + expression);
+                }
+                body.statement("return " + value.name + ";");
+                break;
+            case NOT:
+                if (!booleanType) {
+                    throw new ExtractorException(ExtractorException.Kind.UNSUPPORTED, "Condition is not a boolean property: " + expression);
+                }
+                if (!primitiveBoolean) {
+                    body.nullCheck(value, "Cannot negate null '" + condition.getPath() + "'");
+                }
+                body.statement("return !" + value.name + ";");
+                break;
+            case IS_NULL:
+                body.statement("return " + (value.type.getKind().isPrimitive() ? "false" : value.name + " == null") + ";");
+                break;
+            default:
+                body.statement("return " + (value.type.getKind().isPrimitive() ? "true" : value.name + " != null") + ";");
+                break;
+        }
+        register(method, expression, body);
+    }
+
+    /**
+     * 生成类的源代码。
+     *
+     * @return 源代码
+     */
+    String generate() {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * Lock expression extractors for {@link ").append(targetType.getQualifiedName()).append("}, generated by unilock-processor. Do not edit.\n")
+                .append(" */\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName).append(" implements ").append(PROVIDER).append(" {\n\n")
+                .append("    @Override\n")
+                .append("    public Class<?> getTargetClass() {\n")
+                .append("        return ").append(targetType.getQualifiedName()).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(EXTRACTOR).append(" getExtractor(String methodKey, String expression) {\n")
+                .append("        switch (methodKey) {\n");
+        for (Map.Entry<String, Map<String, String>> method : extractors.entrySet()) {
+            source.append("            case ").append(javaString(method.getKey())).append(":\n")
+                    .append("                switch (expression) {\n");
+            for (Map.Entry<String, String> extractor : method.getValue().entrySet()) {
+                source.append("                    case ").append(javaString(extractor.getKey())).append(":\n")
+                        .append("                        return ").append(simpleName).append("::").append(extractor.getValue()).append(";\n");
+            }
+            source.append("                    default:\n")
+                    .append("                        return null;\n")
+                    .append("                }\n");
+        }
+        source.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append(methods)
+                .append("}\n");
+        return source.toString();
+    }
+
+    private boolean isRegistered(ExecutableElement method, String expression) {
+        Map<String, String> methodExtractors = extractors.get(methodKey(method));
+        return methodExtractors != null && methodExtractors.containsKey(expression);
+    }
+
+    private void register(ExecutableElement method, String expression, Body body) {
+        String methodKey = methodKey(method);
+        String name = "extract" + methodCount();
+        methods.append('\n')
+                .append("    // ").append(javaString(methodKey)).append(": ").append(javaString(expression)).append('\n')
+                .append("    private static Object ").append(name).append("(Object[] args) {\n")
+                .append(body.code)
+                .append("    }\n");
+        extractors.computeIfAbsent(methodKey, key -> new LinkedHashMap<>()).put(expression, name);
+    }
+
+    private int methodCount() {
+        int count = 0;
+        for (Map<String, String> methodExtractors : extractors.values()) {
+            count += methodExtractors.size();
+        }
+        return count;
+    }
+
+    /**
+     * 判断拼接中的一项在 Spring EL 中是否为字符串。
+     */
+    private boolean isStringTerm(Body body, Part part) throws ExtractorException {
+        return part.getLiteral() != null || isType(body.typeOf(part.getPath()), "java.lang.String");
+    }
+
+    /**
+     * 计算方法签名，格式与运行时查找提取器时一致：方法名加上以逗号分隔的参数类型名称。
+     *
+     * @param method 方法
+     * @return 方法签名
+     */
+    private String methodKey(ExecutableElement method) {
+        StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(binaryName(types.erasure(parameters.get(i).asType())));
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * 获取类型在运行时的名称，与 {@link Class#getTypeName()} 一致。
+     */
+    private String binaryName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return binaryName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+            default:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 获取类型在源代码中的名称，类型必须已经擦除。
+     */
+    private String sourceName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return sourceName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            default:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 判断生成的类能否访问类型：类型及其外部类都是公共的，或者不是私有的且与生成的类在同一个包中。
+     */
+    private boolean isAccessible(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getNestingKind() == NestingKind.LOCAL || element.getNestingKind() == NestingKind.ANONYMOUS) {
+            return false;
+        }
+        boolean samePackage = elements.getPackageOf(element).getQualifiedName().contentEquals(packageName);
+        for (Element current = element; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!samePackage && !current.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isType(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    /**
+     * 转换为 Java 字符串字面量，非 ASCII 字符使用 Unicode 转义。
+     */
+    private static String javaString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * 属性路径的值：局部变量的名称与擦除后的类型。
+     */
+    private static final class Value {
+
+        private final String name;
+
+        private final TypeMirror type;
+
+        private Value(String name, TypeMirror type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    /**
+     * 一个提取器方法的方法体。
+     */
+    private final class Body {
+
+        private final ExecutableElement method;
+
+        private final String expression;
+
+        private final StringBuilder code = new StringBuilder();
+
+        /**
+         * 已经读取的参数，同一个参数只读取一次
+         */
+        private final Map<Integer, Value> parameters = new LinkedHashMap<>();
+
+        private int variables;
+
+        private Body(ExecutableElement method, String expression) {
+            this.method = method;
+            this.expression = expression;
+        }
+
+        /**
+         * 生成读取属性路径的语句。
+         *
+         * @param path 属性路径
+         * @return 属性路径的值
+         * @throws ExtractorException 参数或属性不存在，或者无法访问
+         */
+        Value resolve(Path path) throws ExtractorException {
+            Value value = parameter(parameterIndex(path), path);
+            StringBuilder current = new StringBuilder("#").append(path.getVariable());
+            for (String property : path.getProperties()) {
+                if (!value.type.getKind().isPrimitive()) {
+                    nullCheck(value, "Cannot read property '" + property + "' of null '" + current + "'");
+                }
+                Access access = access(value.type, property, path);
+                current.append('.').append(property);
+                checkAccessible(access.type, current.toString());
+                value = declare(access.type, value.name + access.code);
+            }
+            return value;
+        }
+
+        /**
+         * 生成读取参数的语句。
+         */
+        private Value parameter(int index, Path path) throws ExtractorException {
+            Value value = parameters.get(index);
+            if (value != null) {
+                return value;
+            }
+            TypeMirror type = types.erasure(method.getParameters().get(index).asType());
+            checkAccessible(type, "#" + path.getVariable());
+            if (type.getKind().isPrimitive()) {
+                String boxed = types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+                value = declare(type, "(" + boxed + ") args[" + index + "]");
+            } else {
+                value = declare(type, "(" + sourceName(type) + ") args[" + index + "]");
+            }
+            parameters.put(index, value);
+            return value;
+        }
+
+        /**
+         * 只解析属性路径的类型，不生成语句。
+         */
+        TypeMirror typeOf(Path path) throws ExtractorException {
+            TypeMirror type = types.erasure(method.getParameters().get(parameterIndex(path)).asType());
+            for (String property : path.getProperties()) {
+                type = access(type, property, path).type;
+            }
+            return type;
+        }
+
+        /**
+         * 生成将值转换为字符串的表达式。
+         *
+         * @param value     属性路径的值
+         * @param nullValue 值为 null 时的结果
+         * @return 字符串表达式
+         */
+        String toText(Value value, String nullValue) {
+            if (value.type.getKind().isPrimitive()) {
+                return "String.valueOf(" + value.name + ")";
+            }
+            String text;
+            if (isType(value.type, "java.lang.String")) {
+                text = value.name;
+            } else if (value.type.getKind() == TypeKind.DECLARED && ((DeclaredType) value.type).asElement().getKind() == ElementKind.ENUM) {
+                text = value.name + ".name()";
+            } else if (value.type.getKind() == TypeKind.DECLARED
+                    && TO_STRING_TYPES.contains(((TypeElement) ((DeclaredType) value.type).asElement()).getQualifiedName().toString())) {
+                text = value.name + ".toString()";
+            } else {
+                text = CONVERSION_SERVICE + ".getSharedInstance().convert(" + value.name + ", String.class)";
+            }
+            if (text.equals(value.name) && "null".equals(nullValue)) {
+                return text;
+            }
+            return "(" + value.name + " == null ? " + nullValue + " : " + text + ")";
+        }
+
+        void nullCheck(Value value, String message) {
+            statement("if (" + value.name + " == null) {");
+            statement("    throw new IllegalArgumentException(" + javaString(message + " in lock expression: " + expression) + ");");
+            statement("}");
+        }
+
+        void statement(String statement) {
+            code.append("        ").append(statement).append('\n');
+        }
+
+        private Value declare(TypeMirror type, String initializer) {
+            String name = "v" + variables++;
+            statement(sourceName(type) + " " + name + " = " + initializer + ";");
+            return new Value(name, type);
+        }
+
+        private int parameterIndex(Path path) throws ExtractorException {
+            List<? extends VariableElement> parameters = method.getParameters();
+            List<String> names = new ArrayList<>(parameters.size());
+            for (int i = 0; i < parameters.size(); i++) {
+                String name = parameters.get(i).getSimpleName().toString();
+                if (name.equals(path.getVariable())) {
+                    return i;
+                }
+                names.add(name);
+            }
+            throw new ExtractorException(ExtractorException.Kind.UNKNOWN_VARIABLE,
+                    "Unknown variable '#" + path.getVariable() + "' in lock expression: " + expression + ", method parameters are " + names);
+        }
+
+        private void checkAccessible(TypeMirror type, String path) throws ExtractorException {
+            if (!isAccessible(type)) {
+                throw new ExtractorException(ExtractorException.Kind.INACCESSIBLE,
+                        "Type " + type + " of '" + path + "' is not accessible from package '" + packageName + "' in lock expression: " + expression);
+            }
+        }
+
+        /**
+         * 按 Spring EL 的规则解析属性：{@code getXxx()}、返回 boolean 的 {@code isXxx()}、公共字段，数组支持 {@code length}。
+         */
+        private Access access(TypeMirror type, String property, Path path) throws ExtractorException {
+            if (type.getKind() == TypeKind.ARRAY && "length".equals(property)) {
+                return new Access(".length", types.getPrimitiveType(TypeKind.INT));
+            }
+            if (type.getKind() == TypeKind.DECLARED) {
+                DeclaredType declaredType = (DeclaredType) type;
+                List<? extends Element> members = elements.getAllMembers((TypeElement) declaredType.asElement());
+                String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+                ExecutableElement getter = null;
+                for (ExecutableElement candidate : ElementFilter.methodsIn(members)) {
+                    if (!candidate.getParameters().isEmpty() || !candidate.getModifiers().contains(Modifier.PUBLIC)) {
+                        continue;
+                    }
+                    String name = candidate.getSimpleName().toString();
+                    TypeMirror returnType = candidate.getReturnType();
+                    if (name.equals("get" + suffix) && returnType.getKind() != TypeKind.VOID) {
+                        getter = candidate;
+                        break;
+                    }
+                    if (getter == null && name.equals("is" + suffix)
+                            && (returnType.getKind() == TypeKind.BOOLEAN || isType(returnType, "java.lang.Boolean"))) {
+                        getter = candidate;
+                    }
+                }
+                if (getter != null) {
+                    TypeMirror returnType = ((ExecutableType) types.asMemberOf(declaredType, getter)).getReturnType();
+                    return new Access("." + getter.getSimpleName() + "()", types.erasure(returnType));
+                }
+                for (VariableElement field : ElementFilter.fieldsIn(members)) {
+                    if (field.getSimpleName().contentEquals(property) && field.getModifiers().contains(Modifier.PUBLIC)) {
+                        return new Access("." + property, types.erasure(types.asMemberOf(declaredType, field)));
+                    }
+                }
+            }
+            throw new ExtractorException(ExtractorException.Kind.UNRESOLVED_PROPERTY,
+                    "Cannot resolve property '" + property + "' on type " + type + " in '" + path + "' of lock expression: " + expression);
+        }
+    }
+
+    /**
+     * 读取属性的代码与属性擦除后的类型。
+     */
+    private static final class Access {
+
+        private final String code;
+
+        private final TypeMirror type;
+
+        private Access(String code, TypeMirror type) {
+            this.code = code;
+            this.type = type;
+        }
+    }
+}
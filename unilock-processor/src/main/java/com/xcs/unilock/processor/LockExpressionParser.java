@@ -0,0 +1,396 @@
+package com.xcs.unilock.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 解析注解中可以在编译期生成提取器的锁名称与条件表达式。
+ *
+ * <p>支持以下三种写法：</p>
+ * <ul>
+ *     <li>名称模板：{@code order:{#order.id}}，花括号中为参数的属性路径，其余为字面量；</li>
+ *     <li>名称表达式：由字符串字面量和属性路径以 {@code +} 拼接的 Spring EL 表达式，例如 {@code 'order:' + #order.id}；</li>
+ *     <li>条件表达式：{@code #flag}、{@code !#flag}、{@code #order.customer == null} 或 {@code #order.customer != null}。</li>
+ * </ul>
+ *
+ * <p>超出以上写法的表达式抛出 {@link ExtractorException.Kind#UNSUPPORTED} 异常，运行时退回 Spring EL 求值。</p>
+ *
+ * @author xcs
+ */
+final class LockExpressionParser {
+
+    private LockExpressionParser() {
+    }
+
+    /**
+     * 判断锁名称是否为模板。
+     *
+     * @param name 注解中的锁名称
+     * @return 是否为模板
+     */
+    static boolean isTemplate(String name) {
+        return name.contains("{#");
+    }
+
+    /**
+     * 解析名称模板，例如 {@code order:{#order.id}}。
+     *
+     * @param template 名称模板
+     * @return 模板中的字面量和属性路径
+     * @throws ExtractorException 模板格式错误或占位符不是属性路径
+     */
+    static List<Part> parseTemplate(String template) throws ExtractorException {
+        List<Part> parts = new ArrayList<>();
+        int index = 0;
+        while (index < template.length()) {
+            int start = template.indexOf('{', index);
+            if (start < 0) {
+                parts.add(Part.literal(template.substring(index)));
+                break;
+            }
+            if (start > index) {
+                parts.add(Part.literal(template.substring(index, start)));
+            }
+            int end = template.indexOf('}', start);
+            if (end < 0) {
+                throw new ExtractorException(ExtractorException.Kind.MALFORMED, "Unterminated placeholder in lock name template: " + template);
+            }
+            String placeholder = template.substring(start + 1, end);
+            if (placeholder.indexOf('{') >= 0) {
+                throw new ExtractorException(ExtractorException.Kind.UNSUPPORTED, "Nested braces are not supported in lock name template: " + template);
+            }
+            Tokenizer tokenizer = new Tokenizer(placeholder);
+            Path path = tokenizer.nextPath();
+            if (path == null || !tokenizer.atEnd()) {
+                throw new ExtractorException(ExtractorException.Kind.UNSUPPORTED,
+                        "Placeholder {" + placeholder + "} is not a parameter property path such as {#order.id}: " + template);
+            }
+            parts.add(Part.path(path));
+            index = end + 1;
+        }
+        return parts;
+    }
+
+    /**
+     * 解析以 {@code +} 拼接字符串字面量和属性路径的名称表达式。
+     *
+     * @param expression 名称表达式
+     * @return 表达式中的字面量和属性路径
+     * @throws ExtractorException 表达式超出支持的写法
+     */
+    static List<Part> parseConcatenation(String expression) throws ExtractorException {
+        Tokenizer tokenizer = new Tokenizer(expression);
+        List<Part> parts = new ArrayList<>();
+        do {
+            String literal = tokenizer.nextString();
+            if (literal != null) {
+                parts.add(Part.literal(literal));
+                continue;
+            }
+            Path path = tokenizer.nextPath();
+            if (path == null) {
+                throw unsupported(expression);
+            }
+            parts.add(Part.path(path));
+        } while (tokenizer.consume("+"));
+        if (!tokenizer.atEnd()) {
+            throw unsupported(expression);
+        }
+        return parts;
+    }
+
+    /**
+     * 解析条件表达式。
+     *
+     * @param expression 条件表达式
+     * @return 条件
+     * @throws ExtractorException 表达式超出支持的写法
+     */
+    static Condition parseCondition(String expression) throws ExtractorException {
+        Tokenizer tokenizer = new Tokenizer(expression);
+        boolean negated = tokenizer.consume("!");
+        Path path = tokenizer.nextPath();
+        if (path == null) {
+            throw unsupported(expression);
+        }
+        Condition.Operator operator = negated ? Condition.Operator.NOT : Condition.Operator.TRUE;
+        if (!negated) {
+            if (tokenizer.consume("==")) {
+                operator = Condition.Operator.IS_NULL;
+            } else if (tokenizer.consume("!=")) {
+                operator = Condition.Operator.NOT_NULL;
+            }
+            if (operator != Condition.Operator.TRUE && !tokenizer.consumeKeyword("null")) {
+                throw unsupported(expression);
+            }
+        }
+        if (!tokenizer.atEnd()) {
+            throw unsupported(expression);
+        }
+        return new Condition(operator, path);
+    }
+
+    private static ExtractorException unsupported(String expression) {
+        return new ExtractorException(ExtractorException.Kind.UNSUPPORTED, "Unsupported lock expression: " + expression);
+    }
+
+    /**
+     * 参数的属性路径，例如 {@code #order.customer.id}。
+     */
+    static final class Path {
+
+        private final String variable;
+
+        private final List<String> properties;
+
+        Path(String variable, List<String> properties) {
+            this.variable = variable;
+            this.properties = Collections.unmodifiableList(properties);
+        }
+
+        String getVariable() {
+            return variable;
+        }
+
+        List<String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("#").append(variable);
+            for (String property : properties) {
+                builder.append('.').append(property);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * 名称中的一段：字面量或属性路径。
+     */
+    static final class Part {
+
+        private final String literal;
+
+        private final Path path;
+
+        private Part(String literal, Path path) {
+            this.literal = literal;
+            this.path = path;
+        }
+
+        static Part literal(String literal) {
+            return new Part(literal, null);
+        }
+
+        static Part path(Path path) {
+            return new Part(null, path);
+        }
+
+        /**
+         * 获取字面量。
+         *
+         * @return 字面量，属性路径时返回 null
+         */
+        String getLiteral() {
+            return literal;
+        }
+
+        /**
+         * 获取属性路径。
+         *
+         * @return 属性路径，字面量时返回 null
+         */
+        Path getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * 条件表达式：对属性路径的值的判断。
+     */
+    static final class Condition {
+
+        /**
+         * 判断方式。
+         */
+        enum Operator {
+            /**
+             * {@code #flag}
+             */
+            TRUE,
+            /**
+             * {@code !#flag}
+             */
+            NOT,
+            /**
+             * {@code #value == null}
+             */
+            IS_NULL,
+            /**
+             * {@code #value != null}
+             */
+            NOT_NULL
+        }
+
+        private final Operator operator;
+
+        private final Path path;
+
+        Condition(Operator operator, Path path) {
+            this.operator = operator;
+            this.path = path;
+        }
+
+        Operator getOperator() {
+            return operator;
+        }
+
+        Path getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Spring EL 子集的词法分析器。
+     */
+    private static final class Tokenizer {
+
+        private final String input;
+
+        private int position;
+
+        private Tokenizer(String input) {
+            this.input = input;
+        }
+
+        /**
+         * 读取一个属性路径，例如 {@code #order.customer.id}。
+         *
+         * @return 属性路径，当前位置不是属性路径时返回 null
+         */
+        Path nextPath() {
+            skipWhitespace();
+            if (position >= input.length() || input.charAt(position) != '#') {
+                return null;
+            }
+            int start = position;
+            position++;
+            String variable = nextIdentifier();
+            // #root 和 #this 不是方法参数
+            if (variable == null || "root".equals(variable) || "this".equals(variable)) {
+                position = start;
+                return null;
+            }
+            List<String> properties = new ArrayList<>();
+            while (position < input.length() && input.charAt(position) == '.') {
+                position++;
+                String property = nextIdentifier();
+                if (property == null) {
+                    position = start;
+                    return null;
+                }
+                properties.add(property);
+            }
+            // 属性路径后紧跟方法调用、索引或安全导航等写法
+            if (position < input.length() && "([?".indexOf(input.charAt(position)) >= 0) {
+                position = start;
+                return null;
+            }
+            return new Path(variable, properties);
+        }
+
+        /**
+         * 读取一个以单引号或双引号括起的字符串字面量，两个连续的引号表示一个引号。
+         *
+         * @return 字符串的值，当前位置不是字符串字面量时返回 null
+         */
+        String nextString() {
+            skipWhitespace();
+            if (position >= input.length()) {
+                return null;
+            }
+            char quote = input.charAt(position);
+            if (quote != '\'' && quote != '"') {
+                return null;
+            }
+            StringBuilder builder = new StringBuilder();
+            for (int i = position + 1; i < input.length(); i++) {
+                char c = input.charAt(i);
+                if (c == quote) {
+                    if (i + 1 < input.length() && input.charAt(i + 1) == quote) {
+                        builder.append(quote);
+                        i++;
+                        continue;
+                    }
+                    position = i + 1;
+                    return builder.toString();
+                }
+                builder.append(c);
+            }
+            // 未结束的字符串由 Spring EL 在运行时报告
+            return null;
+        }
+
+        /**
+         * 如果当前位置是指定的符号，则跳过该符号。
+         *
+         * @param symbol 符号
+         * @return 是否跳过
+         */
+        boolean consume(String symbol) {
+            skipWhitespace();
+            if (input.startsWith(symbol, position)) {
+                // '!' 之后紧跟 '=' 时为 '!=' 运算符
+                if ("!".equals(symbol) && input.startsWith("!=", position)) {
+                    return false;
+                }
+                position += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 如果当前位置是指定的关键字（不区分大小写），则跳过该关键字。
+         *
+         * @param keyword 关键字
+         * @return 是否跳过
+         */
+        boolean consumeKeyword(String keyword) {
+            skipWhitespace();
+            int end = position + keyword.length();
+            if (input.regionMatches(true, position, keyword, 0, keyword.length())
+                    && (end >= input.length() || !Character.isJavaIdentifierPart(input.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        boolean atEnd() {
+            skipWhitespace();
+            return position >= input.length();
+        }
+
+        private String nextIdentifier() {
+            int start = position;
+            if (position >= input.length() || !Character.isJavaIdentifierStart(input.charAt(position))) {
+                return null;
+            }
+            position++;
+            while (position < input.length() && Character.isJavaIdentifierPart(input.charAt(position))) {
+                position++;
+            }
+            return input.substring(start, position);
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.xcs.unilock.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * UniLock 注解处理器，在编译期为 @UniLock 和 @UniSemaphore 注解中的锁名称与条件表达式生成提取器。
+ *
+ * <p>每个使用了这些注解的类生成一个 {@code <类名>_UniLockExtractors} 类，实现 {@code LockExpressionExtractorProvider}，
+ * 并登记到 {@code META-INF/services} 中，运行时由拦截器通过 {@link java.util.ServiceLoader} 加载，
+ * 读取锁名称时直接调用参数的 getter 方法，不再使用反射。</p>
+ *
+ * <p>表达式引用了不存在的参数，或者名称模板（如 {@code order:{#order.id}}）引用了不存在的属性时，编译失败；
+ * Spring EL 表达式中无法在编译期解析的属性只产生警告，运行时仍然使用 Spring EL 求值。</p>
+ *
+ * @author xcs
+ */
+@SupportedAnnotationTypes({UniLockProcessor.UNI_LOCK, UniLockProcessor.UNI_LOCKS, UniLockProcessor.UNI_SEMAPHORE})
+public class UniLockProcessor extends AbstractProcessor {
+
+    static final String UNI_LOCK = "com.xcs.unilock.annotation.UniLock";
+
+    static final String UNI_LOCKS = "com.xcs.unilock.annotation.UniLocks";
+
+    static final String UNI_SEMAPHORE = "com.xcs.unilock.annotation.UniSemaphore";
+
+    private static final String SERVICE_FILE = "META-INF/services/com.xcs.unilock.aop.LockExpressionExtractorProvider";
+
+    /**
+     * 本次编译生成的所有提取器类
+     */
+    private final Set<String> providers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, ExtractorGenerator> generators = new LinkedHashMap<>();
+        Set<Element> methods = new HashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                // 组合注解上的表达式由运行时的 Spring EL 求值；同时标注了多个注解的方法只处理一次
+                if (element.getKind() != ElementKind.METHOD || !methods.add(element)) {
+                    continue;
+                }
+                ExecutableElement method = (ExecutableElement) element;
+                TypeElement type = (TypeElement) method.getEnclosingElement();
+                ExtractorGenerator generator = generators.get(type);
+                if (generator == null) {
+                    generator = new ExtractorGenerator(processingEnv, type);
+                    if (!generator.isTargetAccessible()) {
+                        continue;
+                    }
+                    generators.put(type, generator);
+                }
+                for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+                    processAnnotation(generator, method, mirror);
+                }
+            }
+        }
+        for (Map.Entry<TypeElement, ExtractorGenerator> entry : generators.entrySet()) {
+            ExtractorGenerator generator = entry.getValue();
+            if (!generator.isEmpty() && providers.add(generator.getQualifiedName())) {
+                writeSource(entry.getKey(), generator);
+            }
+        }
+        if (roundEnv.processingOver() && !providers.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    /**
+     * 处理方法上的一个注解，@UniLocks 中的每个 @UniLock 分别处理。
+     */
+    private void processAnnotation(ExtractorGenerator generator, ExecutableElement method, AnnotationMirror mirror) {
+        String annotationName = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+        if (UNI_LOCKS.equals(annotationName)) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    for (Object value : (List<?>) entry.getValue().getValue()) {
+                        processAnnotation(generator, method, (AnnotationMirror) ((AnnotationValue) value).getValue());
+                    }
+                }
+            }
+            return;
+        }
+        if (!UNI_LOCK.equals(annotationName) && !UNI_SEMAPHORE.equals(annotationName)) {
+            return;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            String attribute = entry.getKey().getSimpleName().toString();
+            Object value = entry.getValue().getValue();
+            if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+                continue;
+            }
+            String expression = (String) value;
+            try {
+                if ("name".equals(attribute) && expression.contains("#")) {
+                    generator.addName(method, expression);
+                } else if ("condition".equals(attribute)) {
+                    generator.addCondition(method, expression);
+                }
+            } catch (ExtractorException e) {
+                report(e, LockExpressionParser.isTemplate(expression) && "name".equals(attribute), method, mirror, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 报告无法生成提取器的原因：表达式中的拼写错误为编译错误，名称模板中无法解析的属性同样为编译错误，
+     * 其余情况运行时退回 Spring EL 求值。
+     */
+    private void report(ExtractorException e, boolean template, Element element, AnnotationMirror mirror, AnnotationValue value) {
+        Messager messager = processingEnv.getMessager();
+        switch (e.getKind()) {
+            case MALFORMED:
+            case UNKNOWN_VARIABLE:
+                messager.printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element, mirror, value);
+                break;
+            case UNRESOLVED_PROPERTY:
+                messager.printMessage(template ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING, e.getMessage(), element, mirror, value);
+                break;
+            case INACCESSIBLE:
+                messager.printMessage(Diagnostic.Kind.WARNING, e.getMessage() + ", falling back to Spring EL", element, mirror, value);
+                break;
+            default:
+                // Spring EL 表达式超出支持的写法属于正常情况，只有名称模板需要提示
+                if (template) {
+                    messager.printMessage(Diagnostic.Kind.WARNING, e.getMessage() + ", falling back to Spring EL", element, mirror, value);
+                }
+                break;
+        }
+    }
+
+    private void writeSource(TypeElement type, ExtractorGenerator generator) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(generator.getQualifiedName(), type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(generator.generate());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write lock expression extractors: " + e, type);
+        }
+    }
+
+    /**
+     * 将生成的类登记到服务文件中，保留增量编译时已经登记的类。
+     */
+    private void writeServiceFile() {
+        Filer filer = processingEnv.getFiler();
+        Set<String> entries = new TreeSet<>(providers);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        entries.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 服务文件尚不存在
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e);
+        }
+    }
+}
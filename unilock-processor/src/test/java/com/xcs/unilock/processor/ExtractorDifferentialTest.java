@@ -0,0 +1,226 @@
+package com.xcs.unilock.processor;
+
+import com.xcs.unilock.annotation.UniLock;
+import com.xcs.unilock.annotation.UniSemaphore;
+import com.xcs.unilock.aop.LockExpressionExtractor;
+import com.xcs.unilock.aop.LockExpressionExtractorProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比生成的提取器与 Spring EL 在相同参数下的求值结果，包括求值抛出异常的情况。
+ *
+ * @author xcs
+ */
+class ExtractorDifferentialTest {
+
+    private static final String[] FIXTURES = {"Customer", "Order", "OrderService"};
+
+    private static final String EXCEPTION = "<exception>";
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @Test
+    void generatedExtractorsMatchSpel(@TempDir Path outputDir) throws Exception {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (String fixture : FIXTURES) {
+            sources.add(TestCompiler.source("fixture." + fixture, resource("/fixtures/differential/fixture/" + fixture + ".java")));
+        }
+        TestCompiler.Result result = TestCompiler.compile(outputDir, sources);
+        Assertions.assertTrue(result.isSuccess(), () -> "Compilation failed: " + result.messages(Diagnostic.Kind.ERROR));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Map<Class<?>, LockExpressionExtractorProvider> providers = new HashMap<>();
+            for (LockExpressionExtractorProvider provider : ServiceLoader.load(LockExpressionExtractorProvider.class, loader)) {
+                providers.put(provider.getTargetClass(), provider);
+            }
+            Class<?> serviceType = loader.loadClass("fixture.OrderService");
+            Class<?> innerType = loader.loadClass("fixture.OrderService$Inner");
+            List<Object> orders = orders(loader);
+
+            List<String> mismatches = new ArrayList<>();
+            int compared = 0;
+            for (Class<?> type : new Class<?>[]{serviceType, innerType}) {
+                LockExpressionExtractorProvider provider = providers.get(type);
+                Assertions.assertNotNull(provider, "No provider generated for " + type.getName());
+                for (Method method : type.getDeclaredMethods()) {
+                    for (String[] expression : expressions(method)) {
+                        boolean condition = expression[1] != null;
+                        String text = condition ? expression[1] : expression[0];
+                        LockExpressionExtractor extractor = provider.getExtractor(methodKey(method), text);
+                        Assertions.assertNotNull(extractor, "No extractor generated for " + method.getName() + ": " + text);
+                        for (Object[] args : arguments(method, orders)) {
+                            String expected = spel(method, text, args, condition);
+                            String actual = extract(extractor, args);
+                            compared++;
+                            if (!expected.equals(actual)) {
+                                mismatches.add(method.getName() + " [" + text + "] " + Arrays.deepToString(args) + ": spel=" + expected + ", generated=" + actual);
+                            }
+                        }
+                    }
+                }
+            }
+            Assertions.assertEquals(180, compared);
+            Assertions.assertTrue(mismatches.isEmpty(), () -> String.join("\n", mismatches));
+        }
+    }
+
+    /**
+     * 方法上所有注解的表达式，每个元素为 {名称, null} 或 {null, 条件}。
+     */
+    private static List<String[]> expressions(Method method) {
+        List<String[]> expressions = new ArrayList<>();
+        for (UniLock uniLock : method.getAnnotationsByType(UniLock.class)) {
+            expressions.add(new String[]{uniLock.name(), null});
+            if (!uniLock.condition().isEmpty()) {
+                expressions.add(new String[]{null, uniLock.condition()});
+            }
+        }
+        UniSemaphore semaphore = method.getAnnotation(UniSemaphore.class);
+        if (semaphore != null) {
+            expressions.add(new String[]{semaphore.name(), null});
+            expressions.add(new String[]{null, semaphore.condition()});
+        }
+        return expressions;
+    }
+
+    /**
+     * 四种订单（包括 null 与属性为 null 的订单）与三种附加值的组合。
+     */
+    private static List<Object[]> arguments(Method method, List<Object> orders) {
+        List<Object[]> arguments = new ArrayList<>();
+        for (Object order : orders) {
+            for (Object extra : new Object[]{null, "s", 3}) {
+                Class<?>[] types = method.getParameterTypes();
+                Object[] args = new Object[types.length];
+                for (int i = 0; i < types.length; i++) {
+                    args[i] = argument(types[i], order, extra);
+                }
+                arguments.add(args);
+            }
+        }
+        return arguments;
+    }
+
+    private static Object argument(Class<?> type, Object order, Object extra) {
+        if (type.getName().equals("fixture.Order")) {
+            return order;
+        } else if (type == int.class) {
+            return 42;
+        } else if (type == String.class) {
+            return extra instanceof String ? extra : null;
+        } else if (type == long[].class) {
+            return order == null ? null : new long[]{1, 2};
+        } else if (type == boolean.class) {
+            return order != null;
+        } else if (type == List.class) {
+            return order == null ? null : Arrays.asList("q");
+        } else if (type == Set.class) {
+            return order == null ? null : new LinkedHashSet<>(Arrays.asList("q", "r"));
+        } else if (type == Object.class) {
+            if (order == null) {
+                return null;
+            }
+            return extra == null ? new int[]{1, 2} : extra instanceof String ? TimeUnit.SECONDS : Arrays.asList(1, 2);
+        } else if (type == BigDecimal.class) {
+            return order == null ? null : new BigDecimal("1.50");
+        } else if (type == Character.class) {
+            return order == null ? null : 'c';
+        }
+        throw new IllegalArgumentException("Unexpected parameter type: " + type);
+    }
+
+    private static List<Object> orders(ClassLoader loader) throws Exception {
+        Class<?> customerType = loader.loadClass("fixture.Customer");
+        Class<?> orderType = loader.loadClass("fixture.Order");
+        Class<?> statusType = loader.loadClass("fixture.Order$Status");
+        Constructor<?> customer = customerType.getConstructor(String.class);
+        Constructor<?> order = orderType.getConstructor(Long.class, customerType, statusType, boolean.class, Boolean.class, int.class, String[].class);
+        Object[] statuses = statusType.getEnumConstants();
+        return Arrays.asList(
+                null,
+                order.newInstance(1L, customer.newInstance("bob"), statuses[0], true, true, 2, new String[]{"a"}),
+                order.newInstance(null, customer.newInstance((Object) null), statuses[1], false, false, 0, new String[0]),
+                order.newInstance(7L, null, null, false, null, 5, null));
+    }
+
+    /**
+     * 按运行时的规则以 Spring EL 求值：名称中带有 #参数 占位符时作为模板解析。
+     */
+    private String spel(Method method, String text, Object[] args, boolean condition) {
+        try {
+            Expression expression = !condition && text.contains("{#")
+                    ? parser.parseExpression(text, new TemplateParserContext("{", "}"))
+                    : parser.parseExpression(text);
+            StandardEvaluationContext context = new StandardEvaluationContext();
+            String[] names = new DefaultParameterNameDiscoverer().getParameterNames(method);
+            for (int i = 0; i < names.length; i++) {
+                context.setVariable(names[i], args[i]);
+            }
+            return String.valueOf(expression.getValue(context, condition ? Boolean.class : String.class));
+        } catch (RuntimeException e) {
+            return EXCEPTION;
+        }
+    }
+
+    private static String extract(LockExpressionExtractor extractor, Object[] args) {
+        try {
+            return String.valueOf(extractor.extract(args));
+        } catch (RuntimeException e) {
+            return EXCEPTION;
+        }
+    }
+
+    private static String methodKey(Method method) {
+        StringBuilder key = new StringBuilder(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(types[i].getTypeName());
+        }
+        return key.append(')').toString();
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = ExtractorDifferentialTest.class.getResourceAsStream(name)) {
+            Assertions.assertNotNull(in, "Missing fixture " + name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.xcs.unilock.processor;
+
+import com.xcs.unilock.annotation.UniLock;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 在测试中运行 javac 和 {@link UniLockProcessor}，编译给定的源文件。
+ *
+ * @author xcs
+ */
+final class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    /**
+     * 编译源文件，生成的类和服务登记文件写入输出目录。
+     *
+     * @param outputDir 输出目录
+     * @param sources   源文件
+     * @return 编译结果
+     */
+    static Result compile(Path outputDir, List<JavaFileObject> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            // 生成的提取器只依赖 unilock-core 和 spring-core
+            List<String> options = Arrays.asList("-classpath", location(UniLock.class) + File.pathSeparator + location(DefaultConversionService.class),
+                    "-d", outputDir.toString(), "-parameters", "-source", "8", "-target", "8", "-Xlint:-options");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+            task.setProcessors(Collections.singletonList(new UniLockProcessor()));
+            boolean success = task.call();
+            return new Result(success, diagnostics.getDiagnostics());
+        }
+    }
+
+    /**
+     * 以字符串内容创建源文件。
+     *
+     * @param className 类的全限定名
+     * @param content   源代码
+     * @return 源文件
+     */
+    static JavaFileObject source(String className, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private static String location(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 编译结果：是否成功以及编译器报告的诊断信息。
+     */
+    static final class Result {
+
+        private final boolean success;
+
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+        private Result(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+        }
+
+        boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * 获取指定级别的诊断信息。
+         *
+         * @param kind 诊断级别
+         * @return 诊断信息的文本
+         */
+        List<String> messages(Diagnostic.Kind kind) {
+            List<String> messages = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == kind) {
+                    messages.add(diagnostic.getMessage(Locale.ROOT));
+                }
+            }
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.xcs.unilock.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 注解处理器在表达式有误或超出支持范围时报告的编译错误与警告。
+ *
+ * @author xcs
+ */
+class UniLockProcessorErrorTest {
+
+    private static final String ORDER = "package fixture;\n"
+            + "public class Order {\n"
+            + "    public Long getId() { return 1L; }\n"
+            + "}\n";
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void unknownParameterInTemplateIsAnError() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"order:{#ordr.id}\") public void lock(Order order) {}");
+        assertError(result, "Unknown variable '#ordr' in lock expression: order:{#ordr.id}, method parameters are [order]");
+    }
+
+    @Test
+    void unknownParameterInSpelIsAnError() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"'order:' + #ordr.id\") public void lock(Order order) {}");
+        assertError(result, "Unknown variable '#ordr' in lock expression: 'order:' + #ordr.id, method parameters are [order]");
+    }
+
+    @Test
+    void unknownParameterInConditionIsAnError() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"x\", condition = \"#flg\") public void lock(boolean flag) {}");
+        assertError(result, "Unknown variable '#flg' in lock expression: #flg, method parameters are [flag]");
+    }
+
+    @Test
+    void unresolvedPropertyInTemplateIsAnError() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"order:{#order.idd}\") public void lock(Order order) {}");
+        assertError(result, "Cannot resolve property 'idd' on type fixture.Order in '#order.idd' of lock expression: order:{#order.idd}");
+    }
+
+    @Test
+    void unterminatedPlaceholderIsAnError() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"order:{#order.id\") public void lock(Order order) {}");
+        assertError(result, "Unterminated placeholder in lock name template: order:{#order.id");
+    }
+
+    @Test
+    void unsupportedPlaceholderFallsBackToSpelWithWarning() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"order:{#order.id + 1}\") public void lock(Order order) {}");
+        Assertions.assertTrue(result.isSuccess(), () -> "Unexpected errors: " + result.messages(Diagnostic.Kind.ERROR));
+        Assertions.assertEquals(Collections.singletonList("Placeholder {#order.id + 1} is not a parameter property path such as {#order.id}: "
+                + "order:{#order.id + 1}, falling back to Spring EL"), result.messages(Diagnostic.Kind.WARNING));
+        Assertions.assertFalse(Files.exists(outputDir.resolve("fixture/Service_UniLockExtractors.class")));
+    }
+
+    @Test
+    void unresolvedPropertyInSpelIsOnlyAWarning() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"'obj:' + #o.foo\") public void lock(Object o) {}");
+        Assertions.assertTrue(result.isSuccess(), () -> "Unexpected errors: " + result.messages(Diagnostic.Kind.ERROR));
+        List<String> warnings = result.messages(Diagnostic.Kind.WARNING);
+        Assertions.assertEquals(1, warnings.size(), warnings::toString);
+        Assertions.assertTrue(warnings.get(0).contains("'foo'"), warnings::toString);
+    }
+
+    @Test
+    void unsupportedSpelFallsBackSilently() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"#order.id + #n\") public void lock(Order order, int n) {}");
+        Assertions.assertTrue(result.isSuccess(), () -> "Unexpected errors: " + result.messages(Diagnostic.Kind.ERROR));
+        Assertions.assertEquals(Collections.emptyList(), result.messages(Diagnostic.Kind.WARNING));
+    }
+
+    @Test
+    void supportedExpressionsCompileCleanly() throws IOException {
+        TestCompiler.Result result = compile("@UniLock(name = \"order:{#order.id}\", condition = \"#order != null\") public void lock(Order order) {}");
+        Assertions.assertTrue(result.isSuccess(), () -> "Unexpected errors: " + result.messages(Diagnostic.Kind.ERROR));
+        Assertions.assertEquals(Collections.emptyList(), result.messages(Diagnostic.Kind.WARNING));
+        Assertions.assertTrue(Files.exists(outputDir.resolve("fixture/Service_UniLockExtractors.class")));
+    }
+
+    private TestCompiler.Result compile(String method) throws IOException {
+        String service = "package fixture;\n"
+                + "import com.xcs.unilock.annotation.UniLock;\n"
+                + "public class Service {\n"
+                + "    " + method + "\n"
+                + "}\n";
+        return TestCompiler.compile(outputDir, Arrays.asList(TestCompiler.source("fixture.Order", ORDER), TestCompiler.source("fixture.Service", service)));
+    }
+
+    private static void assertError(TestCompiler.Result result, String message) {
+        Assertions.assertFalse(result.isSuccess());
+        Assertions.assertEquals(Collections.singletonList(message), result.messages(Diagnostic.Kind.ERROR));
+    }
+}
@@ -0,0 +1,14 @@
+package fixture;
+
+public class Customer {
+
+    private final String name;
+
+    public Customer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,62 @@
+package fixture;
+
+public class Order {
+
+    public enum Status {
+        NEW,
+        PAID {
+            @Override
+            public String toString() {
+                return "paid!";
+            }
+        }
+    }
+
+    private final Long id;
+
+    private final Customer customer;
+
+    private final Status status;
+
+    private final boolean vip;
+
+    private final Boolean flag;
+
+    public final int qty;
+
+    private final String[] tags;
+
+    public Order(Long id, Customer customer, Status status, boolean vip, Boolean flag, int qty, String[] tags) {
+        this.id = id;
+        this.customer = customer;
+        this.status = status;
+        this.vip = vip;
+        this.flag = flag;
+        this.qty = qty;
+        this.tags = tags;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isVip() {
+        return vip;
+    }
+
+    public Boolean getFlag() {
+        return flag;
+    }
+
+    public String[] getTags() {
+        return tags;
+    }
+}
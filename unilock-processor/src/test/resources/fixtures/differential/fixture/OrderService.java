@@ -0,0 +1,47 @@
+package fixture;
+
+import com.xcs.unilock.annotation.UniLock;
+import com.xcs.unilock.annotation.UniSemaphore;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+public class OrderService {
+
+    @UniLock(name = "'order:' + #order.id", condition = "#order.vip")
+    @UniLock(name = "order:{#order.customer.name}:{#order.status}", condition = "!#order.flag")
+    public void concatAndTemplate(Order order) {
+    }
+
+    @UniLock(name = "#order.id", condition = "#order.customer != null")
+    public void boxedName(Order order, int n) {
+    }
+
+    @UniLock(name = "#n + ':' + #order.status + ':' + #order.qty + #order.tags.length", condition = "#order.flag")
+    public void mixedTypes(Order order, int n) {
+    }
+
+    @UniLock(name = "{#order.customer.name}")
+    public void placeholderOnly(Order order) {
+    }
+
+    @UniLock(name = "'x:' + #s + #order.customer.name", condition = "#order.customer == null")
+    public void nullCheck(Order order, String s) {
+    }
+
+    @UniSemaphore(maxPermits = 3, name = "'sem:' + #ids.length", condition = "#flag")
+    public void semaphore(long[] ids, boolean flag) {
+    }
+
+    @UniLock(name = "'t:' + #tags + ':' + #o + ':' + #big + ':' + #ch")
+    public void conversions(Set<String> tags, Object o, BigDecimal big, Character ch) {
+    }
+
+    public static class Inner {
+
+        @UniLock(name = "in:{#x}")
+        public void nested(List<String> x) {
+        }
+    }
+}
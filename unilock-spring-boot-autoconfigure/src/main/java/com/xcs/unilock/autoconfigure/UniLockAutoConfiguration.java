@@ -1,9 +1,26 @@
 package com.xcs.unilock.autoconfigure;
 
 import com.xcs.unilock.UniLockDistributed;
+import com.xcs.unilock.UniSemaphoreDistributed;
 import com.xcs.unilock.aop.UniLockAdvisor;
+import com.xcs.unilock.aop.UniLockRouter;
+import com.xcs.unilock.aop.UniLockTemplate;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import com.xcs.unilock.timer.HashedWheelTimer;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * UniLockAutoConfiguration 是一个自动配置类，负责注册分布式锁的切面（Advisor）。
@@ -12,17 +29,145 @@ import org.springframework.context.annotation.Configuration;
  * @author xcs
  */
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({UniLockProperties.class})
 @SuppressWarnings({"SpringJavaInjectionPointsAutowiringInspection"})
 public class UniLockAutoConfiguration {
 
     /**
-     * 注册 UniLockAdvisor Bean，用于拦截带有 @UniLock 和 @UniLocks 注解的方法。
+     * 注册 UniLockDistributedPostProcessor Bean，用于将通用配置应用到每一个分布式锁实现。
+     *
+     * @param properties   UniLock 通用的配置属性
+     * @param waitStrategy 用户自定义的等待策略
+     * @param renewalTimer 锁续期的时间轮定时器
+     * @param metrics      分布式锁的指标记录器
+     * @return UniLockDistributedPostProcessor 对象
+     */
+    @Bean
+    public static UniLockDistributedPostProcessor uniLockDistributedPostProcessor(ObjectProvider<UniLockProperties> properties,
+                                                                                  ObjectProvider<WaitStrategy> waitStrategy,
+                                                                                  ObjectProvider<HashedWheelTimer> renewalTimer,
+                                                                                  ObjectProvider<UniLockMetrics> metrics) {
+        return new UniLockDistributedPostProcessor(properties, waitStrategy, renewalTimer, metrics);
+    }
+
+    /**
+     * 注册锁续期的时间轮定时器，所有分布式锁实现共享同一个时间轮，并随 Spring 容器关闭而停止。
+     *
+     * @param properties UniLock 通用的配置属性
+     * @return HashedWheelTimer 对象
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public HashedWheelTimer uniLockRenewalTimer(UniLockProperties properties) {
+        UniLockProperties.Renewal renewal = properties.getRenewal();
+        return new HashedWheelTimer(renewal.getTickDuration(), TimeUnit.MILLISECONDS, renewal.getTicksPerWheel(), renewal.getThreads());
+    }
+
+    /**
+     * 注册 UniLockRouter Bean，在同时配置了多个分布式锁实现时，按 @UniLock 与 @UniSemaphore 注解的 backend 属性和
+     * {@code spring.unilock.routing} 中的路由规则为每把锁和每个信号量选择使用的实现。
      *
-     * @param uniLockDistributed 分布式锁的实现，提供锁的获取和释放操作
+     * <p>分布式信号量以其所基于的分布式锁实现的 Bean 名称登记，不依赖任何分布式锁实现的信号量以自身的 Bean 名称登记。</p>
+     *
+     * @param backends           Bean 名称到分布式锁实现的映射
+     * @param semaphores         Bean 名称到分布式信号量实现的映射
+     * @param uniLockDistributed 唯一的或者 @Primary 的分布式锁实现，作为未配置默认实现时的默认实现
+     * @param beanFactory        用于查找分布式信号量所依赖的分布式锁实现
+     * @param properties         UniLock 通用的配置属性
+     * @param metrics            分布式锁的指标记录器
+     * @return UniLockRouter 对象
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public UniLockRouter uniLockRouter(Map<String, UniLockDistributed<?>> backends, Map<String, UniSemaphoreDistributed<?>> semaphores,
+                                       ObjectProvider<UniLockDistributed<?>> uniLockDistributed, ConfigurableListableBeanFactory beanFactory,
+                                       UniLockProperties properties, ObjectProvider<UniLockMetrics> metrics) {
+        if (backends.isEmpty()) {
+            throw new IllegalStateException("No UniLockDistributed bean configured, enable one of the "
+                    + UniLockProperties.CONFIG_PREFIX + ".{local,jedis,redisson,zookeeper,etcd,mysql} backends or register one");
+        }
+        UniLockProperties.Routing routing = properties.getRouting();
+        String defaultBackend = routing.getDefaultBackend();
+        if (!StringUtils.hasText(defaultBackend)) {
+            defaultBackend = findBackendName(backends, uniLockDistributed.getIfUnique());
+        }
+        List<UniLockRouter.Rule> rules = new ArrayList<>(routing.getRules().size());
+        for (UniLockProperties.Rule rule : routing.getRules()) {
+            rules.add(new UniLockRouter.Rule(rule.getPattern(), rule.getBackend()));
+        }
+        UniLockRouter router = new UniLockRouter(backends, defaultBackend, rules, semaphoreBackends(backends, semaphores, beanFactory));
+        metrics.ifUnique(router::setMetrics);
+        return router;
+    }
+
+    /**
+     * 注册 UniLockAdvisor Bean，用于拦截带有 @UniLock、@UniLocks 和 @UniSemaphore 注解的方法。
+     *
+     * @param router 分布式锁实现的路由，为每把锁和每个信号量选择使用的实现
      * @return UniLockAdvisor 对象，负责处理分布式锁的 AOP 逻辑
      */
     @Bean
-    public UniLockAdvisor uniLockAdvisor(UniLockDistributed uniLockDistributed) {
-        return new UniLockAdvisor(uniLockDistributed);
+    public UniLockAdvisor uniLockAdvisor(UniLockRouter router) {
+        return new UniLockAdvisor(router);
+    }
+
+    /**
+     * 注册 UniLockTemplate Bean，用于不经过 AOP 代理、以编程方式获取分布式锁，使用默认的分布式锁实现。
+     * 其他实现对应的模板可以通过 {@link UniLockRouter#getTemplate(String)} 获取。
+     *
+     * @param router 分布式锁实现的路由
+     * @return UniLockTemplate 对象
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public UniLockTemplate uniLockTemplate(UniLockRouter router) {
+        return router.getDefaultTemplate();
+    }
+
+    /**
+     * 按分布式信号量所依赖的分布式锁实现的 Bean 名称登记分布式信号量。
+     *
+     * @param backends    Bean 名称到分布式锁实现的映射
+     * @param semaphores  Bean 名称到分布式信号量实现的映射
+     * @param beanFactory 用于查找分布式信号量所依赖的 Bean
+     * @return 分布式锁实现的 Bean 名称到分布式信号量实现的映射
+     * @throws IllegalStateException 多个分布式信号量依赖同一个分布式锁实现
+     */
+    private static Map<String, UniSemaphoreDistributed<?>> semaphoreBackends(Map<String, UniLockDistributed<?>> backends,
+                                                                           Map<String, UniSemaphoreDistributed<?>> semaphores,
+                                                                           ConfigurableListableBeanFactory beanFactory) {
+        Map<String, UniSemaphoreDistributed<?>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, UniSemaphoreDistributed<?>> entry : semaphores.entrySet()) {
+            String backend = entry.getKey();
+            for (String dependency : beanFactory.getDependenciesForBean(entry.getKey())) {
+                if (backends.containsKey(dependency)) {
+                    backend = dependency;
+                    break;
+                }
+            }
+            UniSemaphoreDistributed<?> previous = result.put(backend, entry.getValue());
+            if (previous != null) {
+                throw new IllegalStateException("Multiple UniSemaphoreDistributed beans found for backend: " + backend);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查找默认的分布式锁实现的 Bean 名称。
+     *
+     * @param backends           Bean 名称到分布式锁实现的映射
+     * @param uniLockDistributed 唯一的或者 @Primary 的分布式锁实现
+     * @return Bean 名称
+     * @throws IllegalStateException 存在多个实现且没有配置默认实现
+     */
+    private static String findBackendName(Map<String, UniLockDistributed<?>> backends, UniLockDistributed<?> uniLockDistributed) {
+        for (Map.Entry<String, UniLockDistributed<?>> entry : backends.entrySet()) {
+            if (entry.getValue() == uniLockDistributed) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Multiple UniLockDistributed beans found " + backends.keySet() + ", set "
+                + UniLockProperties.CONFIG_PREFIX + ".routing.default-backend or mark one of them as @Primary");
     }
 }
@@ -0,0 +1,65 @@
+package com.xcs.unilock.autoconfigure;
+
+import com.xcs.unilock.AbstractUniLockDistributed;
+import com.xcs.unilock.AbstractUniSemaphoreDistributed;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import com.xcs.unilock.timer.HashedWheelTimer;
+import com.xcs.unilock.wait.WaitStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * UniLockDistributedPostProcessor 负责将通用配置应用到容器中的每一个分布式锁实现。
+ * 用户自定义的等待策略同样应用到每一个分布式信号量实现。
+ * 无论分布式锁由自动配置创建还是由用户自定义，都会在初始化之前应用 {@link UniLockProperties} 中的配置。
+ *
+ * @author xcs
+ */
+@SuppressWarnings({"NullableProblems", "rawtypes"})
+public class UniLockDistributedPostProcessor implements BeanPostProcessor {
+
+    /**
+     * UniLock 通用的配置属性，延迟获取以避免过早初始化。
+     */
+    private final ObjectProvider<UniLockProperties> properties;
+
+    /**
+     * 用户自定义的等待策略，如果存在则应用到所有分布式锁实现。
+     */
+    private final ObjectProvider<WaitStrategy> waitStrategy;
+
+    /**
+     * 锁续期的时间轮定时器，所有分布式锁实现共享同一个时间轮。
+     */
+    private final ObjectProvider<HashedWheelTimer> renewalTimer;
+
+    /**
+     * 指标记录器，如果存在则应用到所有分布式锁实现。
+     */
+    private final ObjectProvider<UniLockMetrics> metrics;
+
+    public UniLockDistributedPostProcessor(ObjectProvider<UniLockProperties> properties, ObjectProvider<WaitStrategy> waitStrategy,
+                                           ObjectProvider<HashedWheelTimer> renewalTimer, ObjectProvider<UniLockMetrics> metrics) {
+        this.properties = properties;
+        this.waitStrategy = waitStrategy;
+        this.renewalTimer = renewalTimer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractUniLockDistributed) {
+            AbstractUniLockDistributed distributed = (AbstractUniLockDistributed) bean;
+            properties.ifAvailable(props -> {
+                distributed.setLocalLockEnabled(props.isLocalLockEnabled());
+                distributed.setLeaseAwareFailFast(props.isLeaseAwareFailFast());
+            });
+            waitStrategy.ifUnique(distributed::setWaitStrategy);
+            renewalTimer.ifUnique(distributed::setRenewalTimer);
+            metrics.ifUnique(distributed::setMetrics);
+        } else if (bean instanceof AbstractUniSemaphoreDistributed) {
+            waitStrategy.ifUnique(((AbstractUniSemaphoreDistributed) bean)::setWaitStrategy);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,117 @@
+package com.xcs.unilock.autoconfigure;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UniLock 通用的配置属性类。
+ * 该类用于从配置文件中读取和存储与具体分布式锁实现无关的配置信息。
+ *
+ * @author xcs
+ */
+@Data
+@ConfigurationProperties(UniLockProperties.CONFIG_PREFIX)
+public class UniLockProperties {
+
+    public static final String CONFIG_PREFIX = "spring.unilock";
+
+    /**
+     * 是否在远程锁之前启用本地锁。
+     * 开启后，同一 JVM 内竞争同一把锁的线程先在本地排队，只有一个线程会去竞争远程锁。
+     */
+    private boolean localLockEnabled = false;
+
+    /**
+     * 锁当前持有者的剩余持有时间超过剩余等待时间时是否直接放弃获取锁。
+     * 只对能够提供剩余持有时间的实现（如 Jedis 的互斥锁）生效；持有者通常在过期之前主动释放锁，因此默认关闭。
+     */
+    private boolean leaseAwareFailFast = false;
+
+    /**
+     * 锁续期时间轮的配置。
+     */
+    private Renewal renewal = new Renewal();
+
+    /**
+     * 指标的配置。
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * 同时配置了多个分布式锁实现时的路由配置。
+     */
+    private Routing routing = new Routing();
+
+    /**
+     * 锁续期时间轮的相关属性配置。
+     */
+    @Data
+    public static class Renewal {
+
+        /**
+         * 时间轮每个 tick 的时长（毫秒），决定续期任务的触发精度。
+         */
+        private long tickDuration = 100;
+
+        /**
+         * 时间轮的槽位数量，会向上取整为 2 的幂。
+         */
+        private int ticksPerWheel = 512;
+
+        /**
+         * 执行续期任务的线程数，为 0 时直接在时间轮的工作线程中执行。
+         */
+        private int threads = 2;
+    }
+
+    /**
+     * 指标的相关属性配置。
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * 存在 Micrometer 的 MeterRegistry 时是否记录分布式锁的指标。
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * 多个分布式锁实现之间的路由配置。
+     * <p>分布式锁实现以其在 Spring 容器中的 Bean 名称标识，例如 {@code jedisDistributedLock}、{@code etcdDistributedLock}。
+     * 标注 @UniSemaphore 注解的信号量使用相同的路由，选择基于对应分布式锁实现的分布式信号量。</p>
+     */
+    @Data
+    public static class Routing {
+
+        /**
+         * 默认的分布式锁实现。只有一个实现或者有一个 @Primary 实现时可以不配置。
+         */
+        private String defaultBackend;
+
+        /**
+         * 按顺序匹配的路由规则，第一个与锁名称或信号量名称匹配的规则生效，注解指定了 backend 属性时不使用路由规则。
+         */
+        private List<Rule> rules = new ArrayList<>();
+    }
+
+    /**
+     * 锁名称模式到分布式锁实现的路由规则。
+     */
+    @Data
+    public static class Rule {
+
+        /**
+         * 锁名称模式，支持 {@code *} 通配符，例如 {@code order:*}。
+         */
+        private String pattern;
+
+        /**
+         * 匹配的锁使用的分布式锁实现的 Bean 名称。
+         */
+        private String backend;
+    }
+}
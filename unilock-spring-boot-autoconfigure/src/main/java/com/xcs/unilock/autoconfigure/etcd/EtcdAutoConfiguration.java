@@ -1,6 +1,7 @@
 package com.xcs.unilock.autoconfigure.etcd;
 
 import com.xcs.unilock.etcd.EtcdUniLockDistributed;
+import com.xcs.unilock.etcd.EtcdUniSemaphoreDistributed;
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.ClientBuilder;
@@ -66,4 +67,11 @@ public class EtcdAutoConfiguration {
                 .waitForReady(options.isWaitForReady());
         return new EtcdUniLockDistributed(clientBuilder.build());
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = EtcdLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EtcdUniSemaphoreDistributed etcdDistributedSemaphore(EtcdUniLockDistributed etcdDistributedLock) {
+        return new EtcdUniSemaphoreDistributed(etcdDistributedLock.getClient());
+    }
 }
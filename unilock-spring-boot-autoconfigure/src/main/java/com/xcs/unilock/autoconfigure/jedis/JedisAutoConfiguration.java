@@ -1,6 +1,8 @@
 package com.xcs.unilock.autoconfigure.jedis;
 
+import com.xcs.unilock.jedis.JedisKeyLayout;
 import com.xcs.unilock.jedis.JedisUniLockDistributed;
+import com.xcs.unilock.jedis.JedisUniSemaphoreDistributed;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -41,7 +43,22 @@ public class JedisAutoConfiguration {
         UnifiedJedis jedis = Optional.ofNullable(getSentinelConfig(properties))
                 .orElse(Optional.ofNullable(getClusterConfig(properties))
                         .orElse(getStandaloneConfig(properties)));
-        return new JedisUniLockDistributed(jedis);
+        JedisUniLockDistributed jedisDistributedLock = new JedisUniLockDistributed(jedis);
+        jedisDistributedLock.setUnlockNotificationEnabled(properties.isUnlockNotificationEnabled());
+        jedisDistributedLock.setServerReentrant(properties.isServerReentrant());
+        jedisDistributedLock.setKeyLayout(new JedisKeyLayout(properties.getKeyPrefix(), properties.getHashTagPattern()));
+        jedisDistributedLock.setFencingTokenTtl(properties.getFencingTokenTtl());
+        return jedisDistributedLock;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = JedisLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public JedisUniSemaphoreDistributed jedisDistributedSemaphore(JedisUniLockDistributed jedisDistributedLock) {
+        // 与分布式锁共用同一个客户端、Lua 脚本注册表和 key 的布局
+        JedisUniSemaphoreDistributed jedisDistributedSemaphore = new JedisUniSemaphoreDistributed(jedisDistributedLock.getScriptRegistry());
+        jedisDistributedSemaphore.setKeyLayout(jedisDistributedLock.getKeyLayout());
+        return jedisDistributedSemaphore;
     }
 
     /**
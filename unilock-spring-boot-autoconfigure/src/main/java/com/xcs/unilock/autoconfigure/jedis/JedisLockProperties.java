@@ -58,6 +58,36 @@ public class JedisLockProperties {
      */
     private String clientName;
 
+    /**
+     * 是否在释放锁时通过发布订阅唤醒等待该锁的线程，关闭后等待锁的线程按等待策略轮询。集群模式下始终轮询。
+     */
+    private boolean unlockNotificationEnabled = true;
+
+    /**
+     * 互斥锁是否以 Hash 存储持有者及其重入次数，由 Redis 记录重入次数。持有者按 LockOwner 区分，同步获取的锁只能由同一持有者重入和释放，跨线程时需绑定该持有者。
+     * 与默认格式的 key 类型不同，同一把锁的所有客户端必须使用相同的配置。
+     */
+    private boolean serverReentrant = false;
+
+    /**
+     * 锁与信号量的 key 的前缀。修改前缀后，锁名称中没有 hash tag 的互斥锁的栅栏令牌计数器随之改变，令牌从 1 重新开始。
+     */
+    private String keyPrefix;
+
+    /**
+     * 从锁名称中提取 hash tag 的正则表达式，以第一个捕获组匹配的部分作为 hash tag，
+     * 例如 "^tenant:([^:]+):" 将 "tenant:42:order:7" 映射为 "tenant:{42}:order:7"，使同一租户的锁位于同一个集群槽位。
+     * 锁名称本身带有 hash tag 时不再提取。修改后，匹配的互斥锁的栅栏令牌计数器随之改变，令牌从 1 重新开始。
+     */
+    private String hashTagPattern;
+
+    /**
+     * 栅栏令牌计数器的过期时间（毫秒），默认为 0，计数器永不过期，每个用过的锁名称都会在 Redis 中保留一个计数器。
+     * 锁名称包含业务参数时建议设置，取值必须大于锁的最长持有时间（包括续期）加上下游校验栅栏令牌所需的时间，
+     * 计数器过期后再次获取锁时令牌从 1 重新开始。
+     */
+    private long fencingTokenTtl = 0;
+
     /**
      * Redis哨兵模式
      */
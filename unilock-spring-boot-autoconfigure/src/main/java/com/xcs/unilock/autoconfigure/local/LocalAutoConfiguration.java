@@ -0,0 +1,28 @@
+package com.xcs.unilock.autoconfigure.local;
+
+import com.xcs.unilock.local.LocalUniLockDistributed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 内存锁的自动配置类。
+ * 该类负责在引入 unilock-local 时自动创建基于内存的分布式锁，适用于单实例部署和单元测试。
+ *
+ * @author xcs
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({LocalUniLockDistributed.class})
+@EnableConfigurationProperties({LocalLockProperties.class})
+public class LocalAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = LocalLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LocalUniLockDistributed localDistributedLock(LocalLockProperties properties) {
+        return new LocalUniLockDistributed(properties.getSegments(), properties.getPurgeInterval());
+    }
+}
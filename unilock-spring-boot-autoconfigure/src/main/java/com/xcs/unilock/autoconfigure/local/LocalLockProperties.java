@@ -0,0 +1,33 @@
+package com.xcs.unilock.autoconfigure.local;
+
+import com.xcs.unilock.local.LocalUniLockDistributed;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内存锁的属性配置类。
+ * 该类用于配置基于内存的分布式锁，如是否启用内存锁、锁表的段数量以及过期锁的清理间隔。
+ *
+ * @author xcs
+ */
+@Data
+@ConfigurationProperties(LocalLockProperties.CONFIG_PREFIX)
+public class LocalLockProperties {
+
+    public static final String CONFIG_PREFIX = "spring.unilock.local";
+
+    /**
+     * 是否启用内存锁。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 锁表的段数量，会向上取整为 2 的幂。段越多，并发获取不同锁时的竞争越少。
+     */
+    private int segments = LocalUniLockDistributed.DEFAULT_SEGMENTS;
+
+    /**
+     * 过期锁的清理间隔（毫秒）。
+     */
+    private long purgeInterval = LocalUniLockDistributed.DEFAULT_PURGE_INTERVAL;
+}
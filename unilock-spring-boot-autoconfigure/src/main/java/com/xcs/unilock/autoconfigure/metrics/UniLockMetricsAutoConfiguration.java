@@ -0,0 +1,40 @@
+package com.xcs.unilock.autoconfigure.metrics;
+
+import com.xcs.unilock.autoconfigure.UniLockProperties;
+import com.xcs.unilock.metrics.MicrometerUniLockMetrics;
+import com.xcs.unilock.metrics.UniLockMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 分布式锁指标的自动配置类。
+ * 当类路径中存在 Micrometer 且容器中存在 MeterRegistry 时，注册基于 Micrometer 的指标记录器，
+ * 由 UniLockDistributedPostProcessor 和 UniLockAdvisor 使用；否则分布式锁不记录任何指标。
+ *
+ * @author xcs
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnProperty(prefix = UniLockProperties.CONFIG_PREFIX + ".metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UniLockMetricsAutoConfiguration {
+
+    /**
+     * 创建基于 Micrometer 的指标记录器。
+     *
+     * @param meterRegistry 指标注册表
+     * @return UniLockMetrics 对象
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public UniLockMetrics uniLockMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerUniLockMetrics(meterRegistry);
+    }
+}
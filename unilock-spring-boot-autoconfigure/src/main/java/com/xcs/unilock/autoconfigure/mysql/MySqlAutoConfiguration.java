@@ -3,6 +3,7 @@ package com.xcs.unilock.autoconfigure.mysql;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.mysql.cj.jdbc.Driver;
 import com.xcs.unilock.mysql.MySqlUniLockDistributed;
+import com.xcs.unilock.mysql.MySqlUniSemaphoreDistributed;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -42,6 +43,15 @@ public class MySqlAutoConfiguration {
         dataSource.setMaxActive(properties.getOptions().getMaxActive());
         dataSource.setMinIdle(properties.getOptions().getMinIdle());
         dataSource.setMaxWait(properties.getOptions().getMaxWait());
-        return new MySqlUniLockDistributed(dataSource);
+        MySqlUniLockDistributed mySqlDistributedLock = new MySqlUniLockDistributed(dataSource);
+        mySqlDistributedLock.setFencingTokenRetention(properties.getFencingTokenRetention());
+        return mySqlDistributedLock;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = MySqlLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MySqlUniSemaphoreDistributed mySqlDistributedSemaphore(MySqlUniLockDistributed mySqlDistributedLock) {
+        return new MySqlUniSemaphoreDistributed(mySqlDistributedLock.getDataSource());
     }
 }
@@ -45,6 +45,13 @@ public class MySqlLockProperties {
      */
     private String driverClassName;
 
+    /**
+     * 栅栏令牌记录的保留时间（毫秒），默认为 0，令牌记录永久保留，每个用过的锁名称都会在 distributed_lock_tokens 表中保留一行。
+     * 设置后按该时间间隔删除长时间未被获取且当前没有被持有的锁的记录，取值必须大于锁的最长持有时间（包括续期）
+     * 加上下游校验栅栏令牌所需的时间，记录删除后再次获取锁时令牌从 1 重新开始。
+     */
+    private long fencingTokenRetention = 0;
+
     /**
      * MySQL连接池的配置选项。
      * 包含与连接池相关的属性，如初始连接数、最大活动连接数等。
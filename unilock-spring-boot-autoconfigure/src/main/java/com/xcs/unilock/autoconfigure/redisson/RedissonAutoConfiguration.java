@@ -1,6 +1,7 @@
 package com.xcs.unilock.autoconfigure.redisson;
 
 import com.xcs.unilock.redisson.RedissonUniLockDistributed;
+import com.xcs.unilock.redisson.RedissonUniSemaphoreDistributed;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -53,6 +54,13 @@ public class RedissonAutoConfiguration {
         return new RedissonUniLockDistributed(Redisson.create(config));
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = RedissonLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedissonUniSemaphoreDistributed redissonDistributedSemaphore(RedissonUniLockDistributed redissonDistributedLock) {
+        return new RedissonUniSemaphoreDistributed(redissonDistributedLock.getRedissonClient());
+    }
+
     /**
      * 获取 Redis 单节点模式的配置。
      *
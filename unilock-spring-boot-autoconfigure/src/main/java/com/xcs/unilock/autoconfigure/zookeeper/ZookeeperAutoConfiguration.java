@@ -1,6 +1,7 @@
 package com.xcs.unilock.autoconfigure.zookeeper;
 
 import com.xcs.unilock.zookeeper.ZookeeperUniLockDistributed;
+import com.xcs.unilock.zookeeper.ZookeeperUniSemaphoreDistributed;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
@@ -47,6 +48,15 @@ public class ZookeeperAutoConfiguration {
         if (!properties.getOptions().isUseContainerParentsIfAvailable()) {
             builder.dontUseContainerParents();
         }
-        return new ZookeeperUniLockDistributed(builder.build());
+        ZookeeperUniLockDistributed zookeeperDistributedLock = new ZookeeperUniLockDistributed(builder.build());
+        zookeeperDistributedLock.setLeaseLayoutEnabled(properties.isLeaseLayoutEnabled());
+        return zookeeperDistributedLock;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ZookeeperLockProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ZookeeperUniSemaphoreDistributed zookeeperDistributedSemaphore(ZookeeperUniLockDistributed zookeeperDistributedLock) {
+        return new ZookeeperUniSemaphoreDistributed(zookeeperDistributedLock.getCuratorFramework());
     }
 }
@@ -27,6 +27,12 @@ public class ZookeeperLockProperties {
      */
     private String connectString;
 
+    /**
+     * 互斥锁是否使用信号量租约的节点布局，开启后才支持异步获取锁，关闭时返回 CompletionStage 或 Reactor 类型的方法上的 @UniLock 在启动时报错。
+     * 新旧布局的客户端互相看不到对方持有的锁，只有在所有客户端都升级之后才能统一开启。
+     */
+    private boolean leaseLayoutEnabled = false;
+
     /**
      * Zookeeper连接的详细选项配置。
      */